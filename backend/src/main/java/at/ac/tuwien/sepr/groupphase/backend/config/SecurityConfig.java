@@ -1,6 +1,7 @@
 package at.ac.tuwien.sepr.groupphase.backend.config;
 
 import at.ac.tuwien.sepr.groupphase.backend.security.JwtAuthorizationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -37,6 +38,8 @@ public class SecurityConfig {
             .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .headers(h -> h.frameOptions(HeadersConfigurer.FrameOptionsConfig::disable))
             .authorizeHttpRequests(auth -> auth
+                // streamed responses are written in an async dispatch of a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/v1/chats/uploads/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/v1/properties/lookup-area").permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
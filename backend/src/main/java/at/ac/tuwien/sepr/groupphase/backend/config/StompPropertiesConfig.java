@@ -0,0 +1,61 @@
+package at.ac.tuwien.sepr.groupphase.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+public class StompPropertiesConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "chat.stomp")
+    protected Stomp stomp() {
+        return new Stomp();
+    }
+
+    @Getter
+    @Setter
+    public static class Stomp {
+        private ChannelPool inbound = new ChannelPool();
+        private ChannelPool outbound = new ChannelPool();
+        private DataSize messageSizeLimit = DataSize.ofKilobytes(64);
+        private Duration sendTimeLimit = Duration.ofSeconds(10);
+        private DataSize sendBufferSizeLimit = DataSize.ofKilobytes(512);
+        private Duration timeToFirstMessage = Duration.ofMinutes(1);
+        private Relay relay = new Relay();
+    }
+
+    /**
+     * Thread pool of a client channel. Tasks beyond the queue capacity are rejected once all threads are busy.
+     */
+    @Getter
+    @Setter
+    public static class ChannelPool {
+        private int corePoolSize = 8;
+        private int maxPoolSize = 32;
+        private int queueCapacity = 10000;
+        private Duration keepAlive = Duration.ofMinutes(1);
+    }
+
+    /**
+     * External STOMP broker that replaces the in-memory simple broker, so messages reach the sessions of every
+     * backend instance. Needs reactor-netty on the classpath, see the broker-relay Maven profile.
+     */
+    @Getter
+    @Setter
+    public static class Relay {
+        private boolean enabled = false;
+        private String host = "localhost";
+        private int port = 61613;
+        private String clientLogin = "guest";
+        private String clientPasscode = "guest";
+        private String systemLogin = "guest";
+        private String systemPasscode = "guest";
+        private String virtualHost;
+    }
+}
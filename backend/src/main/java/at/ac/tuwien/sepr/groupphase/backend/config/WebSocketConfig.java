@@ -1,23 +1,35 @@
 package at.ac.tuwien.sepr.groupphase.backend.config;
 
 import at.ac.tuwien.sepr.groupphase.backend.config.interceptors.ChatAuthorizationInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.messaging.simp.config.TaskExecutorRegistration;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.lang.invoke.MethodHandles;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
     private final ChatAuthorizationInterceptor chatAuthorizationInterceptor;
+    private final StompPropertiesConfig.Stomp stomp;
 
     @Autowired
-    public WebSocketConfig(ChatAuthorizationInterceptor chatAuthorizationInterceptor) {
+    public WebSocketConfig(ChatAuthorizationInterceptor chatAuthorizationInterceptor, StompPropertiesConfig.Stomp stomp) {
         this.chatAuthorizationInterceptor = chatAuthorizationInterceptor;
+        this.stomp = stomp;
     }
 
     @Override
@@ -31,13 +43,54 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.setApplicationDestinationPrefixes("/app");
-        config.enableSimpleBroker("/topic", "/queue");
+        StompPropertiesConfig.Relay relay = stomp.getRelay();
+        if (relay.isEnabled()) {
+            LOGGER.info("Relaying STOMP destinations to the broker at {}:{}", relay.getHost(), relay.getPort());
+            StompBrokerRelayRegistration registration = config.enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(relay.getHost())
+                .setRelayPort(relay.getPort())
+                .setClientLogin(relay.getClientLogin())
+                .setClientPasscode(relay.getClientPasscode())
+                .setSystemLogin(relay.getSystemLogin())
+                .setSystemPasscode(relay.getSystemPasscode())
+                // user destinations and the user registry are shared with the other instances through the broker
+                .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                .setUserRegistryBroadcast("/topic/simp-user-registry");
+            if (StringUtils.hasText(relay.getVirtualHost())) {
+                registration.setVirtualHost(relay.getVirtualHost());
+            }
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         config.setUserDestinationPrefix("/user");
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // a client that does not take its messages within the send limits is disconnected instead of buffering without bound
+        registration
+            .setMessageSizeLimit((int) stomp.getMessageSizeLimit().toBytes())
+            .setSendTimeLimit((int) stomp.getSendTimeLimit().toMillis())
+            .setSendBufferSizeLimit((int) stomp.getSendBufferSizeLimit().toBytes())
+            .setTimeToFirstMessage((int) stomp.getTimeToFirstMessage().toMillis());
+    }
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(chatAuthorizationInterceptor);
+        configurePool(registration.taskExecutor(), stomp.getInbound());
     }
-}
 
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        configurePool(registration.taskExecutor(), stomp.getOutbound());
+    }
+
+    private void configurePool(TaskExecutorRegistration registration, StompPropertiesConfig.ChannelPool pool) {
+        registration
+            .corePoolSize(pool.getCorePoolSize())
+            .maxPoolSize(pool.getMaxPoolSize())
+            .queueCapacity(pool.getQueueCapacity())
+            .keepAliveSeconds((int) pool.getKeepAlive().toSeconds());
+    }
+}
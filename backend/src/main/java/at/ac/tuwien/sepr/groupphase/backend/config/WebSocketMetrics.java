@@ -0,0 +1,48 @@
+package at.ac.tuwien.sepr.groupphase.backend.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+
+/**
+ * Publishes the state of the STOMP broker: connected sessions, subscriptions and how many messages wait in the
+ * client channels. A growing outbound queue means clients do not keep up with the messages sent to them.
+ */
+@Component
+public class WebSocketMetrics {
+
+    public WebSocketMetrics(MeterRegistry meterRegistry, WebSocketMessageBrokerStats brokerStats, SimpUserRegistry userRegistry,
+                            @Qualifier("clientInboundChannelExecutor") ThreadPoolTaskExecutor inboundExecutor,
+                            @Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor outboundExecutor) {
+        Gauge.builder("stomp.sessions", brokerStats, stats -> stats.getWebSocketSessionStats().getTotalSessions())
+            .description("Open WebSocket and SockJS sessions")
+            .register(meterRegistry);
+        FunctionCounter.builder("stomp.sessions.limit_exceeded", brokerStats, stats -> stats.getWebSocketSessionStats().getLimitExceededSessions())
+            .description("Sessions closed because the client did not take its messages within the send limits")
+            .register(meterRegistry);
+        Gauge.builder("stomp.users", userRegistry, SimpUserRegistry::getUserCount)
+            .description("Connected users")
+            .register(meterRegistry);
+        Gauge.builder("stomp.subscriptions", userRegistry, registry -> registry.findSubscriptions(subscription -> true).size())
+            .description("Subscriptions of connected users")
+            .register(meterRegistry);
+        registerChannel(meterRegistry, "inbound", inboundExecutor);
+        registerChannel(meterRegistry, "outbound", outboundExecutor);
+    }
+
+    private static void registerChannel(MeterRegistry meterRegistry, String channel, ThreadPoolTaskExecutor executor) {
+        Gauge.builder("stomp.channel.queued", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+            .description("Messages waiting for a thread of the client channel")
+            .tag("channel", channel)
+            .register(meterRegistry);
+        Gauge.builder("stomp.channel.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+            .description("Threads of the client channel handling a message")
+            .tag("channel", channel)
+            .register(meterRegistry);
+    }
+}
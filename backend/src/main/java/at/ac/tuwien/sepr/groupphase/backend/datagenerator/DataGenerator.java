@@ -10,14 +10,13 @@ import at.ac.tuwien.sepr.groupphase.backend.repository.PropertyRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.RatingRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.ReportRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import at.ac.tuwien.sepr.groupphase.backend.service.Geocoder;
 import at.ac.tuwien.sepr.groupphase.backend.type.Category;
 import at.ac.tuwien.sepr.groupphase.backend.type.JobStatus;
 import at.ac.tuwien.sepr.groupphase.backend.type.MessageType;
 import at.ac.tuwien.sepr.groupphase.backend.type.ReportType;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,10 +25,8 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.invoke.MethodHandles;
@@ -55,56 +52,6 @@ public class DataGenerator implements CommandLineRunner {
         }
     }
 
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    private static class GeonamesApiResponse {
-        private List<GeonamesResult> results;
-
-        public List<GeonamesResult> getResults() {
-            return results;
-        }
-
-        public void setResults(List<GeonamesResult> results) {
-            this.results = results;
-        }
-    }
-
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    private static class GeonamesResult {
-        @JsonProperty("place_name")
-        private String placeName;
-        private Coordinates coordinates;
-
-        public String getPlaceName() {
-            return placeName;
-        }
-
-        public Coordinates getCoordinates() {
-            return coordinates;
-        }
-    }
-
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    private static class Coordinates {
-        private double lat;
-        private double lon;
-
-        public double getLat() {
-            return lat;
-        }
-
-        public void setLat(double lat) {
-            this.lat = lat;
-        }
-
-        public double getLon() {
-            return lon;
-        }
-
-        public void setLon(double lon) {
-            this.lon = lon;
-        }
-    }
-
     private static final String INSERT_USER_SQL =
         "INSERT INTO app_user (id, username, password, email, role, first_name, last_name, country_code, postal_code, area, latitude, longitude, banned) "
             + "VALUES (:id, :username, :password, :email, :role, :firstName, :lastName, :countryCode, :postalCode, :area, :latitude, :longitude, :banned)";
@@ -118,12 +65,12 @@ public class DataGenerator implements CommandLineRunner {
             + "VALUES (:id, :customerId, :propertyId, :title, :description, :category, :deadline, :status, NOW())";
 
     private static final String INSERT_JOB_REQUEST_IMAGE_SQL =
-        "INSERT INTO job_request_image (id, job_request_id, image, image_type, display_position) "
-            + "VALUES (:id, :jobRequestId, :image, :imageType, :displayPosition)";
+        "INSERT INTO job_request_image (id, job_request_id, blob_key, content_length, image_type, display_position) "
+            + "VALUES (:id, :jobRequestId, :blobKey, :contentLength, :imageType, :displayPosition)";
 
     private static final String INSERT_LICENSE_SQL =
-        "INSERT INTO license (id, worker_id, filename, description, file, media_type, status, upload_time) "
-            + "VALUES (:id, :workerId, :filename, :description, :file, :mediaType, :status, :uploadTime)";
+        "INSERT INTO license (id, worker_id, filename, description, content_hash, content_length, media_type, status, upload_time) "
+            + "VALUES (:id, :workerId, :filename, :description, :contentHash, :contentLength, :mediaType, :status, :uploadTime)";
 
     private static final String INSERT_JOB_OFFER_SQL =
         "INSERT INTO job_offer (id, job_request_id, worker_id, price, comment, status, created_at) "
@@ -157,8 +104,8 @@ public class DataGenerator implements CommandLineRunner {
     private final ReportRepository reportRepository;
     private final ChatRepository chatRepository;
     private final ChatMessageRepository chatMessageRepository;
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    private final Geocoder geocoder;
+    private final BlobStore blobStore;
 
     public DataGenerator(UserRepository userRepository,
                          JobOfferRepository jobOfferRepository,
@@ -172,7 +119,8 @@ public class DataGenerator implements CommandLineRunner {
                          ChatRepository chatRepository,
                          ChatMessageRepository chatMessageRepository,
                          ReportRepository reportRepository,
-                         ObjectMapper objectMapper
+                         Geocoder geocoder,
+                         BlobStore blobStore
     ) {
         this.userRepository = userRepository;
         this.jobOfferRepository = jobOfferRepository;
@@ -186,8 +134,8 @@ public class DataGenerator implements CommandLineRunner {
         this.reportRepository = reportRepository;
         this.chatRepository = chatRepository;
         this.chatMessageRepository = chatMessageRepository;
-        this.objectMapper = objectMapper;
-        this.restTemplate = new RestTemplate();
+        this.geocoder = geocoder;
+        this.blobStore = blobStore;
     }
 
 
@@ -564,44 +512,12 @@ public class DataGenerator implements CommandLineRunner {
         if (postalCode == null || countryCode == null) {
             return Geolocation.empty();
         }
-
-        try {
-            Thread.sleep(250);
-
-            String whereClause = String.format("postal_code='%s' and country_code='%s'", postalCode, countryCode);
-
-            String url = UriComponentsBuilder
-                .fromHttpUrl("https://data.opendatasoft.com/api/explore/v2.1/catalog/datasets/geonames-postal-code@public/records")
-                .queryParam("where", whereClause)
-                .queryParam("limit", 1) // only need the first result
-                .build()
-                .toUriString();
-
-            //LOGGER.info("Calling Geonames API: {}", url);
-            String jsonResponse = restTemplate.getForObject(url, String.class);
-
-            if (jsonResponse != null) {
-                GeonamesApiResponse apiResponse = objectMapper.readValue(jsonResponse, GeonamesApiResponse.class);
-                if (apiResponse != null && apiResponse.getResults() != null && !apiResponse.getResults().isEmpty()) {
-                    GeonamesResult result = apiResponse.getResults().get(0);
-                    if (result != null && result.getCoordinates() != null) {
-                        return new Geolocation(result.getCoordinates().getLat(), result.getCoordinates().getLon(), result.getPlaceName());
-                    }
-                }
-            }
-        } catch (HttpClientErrorException e) {
-            LOGGER.warn("Could not fetch data from Geonames API for postalCode {}: {} {}", postalCode, e.getStatusCode(), e.getResponseBodyAsString());
-        } catch (IOException e) {
-            LOGGER.error("Failed to parse Geonames API response for postalCode {}: {}", postalCode, e.getMessage());
-        } catch (InterruptedException e) {
-            LOGGER.error("Thread interrupted during geocoding delay", e);
-            Thread.currentThread().interrupt();
-        } catch (Exception e) {
-            LOGGER.error("An unexpected error occurred during geocoding for postalCode {}: {}", postalCode, e.getMessage());
-        }
-
-        LOGGER.warn("Geocoding failed for postalCode {}, country {}'. No coordinates will be set.", postalCode, countryCode);
-        return new Geolocation(null, null, null);
+        return geocoder.locate(countryCode, postalCode, null)
+            .map(place -> new Geolocation((double) place.latitude(), (double) place.longitude(), place.placeName()))
+            .orElseGet(() -> {
+                LOGGER.warn("Geocoding failed for postalCode {}, country {}'. No coordinates will be set.", postalCode, countryCode);
+                return Geolocation.empty();
+            });
     }
 
     private void createUser(Long id, String username, String password, String firstName, String lastName, String countryCode,
@@ -655,21 +571,23 @@ public class DataGenerator implements CommandLineRunner {
     }
 
     private void createJobRequestImage(Long id, Long jobRequestId, String imagePath, String imageType, int position) {
+        BlobStore.StoredBlob blob = storeImage(imagePath);
         entityManager.createNativeQuery(INSERT_JOB_REQUEST_IMAGE_SQL)
             .setParameter("id", id)
             .setParameter("jobRequestId", jobRequestId)
-            .setParameter("image", loadImageAsBytes(imagePath))
+            .setParameter("blobKey", blob.key())
+            .setParameter("contentLength", blob.size())
             .setParameter("imageType", imageType)
             .setParameter("displayPosition", position)
             .executeUpdate();
     }
 
-    private byte[] loadImageAsBytes(String imagePath) {
+    private BlobStore.StoredBlob storeImage(String imagePath) {
         try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(imagePath)) {
             if (inputStream == null) {
                 throw new RuntimeException("Image not found: " + imagePath);
             }
-            return inputStream.readAllBytes();
+            return blobStore.store(inputStream);
         } catch (IOException e) {
             throw new RuntimeException("Failed to load image: " + imagePath, e);
         }
@@ -677,13 +595,15 @@ public class DataGenerator implements CommandLineRunner {
 
     private void createLicense(Long id, Long workerId, String filename, String description, String status) {
         byte[] dummyFile = new byte[] {0x25, 0x50, 0x44, 0x46}; // PDF header bytes
+        BlobStore.StoredBlob blob = blobStore.store(new ByteArrayInputStream(dummyFile));
 
         entityManager.createNativeQuery(INSERT_LICENSE_SQL)
             .setParameter("id", id)
             .setParameter("workerId", workerId)
             .setParameter("filename", filename)
             .setParameter("description", description)
-            .setParameter("file", dummyFile)
+            .setParameter("contentHash", blob.key())
+            .setParameter("contentLength", blob.size())
             .setParameter("mediaType", "application/pdf")
             .setParameter("status", status)
             .setParameter("uploadTime", LocalDateTime.now())
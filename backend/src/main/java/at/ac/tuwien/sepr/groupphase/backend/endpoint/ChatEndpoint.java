@@ -6,30 +6,39 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageDetailD
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.CreatedChatDto;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ChatMessage;
+import at.ac.tuwien.sepr.groupphase.backend.exception.InvalidCursorException;
 import at.ac.tuwien.sepr.groupphase.backend.service.ChatService;
+import at.ac.tuwien.sepr.groupphase.backend.service.ReadReceiptService;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
+import jakarta.annotation.security.PermitAll;
 import jakarta.annotation.security.RolesAllowed;
 import java.lang.invoke.MethodHandles;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import org.apache.tomcat.util.http.fileupload.FileUploadException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 @RestController
@@ -38,10 +47,15 @@ public class ChatEndpoint {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
     static final String BASE_PATH = "/api/v1/chats";
+    private static final int DEFAULT_PAGE_SIZE = 50;
 
     @Autowired private ChatService chatService;
     @Autowired private UserService userService;
     @Autowired private SimpMessagingTemplate broker;
+    @Autowired private ReadReceiptService readReceiptService;
+
+    @Value("${chat.upload.max-age:365d}")
+    private Duration uploadMaxAge;
 
     @RolesAllowed({"WORKER", "CUSTOMER"})
     @PostMapping("/engage/{job_request_id}")
@@ -50,14 +64,23 @@ public class ChatEndpoint {
     ) {
         LOGGER.info("GET " + BASE_PATH + "/{}", jobRequestId);
         LOGGER.debug("request parameters: {}", jobRequestId);
-        return new ResponseEntity<>(chatService.findOrCreateChat(getCurrentUser(), jobRequestId), HttpStatus.CREATED);
+        return new ResponseEntity<>(chatService.findOrCreateChat(userService.getCurrentUser(), jobRequestId), HttpStatus.CREATED);
     }
 
     @RolesAllowed({"WORKER", "CUSTOMER"})
     @GetMapping
-    public ResponseEntity<List<ChatListItemDto>> getAllChats() {
+    public ResponseEntity<List<ChatListItemDto>> getAllChats(
+        @RequestParam(required = false) Integer offset,
+        @RequestParam(required = false) Integer limit
+    ) {
         LOGGER.info("GET " + BASE_PATH);
-        return new ResponseEntity<>(chatService.getAllChatsOfUser(getCurrentUser().getUsername()), HttpStatus.OK);
+        LOGGER.debug("request parameters: offset={}, limit={}", offset, limit);
+        String username = userService.getAuthenticatedUser().username();
+        // without paging parameters the whole list is returned, as clients that do not page expect
+        List<ChatListItemDto> chats = offset == null && limit == null
+            ? chatService.getAllChatsOfUser(username)
+            : chatService.getAllChatsOfUser(username, offset == null ? 0 : offset, limit == null ? DEFAULT_PAGE_SIZE : limit);
+        return new ResponseEntity<>(chats, HttpStatus.OK);
     }
 
     @RolesAllowed({"WORKER", "CUSTOMER"})
@@ -68,9 +91,10 @@ public class ChatEndpoint {
     ) {
         LOGGER.info("DELETE " + BASE_PATH + "/{}", chatId);
 
-        String opponent = chatService.getOtherChatParticipant(chatId,  getCurrentUser().getUsername());
+        ApplicationUser currentUser = userService.getCurrentUser();
+        String opponent = chatService.getOtherChatParticipant(chatId, currentUser.getUsername());
 
-        chatService.deleteChat(getCurrentUser(), chatId);
+        chatService.deleteChat(currentUser, chatId);
 
         broker.convertAndSendToUser(
             opponent,
@@ -82,10 +106,31 @@ public class ChatEndpoint {
     @RolesAllowed({"WORKER", "CUSTOMER"})
     @GetMapping("/{chat_id}/messages")
     public ResponseEntity<List<ChatMessageDetailDto>> getMessages(
-        @PathVariable("chat_id") Long chatId
+        @PathVariable("chat_id") Long chatId,
+        @RequestParam(required = false) Long before,
+        @RequestParam(required = false) Long since,
+        @RequestParam(required = false) Integer limit
     ) {
         LOGGER.info("GET " + BASE_PATH + "/{}/messages", chatId);
-        List<ChatMessageDetailDto> messages = chatService.getChatMessages(getCurrentUser(), chatId);
+        LOGGER.debug("request parameters: before={}, since={}, limit={}", before, since, limit);
+        if (before != null && since != null) {
+            throw new InvalidCursorException("Only one of before and since may be given");
+        }
+        ApplicationUser currentUser = userService.getCurrentUser();
+        List<ChatMessageDetailDto> messages;
+        if (before == null && since == null && limit == null) {
+            // without paging parameters the whole history is returned, as clients that do not page expect
+            messages = chatService.getChatMessages(currentUser, chatId);
+        } else {
+            int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+            messages = since != null
+                ? chatService.getChatMessagesSince(currentUser, chatId, since, pageSize)
+                : chatService.getChatMessages(currentUser, chatId, before, pageSize);
+        }
+        if (before == null && since == null) {
+            // opening a chat reads it, also for clients without a socket to send read events on
+            readReceiptService.markRead(currentUser.getUsername(), chatId);
+        }
         return new ResponseEntity<>(messages, HttpStatus.OK);
     }
 
@@ -95,7 +140,7 @@ public class ChatEndpoint {
         @PathVariable("chat_id") Long chatId
     ) {
         LOGGER.info("GET " + BASE_PATH + "/{}/messages/last", chatId);
-        return new ResponseEntity<>(chatService.getLastMessage(getCurrentUser(), chatId), HttpStatus.OK);
+        return new ResponseEntity<>(chatService.getLastMessage(userService.getCurrentUser(), chatId), HttpStatus.OK);
     }
 
     @RolesAllowed({"WORKER", "CUSTOMER"})
@@ -109,11 +154,43 @@ public class ChatEndpoint {
         return new ResponseEntity<>(chatService.uploadImage(image), HttpStatus.CREATED);
     }
 
+    /**
+     * Serves an upload. Its name is the hash of its content, which never changes under the same URL,
+     * so clients and proxies may keep it as long as they like and revalidate it by the hash alone.
+     * Only content uploaded to a chat is served, other blobs like license files are not found.
+     */
+    @PermitAll
+    @GetMapping("/uploads/{filename}")
+    public ResponseEntity<Resource> getUpload(
+        @PathVariable("filename") String filename,
+        WebRequest request
+    ) {
+        LOGGER.info("GET " + BASE_PATH + "/uploads/{}", filename);
+        CacheControl cacheControl = CacheControl.maxAge(uploadMaxAge).cachePublic().immutable();
+        String hash = StringUtils.stripFilenameExtension(filename);
+        // loaded first, so a hash that is no chat upload is not found instead of confirmed as unmodified
+        Resource upload = chatService.loadUpload(filename);
+        if (request.checkNotModified(hash)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(cacheControl)
+                .build();
+        }
+
+        return ResponseEntity.ok()
+            .contentType(uploadMediaType(filename))
+            .eTag(hash)
+            .cacheControl(cacheControl)
+            .body(upload);
+    }
 
-    private ApplicationUser getCurrentUser() {
-        String username = (String) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return userService.findUserByUsername(username)
-            .orElseThrow(() -> new UsernameNotFoundException(username));
+    /**
+     * Uploads are only accepted as images or PDF documents, anything else named differently is served as plain download.
+     * SVG images may contain scripts, so they are downloaded as well.
+     */
+    private static MediaType uploadMediaType(String filename) {
+        return MediaTypeFactory.getMediaType(filename)
+            .filter(type -> ("image".equals(type.getType()) && !type.getSubtype().contains("svg")) || MediaType.APPLICATION_PDF.equals(type))
+            .orElse(MediaType.APPLICATION_OCTET_STREAM);
     }
 
 }
@@ -6,14 +6,12 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessagePayloadDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatNotificationDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.mapper.ChatMessageMapper;
-import at.ac.tuwien.sepr.groupphase.backend.entity.ChatMessage;
 import at.ac.tuwien.sepr.groupphase.backend.service.ChatService;
+import at.ac.tuwien.sepr.groupphase.backend.service.ReadReceiptService;
 import at.ac.tuwien.sepr.groupphase.backend.type.MessageAction;
 import jakarta.validation.Valid;
 import java.lang.invoke.MethodHandles;
 import java.security.Principal;
-import java.util.HashMap;
-import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,12 +28,14 @@ public class ChatMessageEndpoint {
     private final ChatService chatService;
     private final SimpMessagingTemplate broker;
     private final ChatMessageMapper chatMessageMapper;
+    private final ReadReceiptService readReceiptService;
 
     @Autowired
-    public ChatMessageEndpoint(ChatService chatService, SimpMessagingTemplate broker, ChatMessageMapper chatMessageMapper) {
+    public ChatMessageEndpoint(ChatService chatService, SimpMessagingTemplate broker, ChatMessageMapper chatMessageMapper, ReadReceiptService readReceiptService) {
         this.chatService = chatService;
         this.broker = broker;
         this.chatMessageMapper = chatMessageMapper;
+        this.readReceiptService = readReceiptService;
     }
 
     @MessageMapping("/chat/{chat_id}/sendMessage")
@@ -48,8 +48,7 @@ public class ChatMessageEndpoint {
 
         String username = principal.getName();
 
-        ChatMessage chatMessage = chatService.saveMessage(username, chatId, chatMessageDto);
-        ChatMessagePayloadDto payload = chatMessageMapper.entityToPayLoadDto(chatMessage);
+        ChatMessagePayloadDto payload = chatService.saveMessage(username, chatId, chatMessageDto);
 
         String destination = "/topic/chat/" + chatId;
         LOGGER.info("Payload to send: '{}'", payload.toString());
@@ -84,20 +83,8 @@ public class ChatMessageEndpoint {
     ) {
         LOGGER.info("Received message read for chat {} from user '{}'", chatId, principal.getName());
 
-        String username = principal.getName();
-
-        chatService.setMessagesToRead(username, chatId);
-
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("read", true);
-        payload.put("reader", username);
-
-        broker.convertAndSend(
-            "/topic/chat/" + chatId + "/read",
-            payload
-        );
-
-        LOGGER.debug("Sent read message to {}: {}", chatId, username);
+        // applied and broadcast on the next flush, together with further read events of the same user
+        readReceiptService.markRead(principal.getName(), chatId);
     }
 
     @MessageMapping("/chat/{chat_id}/messageAction")
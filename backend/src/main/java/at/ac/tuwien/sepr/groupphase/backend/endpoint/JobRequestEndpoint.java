@@ -11,12 +11,16 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestWi
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.page.PageDto;
 import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestService;
+import at.ac.tuwien.sepr.groupphase.backend.util.JsonStreams;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.security.PermitAll;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
@@ -26,13 +30,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.lang.invoke.MethodHandles;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 @RestController
@@ -42,28 +50,34 @@ public class JobRequestEndpoint {
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
     static final String BASE_PATH = "/api/v1/job-requests";
     private final JobRequestService jobRequestService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public JobRequestEndpoint(JobRequestService jobRequestService) {
+    public JobRequestEndpoint(JobRequestService jobRequestService, ObjectMapper objectMapper) {
         this.jobRequestService = jobRequestService;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Admin-scoped: list all job requests.
+     * The list is streamed, as a JSON array or, if requested, as newline delimited JSON.
      */
     @PermitAll
-    @GetMapping(path = "/all")
-    public List<JobRequestListDto> listAllJobRequests() {
-        return jobRequestService.findAll();
+    @GetMapping(path = "/all", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> listAllJobRequests(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        LOGGER.info("GET " + BASE_PATH + "/all");
+        return stream(accept, jobRequestService::streamAll);
     }
 
     /**
      * Worker-scoped: list all open job requests if no open offer by this worker already exists.
+     * The list is streamed, as a JSON array or, if requested, as newline delimited JSON.
      */
     @PermitAll
-    @GetMapping
-    public List<JobRequestListWithMinPriceDto> listAllOpenJobRequests() {
-        return jobRequestService.findAllOpen();
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> listAllOpenJobRequests(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        LOGGER.info("GET " + BASE_PATH);
+        return stream(accept, jobRequestService::streamAllOpen);
     }
 
     @PermitAll
@@ -143,9 +157,14 @@ public class JobRequestEndpoint {
     public PageDto<JobRequestListDto> searchCustomerJobRequests(
         JobRequestSearchDto searchDto,
         @RequestParam(defaultValue = "0") int offset,
-        @RequestParam(defaultValue = "10") int limit) {
+        @RequestParam(defaultValue = "10") int limit,
+        @RequestParam(required = false) String cursor) {
         LOGGER.info("GET " + BASE_PATH + "/user/search");
         LOGGER.debug("Customer search parameters: {}", searchDto);
+        requirePositiveLimit(limit);
+        if (cursor != null) {
+            return jobRequestService.searchJobRequestsCustomerByCursor(searchDto, cursor, limit);
+        }
         return jobRequestService.searchJobRequestsCustomer(searchDto, offset, limit);
     }
 
@@ -154,9 +173,14 @@ public class JobRequestEndpoint {
     public PageDto<JobRequestListWithMinPriceDto> searchWorkerJobRequests(
         JobRequestSearchDto searchDto,
         @RequestParam(defaultValue = "0") int offset,
-        @RequestParam(defaultValue = "10") int limit) {
+        @RequestParam(defaultValue = "10") int limit,
+        @RequestParam(required = false) String cursor) {
         LOGGER.info("GET " + BASE_PATH + "/worker/search");
         LOGGER.debug("Worker search parameters: {}", searchDto);
+        requirePositiveLimit(limit);
+        if (cursor != null) {
+            return jobRequestService.searchJobRequestsWorkerByCursor(searchDto, cursor, limit);
+        }
         return jobRequestService.searchJobRequestsWorker(searchDto, offset, limit);
     }
 
@@ -165,9 +189,27 @@ public class JobRequestEndpoint {
     public PageDto<JobRequestListDto> searchAdminJobRequests(
         JobRequestSearchDto searchDto,
         @RequestParam(defaultValue = "0") int offset,
-        @RequestParam(defaultValue = "10") int limit) {
+        @RequestParam(defaultValue = "10") int limit,
+        @RequestParam(required = false) String cursor) {
         LOGGER.info("GET " + BASE_PATH + "/admin/search");
         LOGGER.debug("Admin search parameters: {}", searchDto);
+        requirePositiveLimit(limit);
+        if (cursor != null) {
+            return jobRequestService.searchJobRequestsAdminByCursor(searchDto, cursor, limit);
+        }
         return jobRequestService.searchJobRequestsAdmin(searchDto, offset, limit);
     }
+
+    private static void requirePositiveLimit(int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+        }
+    }
+
+    private <T> ResponseEntity<StreamingResponseBody> stream(String accept, Consumer<Consumer<T>> source) {
+        if (accept != null && MediaType.parseMediaTypes(accept).stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype)) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(JsonStreams.lines(objectMapper, source));
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(JsonStreams.array(objectMapper, source));
+    }
 }
@@ -6,10 +6,13 @@ import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.ImageValidationException;
 import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestImageService;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
+import at.ac.tuwien.sepr.groupphase.backend.type.ImageSize;
 import jakarta.annotation.security.PermitAll;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -21,9 +24,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.lang.invoke.MethodHandles;
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -33,6 +38,14 @@ import java.util.List;
 @RequestMapping(path = JobRequestEndpoint.BASE_PATH + "/{jobRequestId}/images")
 public class JobRequestImageEndpoint {
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    /**
+     * Images are never changed after upload, so the content behind an image URL stays the same.
+     */
+    private static final CacheControl IMAGE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    /**
+     * Served instead of a variant that is not generated yet, the client has to ask again to get the variant later.
+     */
+    private static final CacheControl FALLBACK_CACHE_CONTROL = CacheControl.noCache().cachePublic();
     private final JobRequestImageService imageService;
     private final UserService userService;
 
@@ -80,27 +93,40 @@ public class JobRequestImageEndpoint {
     }
 
     /**
-     * Retrieves a single image file.
+     * Retrieves a single image file in the requested size. Until a variant is generated, the original is served.
+     * Answers with 304 Not Modified without reading the content if the {@code If-None-Match} header names its hash.
      *
      * @param jobRequestId ID of the job request
      * @param imageId      ID of the image to retrieve
-     * @return Image bytes with appropriate content-type header
+     * @param size         the variant to retrieve, the original by default
+     * @param request      the request, used to evaluate its conditional headers
+     * @return Image content streamed from the blob store with appropriate content-type, ETag and cache headers
      * @throws NotFoundException        If the image or job request doesn't exist
      */
     @PermitAll
     @GetMapping("/{imageId}")
-    public ResponseEntity<byte[]> getImage(
+    public ResponseEntity<Resource> getImage(
         @PathVariable Long jobRequestId,
-        @PathVariable Long imageId
+        @PathVariable Long imageId,
+        @RequestParam(defaultValue = "ORIGINAL") ImageSize size,
+        WebRequest request
     ) {
-        LOGGER.info("Getting image {} for job request {}", imageId, jobRequestId);
-        JobRequestImageDataDto image = imageService.getImageData(jobRequestId, imageId);
-        byte[] imageData = image.getImageData();
-        String contentType = image.getContentType();
+        LOGGER.info("Getting image {} in size {} for job request {}", imageId, size, jobRequestId);
+        JobRequestImageDataDto image = imageService.getImageData(jobRequestId, imageId, size);
+        CacheControl cacheControl = image.getSize() == size ? IMAGE_CACHE_CONTROL : FALLBACK_CACHE_CONTROL;
+
+        if (request.checkNotModified(image.getContentHash())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(cacheControl)
+                .build();
+        }
 
         return ResponseEntity.ok()
-            .contentType(MediaType.parseMediaType(contentType))
-            .body(imageData);
+            .contentType(MediaType.parseMediaType(image.getContentType()))
+            .contentLength(image.getContentLength())
+            .eTag(image.getContentHash())
+            .cacheControl(cacheControl)
+            .body(imageService.getImageContent(image));
     }
 
     /**
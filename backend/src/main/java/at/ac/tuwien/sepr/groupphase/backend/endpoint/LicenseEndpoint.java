@@ -17,10 +17,15 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -33,6 +38,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -46,11 +52,17 @@ public class LicenseEndpoint {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
     static final String BASE_PATH = "/api/v1/licenses";
+    /**
+     * A license file can be replaced under the same URL, so clients have to revalidate it with its ETag.
+     */
+    private static final CacheControl FILE_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
     private final LicenseService licenseService;
+    private final DataSize maxFileSize;
 
     @Autowired
-    public LicenseEndpoint(LicenseService licenseService) {
+    public LicenseEndpoint(LicenseService licenseService, @Value("${license.max-file-size:5MB}") DataSize maxFileSize) {
         this.licenseService = licenseService;
+        this.maxFileSize = maxFileSize;
     }
 
     @PermitAll
@@ -73,8 +85,8 @@ public class LicenseEndpoint {
             if (!isAllowedContentType(contentType)) {
                 allErrors.add(new ObjectError("certificate", "Only PDF and image files (PNG, JPG, JPEG) are allowed"));
             }
-            if (certificate.getSize() > 5 * 1024 * 1024) {
-                allErrors.add(new ObjectError("certificate", "File size exceeds the 5MB limit"));
+            if (certificate.getSize() > maxFileSize.toBytes()) {
+                allErrors.add(new ObjectError("certificate", "File size exceeds the " + maxFileSize.toMegabytes() + "MB limit"));
             }
         }
 
@@ -113,8 +125,8 @@ public class LicenseEndpoint {
             if (!isAllowedContentType(contentType)) {
                 allErrors.add(new ObjectError("certificate", "Only PDF and image files (PNG, JPG, JPEG) are allowed"));
             }
-            if (certificate.getSize() > 5 * 1024 * 1024) {
-                allErrors.add(new ObjectError("certificate", "File size exceeds the 5MB limit"));
+            if (certificate.getSize() > maxFileSize.toBytes()) {
+                allErrors.add(new ObjectError("certificate", "File size exceeds the " + maxFileSize.toMegabytes() + "MB limit"));
             }
         }
 
@@ -150,17 +162,36 @@ public class LicenseEndpoint {
 
     @PermitAll
     @GetMapping("/{id}/file")
-    public ResponseEntity<byte[]> getLicenseFile(@PathVariable Long id) {
+    public ResponseEntity<Resource> getLicenseFile(@PathVariable Long id, WebRequest request) throws IOException {
 
-        LicenseDownloadDto license = licenseService.downloadFileById(id);
-        if (license == null || license.getFile() == null) {
-            return ResponseEntity.notFound().build();
+        // the file is only loaded if the client does not have it already
+        LicenseDownloadDto fileInfo = licenseService.getDownloadInformationById(id);
+        if (fileInfo.getContentHash() != null && request.checkNotModified(fileInfo.getContentHash())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(FILE_CACHE_CONTROL)
+                .build();
         }
 
+        LicenseDownloadDto license = licenseService.downloadFileById(id);
+
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType(license.getMediaType()));
         headers.setContentDispositionFormData("attachment", license.getFilename());
+        headers.setCacheControl(FILE_CACHE_CONTROL);
+        if (license.getContentHash() != null) {
+            headers.setETag("\"" + license.getContentHash() + "\"");
+        }
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(headers.getETag())) {
+            // the client's partial copy is outdated, so the whole file is sent; an InputStreamResource is never split into ranges
+            if (license.getContentLength() != null) {
+                headers.setContentLength(license.getContentLength());
+            }
+            return new ResponseEntity<>(new InputStreamResource(license.getFile().getInputStream()), headers, HttpStatus.OK);
+        }
 
+        // the file is streamed from the blob store, a Range header is answered with 206 and only the requested bytes
         return new ResponseEntity<>(license.getFile(), headers, HttpStatus.OK);
     }
 
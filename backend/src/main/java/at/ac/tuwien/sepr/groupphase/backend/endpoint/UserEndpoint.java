@@ -6,8 +6,6 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.user.UserDetailDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.user.UserListDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.user.UserUpdateDetailDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.user.UserUpdateRestDto;
-import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
-import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
 import jakarta.annotation.security.PermitAll;
@@ -19,7 +17,6 @@ import org.springframework.http.HttpStatus;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -56,7 +53,7 @@ public class UserEndpoint {
         if (bindingResult.hasErrors()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(bindingResult.getAllErrors());
         }
-        String username = getCurrentUser().getUsername();
+        String username = userService.getAuthenticatedUser().username();
         LOGGER.info("PUT " + BASE_PATH);
         LOGGER.debug("Body of request:\n{}", toUpdate);
         return ResponseEntity.ok(userService.update(toUpdate.updateWithUsername(username)));
@@ -65,7 +62,7 @@ public class UserEndpoint {
     @PermitAll
     @GetMapping("/edit")
     public ResponseEntity<UserUpdateDetailDto> getUserForEdit() {
-        String username = getCurrentUser().getUsername();
+        String username = userService.getAuthenticatedUser().username();
         LOGGER.info("GET " + BASE_PATH + "/{}", username);
         return ResponseEntity.ok(userService.getUserByUserNameForEdit(username));
     }
@@ -78,15 +75,6 @@ public class UserEndpoint {
         return ResponseEntity.ok(userService.getUserDetailsById(id));
     }
 
-
-    private ApplicationUser getCurrentUser() {
-        String username = (String) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return userService.findUserByUsername(username).orElseThrow(() -> {
-            LOGGER.error("Error while searching for user: {}", username);
-            return new NotFoundException();
-        });
-    }
-
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public PageDto<UserListDto> listAllUsers(
@@ -104,8 +92,7 @@ public class UserEndpoint {
     @DeleteMapping(path = "/{username}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteUser(@PathVariable String username) {
-        ApplicationUser current = getCurrentUser();
-        if (current.getRole() != Role.ADMIN) {
+        if (userService.getAuthenticatedUser().role() != Role.ADMIN) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         userService.deleteUserByUsername(username);
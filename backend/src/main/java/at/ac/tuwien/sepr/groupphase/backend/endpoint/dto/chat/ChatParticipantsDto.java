@@ -0,0 +1,32 @@
+package at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat;
+
+/**
+ * The two participants of a chat, as needed to authorize and route chat messages.
+ */
+public record ChatParticipantsDto(Long chatId, Long customerId, String customerUsername, Long workerId, String workerUsername) {
+
+    public boolean isParticipant(String username) {
+        return customerUsername.equals(username) || workerUsername.equals(username);
+    }
+
+    public boolean isParticipantId(Long userId) {
+        return customerId.equals(userId) || workerId.equals(userId);
+    }
+
+    /**
+     * Returns the id of the participant with the given username, or {@code null} if the user is no participant.
+     */
+    public Long idOf(String username) {
+        if (customerUsername.equals(username)) {
+            return customerId;
+        }
+        return workerUsername.equals(username) ? workerId : null;
+    }
+
+    /**
+     * Returns the username of the other participant.
+     */
+    public String counterpartOf(String username) {
+        return username.equals(workerUsername) ? customerUsername : workerUsername;
+    }
+}
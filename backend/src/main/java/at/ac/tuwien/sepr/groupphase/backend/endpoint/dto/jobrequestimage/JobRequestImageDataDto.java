@@ -1,6 +1,7 @@
 package at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequestimage;
 
 import lombok.AllArgsConstructor;
+import at.ac.tuwien.sepr.groupphase.backend.type.ImageSize;
 import lombok.Builder;
 import lombok.Data;
 import lombok.Getter;
@@ -15,8 +16,18 @@ import lombok.Setter;
 @NoArgsConstructor
 public class JobRequestImageDataDto {
 
-    private byte[] imageData;
+    /**
+     * SHA-256 of the content, served as ETag.
+     */
+    private String contentHash;
 
     private String contentType;
 
+    private long contentLength;
+
+    /**
+     * The size of the described content, {@link ImageSize#ORIGINAL} if the requested variant does not exist yet.
+     */
+    private ImageSize size;
+
 }
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.core.io.Resource;
 
 @Getter
 @Setter
@@ -13,6 +14,8 @@ import lombok.Setter;
 @AllArgsConstructor
 public class LicenseDownloadDto {
     private String filename;
-    private byte[] file;
+    private Resource file;
+    private Long contentLength;
     private String mediaType;
+    private String contentHash;
 }
@@ -17,9 +17,19 @@ import java.util.List;
 @ToString
 public class PageDto<T> {
     private List<T> content;
+    /**
+     * Number of all matching elements, or -1 for cursor pages where counting is skipped.
+     */
     private int totalElements;
     private int pageSize;
     private int offset;
+    /**
+     * Cursor of the next page, only set for cursor pages that have more elements.
+     */
+    private String nextCursor;
 
+    public PageDto(List<T> content, int totalElements, int pageSize, int offset) {
+        this(content, totalElements, pageSize, offset, null);
+    }
 }
 
@@ -8,6 +8,7 @@ import at.ac.tuwien.sepr.groupphase.backend.exception.ImageInvalidContentTypeExc
 import at.ac.tuwien.sepr.groupphase.backend.exception.ImageLimitExceededException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.ImageUploadException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.ImageValidationException;
+import at.ac.tuwien.sepr.groupphase.backend.exception.InvalidCursorException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.LicenseAlreadyApprovedException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.UserAlreadyExistsException;
@@ -189,4 +190,10 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         LOGGER.warn("Already reported: {}", ex.getMessage());
         return handleExceptionInternal(ex, ex.getMessage(), new HttpHeaders(), HttpStatus.CONFLICT, request);
     }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    protected ResponseEntity<Object> handleInvalidCursor(InvalidCursorException ex, WebRequest request) {
+        LOGGER.warn("Invalid cursor: {}", ex.getMessage());
+        return handleExceptionInternal(ex, ex.getMessage(), new HttpHeaders(), HttpStatus.BAD_REQUEST, request);
+    }
 }
@@ -12,6 +12,12 @@ public interface ChatMessageMapper {
     @Mapping(source = "sender.username", target = "senderUsername")
     ChatMessagePayloadDto entityToPayLoadDto(ChatMessage chatMessage);
 
+    /**
+     * Maps a message without touching its sender, which may be an uninitialized reference.
+     */
+    @Mapping(source = "senderUsername", target = "senderUsername")
+    ChatMessagePayloadDto entityToPayloadDtoOfSender(ChatMessage chatMessage, String senderUsername);
+
     ChatMessage dtoToEntity(ChatMessageDto chatMessageDto);
 
     ChatMessageDto entityToDto(ChatMessage chatMessage);
@@ -29,7 +29,7 @@ public interface JobOfferMapper {
 
     @Mapping(source = "jobRequest.id", target = "jobRequestId")
     @Mapping(source = "jobRequest.title", target = "requestTitle")
-    @Mapping(target = "lowestPrice", ignore = true)
+    @Mapping(source = "jobRequest.lowestOfferPrice", target = "lowestPrice", defaultValue = "0")
     JobOfferSummaryDto jobOfferToSummaryDto(JobOffer jobOffer);
 
     @Mapping(source = "jobOffer.jobRequest.id", target = "jobRequestId")
@@ -66,9 +66,17 @@ public interface JobRequestMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "jobRequestImages", ignore = true)
     @Mapping(target = "receivedJobOffers", ignore = true)
+    @Mapping(target = "lowestOfferPrice", ignore = true)
+    @Mapping(target = "pendingOfferCount", ignore = true)
     JobRequest createDtoToJobRequest(JobRequestCreateDto createDto);
 
-    @Mapping(target = "lowestPrice", ignore = true)
+    /**
+     * Maps a JobRequest entity to a ListDto including the lowest pending offer price (0 if there is no offer).
+     *
+     * @param jobRequest the JobRequest that gets mapped
+     * @return a JobRequestListWithMinPriceDto with information from jobRequest
+     */
+    @Mapping(source = "lowestOfferPrice", target = "lowestPrice", defaultValue = "0")
     JobRequestListWithMinPriceDto jobRequestToListWithMinPriceDto(JobRequest jobRequest);
 
     @Mapping(source = "customer.id", target = "customerId")
@@ -0,0 +1,53 @@
+package at.ac.tuwien.sepr.groupphase.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Counts the rows referring to one blob in the blob store: job request images and their variants, license files and
+ * chat message uploads. A blob whose count dropped to zero is deleted by the garbage collection once it stayed
+ * unreferenced for a grace period, so an upload that is referenced only shortly after it was stored is kept.
+ */
+@Entity
+@Table(name = "blob_reference", indexes = @Index(name = "idx_blob_reference_released", columnList = "reference_count, released_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BlobReference {
+
+    /**
+     * The key of the blob, the SHA-256 of its content.
+     */
+    @Id
+    @Column(length = 64)
+    private String blobKey;
+
+    @Column(nullable = false)
+    private int referenceCount;
+
+    /**
+     * When the blob was stored or lost its last reference, {@code null} while it is referenced.
+     */
+    private LocalDateTime releasedAt;
+
+    /**
+     * Whether the content was uploaded to a chat. Only these blobs are served under the public upload URL and can be
+     * attached to chat messages, any other blob is only reachable through the rows referring to it.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean chatUpload;
+}
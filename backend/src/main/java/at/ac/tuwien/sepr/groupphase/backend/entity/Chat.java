@@ -34,8 +34,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@ToString(exclude = {"chatMessages"})
-@EqualsAndHashCode(exclude = {"chatMessages"})
+@ToString(exclude = {"chatMessages", "participantSummaries"})
+@EqualsAndHashCode(exclude = {"chatMessages", "participantSummaries"})
 
 public class Chat {
 
@@ -62,4 +62,7 @@ public class Chat {
     @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL, mappedBy = "chat")
     @OrderBy("timestamp DESC")
     private List<ChatMessage> chatMessages;
+
+    @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "chat")
+    private List<ChatParticipantSummary> participantSummaries;
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
@@ -24,9 +25,13 @@ import java.time.LocalDateTime;
 
 /**
  * Represents a chat message in the persistent data store.
+ * The history index matches the order chat histories are paged in, see {@link at.ac.tuwien.sepr.groupphase.backend.repository.ChatMessageRepository}.
  */
 @Entity
-@Table(name = "chat_message")
+@Table(name = "chat_message", indexes = {
+    @Index(name = "idx_chat_message_history", columnList = "chat_id, timestamp, id"),
+    @Index(name = "idx_chat_message_media_blob_key", columnList = "media_blob_key")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -59,6 +64,12 @@ public class ChatMessage {
     @Column(length = 1024)
     private String mediaUrl;
 
+    /**
+     * Key of the uploaded media in the blob store, {@code null} for text messages and media linked from elsewhere.
+     */
+    @Column(length = 64)
+    private String mediaBlobKey;
+
     @Column(nullable = false)
     private boolean read;
 
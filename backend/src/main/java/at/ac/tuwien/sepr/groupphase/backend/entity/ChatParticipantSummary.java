@@ -0,0 +1,66 @@
+package at.ac.tuwien.sepr.groupphase.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * What one participant of a {@link Chat} sees of it in the chat list: the last message of the counterpart and
+ * how many of the counterpart's messages are unread. Kept up to date whenever a message is sent, read, edited
+ * or deleted, so the chat list is a single query instead of a walk over all messages of all chats.
+ */
+@Entity
+@Table(name = "chat_participant_summary", uniqueConstraints = @UniqueConstraint(name = "uk_chat_participant_summary", columnNames = {"participant_id", "chat_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = {"chat", "participant"})
+public class ChatParticipantSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chat_id", nullable = false)
+    private Chat chat;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "participant_id", nullable = false)
+    private ApplicationUser participant;
+
+    /**
+     * Id of the newest message of the counterpart, {@code null} if the counterpart did not write yet.
+     */
+    private Long lastMessageId;
+
+    @Column(length = 4095)
+    private String lastMessage;
+
+    private LocalDateTime lastMessageTime;
+
+    @Builder.Default
+    private int unreadCount = 0;
+
+    /**
+     * Id of the newest message of the counterpart the participant has read, {@code null} if the participant never read the chat.
+     */
+    private Long lastReadMessageId;
+}
@@ -0,0 +1,24 @@
+package at.ac.tuwien.sepr.groupphase.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A resized copy of an image in the blob store. It has the content type of the image it was generated from.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageVariant {
+
+    @Column(length = 64)
+    private String blobKey;
+
+    private Long contentLength;
+}
@@ -23,6 +23,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -71,6 +72,22 @@ public class JobRequest {
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    /**
+     * Lowest price of all PENDING offers, {@code null} if there are none.
+     * Maintained by {@link at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository#refreshOfferSummary(Long)},
+     * never written through the entity.
+     */
+    @Column(insertable = false, updatable = false)
+    private Float lowestOfferPrice;
+
+    /**
+     * Number of PENDING offers, maintained together with {@link #lowestOfferPrice}.
+     */
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int pendingOfferCount = 0;
+
     @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL, mappedBy = "jobRequest")
     @OrderBy("displayPosition DESC")
     private List<JobRequestImage> jobRequestImages;
@@ -1,11 +1,14 @@
 package at.ac.tuwien.sepr.groupphase.backend.entity;
 
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -14,11 +17,20 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Represents a job request image in the persistent data store.
+ * Only the metadata is kept in the row, the content is kept in the blob store.
+ * The blob key columns are indexed, so the references to a blob are counted without a table scan.
  */
 @Entity
-@Table(name = "job_request_image")
+@Table(name = "job_request_image", indexes = {
+    @Index(name = "idx_job_request_image_blob_key", columnList = "blob_key"),
+    @Index(name = "idx_job_request_image_medium_blob_key", columnList = "medium_blob_key"),
+    @Index(name = "idx_job_request_image_thumbnail_blob_key", columnList = "thumbnail_blob_key")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -34,10 +46,47 @@ public class JobRequestImage {
     @JoinColumn(name = "job_request_id", nullable = false)
     private JobRequest jobRequest;
 
-    @Lob
-    private byte[] image;
+    /**
+     * Key of the image content in the blob store, the SHA-256 of the content.
+     */
+    @Column(length = 64)
+    private String blobKey;
+
+    private Long contentLength;
+
+    /**
+     * Variants are generated in the background after upload, they are {@code null} until then.
+     */
+    @Embedded
+    @AttributeOverride(name = "blobKey", column = @Column(name = "medium_blob_key", length = 64))
+    @AttributeOverride(name = "contentLength", column = @Column(name = "medium_content_length"))
+    private ImageVariant medium;
+
+    @Embedded
+    @AttributeOverride(name = "blobKey", column = @Column(name = "thumbnail_blob_key", length = 64))
+    @AttributeOverride(name = "contentLength", column = @Column(name = "thumbnail_content_length"))
+    private ImageVariant thumbnail;
 
     private String imageType;
 
     private int displayPosition;
+
+    /**
+     * The blob keys of the original and of all generated variants.
+     *
+     * @return the keys, without missing variants
+     */
+    public List<String> blobKeys() {
+        List<String> keys = new ArrayList<>(3);
+        if (blobKey != null) {
+            keys.add(blobKey);
+        }
+        if (medium != null && medium.getBlobKey() != null) {
+            keys.add(medium.getBlobKey());
+        }
+        if (thumbnail != null && thumbnail.getBlobKey() != null) {
+            keys.add(thumbnail.getBlobKey());
+        }
+        return keys;
+    }
 }
@@ -1,14 +1,15 @@
 package at.ac.tuwien.sepr.groupphase.backend.entity;
 
 import at.ac.tuwien.sepr.groupphase.backend.type.LicenseStatus;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -23,7 +24,7 @@ import java.time.LocalDateTime;
  * Represents a license in the persistent data store.
  */
 @Entity
-@Table(name = "license")
+@Table(name = "license", indexes = @Index(name = "idx_license_content_hash", columnList = "content_hash"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -43,8 +44,13 @@ public class License {
 
     private String description;
 
-    @Lob
-    private byte[] file;
+    /**
+     * SHA-256 of the file. The file itself is kept in the blob store under this key, the hash is served as ETag.
+     */
+    @Column(length = 64)
+    private String contentHash;
+
+    private Long contentLength;
 
     private String mediaType;
 
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -17,7 +18,7 @@ import lombok.Setter;
  * Represents a property in the persistent data store.
  */
 @Entity
-@Table(name = "property")
+@Table(name = "property", indexes = @Index(name = "idx_property_location", columnList = "latitude, longitude"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,6 +13,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "push_subscription")
@@ -38,4 +41,16 @@ public class PushSubscription {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private ApplicationUser user;
+
+    /**
+     * Number of deliveries that failed in a row, reset by the next successful one.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int failureCount;
+
+    /**
+     * Until then, notifications for this subscription are held back because its push service keeps failing.
+     */
+    private LocalDateTime backoffUntil;
 }
@@ -0,0 +1,10 @@
+package at.ac.tuwien.sepr.groupphase.backend.event;
+
+/**
+ * Published whenever the participants of a chat may have changed: the chat was deleted, or one of its
+ * participants was deleted, banned or unbanned.
+ *
+ * @param chatId the changed chat, or {@code null} if any chat may be affected
+ */
+public record ChatParticipantsChangedEvent(Long chatId) {
+}
@@ -0,0 +1,11 @@
+package at.ac.tuwien.sepr.groupphase.backend.event;
+
+/**
+ * Published whenever a change can alter which job requests a search returns or how they are listed:
+ * a job request was created, updated, hidden, deleted or accepted, its lowest offer changed,
+ * or its customer was banned, unbanned or deleted.
+ *
+ * @param jobRequestId the changed job request, or {@code null} if several job requests are affected
+ */
+public record JobRequestChangedEvent(Long jobRequestId) {
+}
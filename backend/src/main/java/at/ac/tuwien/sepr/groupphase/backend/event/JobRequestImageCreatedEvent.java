@@ -0,0 +1,9 @@
+package at.ac.tuwien.sepr.groupphase.backend.event;
+
+/**
+ * Published when a job request image was uploaded, so its variants can be generated once it is committed.
+ *
+ * @param imageId the ID of the new image
+ */
+public record JobRequestImageCreatedEvent(Long imageId) {
+}
@@ -0,0 +1,9 @@
+package at.ac.tuwien.sepr.groupphase.backend.event;
+
+/**
+ * Published when a search alert was created or deleted.
+ *
+ * @param alertId the changed search alert
+ */
+public record SearchAlertChangedEvent(Long alertId) {
+}
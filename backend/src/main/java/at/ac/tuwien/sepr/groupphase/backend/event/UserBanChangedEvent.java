@@ -0,0 +1,10 @@
+package at.ac.tuwien.sepr.groupphase.backend.event;
+
+/**
+ * Published when a user was banned or unbanned, or deleted, which lifts a ban as well.
+ *
+ * @param username the affected user
+ * @param banned   whether the user is banned now
+ */
+public record UserBanChangedEvent(String username, boolean banned) {
+}
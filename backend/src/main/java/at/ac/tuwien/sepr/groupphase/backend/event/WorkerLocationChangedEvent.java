@@ -0,0 +1,11 @@
+package at.ac.tuwien.sepr.groupphase.backend.event;
+
+/**
+ * Published when the location of a worker changed, which moves the search alerts of the worker.
+ *
+ * @param workerId  the worker
+ * @param latitude  the new latitude, may be {@code null}
+ * @param longitude the new longitude, may be {@code null}
+ */
+public record WorkerLocationChangedEvent(Long workerId, Float latitude, Float longitude) {
+}
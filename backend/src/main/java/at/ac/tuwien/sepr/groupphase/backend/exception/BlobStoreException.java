@@ -0,0 +1,11 @@
+package at.ac.tuwien.sepr.groupphase.backend.exception;
+
+/**
+ * Thrown if content could not be written to or read from the blob store.
+ */
+public class BlobStoreException extends RuntimeException {
+
+    public BlobStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
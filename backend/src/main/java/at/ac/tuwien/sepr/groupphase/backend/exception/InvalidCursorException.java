@@ -0,0 +1,7 @@
+package at.ac.tuwien.sepr.groupphase.backend.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
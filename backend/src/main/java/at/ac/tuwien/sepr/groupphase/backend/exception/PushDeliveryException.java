@@ -0,0 +1,47 @@
+package at.ac.tuwien.sepr.groupphase.backend.exception;
+
+import at.ac.tuwien.sepr.groupphase.backend.type.PushDeliveryOutcome;
+
+/**
+ * Thrown if a push service did not accept a notification.
+ * The status code is {@code 0} if no response was received at all.
+ */
+public class PushDeliveryException extends RuntimeException {
+
+    private final int statusCode;
+    private final PushDeliveryOutcome outcome;
+
+    public PushDeliveryException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+        this.outcome = PushDeliveryOutcome.of(statusCode);
+    }
+
+    /**
+     * Creates an exception for a notification that never got a response, like on an I/O error or a timeout,
+     * which is worth retrying.
+     */
+    public PushDeliveryException(String message, Throwable cause) {
+        this(message, PushDeliveryOutcome.RETRYABLE, cause);
+    }
+
+    /**
+     * Creates an exception for a notification that never got a response.
+     *
+     * @param outcome how the failure should be handled, e.g. {@link PushDeliveryOutcome#REJECTED} if the
+     *                notification could not even be encrypted for the subscription
+     */
+    public PushDeliveryException(String message, PushDeliveryOutcome outcome, Throwable cause) {
+        super(message, cause);
+        this.statusCode = 0;
+        this.outcome = outcome;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public PushDeliveryOutcome getOutcome() {
+        return outcome;
+    }
+}
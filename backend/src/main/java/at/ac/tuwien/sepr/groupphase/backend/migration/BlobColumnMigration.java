@@ -0,0 +1,114 @@
+package at.ac.tuwien.sepr.groupphase.backend.migration;
+
+import at.ac.tuwien.sepr.groupphase.backend.exception.BlobStoreException;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves content that is still kept in a legacy BLOB column to the blob store.
+ * Each batch is read as a stream and committed on its own, so a large table is never held in memory at once
+ * and an interrupted migration continues where it stopped on the next start.
+ * Moved content is referenced just like a new upload. Once no content is left in the database the legacy column is dropped.
+ */
+public abstract class BlobColumnMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final String table;
+    private final String legacyColumn;
+    private final String legacyColumnSql;
+    private final String selectBatchSql;
+    private final String updateSql;
+    private final String dropLegacyColumnSql;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlobService blobService;
+    private final int batchSize;
+
+    /**
+     * Creates a migration for one legacy column. Table and column names are trusted constants, never user input.
+     *
+     * @param table        the table holding the legacy column
+     * @param legacyColumn the BLOB column to move to the blob store
+     * @param keyColumn    the column receiving the blob key
+     * @param lengthColumn the column receiving the content length
+     */
+    protected BlobColumnMigration(String table, String legacyColumn, String keyColumn, String lengthColumn,
+                                  JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, BlobService blobService, int batchSize) {
+        this.table = table;
+        this.legacyColumn = legacyColumn;
+        this.legacyColumnSql = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS "
+            + "WHERE UPPER(TABLE_NAME) = '" + table.toUpperCase() + "' AND UPPER(COLUMN_NAME) = '" + legacyColumn.toUpperCase() + "'";
+        this.selectBatchSql = "SELECT id, " + legacyColumn + " FROM " + table + " WHERE " + legacyColumn + " IS NOT NULL ORDER BY id LIMIT ?";
+        this.updateSql = "UPDATE " + table + " SET " + keyColumn + " = ?, " + lengthColumn + " = ?, " + legacyColumn + " = NULL WHERE id = ?";
+        this.dropLegacyColumnSql = "ALTER TABLE " + table + " DROP COLUMN " + legacyColumn;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.blobService = blobService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Moves all content left in the database to the blob store and drops the legacy column afterwards.
+     * Does nothing if the column does not exist.
+     *
+     * @return the number of moved rows
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int migrate() {
+        LOGGER.trace("migrate() for {}.{}", table, legacyColumn);
+        if (!hasLegacyColumn()) {
+            return 0;
+        }
+
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> migrateBatch());
+            total += moved;
+            LOGGER.debug("Moved {} rows of {} to the blob store", total, table);
+        } while (moved == batchSize);
+
+        jdbcTemplate.execute(dropLegacyColumnSql);
+        LOGGER.info("Moved {} rows of {} to the blob store and dropped the legacy {} column", total, table, legacyColumn);
+        return total;
+    }
+
+    private boolean hasLegacyColumn() {
+        Integer columns = jdbcTemplate.queryForObject(legacyColumnSql, Integer.class);
+        return columns != null && columns > 0;
+    }
+
+    private int migrateBatch() {
+        List<Object[]> updates = new ArrayList<>();
+        jdbcTemplate.query(selectBatchSql, (RowCallbackHandler) row -> {
+            long id = row.getLong("id");
+            try (InputStream content = row.getBinaryStream(legacyColumn)) {
+                BlobStore.StoredBlob blob = blobService.store(content);
+                blobService.acquire(blob.key());
+                updates.add(new Object[] {blob.key(), blob.size(), id});
+            } catch (IOException e) {
+                throw new BlobStoreException("Failed to read " + table + " " + id, e);
+            }
+        }, batchSize);
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(updateSql, updates);
+        }
+        return updates.size();
+    }
+}
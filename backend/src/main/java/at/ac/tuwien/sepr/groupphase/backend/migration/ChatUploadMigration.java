@@ -0,0 +1,131 @@
+package at.ac.tuwien.sepr.groupphase.backend.migration;
+
+import at.ac.tuwien.sepr.groupphase.backend.exception.BlobStoreException;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves chat uploads that are still kept as files in the legacy upload directory to the blob store.
+ * The media URL of each message is rewritten to the content-addressed name and the upload is referenced by the message.
+ * Batches are committed on their own, files are only deleted once all messages pointing to them have been moved.
+ */
+@Component
+public class ChatUploadMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String SELECT_BATCH_SQL = "SELECT id, media_url FROM chat_message "
+        + "WHERE media_blob_key IS NULL AND media_url LIKE ? AND id > ? ORDER BY id LIMIT ?";
+    private static final String UPDATE_SQL = "UPDATE chat_message SET media_url = ?, media_blob_key = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlobService blobService;
+    private final Path legacyPath;
+    private final String uploadBaseUrl;
+    private final int batchSize;
+
+    public ChatUploadMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, BlobService blobService,
+                               @Value("${chat.upload.base-path}") Path legacyPath,
+                               @Value("${chat.upload.base-url}") String uploadBaseUrl,
+                               @Value("${blob-store.migration.batch-size:20}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.blobService = blobService;
+        this.legacyPath = legacyPath.toAbsolutePath().normalize();
+        this.uploadBaseUrl = uploadBaseUrl;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Moves all legacy uploads referenced by chat messages to the blob store. Does nothing if the legacy directory does not exist.
+     *
+     * @return the number of moved messages
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int migrate() {
+        LOGGER.trace("migrate()");
+        if (!Files.isDirectory(legacyPath)) {
+            return 0;
+        }
+
+        Set<Path> movedFiles = new LinkedHashSet<>();
+        Batch batch = new Batch(Long.MIN_VALUE, 0, 0);
+        int total = 0;
+        do {
+            long afterId = batch.lastId();
+            batch = transactionTemplate.execute(status -> migrateBatch(afterId, movedFiles));
+            total += batch.moved();
+        } while (batch.read() == batchSize);
+
+        for (Path file : movedFiles) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOGGER.warn("Could not delete legacy chat upload {}", file, e);
+            }
+        }
+        if (total > 0) {
+            LOGGER.info("Moved {} chat uploads of {} messages to the blob store", movedFiles.size(), total);
+        }
+        return total;
+    }
+
+    private Batch migrateBatch(long afterId, Set<Path> movedFiles) {
+        String prefix = uploadBaseUrl + "/";
+        List<Object[]> updates = new ArrayList<>();
+        long[] lastId = {afterId};
+        int[] read = {0};
+        jdbcTemplate.query(SELECT_BATCH_SQL, (RowCallbackHandler) row -> {
+            long id = row.getLong("id");
+            String filename = row.getString("media_url").substring(prefix.length());
+            lastId[0] = id;
+            read[0]++;
+
+            Path file = legacyPath.resolve(filename).normalize();
+            if (!file.startsWith(legacyPath) || !Files.isRegularFile(file)) {
+                // uploads already in the blob store are acquired when their message is saved, only missing legacy files end up here
+                LOGGER.debug("No legacy upload for chat message {}", id);
+                return;
+            }
+            try (InputStream content = Files.newInputStream(file)) {
+                BlobStore.StoredBlob blob = blobService.storeChatUpload(content);
+                blobService.acquire(blob.key());
+                String extension = StringUtils.getFilenameExtension(filename);
+                String mediaUrl = prefix + blob.key() + (extension == null ? "" : "." + extension.toLowerCase());
+                updates.add(new Object[] {mediaUrl, blob.key(), id});
+                movedFiles.add(file);
+            } catch (IOException e) {
+                throw new BlobStoreException("Failed to read chat upload " + file, e);
+            }
+        }, prefix + "%", afterId, batchSize);
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        return new Batch(lastId[0], read[0], updates.size());
+    }
+
+    private record Batch(long lastId, int read, int moved) {
+    }
+}
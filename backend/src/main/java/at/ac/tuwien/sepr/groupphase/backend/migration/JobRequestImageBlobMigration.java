@@ -0,0 +1,19 @@
+package at.ac.tuwien.sepr.groupphase.backend.migration;
+
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves job request images that are still kept in the legacy {@code image} BLOB column to the blob store.
+ */
+@Component
+public class JobRequestImageBlobMigration extends BlobColumnMigration {
+
+    public JobRequestImageBlobMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, BlobService blobService,
+                                        @Value("${blob-store.migration.batch-size:20}") int batchSize) {
+        super("job_request_image", "image", "blob_key", "content_length", jdbcTemplate, transactionTemplate, blobService, batchSize);
+    }
+}
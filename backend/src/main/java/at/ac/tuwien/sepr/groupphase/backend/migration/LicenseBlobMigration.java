@@ -0,0 +1,19 @@
+package at.ac.tuwien.sepr.groupphase.backend.migration;
+
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves license files that are still kept in the legacy {@code file} BLOB column to the blob store.
+ */
+@Component
+public class LicenseBlobMigration extends BlobColumnMigration {
+
+    public LicenseBlobMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, BlobService blobService,
+                                @Value("${blob-store.migration.batch-size:20}") int batchSize) {
+        super("license", "file", "content_hash", "content_length", jdbcTemplate, transactionTemplate, blobService, batchSize);
+    }
+}
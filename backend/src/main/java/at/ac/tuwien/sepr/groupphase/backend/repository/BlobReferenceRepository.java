@@ -0,0 +1,190 @@
+package at.ac.tuwien.sepr.groupphase.backend.repository;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.BlobReference;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reference counts of the blobs in the blob store. Counts are changed by single update statements,
+ * so concurrent uploads and deletions of the same content never lose an update.
+ */
+@Repository
+public interface BlobReferenceRepository extends JpaRepository<BlobReference, String> {
+
+    /**
+     * The key of every row referring to a blob, once per reference.
+     */
+    String REFERENCED_KEYS = """
+        SELECT blob_key FROM job_request_image WHERE blob_key IS NOT NULL
+        UNION ALL SELECT medium_blob_key FROM job_request_image WHERE medium_blob_key IS NOT NULL
+        UNION ALL SELECT thumbnail_blob_key FROM job_request_image WHERE thumbnail_blob_key IS NOT NULL
+        UNION ALL SELECT content_hash FROM license WHERE content_hash IS NOT NULL
+        UNION ALL SELECT media_blob_key FROM chat_message WHERE media_blob_key IS NOT NULL
+        """;
+
+    /**
+     * Records a newly stored blob without references. If the blob is already known and unreferenced,
+     * its grace period starts over, so it is not collected right after it was uploaded again.
+     *
+     * @param blobKey the key of the blob
+     * @param now     the current time
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        MERGE INTO blob_reference r
+        USING (VALUES (CAST(:blobKey AS VARCHAR(64)))) AS s(blob_key) ON r.blob_key = s.blob_key
+        WHEN MATCHED AND r.reference_count = 0 THEN UPDATE SET released_at = :now
+        WHEN NOT MATCHED THEN INSERT (blob_key, reference_count, released_at) VALUES (s.blob_key, 0, :now)
+        """)
+    void register(@Param("blobKey") String blobKey, @Param("now") LocalDateTime now);
+
+    /**
+     * Adds a reference to a blob.
+     *
+     * @param blobKey the key of the blob
+     * @return the number of updated rows, 0 if the blob is unknown
+     */
+    @Modifying
+    @Query("update BlobReference b set b.referenceCount = b.referenceCount + 1, b.releasedAt = null where b.blobKey = :blobKey")
+    int acquire(@Param("blobKey") String blobKey);
+
+    /**
+     * Adds a reference to a blob if it was uploaded to a chat.
+     *
+     * @param blobKey the key of the blob
+     * @return the number of updated rows, 0 if the blob is unknown or no chat upload
+     */
+    @Modifying
+    @Query("""
+        update BlobReference b set b.referenceCount = b.referenceCount + 1, b.releasedAt = null
+        where b.blobKey = :blobKey and b.chatUpload = true
+        """)
+    int acquireChatUpload(@Param("blobKey") String blobKey);
+
+    /**
+     * Marks a blob as uploaded to a chat.
+     *
+     * @param blobKey the key of the blob
+     */
+    @Modifying
+    @Query("update BlobReference b set b.chatUpload = true where b.blobKey = :blobKey")
+    void markChatUpload(@Param("blobKey") String blobKey);
+
+    /**
+     * Checks whether a blob was uploaded to a chat.
+     *
+     * @param blobKey the key of the blob
+     * @return true if the blob is a known chat upload
+     */
+    boolean existsByBlobKeyAndChatUploadTrue(String blobKey);
+
+    /**
+     * Marks every blob attached to a chat message as uploaded to a chat, covering messages sent before uploads were marked.
+     *
+     * @return the number of newly marked rows
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        UPDATE blob_reference SET chat_upload = TRUE
+        WHERE chat_upload = FALSE AND blob_key IN (SELECT media_blob_key FROM chat_message WHERE media_blob_key IS NOT NULL)
+        """)
+    int markAttachedChatUploads();
+
+    /**
+     * Removes a reference from a blob and remembers when its last reference was removed.
+     *
+     * @param blobKey the key of the blob
+     * @param now     the current time
+     * @return the number of updated rows, 0 if the blob is unknown or was not referenced
+     */
+    @Modifying
+    @Query("""
+        update BlobReference b set
+            b.referenceCount = b.referenceCount - 1,
+            b.releasedAt = case when b.referenceCount = 1 then :now else null end
+        where b.blobKey = :blobKey and b.referenceCount > 0
+        """)
+    int release(@Param("blobKey") String blobKey, @Param("now") LocalDateTime now);
+
+    /**
+     * Retrieves blobs that have been unreferenced since before the given time, the longest unreferenced first.
+     *
+     * @param releasedBefore the end of the grace period
+     * @param limit          the maximum number of keys
+     * @return the keys of the blobs
+     */
+    @Query("select b.blobKey from BlobReference b where b.referenceCount = 0 and b.releasedAt < :releasedBefore order by b.releasedAt")
+    List<String> findCollectableKeys(@Param("releasedBefore") LocalDateTime releasedBefore, Limit limit);
+
+    /**
+     * Deletes the row of a blob if it is still unreferenced since before the given time.
+     *
+     * @param blobKey        the key of the blob
+     * @param releasedBefore the end of the grace period
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("delete from BlobReference b where b.blobKey = :blobKey and b.referenceCount = 0 and b.releasedAt < :releasedBefore")
+    int deleteCollectable(@Param("blobKey") String blobKey, @Param("releasedBefore") LocalDateTime releasedBefore);
+
+    /**
+     * Counts the rows actually referring to a blob, independent of its recorded count.
+     *
+     * @param blobKey the key of the blob
+     * @return the number of references
+     */
+    @Query(nativeQuery = true, value = """
+        SELECT (SELECT COUNT(*) FROM job_request_image WHERE blob_key = :blobKey)
+             + (SELECT COUNT(*) FROM job_request_image WHERE medium_blob_key = :blobKey)
+             + (SELECT COUNT(*) FROM job_request_image WHERE thumbnail_blob_key = :blobKey)
+             + (SELECT COUNT(*) FROM license WHERE content_hash = :blobKey)
+             + (SELECT COUNT(*) FROM chat_message WHERE media_blob_key = :blobKey)
+        """)
+    long countReferences(@Param("blobKey") String blobKey);
+
+    /**
+     * Overwrites the recorded count of a blob.
+     *
+     * @param blobKey        the key of the blob
+     * @param referenceCount the actual number of references
+     */
+    @Modifying
+    @Query("update BlobReference b set b.referenceCount = :referenceCount, b.releasedAt = null where b.blobKey = :blobKey")
+    void updateReferenceCount(@Param("blobKey") String blobKey, @Param("referenceCount") int referenceCount);
+
+    /**
+     * Sets the count of every referenced blob to its actual number of references, creating missing rows.
+     *
+     * @return the number of merged rows
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        MERGE INTO blob_reference r
+        USING (SELECT refs.blob_key, COUNT(*) AS ref_count FROM (""" + REFERENCED_KEYS + """
+        ) refs GROUP BY refs.blob_key) s ON r.blob_key = s.blob_key
+        WHEN MATCHED THEN UPDATE SET reference_count = s.ref_count, released_at = NULL
+        WHEN NOT MATCHED THEN INSERT (blob_key, reference_count) VALUES (s.blob_key, s.ref_count)
+        """)
+    int recountReferenced();
+
+    /**
+     * Marks blobs that are recorded as referenced although nothing refers to them anymore as released.
+     *
+     * @param now the current time
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        UPDATE blob_reference SET reference_count = 0, released_at = :now
+        WHERE reference_count > 0 AND blob_key NOT IN (""" + REFERENCED_KEYS + """
+        )
+        """)
+    int releaseUnreferenced(@Param("now") LocalDateTime now);
+}
@@ -1,14 +1,86 @@
 package at.ac.tuwien.sepr.groupphase.backend.repository;
 
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageDetailDto;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ChatMessage;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
 
+    /**
+     * Shared part of the history queries: messages of a chat, projected to the detail DTO so neither the chat nor
+     * the full sender is loaded. Messages are ordered by timestamp with the id breaking ties, which is the order of
+     * the (chat_id, timestamp, id) index.
+     */
+    String HISTORY = """
+        SELECT new at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageDetailDto(
+            m.id, s.username, m.messageType, m.message, m.mediaName, m.mediaUrl, m.read, m.edited, m.timestamp)
+        FROM ChatMessage m JOIN m.sender s
+        WHERE m.chat.id = :chatId
+        """;
+
     Optional<ChatMessage> findChatMessageByIdAndChat_Id(Long id, Long chatId);
 
+    /**
+     * Returns the latest messages of a chat, newest first.
+     */
+    @Query(HISTORY + " ORDER BY m.timestamp DESC, m.id DESC")
+    List<ChatMessageDetailDto> findLatestMessages(@Param("chatId") Long chatId, Limit limit);
+
+    /**
+     * Returns the messages of a chat sent before the given position, newest first.
+     */
+    @Query(HISTORY + """
+        AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :id))
+        ORDER BY m.timestamp DESC, m.id DESC
+        """)
+    List<ChatMessageDetailDto> findMessagesBefore(@Param("chatId") Long chatId, @Param("timestamp") LocalDateTime timestamp, @Param("id") Long id, Limit limit);
+
+    /**
+     * Returns the messages of a chat sent after the given position, oldest first.
+     */
+    @Query(HISTORY + """
+        AND (m.timestamp > :timestamp OR (m.timestamp = :timestamp AND m.id > :id))
+        ORDER BY m.timestamp ASC, m.id ASC
+        """)
+    List<ChatMessageDetailDto> findMessagesAfter(@Param("chatId") Long chatId, @Param("timestamp") LocalDateTime timestamp, @Param("id") Long id, Limit limit);
+
+    /**
+     * Returns the id of the newest message in a chat that was not sent by the given user.
+     */
+    @Query("SELECT max(m.id) FROM ChatMessage m WHERE m.chat.id = :chatId AND m.sender.id <> :readerId")
+    Long findLatestMessageIdNotSentBy(@Param("chatId") Long chatId, @Param("readerId") Long readerId);
+
+    /**
+     * Marks all unread messages in a chat up to the given id as read, except the reader's own.
+     *
+     * @return the number of messages marked as read
+     */
+    @Modifying
+    @Query("UPDATE ChatMessage m SET m.read = true WHERE m.chat.id = :chatId AND m.sender.id <> :readerId AND m.read = false AND m.id <= :upToId")
+    int markReadUpTo(@Param("chatId") Long chatId, @Param("readerId") Long readerId, @Param("upToId") Long upToId);
+
+    Optional<ChatMessage> findFirstByChat_IdAndSender_IdNotOrderByTimestampDescIdDesc(Long chatId, Long senderId);
+
+    int countByChat_IdAndSender_IdNotAndReadFalse(Long chatId, Long senderId);
+
     void deleteAllByIdLessThan(long l);
+
+    /**
+     * Hands all messages sent by a user over to another user.
+     *
+     * @return the number of reassigned messages
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ChatMessage m SET m.sender = :replacement WHERE m.sender = :sender")
+    int reassignSender(@Param("sender") ApplicationUser sender, @Param("replacement") ApplicationUser replacement);
 }
@@ -0,0 +1,93 @@
+package at.ac.tuwien.sepr.groupphase.backend.repository;
+
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatListItemDto;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
+import at.ac.tuwien.sepr.groupphase.backend.entity.Chat;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ChatParticipantSummary;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChatParticipantSummaryRepository extends JpaRepository<ChatParticipantSummary, Long> {
+
+    /**
+     * Shared part of the chat list queries: the chats of a participant, newest chat first, together with job request
+     * and counterpart.
+     */
+    String CHAT_LIST = """
+        SELECT new at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatListItemDto(
+            c.id, jr.id, jr.title,
+            CASE WHEN cu.id = :participantId THEN wo.username ELSE cu.username END,
+            CASE WHEN cu.id = :participantId THEN wo.banned ELSE cu.banned END,
+            s.lastMessage, s.lastMessageTime, s.unreadCount)
+        FROM ChatParticipantSummary s
+        JOIN s.chat c
+        JOIN c.jobRequest jr
+        JOIN c.customer cu
+        JOIN c.worker wo
+        WHERE s.participant.id = :participantId
+        ORDER BY c.createdAt DESC, c.id DESC
+        """;
+
+    /**
+     * Returns the whole chat list of a participant.
+     */
+    @Query(CHAT_LIST)
+    List<ChatListItemDto> findChatList(@Param("participantId") Long participantId);
+
+    /**
+     * Returns a slice of the chat list of a participant, starting at any offset rather than at a page boundary.
+     */
+    @Query(CHAT_LIST + " OFFSET :offset ROWS FETCH FIRST :limit ROWS ONLY")
+    List<ChatListItemDto> findChatList(@Param("participantId") Long participantId, @Param("offset") int offset, @Param("limit") int limit);
+
+    Optional<ChatParticipantSummary> findByChat_IdAndParticipant_Id(Long chatId, Long participantId);
+
+    /**
+     * Records a new message in the summary of its recipient, i.e. the participant that is not the sender.
+     */
+    @Modifying
+    @Query("""
+        UPDATE ChatParticipantSummary s
+        SET s.lastMessageId = :messageId, s.lastMessage = :message, s.lastMessageTime = :timestamp, s.unreadCount = s.unreadCount + 1
+        WHERE s.chat.id = :chatId AND s.participant.id <> :senderId
+        """)
+    int recordMessage(@Param("chatId") Long chatId, @Param("senderId") Long senderId, @Param("messageId") Long messageId,
+                      @Param("message") String message, @Param("timestamp") LocalDateTime timestamp);
+
+    /**
+     * Moves the read watermark of a participant and recounts the counterpart messages that are still unread.
+     */
+    @Modifying
+    @Query("""
+        UPDATE ChatParticipantSummary s
+        SET s.lastReadMessageId = :lastReadMessageId,
+            s.unreadCount = (SELECT count(m) FROM ChatMessage m WHERE m.chat = s.chat AND m.sender <> s.participant AND m.read = false)
+        WHERE s.chat.id = :chatId AND s.participant.id = :participantId
+        """)
+    int recordRead(@Param("chatId") Long chatId, @Param("participantId") Long participantId, @Param("lastReadMessageId") Long lastReadMessageId);
+
+    /**
+     * Updates the text of an edited message in the summary showing it.
+     */
+    @Modifying
+    @Query("UPDATE ChatParticipantSummary s SET s.lastMessage = :message WHERE s.chat.id = :chatId AND s.lastMessageId = :messageId")
+    int recordEdit(@Param("chatId") Long chatId, @Param("messageId") Long messageId, @Param("message") String message);
+
+    /**
+     * Removes the summaries of a user, e.g. before the user is deleted and replaced in their chats by a placeholder
+     * that never reads them.
+     */
+    @Modifying
+    @Query("DELETE FROM ChatParticipantSummary s WHERE s.participant = :user")
+    int deleteAllByParticipant(@Param("user") ApplicationUser user);
+
+    @Query("SELECT c FROM Chat c WHERE NOT EXISTS (SELECT s FROM ChatParticipantSummary s WHERE s.chat = c)")
+    List<Chat> findChatsWithoutSummaries();
+}
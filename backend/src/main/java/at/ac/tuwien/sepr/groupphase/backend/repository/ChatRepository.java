@@ -1,9 +1,14 @@
 package at.ac.tuwien.sepr.groupphase.backend.repository;
 
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatParticipantsDto;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.Chat;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -19,4 +24,19 @@ public interface ChatRepository extends JpaRepository<Chat, Long> {
     boolean existsByJobRequest(JobRequest jobRequest);
 
     Optional<Chat> findChatByJobRequest_Id(long jobRequestId);
+
+    @Query("""
+        SELECT new at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatParticipantsDto(c.id, cu.id, cu.username, wo.id, wo.username)
+        FROM Chat c JOIN c.customer cu JOIN c.worker wo
+        WHERE c.id = :chatId
+        """)
+    Optional<ChatParticipantsDto> findParticipants(@Param("chatId") Long chatId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Chat c SET c.customer = :replacement WHERE c.customer = :customer")
+    int reassignCustomer(@Param("customer") ApplicationUser customer, @Param("replacement") ApplicationUser replacement);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Chat c SET c.worker = :replacement WHERE c.worker = :worker")
+    int reassignWorker(@Param("worker") ApplicationUser worker, @Param("replacement") ApplicationUser replacement);
 }
@@ -1,12 +1,15 @@
 package at.ac.tuwien.sepr.groupphase.backend.repository;
 
 
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobOffer;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
 import at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus;
+import at.ac.tuwien.sepr.groupphase.backend.type.JobStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -24,13 +27,12 @@ public interface JobOfferRepository extends JpaRepository<JobOffer, Long> {
     @Query("""
         select jo from JobOffer jo
         join fetch jo.jobRequest jr
-        join fetch jr.receivedJobOffers
         where jo.worker.id = :workerId
          and jo.worker.banned = false
          and jr.customer.banned = false
         order by jo.createdAt desc
         """)
-    List<JobOffer> findAllByWorkerIdWithJobRequestAndOffers(@Param("workerId") Long workerId);
+    List<JobOffer> findAllByWorkerIdWithJobRequest(@Param("workerId") Long workerId);
 
     @Query("""
         select jo from JobOffer jo
@@ -85,4 +87,44 @@ public interface JobOfferRepository extends JpaRepository<JobOffer, Long> {
           and jo.jobRequest.customer.banned = false
         """)
     Optional<JobOffer> findCompletedOfferByJobRequestId(@Param("jobRequestId") Long jobRequestId);
+
+    /**
+     * Deletes all offers on the job requests of a customer in the given status.
+     *
+     * @param customer the customer whose job requests received the offers
+     * @param status   the status of the job requests
+     * @return the number of deleted offers
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        delete from JobOffer jo
+        where jo.jobRequest.id in (select jr.id from JobRequest jr where jr.customer = :customer and jr.status = :status)
+        """)
+    int deleteAllByCustomerAndJobRequestStatus(@Param("customer") ApplicationUser customer, @Param("status") JobStatus status);
+
+    /**
+     * Marks the ACCEPTED offers on the ACCEPTED job requests of a customer as DONE.
+     *
+     * @param customer the customer whose job requests received the offers
+     * @return the number of completed offers
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update JobOffer jo set jo.status = at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus.DONE
+        where jo.status = at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus.ACCEPTED
+         and jo.jobRequest.id in (select jr.id from JobRequest jr
+            where jr.customer = :customer and jr.status = at.ac.tuwien.sepr.groupphase.backend.type.JobStatus.ACCEPTED)
+        """)
+    int completeAcceptedByCustomer(@Param("customer") ApplicationUser customer);
+
+    /**
+     * Hands all offers of a worker over to another user.
+     *
+     * @param worker      the worker whose offers are reassigned
+     * @param replacement the user taking them over
+     * @return the number of reassigned offers
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update JobOffer jo set jo.worker = :replacement where jo.worker = :worker")
+    int reassignWorker(@Param("worker") ApplicationUser worker, @Param("replacement") ApplicationUser replacement);
 }
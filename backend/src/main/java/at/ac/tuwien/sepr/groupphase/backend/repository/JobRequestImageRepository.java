@@ -1,8 +1,13 @@
 package at.ac.tuwien.sepr.groupphase.backend.repository;
 
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequestImage;
+import at.ac.tuwien.sepr.groupphase.backend.type.JobStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -45,10 +50,64 @@ public interface JobRequestImageRepository extends JpaRepository<JobRequestImage
      */
     boolean existsByJobRequestIdAndId(Long jobRequestId, Long imageId);
 
+    /**
+     * Retrieves the IDs of all images whose variants have not been generated yet.
+     *
+     * @return the IDs of the images
+     */
+    @Query("select i.id from JobRequestImage i where i.blobKey is not null and (i.medium.blobKey is null or i.thumbnail.blobKey is null)")
+    List<Long> findIdsWithoutVariants();
+
+    /**
+     * Records the generated variants of an image in their own transaction.
+     *
+     * @param id              the ID of the image
+     * @param mediumKey       the blob key of the medium variant
+     * @param mediumLength    the size of the medium variant in bytes
+     * @param thumbnailKey    the blob key of the thumbnail
+     * @param thumbnailLength the size of the thumbnail in bytes
+     * @return the number of updated images, 0 if the image was deleted in the meantime
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update JobRequestImage i set
+            i.medium.blobKey = :mediumKey, i.medium.contentLength = :mediumLength,
+            i.thumbnail.blobKey = :thumbnailKey, i.thumbnail.contentLength = :thumbnailLength
+        where i.id = :id
+        """)
+    int updateVariants(@Param("id") Long id,
+                       @Param("mediumKey") String mediumKey, @Param("mediumLength") long mediumLength,
+                       @Param("thumbnailKey") String thumbnailKey, @Param("thumbnailLength") long thumbnailLength);
+
     /**
      * Deletes all Job Requests Images with an ID less than the specified value.
      *
      * @param l the threshold ID; all Job Requests Images with an ID less than this value will be deleted
      */
     void deleteAllByIdLessThan(long l);
+
+    /**
+     * Retrieves the images of all job requests of a customer in the given status.
+     *
+     * @param customerId the ID of the customer
+     * @param status     the status of the job requests
+     * @return the images of the matching job requests
+     */
+    @Query("select i from JobRequestImage i where i.jobRequest.customer.id = :customerId and i.jobRequest.status = :status")
+    List<JobRequestImage> findByCustomerIdAndJobRequestStatus(@Param("customerId") Long customerId, @Param("status") JobStatus status);
+
+    /**
+     * Deletes the images of all job requests of a customer in the given status.
+     *
+     * @param customerId the ID of the customer
+     * @param status     the status of the job requests
+     * @return the number of deleted images
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        delete from JobRequestImage i
+        where i.jobRequest.id in (select jr.id from JobRequest jr where jr.customer.id = :customerId and jr.status = :status)
+        """)
+    int deleteByCustomerIdAndJobRequestStatus(@Param("customerId") Long customerId, @Param("status") JobStatus status);
 }
@@ -1,18 +1,29 @@
 package at.ac.tuwien.sepr.groupphase.backend.repository;
 
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestListDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestListWithMinPriceDto;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.repository.projection.JobRequestText;
 import at.ac.tuwien.sepr.groupphase.backend.type.Category;
 import at.ac.tuwien.sepr.groupphase.backend.type.JobStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface JobRequestRepository extends JpaRepository<JobRequest, Long> {
@@ -28,14 +39,23 @@ public interface JobRequestRepository extends JpaRepository<JobRequest, Long> {
     List<JobRequest> findAllByCustomerIdAndCustomerBannedFalse(@Param("customerId") Long customerId);
 
     /**
-     * Finds all Job Requests by status from customers who are not banned.
-     * The associated Property is eagerly fetched to prevent LazyInitializationException.
+     * Streams all Job Requests by status from customers who are not banned, projected to list entries.
+     * No entities are loaded, so the persistence context does not grow while the stream is consumed.
+     * Has to be consumed and closed within a transaction.
      *
      * @param status the status of the job requests to find
-     * @return a list of Job Requests matching the status
+     * @return a stream of list entries matching the status, oldest first
      */
-    @Query("SELECT j FROM JobRequest j LEFT JOIN FETCH j.property WHERE j.status = :status AND j.customer.banned = false")
-    List<JobRequest> findAllByStatusAndCustomerBannedFalse(@Param("status") JobStatus status);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("""
+        select new at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestListDto(
+            j.id, j.title, j.description, j.category, j.status, j.deadline, p.address)
+        from JobRequest j
+        left join j.property p
+        where j.status = :status and j.customer.banned = false
+        order by j.id
+        """)
+    Stream<JobRequestListDto> streamListByStatus(@Param("status") JobStatus status);
 
 
     /**
@@ -53,15 +73,108 @@ public interface JobRequestRepository extends JpaRepository<JobRequest, Long> {
      */
     void deleteAllByIdLessThan(long l);
 
+    /**
+     * Recomputes the lowest PENDING offer price and the number of PENDING offers of one job request.
+     * Has to be called in the same transaction whenever an offer of the request is created, changes its price
+     * or leaves the PENDING state.
+     *
+     * @param jobRequestId the ID of the job request whose offer summary should be refreshed
+     */
+    @Modifying(flushAutomatically = true)
     @Query("""
-        select distinct jr from JobRequest jr
-        left join fetch jr.property
-        left join fetch jr.receivedJobOffers ro
-        left join fetch ro.worker
-        where jr.status = :status and jr.customer.banned = false
-        order by jr.createdAt
+        update JobRequest jr set
+            jr.lowestOfferPrice = (select min(o.price) from JobOffer o
+                where o.jobRequest.id = jr.id and o.status = at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus.PENDING),
+            jr.pendingOfferCount = (select count(o) from JobOffer o
+                where o.jobRequest.id = jr.id and o.status = at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus.PENDING)
+        where jr.id = :jobRequestId
+        """)
+    void refreshOfferSummary(@Param("jobRequestId") Long jobRequestId);
+
+    /**
+     * Recomputes the offer summary of all job requests, e.g. after offers were inserted without the services.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        update JobRequest jr set
+            jr.lowestOfferPrice = (select min(o.price) from JobOffer o
+                where o.jobRequest.id = jr.id and o.status = at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus.PENDING),
+            jr.pendingOfferCount = (select count(o) from JobOffer o
+                where o.jobRequest.id = jr.id and o.status = at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus.PENDING)
+        """)
+    int refreshAllOfferSummaries();
+
+    /**
+     * Hides all PENDING job requests of a customer that were reported, so they are kept for the admins.
+     *
+     * @param customer the customer whose job requests should be hidden
+     * @return the number of hidden job requests
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update JobRequest jr set jr.status = at.ac.tuwien.sepr.groupphase.backend.type.JobStatus.HIDDEN
+        where jr.customer = :customer and jr.status = at.ac.tuwien.sepr.groupphase.backend.type.JobStatus.PENDING
+         and exists (select r.id from Report r where r.jobRequest.id = jr.id)
+        """)
+    int hideReportedPendingByCustomer(@Param("customer") ApplicationUser customer);
+
+    /**
+     * Deletes all job requests of a customer in the given status. Their offers and images are not cascaded and
+     * have to be deleted first.
+     *
+     * @param customer the customer whose job requests should be deleted
+     * @param status   the status of the job requests to delete
+     * @return the number of deleted job requests
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from JobRequest jr where jr.customer = :customer and jr.status = :status")
+    int deleteAllByCustomerAndStatus(@Param("customer") ApplicationUser customer, @Param("status") JobStatus status);
+
+    /**
+     * Marks all ACCEPTED job requests of a customer as DONE.
+     *
+     * @param customer the customer whose job requests should be completed
+     * @return the number of completed job requests
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update JobRequest jr set jr.status = at.ac.tuwien.sepr.groupphase.backend.type.JobStatus.DONE
+        where jr.customer = :customer and jr.status = at.ac.tuwien.sepr.groupphase.backend.type.JobStatus.ACCEPTED
+        """)
+    int completeAcceptedByCustomer(@Param("customer") ApplicationUser customer);
+
+    /**
+     * Hands all job requests of a customer over to another user and detaches them from their properties.
+     *
+     * @param customer    the customer whose job requests are reassigned
+     * @param replacement the user taking them over
+     * @return the number of reassigned job requests
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update JobRequest jr set jr.customer = :replacement, jr.property = null where jr.customer = :customer")
+    int reassignCustomer(@Param("customer") ApplicationUser customer, @Param("replacement") ApplicationUser replacement);
+
+    /**
+     * Streams all PENDING job requests from not banned customers the worker has no pending offer on, together with
+     * their lowest pending offer price (0 if there is none). Like {@link #streamListByStatus} only list entries are
+     * loaded, and the stream has to be consumed and closed within a transaction.
+     *
+     * @param workerId the ID of the worker whose pending offers exclude a request
+     * @return a stream of list entries, oldest first
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("""
+        select new at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestListWithMinPriceDto(
+            jr.id, jr.title, jr.description, jr.category, jr.status, jr.deadline, coalesce(jr.lowestOfferPrice, 0.0F))
+        from JobRequest jr
+        where jr.status = at.ac.tuwien.sepr.groupphase.backend.type.JobStatus.PENDING and jr.customer.banned = false
+        and not exists (
+            select 1 from JobOffer o
+            where o.jobRequest = jr and o.worker.id = :workerId and o.status = at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus.PENDING
+        )
+        order by jr.createdAt, jr.id
         """)
-    List<JobRequest> findAllByStatusWithOffers(@Param("status") JobStatus status);
+    Stream<JobRequestListWithMinPriceDto> streamOpenForWorker(@Param("workerId") Long workerId);
 
     @Query("""
         select jr from JobRequest jr
@@ -71,22 +184,27 @@ public interface JobRequestRepository extends JpaRepository<JobRequest, Long> {
         """)
     Optional<JobRequest> findByIdWithCustomer(@Param("id") Long id);
 
-    /**
-     * Search for job requests by the given criteria.
-     * Parameters can be null, in which case they are ignored in the search.
-     */
-    @Query("SELECT j FROM JobRequest j LEFT JOIN FETCH j.property WHERE "
-        + "j.customer.id = :customerId AND "
+    String CUSTOMER_FILTER = "j.customer.id = :customerId AND "
         + "j.customer.banned = false AND "
         + "j.status <> 'HIDDEN' AND "
-        + "(:title IS NULL OR LOWER(j.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND "
+        + "(:ids IS NULL OR j.id IN :ids) AND "
         + "(:categories IS NULL OR j.category IN :categories) AND "
         + "(:statuses IS NULL OR j.status IN :statuses) AND "
         + "(:deadline IS NULL OR j.deadline <= :deadline) AND "
-        + "(:propertyId IS NULL OR j.property.id = :propertyId)")
+        + "(:propertyId IS NULL OR j.property.id = :propertyId)";
+
+    String CUSTOMER_SEARCH = "SELECT j FROM JobRequest j LEFT JOIN FETCH j.property WHERE " + CUSTOMER_FILTER;
+
+    /**
+     * Search for job requests by the given criteria.
+     * Parameters can be null, in which case they are ignored in the search.
+     * Text search is done beforehand by the {@link at.ac.tuwien.sepr.groupphase.backend.service.JobRequestTextIndex},
+     * whose matches are passed as {@code ids}.
+     */
+    @Query(CUSTOMER_SEARCH)
     Page<JobRequest> searchJobRequestsCustomer(
         @Param("customerId") Long customerId,
-        @Param("title") String title,
+        @Param("ids") Collection<Long> ids,
         @Param("categories") List<Category> categories,
         @Param("statuses") List<JobStatus> statuses,
         @Param("deadline") LocalDate deadline,
@@ -94,28 +212,49 @@ public interface JobRequestRepository extends JpaRepository<JobRequest, Long> {
         Pageable pageable
     );
 
+    /**
+     * Narrows the ids of a text search down to those of {@link #searchJobRequestsCustomer}, without loading the job requests.
+     */
+    @Query("SELECT j.id FROM JobRequest j WHERE " + CUSTOMER_FILTER)
+    List<Long> searchJobRequestIdsCustomer(
+        @Param("customerId") Long customerId,
+        @Param("ids") Collection<Long> ids,
+        @Param("categories") List<Category> categories,
+        @Param("statuses") List<JobStatus> statuses,
+        @Param("deadline") LocalDate deadline,
+        @Param("propertyId") Long propertyId
+    );
 
     /**
-     * Finds all PENDING job requests from not banned users matching criteria within a specific distance.
-     * Uses a native query for the required math functions.
+     * Keyset variant of {@link #searchJobRequestsCustomer}: returns the matching job requests with an id lower than
+     * {@code beforeId}, newest first, without counting all matches.
+     */
+    @Query(CUSTOMER_SEARCH + " AND j.id < :beforeId ORDER BY j.id DESC")
+    List<JobRequest> searchJobRequestsCustomerBefore(
+        @Param("customerId") Long customerId,
+        @Param("ids") Collection<Long> ids,
+        @Param("categories") List<Category> categories,
+        @Param("statuses") List<JobStatus> statuses,
+        @Param("deadline") LocalDate deadline,
+        @Param("propertyId") Long propertyId,
+        @Param("beforeId") long beforeId,
+        Limit limit
+    );
+
+
+    /**
+     * Shared part of the worker searches: PENDING job requests from not banned customers matching the filters,
+     * excluding requests the worker already has a pending offer on.
      */
-    @Query(value = """
-        SELECT j.* FROM job_request j
+    String OPEN_REQUESTS_FOR_WORKER_FROM = """
+        FROM job_request j
         JOIN property p ON j.property_id = p.id
         JOIN app_user c ON j.customer_id = c.id
-        LEFT JOIN (SELECT job_request_id, MIN(price) as lowest_price FROM job_offer WHERE status = 'PENDING' GROUP BY job_request_id) AS offers ON j.id = offers.job_request_id
         WHERE j.status = 'PENDING' AND c.banned = false
-        AND (:title IS NULL OR LOWER(j.title) LIKE LOWER(CONCAT('%', :title, '%')))
+        AND (:ids IS NULL OR j.id IN (:ids))
         AND (:categories IS NULL OR j.category IN (:categories))
         AND (:deadline IS NULL OR j.deadline >= :deadline)
-        AND ((:lowestPriceMin IS NULL OR offers.lowest_price >= :lowestPriceMin) AND (:lowestPriceMax IS NULL OR offers.lowest_price <= :lowestPriceMax))
-        AND (
-                :distance IS NULL OR
-                (
-                    (p.latitude IS NOT NULL AND p.longitude IS NOT NULL)
-                    AND (6371 * acos(cos(radians(:latitude)) * cos(radians(p.latitude)) * cos(radians(p.longitude) - radians(:longitude)) + sin(radians(:latitude)) * sin(radians(p.latitude)))) < :distance
-                )
-            )
+        AND ((:lowestPriceMin IS NULL OR j.lowest_offer_price >= :lowestPriceMin) AND (:lowestPriceMax IS NULL OR j.lowest_offer_price <= :lowestPriceMax))
         AND NOT EXISTS (
             SELECT 1
             FROM job_offer o
@@ -123,31 +262,178 @@ public interface JobRequestRepository extends JpaRepository<JobRequest, Long> {
               AND o.worker_id = :workerId
               AND o.status = 'PENDING'
         )
-        """, nativeQuery = true)
+        """;
+
+    String OPEN_REQUESTS_FOR_WORKER = "SELECT j.* " + OPEN_REQUESTS_FOR_WORKER_FROM;
+
+    /**
+     * Finds all PENDING job requests from not banned users matching criteria, regardless of their location.
+     */
+    @Query(value = OPEN_REQUESTS_FOR_WORKER, nativeQuery = true)
+    Page<JobRequest> searchOpenJobRequestsWorker(
+        @Param("ids") Collection<Long> ids,
+        @Param("categories") List<String> categories,
+        @Param("deadline") LocalDate deadline,
+        @Param("lowestPriceMin") Float lowestPriceMin,
+        @Param("lowestPriceMax") Float lowestPriceMax,
+        @Param("workerId") Long workerId,
+        Pageable pageable
+    );
+
+    /**
+     * Narrows the ids of a text search down to those of {@link #searchOpenJobRequestsWorker}, without loading the job requests.
+     */
+    @Query(value = "SELECT j.id " + OPEN_REQUESTS_FOR_WORKER_FROM, nativeQuery = true)
+    List<Long> searchOpenJobRequestIdsWorker(
+        @Param("ids") Collection<Long> ids,
+        @Param("categories") List<String> categories,
+        @Param("deadline") LocalDate deadline,
+        @Param("lowestPriceMin") Float lowestPriceMin,
+        @Param("lowestPriceMax") Float lowestPriceMax,
+        @Param("workerId") Long workerId
+    );
+
+    /**
+     * Restricts {@link #OPEN_REQUESTS_FOR_WORKER} to properties within a distance. The bounding box is a cheap,
+     * index-backed prefilter (see {@link at.ac.tuwien.sepr.groupphase.backend.util.GeoBoundingBox}) so the exact
+     * {@code acos} check only runs on properties that can possibly be in range.
+     */
+    String WITHIN_DISTANCE = """
+        AND p.latitude BETWEEN :minLatitude AND :maxLatitude
+        AND p.longitude BETWEEN :minLongitude AND :maxLongitude
+        AND (6371 * acos(cos(radians(:latitude)) * cos(radians(p.latitude)) * cos(radians(p.longitude) - radians(:longitude)) + sin(radians(:latitude)) * sin(radians(p.latitude)))) < :distance
+        """;
+
+    /**
+     * Keyset variant of {@link #searchOpenJobRequestsWorker}: matching job requests with an id lower than
+     * {@code beforeId}, newest first, without counting all matches.
+     */
+    @Query(value = OPEN_REQUESTS_FOR_WORKER + " AND j.id < :beforeId ORDER BY j.id DESC", nativeQuery = true)
+    List<JobRequest> searchOpenJobRequestsWorkerBefore(
+        @Param("ids") Collection<Long> ids,
+        @Param("categories") List<String> categories,
+        @Param("deadline") LocalDate deadline,
+        @Param("lowestPriceMin") Float lowestPriceMin,
+        @Param("lowestPriceMax") Float lowestPriceMax,
+        @Param("workerId") Long workerId,
+        @Param("beforeId") long beforeId,
+        Limit limit
+    );
+
+    /**
+     * Finds all PENDING job requests from not banned users matching criteria within a specific distance.
+     * Uses a native query for the required math functions.
+     */
+    @Query(value = OPEN_REQUESTS_FOR_WORKER + WITHIN_DISTANCE, nativeQuery = true)
     Page<JobRequest> searchOpenJobRequestsWorkerWithDistance(
-        @Param("title") String title,
+        @Param("ids") Collection<Long> ids,
         @Param("categories") List<String> categories,
         @Param("deadline") LocalDate deadline,
         @Param("latitude") Float latitude,
         @Param("longitude") Float longitude,
         @Param("distance") Integer distance,
+        @Param("minLatitude") Double minLatitude,
+        @Param("maxLatitude") Double maxLatitude,
+        @Param("minLongitude") Double minLongitude,
+        @Param("maxLongitude") Double maxLongitude,
         @Param("lowestPriceMin") Float lowestPriceMin,
         @Param("lowestPriceMax") Float lowestPriceMax,
         @Param("workerId") Long workerId,
         Pageable pageable
     );
 
-    @Query("SELECT j FROM JobRequest j LEFT JOIN FETCH j.property WHERE "
-        + "(:title IS NULL OR LOWER(j.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND "
+    /**
+     * Narrows the ids of a text search down to those of {@link #searchOpenJobRequestsWorkerWithDistance}.
+     */
+    @Query(value = "SELECT j.id " + OPEN_REQUESTS_FOR_WORKER_FROM + WITHIN_DISTANCE, nativeQuery = true)
+    List<Long> searchOpenJobRequestIdsWorkerWithDistance(
+        @Param("ids") Collection<Long> ids,
+        @Param("categories") List<String> categories,
+        @Param("deadline") LocalDate deadline,
+        @Param("latitude") Float latitude,
+        @Param("longitude") Float longitude,
+        @Param("distance") Integer distance,
+        @Param("minLatitude") Double minLatitude,
+        @Param("maxLatitude") Double maxLatitude,
+        @Param("minLongitude") Double minLongitude,
+        @Param("maxLongitude") Double maxLongitude,
+        @Param("lowestPriceMin") Float lowestPriceMin,
+        @Param("lowestPriceMax") Float lowestPriceMax,
+        @Param("workerId") Long workerId
+    );
+
+    /**
+     * Keyset variant of {@link #searchOpenJobRequestsWorkerWithDistance}.
+     */
+    @Query(value = OPEN_REQUESTS_FOR_WORKER + WITHIN_DISTANCE + " AND j.id < :beforeId ORDER BY j.id DESC", nativeQuery = true)
+    List<JobRequest> searchOpenJobRequestsWorkerWithDistanceBefore(
+        @Param("ids") Collection<Long> ids,
+        @Param("categories") List<String> categories,
+        @Param("deadline") LocalDate deadline,
+        @Param("latitude") Float latitude,
+        @Param("longitude") Float longitude,
+        @Param("distance") Integer distance,
+        @Param("minLatitude") Double minLatitude,
+        @Param("maxLatitude") Double maxLatitude,
+        @Param("minLongitude") Double minLongitude,
+        @Param("maxLongitude") Double maxLongitude,
+        @Param("lowestPriceMin") Float lowestPriceMin,
+        @Param("lowestPriceMax") Float lowestPriceMax,
+        @Param("workerId") Long workerId,
+        @Param("beforeId") long beforeId,
+        Limit limit
+    );
+
+    String ADMIN_FILTER = "(:ids IS NULL OR j.id IN :ids) AND "
         + "j.status <> 'HIDDEN' AND "
         + "(:categories IS NULL OR j.category IN :categories) AND "
         + "(:statuses IS NULL OR j.status IN :statuses) AND "
-        + "(:deadline IS NULL OR j.deadline <= :deadline)")
+        + "(:deadline IS NULL OR j.deadline <= :deadline)";
+
+    String ADMIN_SEARCH = "SELECT j FROM JobRequest j LEFT JOIN FETCH j.property WHERE " + ADMIN_FILTER;
+
+    @Query(ADMIN_SEARCH)
     Page<JobRequest> searchJobRequestsAdmin(
-        @Param("title") String title,
+        @Param("ids") Collection<Long> ids,
         @Param("categories") List<Category> categories,
         @Param("statuses") List<JobStatus> statuses,
         @Param("deadline") LocalDate deadline,
         Pageable pageable
     );
+
+    /**
+     * Narrows the ids of a text search down to those of {@link #searchJobRequestsAdmin}, without loading the job requests.
+     */
+    @Query("SELECT j.id FROM JobRequest j WHERE " + ADMIN_FILTER)
+    List<Long> searchJobRequestIdsAdmin(
+        @Param("ids") Collection<Long> ids,
+        @Param("categories") List<Category> categories,
+        @Param("statuses") List<JobStatus> statuses,
+        @Param("deadline") LocalDate deadline
+    );
+
+    /**
+     * Keyset variant of {@link #searchJobRequestsAdmin}.
+     */
+    @Query(ADMIN_SEARCH + " AND j.id < :beforeId ORDER BY j.id DESC")
+    List<JobRequest> searchJobRequestsAdminBefore(
+        @Param("ids") Collection<Long> ids,
+        @Param("categories") List<Category> categories,
+        @Param("statuses") List<JobStatus> statuses,
+        @Param("deadline") LocalDate deadline,
+        @Param("beforeId") long beforeId,
+        Limit limit
+    );
+
+    /**
+     * Loads only the searchable text of all job requests, to build the full-text index without loading entities.
+     */
+    @Query("SELECT new at.ac.tuwien.sepr.groupphase.backend.repository.projection.JobRequestText(j.id, j.title, j.description) FROM JobRequest j")
+    List<JobRequestText> findAllTexts();
+
+    /**
+     * Loads only the searchable text of one job request, to update it in the full-text index.
+     */
+    @Query("SELECT new at.ac.tuwien.sepr.groupphase.backend.repository.projection.JobRequestText(j.id, j.title, j.description) FROM JobRequest j WHERE j.id = :id")
+    Optional<JobRequestText> findTextById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -1,22 +1,34 @@
 package at.ac.tuwien.sepr.groupphase.backend.repository;
 
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.license.AdminLicenseListDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.license.LicenseListDto;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.License;
 import at.ac.tuwien.sepr.groupphase.backend.type.LicenseStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface LicenseRepository extends JpaRepository<License, Long> {
 
     /**
-     * Finds all Properties associated with a specific customer ID.
+     * Lists the licenses of a worker, reading only the columns shown in the list.
      *
-     * @param workerId the ID of the customer whose properties should be retrieved
-     * @return a list of all Properties belonging to the specified customer
+     * @param workerId the ID of the worker whose licenses should be retrieved
+     * @return the list entries of all licenses belonging to the worker
      */
-    List<License> findAllByWorkerId(Long workerId);
+    @Query("""
+        select new at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.license.LicenseListDto(l.id, l.filename, l.status, l.uploadTime)
+        from License l
+        where l.worker.id = :workerId
+        """)
+    List<LicenseListDto> findListByWorkerId(@Param("workerId") Long workerId);
 
     /**
      * Deletes all Licenses with an ID less than the specified value.
@@ -26,24 +38,95 @@ public interface LicenseRepository extends JpaRepository<License, Long> {
     void deleteAllByIdLessThan(long l);
 
     /**
-     * Fetch all licenses whose status is PENDING.
+     * Hands all licenses of a worker over to another user.
+     *
+     * @param worker      the worker whose licenses are reassigned
+     * @param replacement the user taking them over
+     * @return the number of reassigned licenses
      */
-    List<License> findAllByStatus(LicenseStatus status);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update License l set l.worker = :replacement where l.worker = :worker")
+    int reassignWorker(@Param("worker") ApplicationUser worker, @Param("replacement") ApplicationUser replacement);
 
     /**
-     * Fetch all licenses by their Status.
+     * Lists all licenses with the given status for the admin view, reading only the columns shown in the list.
+     *
+     * @param status the status of the licenses to find
+     * @return the list entries of all matching licenses
      */
-    Page<License> findAllByStatus(LicenseStatus status, Pageable pageable);
+    @Query("""
+        select new at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.license.AdminLicenseListDto(
+            l.id, l.filename, l.status, l.uploadTime, l.description, w.username)
+        from License l
+        join l.worker w
+        where l.status = :status
+        """)
+    List<AdminLicenseListDto> findAdminListByStatus(@Param("status") LicenseStatus status);
 
     /**
-     * Fetch all licenses by their Status and Username.
+     * Pages through the licenses with the given status for the admin view, reading only the columns shown in the list.
+     *
+     * @param status   the status of the licenses to find
+     * @param pageable the page to fetch
+     * @return a page of list entries of matching licenses
      */
-    Page<License> findAllByStatusAndWorker_UsernameContainingIgnoreCase(LicenseStatus status, String username, Pageable pageable);
+    @Query(value = """
+        select new at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.license.AdminLicenseListDto(
+            l.id, l.filename, l.status, l.uploadTime, l.description, w.username)
+        from License l
+        join l.worker w
+        where l.status = :status
+        """,
+        countQuery = "select count(l) from License l where l.status = :status")
+    Page<AdminLicenseListDto> findAdminListByStatus(@Param("status") LicenseStatus status, Pageable pageable);
 
+    /**
+     * Pages through the licenses with the given status of workers whose username contains the given text, ignoring case.
+     *
+     * @param status   the status of the licenses to find
+     * @param username the text the username has to contain
+     * @param pageable the page to fetch
+     * @return a page of list entries of matching licenses
+     */
+    @Query(value = """
+        select new at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.license.AdminLicenseListDto(
+            l.id, l.filename, l.status, l.uploadTime, l.description, w.username)
+        from License l
+        join l.worker w
+        where l.status = :status and lower(w.username) like lower(concat('%', :username, '%'))
+        """,
+        countQuery = """
+        select count(l) from License l join l.worker w
+        where l.status = :status and lower(w.username) like lower(concat('%', :username, '%'))
+        """)
+    Page<AdminLicenseListDto> findAdminListByStatusAndUsername(@Param("status") LicenseStatus status, @Param("username") String username,
+                                                              Pageable pageable);
 
     /**
      * Returns true if the given worker ID has at least one license
      * in the given status.
      */
     boolean existsByWorkerIdAndStatus(Long workerId, LicenseStatus status);
+
+    /**
+     * Fetches what is needed to answer a download request. The file itself is kept in the blob store.
+     *
+     * @param id the ID of the license
+     * @return the file information, or empty if there is no license with this ID
+     */
+    Optional<FileInfo> findFileInfoById(Long id);
+
+    /**
+     * The columns of a license describing its file.
+     */
+    interface FileInfo {
+
+        String getFilename();
+
+        String getMediaType();
+
+        String getContentHash();
+
+        Long getContentLength();
+    }
 }
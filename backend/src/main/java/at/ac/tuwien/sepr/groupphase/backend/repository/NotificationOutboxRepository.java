@@ -0,0 +1,52 @@
+package at.ac.tuwien.sepr.groupphase.backend.repository;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.NotificationOutbox;
+import at.ac.tuwien.sepr.groupphase.backend.type.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Finds pending notifications whose next delivery attempt is due, oldest first, and locks them.
+     * Rows locked by another dispatcher are skipped where the database supports it; H2 waits for the lock instead
+     * and then leaves out rows that are no longer due. Either way concurrent dispatchers claim disjoint batches.
+     * Has to run in a transaction.
+     *
+     * @param now   the current time
+     * @param limit the maximum number of notifications to return
+     * @return the due notifications
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM NotificationOutbox n WHERE n.status = at.ac.tuwien.sepr.groupphase.backend.type.OutboxStatus.PENDING AND n.nextAttemptAt <= :now ORDER BY n.id")
+    List<NotificationOutbox> findDue(@Param("now") LocalDateTime now, Limit limit);
+
+    List<NotificationOutbox> findByStatus(OutboxStatus status);
+
+    long countByStatus(OutboxStatus status);
+
+    /**
+     * Deletes the notifications that could not be delivered and were queued before the given time.
+     *
+     * @param before the time the notifications were queued before
+     * @return the number of deleted notifications
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox n WHERE n.status = at.ac.tuwien.sepr.groupphase.backend.type.OutboxStatus.DEAD AND n.createdAt < :before")
+    int deleteDeadCreatedBefore(@Param("before") LocalDateTime before);
+}
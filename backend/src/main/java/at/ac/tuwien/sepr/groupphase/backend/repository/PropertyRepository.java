@@ -1,7 +1,11 @@
 package at.ac.tuwien.sepr.groupphase.backend.repository;
 
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.Property;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -24,4 +28,14 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
      */
     void deleteAllByIdLessThan(long l);
 
+    /**
+     * Deletes all Properties of a customer. No job request may refer to them anymore.
+     *
+     * @param customer the customer whose properties should be deleted
+     * @return the number of deleted Properties
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Property p WHERE p.customer = :customer")
+    int deleteAllByCustomer(@Param("customer") ApplicationUser customer);
+
 }
@@ -3,9 +3,14 @@ package at.ac.tuwien.sepr.groupphase.backend.repository;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.PushSubscription;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,9 +21,23 @@ public interface PushSubscriptionRepository extends JpaRepository<PushSubscripti
 
     Optional<PushSubscription> findByEndpoint(String endpoint);
 
-    void deleteByUser(ApplicationUser user);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PushSubscription ps WHERE ps.user = :user")
+    int deleteByUser(@Param("user") ApplicationUser user);
 
     @Query("SELECT ps FROM PushSubscription ps WHERE ps.user.role = at.ac.tuwien.sepr.groupphase.backend.type.Role.ADMIN")
     List<PushSubscription> findAllByAdminRole();
 
+    @Transactional
+    @Modifying
+    @Query("UPDATE PushSubscription ps SET ps.failureCount = 0, ps.backoffUntil = NULL WHERE ps.id IN :ids AND ps.failureCount > 0")
+    int resetFailures(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PushSubscription ps SET ps.failureCount = :failureCount, ps.backoffUntil = :backoffUntil WHERE ps.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("failureCount") int failureCount, @Param("backoffUntil") LocalDateTime backoffUntil);
+
+    long countByBackoffUntilAfter(LocalDateTime now);
+
 }
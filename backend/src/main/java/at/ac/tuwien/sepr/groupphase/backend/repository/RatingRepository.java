@@ -3,6 +3,7 @@ package at.ac.tuwien.sepr.groupphase.backend.repository;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.Rating;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -30,8 +31,26 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
      */
     void deleteAllByIdLessThan(long l);
 
-    List<Rating> findAllByFromUser(ApplicationUser user);
+    /**
+     * Hands all ratings given by a user over to another user.
+     *
+     * @param user        the user whose ratings are reassigned
+     * @param replacement the user taking them over
+     * @return the number of reassigned ratings
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Rating r SET r.fromUser = :replacement WHERE r.fromUser = :user")
+    int reassignFromUser(@Param("user") ApplicationUser user, @Param("replacement") ApplicationUser replacement);
 
-    List<Rating> findAllByToUser(ApplicationUser user);
+    /**
+     * Hands all ratings received by a user over to another user.
+     *
+     * @param user        the user whose ratings are reassigned
+     * @param replacement the user taking them over
+     * @return the number of reassigned ratings
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Rating r SET r.toUser = :replacement WHERE r.toUser = :user")
+    int reassignToUser(@Param("user") ApplicationUser user, @Param("replacement") ApplicationUser replacement);
 
 }
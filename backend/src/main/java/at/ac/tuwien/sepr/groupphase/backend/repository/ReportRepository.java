@@ -56,4 +56,12 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
 
     boolean existsByJobRequest_Id(Long jobRequestId);
 
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Report r SET r.reporter = :replacement WHERE r.reporter = :user")
+    int reassignReporter(@Param("user") ApplicationUser user, @Param("replacement") ApplicationUser replacement);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Report r SET r.target = :replacement WHERE r.target = :user")
+    int reassignTarget(@Param("user") ApplicationUser user, @Param("replacement") ApplicationUser replacement);
+
 }
@@ -5,8 +5,10 @@ import at.ac.tuwien.sepr.groupphase.backend.type.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -44,6 +46,14 @@ public interface UserRepository extends JpaRepository<ApplicationUser, Long> {
      */
     boolean existsByUsername(String username);
 
+    /**
+     * Returns the usernames of all banned users.
+     *
+     * @return the usernames of banned users
+     */
+    @Query("SELECT u.username FROM ApplicationUser u WHERE u.banned = true")
+    List<String> findBannedUsernames();
+
     /**
      * Deletes all users with an ID less than the specified value.
      *
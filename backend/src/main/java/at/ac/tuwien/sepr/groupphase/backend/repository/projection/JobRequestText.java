@@ -0,0 +1,11 @@
+package at.ac.tuwien.sepr.groupphase.backend.repository.projection;
+
+/**
+ * The searchable text of a job request.
+ *
+ * @param id          the id of the job request
+ * @param title       the title
+ * @param description the description, may be {@code null}
+ */
+public record JobRequestText(Long id, String title, String description) {
+}
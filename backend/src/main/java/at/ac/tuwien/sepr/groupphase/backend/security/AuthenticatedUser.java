@@ -0,0 +1,20 @@
+package at.ac.tuwien.sepr.groupphase.backend.security;
+
+import at.ac.tuwien.sepr.groupphase.backend.type.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * The principal of an authenticated request, taken from the claims of the token,
+ * so code that only needs the id, username or role of the current user does not have to load it.
+ *
+ * @param id       the id of the user, {@code null} for tokens issued without one
+ * @param username the name of the user
+ * @param role     the role of the user, {@code null} if the token carries none
+ */
+public record AuthenticatedUser(Long id, String username, Role role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
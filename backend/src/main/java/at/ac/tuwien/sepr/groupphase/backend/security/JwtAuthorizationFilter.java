@@ -2,19 +2,14 @@ package at.ac.tuwien.sepr.groupphase.backend.security;
 
 import at.ac.tuwien.sepr.groupphase.backend.config.properties.SecurityProperties;
 import at.ac.tuwien.sepr.groupphase.backend.exception.UserBannedException;
-import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
-import io.jsonwebtoken.Claims;
+import at.ac.tuwien.sepr.groupphase.backend.service.BannedUserRegistry;
 import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
-import java.util.List;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -22,8 +17,6 @@ import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -35,11 +28,13 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
     private final SecurityProperties securityProperties;
 
-    private final UserRepository userRepository;
+    private final JwtVerifier jwtVerifier;
+    private final BannedUserRegistry bannedUserRegistry;
 
-    public JwtAuthorizationFilter(SecurityProperties securityProperties, UserRepository userRepository) {
+    public JwtAuthorizationFilter(SecurityProperties securityProperties, JwtVerifier jwtVerifier, BannedUserRegistry bannedUserRegistry) {
         this.securityProperties = securityProperties;
-        this.userRepository = userRepository;
+        this.jwtVerifier = jwtVerifier;
+        this.bannedUserRegistry = bannedUserRegistry;
     }
 
     @Override
@@ -75,55 +70,27 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
             throw new IllegalArgumentException("Authorization header is malformed or missing");
         }
 
-        byte[] signingKey = securityProperties.getJwtSecret().getBytes();
+        VerifiedToken verified = verify(token);
 
-        Claims claims = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(signingKey)).build()
-            .parseSignedClaims(token.replace(securityProperties.getAuthTokenPrefix(), ""))
-            .getPayload();
+        MDC.put("u", verified.user().username());
 
-        String username = claims.getSubject();
-
-        userRepository.findUserByUsername(username).ifPresent(user -> {
-            if (user.isBanned()) {
-                throw new UserBannedException("User is banned");
-            }
-        });
-
-        List<SimpleGrantedAuthority> authorities = ((List<?>) claims
-            .get("rol")).stream()
-            .map(authority -> new SimpleGrantedAuthority((String) authority))
-            .toList();
-
-        if (username == null || username.isEmpty()) {
-            throw new IllegalArgumentException("Token contains no user");
-        }
-
-        MDC.put("u", username);
-
-        return new UsernamePasswordAuthenticationToken(username, null, authorities);
+        return new UsernamePasswordAuthenticationToken(verified.user(), null, verified.authorities());
     }
 
     public Authentication extractAuthentication(String bearer) {
-        String token = bearer.replace(securityProperties.getAuthTokenPrefix(), "").trim();
-        Claims claims = Jwts.parser()
-            .verifyWith(Keys.hmacShaKeyFor(securityProperties.getJwtSecret().getBytes()))
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
-
-        String username = claims.getSubject();
-
-        if (username == null || username.isEmpty()) {
-            throw new IllegalArgumentException("Token contains no user");
-        }
+        VerifiedToken verified = verify(bearer);
 
-        List<String> roles = (List<String>) claims.get("rol");
-        List<GrantedAuthority> authorities = roles.stream()
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
+        verified.authorities().forEach(grantedAuthority -> LOGGER.debug("Role: {}", grantedAuthority));
 
-        authorities.forEach(grantedAuthority -> LOGGER.debug("Role: {}", grantedAuthority));
+        return new UsernamePasswordAuthenticationToken(verified.user(), null, verified.authorities());
+    }
 
-        return new UsernamePasswordAuthenticationToken(username, null, authorities);
+    private VerifiedToken verify(String bearer) {
+        VerifiedToken verified = jwtVerifier.verify(bearer.replace(securityProperties.getAuthTokenPrefix(), "").trim());
+        // a ban also applies to tokens that were issued before it
+        if (bannedUserRegistry.isBanned(verified.user().username())) {
+            throw new UserBannedException("User is banned");
+        }
+        return verified;
     }
 }
@@ -0,0 +1,107 @@
+package at.ac.tuwien.sepr.groupphase.backend.security;
+
+import at.ac.tuwien.sepr.groupphase.backend.config.properties.SecurityProperties;
+import at.ac.tuwien.sepr.groupphase.backend.type.Role;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Verifies JWTs with a parser that is built once. Verified tokens are cached until they expire,
+ * so a client sending the same token again is not parsed and checked again.
+ */
+@Component
+public class JwtVerifier {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verified;
+
+    public JwtVerifier(SecurityProperties securityProperties, MeterRegistry meterRegistry,
+                       @Value("${security.jwt.verified-token-cache.maximum-size:10000}") long maximumSize,
+                       @Value("${security.jwt.verified-token-cache.max-ttl:1h}") Duration maxTtl) {
+        this.parser = Jwts.parser()
+            .verifyWith(Keys.hmacShaKeyFor(securityProperties.getJwtSecret().getBytes()))
+            .build();
+        this.verified = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(String token, VerifiedToken verifiedToken, long currentTime) {
+                    if (verifiedToken.expiresAt() == null) {
+                        return maxTtl.toNanos();
+                    }
+                    Duration remaining = Duration.between(Instant.now(), verifiedToken.expiresAt());
+                    return Math.clamp(remaining.toNanos(), 0, maxTtl.toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String token, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String token, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified");
+    }
+
+    /**
+     * Verifies the signature and expiration of a token.
+     *
+     * @param token the compact JWT, without the authorization header prefix
+     * @return the user and authorities the token was issued for
+     * @throws JwtException             if the token is invalid or expired
+     * @throws IllegalArgumentException if the token names no user
+     */
+    public VerifiedToken verify(String token) {
+        return verified.get(token, this::parse);
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+
+        String username = claims.getSubject();
+        if (username == null || username.isEmpty()) {
+            throw new IllegalArgumentException("Token contains no user");
+        }
+
+        List<?> roles = claims.get("rol", List.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+            .<GrantedAuthority>map(role -> new SimpleGrantedAuthority((String) role))
+            .toList();
+
+        Role role = authorities.stream()
+            .map(GrantedAuthority::getAuthority)
+            .filter(authority -> authority.startsWith(ROLE_PREFIX))
+            .map(authority -> authority.substring(ROLE_PREFIX.length()))
+            .filter(name -> Arrays.stream(Role.values()).anyMatch(r -> r.name().equals(name)))
+            .map(Role::valueOf)
+            .findFirst()
+            .orElse(null);
+
+        return new VerifiedToken(new AuthenticatedUser(claims.get("id", Long.class), username, role), authorities,
+            claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
+    }
+}
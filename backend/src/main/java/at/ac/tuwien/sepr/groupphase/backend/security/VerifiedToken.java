@@ -0,0 +1,12 @@
+package at.ac.tuwien.sepr.groupphase.backend.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The claims of a JWT whose signature and expiration were checked.
+ */
+public record VerifiedToken(AuthenticatedUser user, List<GrantedAuthority> authorities, Instant expiresAt) {
+}
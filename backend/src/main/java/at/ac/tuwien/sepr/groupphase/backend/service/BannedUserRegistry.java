@@ -0,0 +1,20 @@
+package at.ac.tuwien.sepr.groupphase.backend.service;
+
+/**
+ * Knows which users are banned, so authenticating a request does not need to load the user.
+ */
+public interface BannedUserRegistry {
+
+    /**
+     * Checks whether a user is banned.
+     *
+     * @param username the user to check
+     * @return true if the user is banned
+     */
+    boolean isBanned(String username);
+
+    /**
+     * Reloads the banned users from the database.
+     */
+    void rebuild();
+}
@@ -0,0 +1,92 @@
+package at.ac.tuwien.sepr.groupphase.backend.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.exception.BlobStoreException;
+import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+
+/**
+ * Keeps the content of job request images, license files and chat uploads in the {@link BlobStore}, counting the rows
+ * that refer to each blob. Identical content is stored once however often it is uploaded.
+ *
+ * <p>A row referring to a blob acquires it when it is saved and releases it when it is deleted.
+ * Blobs without references are deleted by the garbage collection after a grace period.
+ */
+public interface BlobService {
+
+    /**
+     * Stores content without referring to it yet. Unless it is acquired within the grace period, it is collected again.
+     * The stream is read to its end but not closed.
+     *
+     * @param content the content to store
+     * @return the key and size of the stored blob
+     * @throws BlobStoreException if the content could not be read or written
+     */
+    BlobStore.StoredBlob store(InputStream content);
+
+    /**
+     * Stores content uploaded to a chat, like {@link #store(InputStream)}, and marks it as a chat upload,
+     * so it can be served by its key and attached to chat messages.
+     *
+     * @param content the content to store
+     * @return the key and size of the stored blob
+     * @throws BlobStoreException if the content could not be read or written
+     */
+    BlobStore.StoredBlob storeChatUpload(InputStream content);
+
+    /**
+     * Adds a reference to a stored blob.
+     *
+     * @param key the key returned when the blob was stored
+     * @return true if the blob is known, false if it was never stored or has already been collected
+     */
+    boolean acquire(String key);
+
+    /**
+     * Adds a reference to a blob that was uploaded to a chat.
+     *
+     * @param key the key returned when the blob was stored
+     * @return true if the blob is a known chat upload, false otherwise
+     */
+    boolean acquireChatUpload(String key);
+
+    /**
+     * Removes a reference from a blob, once the last one is gone the blob may be collected.
+     *
+     * @param key the key of the blob, {@code null} is ignored
+     */
+    void release(String key);
+
+    /**
+     * Returns a resource streaming the content of a blob.
+     *
+     * @param key the key of the blob
+     * @return the content of the blob
+     * @throws NotFoundException if no blob with this key exists
+     */
+    Resource load(String key);
+
+    /**
+     * Returns a resource streaming the content of a blob that was uploaded to a chat.
+     *
+     * @param key the key of the blob
+     * @return the content of the blob
+     * @throws NotFoundException if no chat upload with this key exists
+     */
+    Resource loadChatUpload(String key);
+
+    /**
+     * Deletes all blobs that have been unreferenced for longer than the grace period.
+     *
+     * @return the number of deleted blobs
+     */
+    int collectGarbage();
+
+    /**
+     * Recounts the references of all blobs from the rows referring to them and registers stored blobs
+     * that have no count yet, e.g. content stored before references were counted. Blobs attached to chat messages are
+     * marked as chat uploads.
+     */
+    void reconcileReferences();
+}
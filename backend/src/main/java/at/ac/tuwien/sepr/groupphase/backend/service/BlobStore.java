@@ -0,0 +1,68 @@
+package at.ac.tuwien.sepr.groupphase.backend.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.exception.BlobStoreException;
+import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Stores binary content outside the database. Blobs are addressed by the SHA-256 hash of their content,
+ * so storing the same bytes twice yields the same key and keeps a single copy.
+ */
+public interface BlobStore {
+
+    /**
+     * Stores content read from a stream. The stream is read to its end but not closed.
+     * Storing content that is already present keeps the existing copy and marks it as stored now.
+     *
+     * @param content the content to store
+     * @return the key and size of the stored blob
+     * @throws BlobStoreException if the content could not be read or written
+     */
+    StoredBlob store(InputStream content);
+
+    /**
+     * Returns a resource streaming the content of a blob.
+     *
+     * @param key the key returned when the blob was stored
+     * @return the content of the blob
+     * @throws NotFoundException if no blob with this key exists
+     */
+    Resource load(String key);
+
+    /**
+     * Deletes a blob. Callers must make sure that nothing else refers to the same content.
+     *
+     * @param key the key of the blob, deleting a missing blob does nothing
+     * @throws BlobStoreException if the blob could not be deleted
+     */
+    void delete(String key);
+
+    /**
+     * Deletes a blob unless its content was stored again since the given time. The check and the deletion are atomic
+     * with respect to {@link #store(InputStream)}, so content stored concurrently is never lost.
+     *
+     * @param key          the key of the blob
+     * @param storedBefore the blob is only deleted if it was last stored before this time
+     * @return true if the blob was deleted
+     * @throws BlobStoreException if the blob could not be deleted
+     */
+    boolean deleteIfStoredBefore(String key, Instant storedBefore);
+
+    /**
+     * Lists the keys of all stored blobs. The stream has to be closed.
+     *
+     * @return the keys
+     * @throws BlobStoreException if the blobs could not be listed
+     */
+    Stream<String> keys();
+
+    /**
+     * The key under which content was stored, along with its length in bytes.
+     */
+    record StoredBlob(String key, long size) {
+    }
+}
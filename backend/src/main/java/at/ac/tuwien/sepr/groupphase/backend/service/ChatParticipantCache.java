@@ -0,0 +1,31 @@
+package at.ac.tuwien.sepr.groupphase.backend.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatParticipantsDto;
+
+import java.util.function.Supplier;
+
+/**
+ * Caches the participants of chats. Every chat message and every subscription to a chat topic needs them,
+ * while they only change when a chat or one of its participants is deleted.
+ */
+public interface ChatParticipantCache {
+
+    /**
+     * Returns the cached participants of a chat, loading them on a miss.
+     *
+     * @param chatId the chat
+     * @param load   loads the participants, returning {@code null} if the chat does not exist
+     * @return the participants, or {@code null} if the chat does not exist
+     */
+    ChatParticipantsDto get(long chatId, Supplier<ChatParticipantsDto> load);
+
+    /**
+     * Drops the participants of one chat.
+     */
+    void evict(long chatId);
+
+    /**
+     * Drops all cached participants.
+     */
+    void invalidateAll();
+}
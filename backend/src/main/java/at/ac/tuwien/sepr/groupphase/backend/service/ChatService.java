@@ -5,11 +5,14 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatListItemDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageActionNotification;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageDetailDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessagePayloadDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.CreatedChatDto;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ChatMessage;
+import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import java.util.List;
 import org.apache.tomcat.util.http.fileupload.FileUploadException;
+import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface ChatService {
@@ -18,23 +21,84 @@ public interface ChatService {
 
     void deleteChat(ApplicationUser applicationUser, long chatId);
 
+    /**
+     * Returns the whole chat history, newest first, for clients that do not page through it.
+     */
     List<ChatMessageDetailDto> getChatMessages(ApplicationUser applicationUser, long chatId);
 
+    /**
+     * Returns a page of the chat history, newest first.
+     *
+     * @param beforeId the id of the oldest message the client already has, or {@code null} for the latest messages
+     * @param limit    the maximum number of messages to return
+     */
+    List<ChatMessageDetailDto> getChatMessages(ApplicationUser applicationUser, long chatId, Long beforeId, int limit);
+
+    /**
+     * Returns the messages sent after the given message, oldest first, so a reconnecting client only fetches what
+     * it missed. The last returned message is the position to continue from if the limit was reached.
+     *
+     * @param sinceId the id of the newest message the client already has
+     * @param limit   the maximum number of messages to return
+     */
+    List<ChatMessageDetailDto> getChatMessagesSince(ApplicationUser applicationUser, long chatId, long sinceId, int limit);
+
     ChatMessage getLastMessage(ApplicationUser applicationUser, long chatId);
 
-    ChatMessage saveMessage(String username, long chatId, ChatMessageDto chatMessageDto);
+    /**
+     * Saves a message sent to a chat.
+     *
+     * @return the message as broadcast to the chat
+     */
+    ChatMessagePayloadDto saveMessage(String username, long chatId, ChatMessageDto chatMessageDto);
 
     boolean isMember(long chatId, String username);
 
     String getOtherChatParticipant(long chatId, String username);
 
+    /**
+     * Returns all chats of a user, newest chat first, read from the participant summaries.
+     */
     List<ChatListItemDto> getAllChatsOfUser(String username);
 
+    /**
+     * Returns a page of the chats of a user, newest chat first, read from the participant summaries.
+     *
+     * @param offset the number of chats to skip, which does not have to be a multiple of the limit
+     * @param limit  the maximum number of chats to return
+     */
+    List<ChatListItemDto> getAllChatsOfUser(String username, int offset, int limit);
+
+    /**
+     * Stores an uploaded image or document in the blob store. It is kept once a message refers to its media URL.
+     */
     ChatImageDto uploadImage(MultipartFile image) throws FileUploadException;
 
-    void setMessagesToRead(String username, Long chatId);
+    /**
+     * Opens an upload for streaming.
+     *
+     * @param filename the last segment of the media URL, the content hash followed by the original extension
+     * @return the content of the upload
+     * @throws NotFoundException if no such upload exists
+     */
+    Resource loadUpload(String filename);
+
+    /**
+     * Marks the messages the other participant sent so far as read, with a single update.
+     * The newest read message is kept as the reader's watermark on the chat, so repeated read events
+     * without new messages in between do not touch any message.
+     *
+     * @return {@code true} if there were new messages to mark as read
+     */
+    boolean setMessagesToRead(String username, Long chatId);
 
     ChatMessageActionNotification deleteMessage(String username, Long chatId, Long messageId);
 
     ChatMessageActionNotification editMessage(String username, Long chatId, Long messageId, String newMessage);
+
+    /**
+     * Creates the participant summaries of chats that do not have any yet, e.g. chats created before summaries
+     * existed or inserted by the data generator.
+     */
+    void createMissingSummaries();
 }
@@ -0,0 +1,39 @@
+package at.ac.tuwien.sepr.groupphase.backend.service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resolves postal codes to the places they cover and their coordinates, as published by GeoNames.
+ */
+public interface Geocoder {
+
+    /**
+     * A place covered by a postal code.
+     *
+     * @param placeName the name of the place, e.g. {@code Wien, Innere Stadt}
+     * @param latitude  the latitude of the place in degrees
+     * @param longitude the longitude of the place in degrees
+     */
+    record Place(String placeName, float latitude, float longitude) {
+    }
+
+    /**
+     * Returns all places covered by a postal code.
+     *
+     * @param countryCode the ISO 3166-1 alpha-2 code of the country
+     * @param postalCode  the postal code
+     * @return the places in the order GeoNames lists them, empty if the postal code is unknown or could not be looked up
+     */
+    List<Place> findPlaces(String countryCode, String postalCode);
+
+    /**
+     * Locates a place covered by a postal code.
+     *
+     * @param countryCode the ISO 3166-1 alpha-2 code of the country
+     * @param postalCode  the postal code
+     * @param placeName   the name of the place, ignoring case; if blank, the first place of the postal code
+     * @return the place, empty if it is unknown or could not be looked up
+     */
+    Optional<Place> locate(String countryCode, String postalCode, String placeName);
+}
@@ -5,6 +5,9 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequestimage.JobRequ
 import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.ImageValidationException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.ImageLimitExceededException;
+import at.ac.tuwien.sepr.groupphase.backend.type.ImageSize;
+import at.ac.tuwien.sepr.groupphase.backend.type.JobStatus;
+import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -15,7 +18,7 @@ import java.util.List;
 public interface JobRequestImageService {
 
     /**
-     * Uploads a new image to a job request.
+     * Uploads a new image to a job request. Its variants are generated in the background once it is committed.
      *
      * @param jobRequestId ID of the job request to associate with the image
      * @param file Multipart file containing the image data (JPEG/PNG only)
@@ -41,14 +44,26 @@ public interface JobRequestImageService {
         throws NotFoundException;
 
     /**
-     * Retrieves raw image data.
+     * Retrieves the content hash, type and length of an image without reading its content.
+     * If the requested variant has not been generated yet, the original is described instead.
      *
      * @param jobRequestId ID of the parent job request
      * @param imageId ID of the image to retrieve
-     * @return A JobRequestImageDataDto containing image bytes with content type
+     * @param size the requested size
+     * @return A JobRequestImageDataDto describing the image content and the size it has
      * @throws NotFoundException if image/job request doesn't exist
      */
-    JobRequestImageDataDto getImageData(Long jobRequestId, Long imageId)
+    JobRequestImageDataDto getImageData(Long jobRequestId, Long imageId, ImageSize size)
+        throws NotFoundException;
+
+    /**
+     * Opens the content of an image in the blob store for streaming.
+     *
+     * @param image the image data returned by {@link #getImageData(Long, Long, ImageSize)}
+     * @return the image content
+     * @throws NotFoundException if the content is missing from the blob store
+     */
+    Resource getImageContent(JobRequestImageDataDto image)
         throws NotFoundException;
 
     /**
@@ -60,4 +75,21 @@ public interface JobRequestImageService {
      */
     void deleteImage(Long jobRequestId, Long imageId)
         throws NotFoundException;
+
+    /**
+     * Releases the content of all images of a job request in the blob store.
+     * Called before the job request is deleted, which deletes its images along with it.
+     *
+     * @param jobRequestId ID of the job request
+     */
+    void releaseImageContent(Long jobRequestId);
+
+    /**
+     * Deletes the images of all job requests of a customer in the given status and releases their content.
+     * Called before those job requests are deleted in bulk, which does not cascade to their images.
+     *
+     * @param customerId ID of the customer
+     * @param status     status of the job requests
+     */
+    void deleteImagesOfCustomer(Long customerId, JobStatus status);
 }
@@ -0,0 +1,28 @@
+package at.ac.tuwien.sepr.groupphase.backend.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.type.ImageSize;
+
+/**
+ * Generates the resized variants of job request images, see {@link ImageSize}.
+ */
+public interface JobRequestImageVariantService {
+
+    /**
+     * Queues the generation of the variants of an image. Returns immediately, the variants are generated
+     * on a bounded background executor.
+     *
+     * @param imageId ID of the image
+     * @return {@code false} if the queue is full and the image was not queued
+     */
+    boolean scheduleVariants(Long imageId);
+
+    /**
+     * Generates the variants of an image in the calling thread. The image is decoded once, every variant is scaled
+     * down from it, re-encoded in the format of the original without its metadata and stored in the blob store.
+     *
+     * @param imageId ID of the image
+     * @return {@code true} if the variants were generated and recorded, {@code false} if the image does not exist
+     *     (anymore) or cannot be decoded
+     */
+    boolean generateVariants(Long imageId);
+}
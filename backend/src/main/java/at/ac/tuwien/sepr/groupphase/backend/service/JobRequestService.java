@@ -11,6 +11,7 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.page.PageDto;
 import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 
 public interface JobRequestService {
@@ -62,15 +63,21 @@ public interface JobRequestService {
     JobRequestDetailDto create(JobRequestCreateDto toCreate);
 
     /**
-     * Admin-scoped: list all job requests.
+     * Admin-scoped: passes every pending job request to {@code action}, one at a time.
+     * The requests are streamed from the database, so memory use does not depend on how many there are.
+     *
+     * @param action receives the job requests, oldest first
      */
-    List<JobRequestListDto> findAll();
+    void streamAll(Consumer<JobRequestListDto> action);
 
     /**
-     * Worker-scoped: return every open job request in the system (which has no
-     * open offer from this worker) with the lowest current offer.
+     * Worker-scoped: passes every open job request in the system (which has no
+     * open offer from this worker) with the lowest current offer to {@code action}, one at a time.
+     * Workers without an approved license receive nothing.
+     *
+     * @param action receives the job requests, oldest first
      */
-    List<JobRequestListWithMinPriceDto> findAllOpen();
+    void streamAllOpen(Consumer<JobRequestListWithMinPriceDto> action);
 
     /**
      * Sets the status of the job request with the given ID to 'DONE'.
@@ -89,7 +96,7 @@ public interface JobRequestService {
     PageDto<JobRequestListDto> searchJobRequestsCustomer(JobRequestSearchDto searchDto, int offset, int limit);
 
     /**
-     * Fetches the list of job requests adhering to the search parameters and worker open logic (see findAllOpen).
+     * Fetches the list of job requests adhering to the search parameters and worker open logic (see streamAllOpen).
      *
      * @param searchDto containing the search parameters
      * @return a list of JobRequestListWithMinPriceDto containing the relevant job requests
@@ -97,4 +104,37 @@ public interface JobRequestService {
     PageDto<JobRequestListWithMinPriceDto> searchJobRequestsWorker(JobRequestSearchDto searchDto, int offset, int limit);
 
     PageDto<JobRequestListDto> searchJobRequestsAdmin(JobRequestSearchDto searchDto, int offset, int limit);
+
+    /**
+     * Keyset variant of {@link #searchJobRequestsCustomer(JobRequestSearchDto, int, int)}.
+     * Pages are ordered by descending id and the total number of matches is not counted.
+     *
+     * @param searchDto containing the search parameters
+     * @param cursor    the {@link PageDto#getNextCursor() next cursor} of the previous page, or {@code null} for the first page
+     * @param limit     the maximum number of elements per page
+     * @return the page with a cursor to the next page, if there is one
+     */
+    PageDto<JobRequestListDto> searchJobRequestsCustomerByCursor(JobRequestSearchDto searchDto, String cursor, int limit);
+
+    /**
+     * Keyset variant of {@link #searchJobRequestsWorker(JobRequestSearchDto, int, int)}.
+     * Pages are ordered by descending id and the total number of matches is not counted.
+     *
+     * @param searchDto containing the search parameters
+     * @param cursor    the {@link PageDto#getNextCursor() next cursor} of the previous page, or {@code null} for the first page
+     * @param limit     the maximum number of elements per page
+     * @return the page with a cursor to the next page, if there is one
+     */
+    PageDto<JobRequestListWithMinPriceDto> searchJobRequestsWorkerByCursor(JobRequestSearchDto searchDto, String cursor, int limit);
+
+    /**
+     * Keyset variant of {@link #searchJobRequestsAdmin(JobRequestSearchDto, int, int)}.
+     * Pages are ordered by descending id and the total number of matches is not counted.
+     *
+     * @param searchDto containing the search parameters
+     * @param cursor    the {@link PageDto#getNextCursor() next cursor} of the previous page, or {@code null} for the first page
+     * @param limit     the maximum number of elements per page
+     * @return the page with a cursor to the next page, if there is one
+     */
+    PageDto<JobRequestListDto> searchJobRequestsAdminByCursor(JobRequestSearchDto searchDto, String cursor, int limit);
 }
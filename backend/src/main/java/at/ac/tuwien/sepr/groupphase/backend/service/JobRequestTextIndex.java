@@ -0,0 +1,37 @@
+package at.ac.tuwien.sepr.groupphase.backend.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+
+import java.util.List;
+
+/**
+ * Full-text index over the title and description of all job requests.
+ * The searches filter the database by the ids it returns instead of scanning every row with {@code LIKE}.
+ */
+public interface JobRequestTextIndex {
+
+    /**
+     * Adds the job request to the index, replacing the text indexed for it before.
+     */
+    void index(JobRequest jobRequest);
+
+    /**
+     * Removes the job request from the index.
+     */
+    void remove(Long jobRequestId);
+
+    /**
+     * Rebuilds the whole index from the database.
+     */
+    void rebuild();
+
+    /**
+     * Finds the job requests that contain every term of the query, either as a whole word or as a word prefix.
+     * The results are ranked by relevance; title matches and rare terms weigh more than description matches and
+     * common terms.
+     *
+     * @param query the free text query
+     * @return the ids of the matching job requests, most relevant first; empty if the query has no terms
+     */
+    List<Long> search(String query);
+}
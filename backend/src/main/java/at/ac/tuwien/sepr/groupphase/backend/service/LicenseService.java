@@ -7,6 +7,7 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.license.LicenseDownload
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.license.LicenseListDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.license.LicenseUpdateDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.page.PageDto;
+import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.type.LicenseStatus;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -21,6 +22,7 @@ public interface LicenseService {
 
     /**
      * Creates a new license with the given data and license file.
+     * The file is streamed to the blob store, it is never held in memory as a whole.
      *
      * @param createDto the DTO containing license metadata
      * @param license the uploaded license file
@@ -48,12 +50,22 @@ public interface LicenseService {
      * Downloads the license file identified by its ID.
      *
      * @param id the ID of the license to download
-     * @return a LicenseDownloadDto containing the license file data
+     * @return a LicenseDownloadDto whose file is read from the blob store when the response is written
+     * @throws NotFoundException if there is no license with this ID or it has no file
      */
     LicenseDownloadDto downloadFileById(Long id);
 
+    /**
+     * Gets the filename, media type and content hash of a license file without loading the file.
+     *
+     * @param id the ID of the license
+     * @return a LicenseDownloadDto without the file data
+     */
+    LicenseDownloadDto getDownloadInformationById(Long id);
+
     /**
      * Updates an existing license with the provided data and file.
+     * The file is streamed to the blob store, it is never held in memory as a whole.
      *
      * @param licenseUpdateDto the DTO containing updated license data
      * @param license the new license file
@@ -0,0 +1,20 @@
+package at.ac.tuwien.sepr.groupphase.backend.service;
+
+public interface NotificationDispatcher {
+
+    /**
+     * Delivers all pending notifications of the outbox that are due, in batches.
+     * Delivered notifications are removed. Failed ones are retried with exponential backoff and
+     * marked as dead once they ran out of attempts.
+     *
+     * @return the number of notifications that were attempted
+     */
+    int dispatchPending();
+
+    /**
+     * Deletes the notifications that could not be delivered once they are older than the retention period.
+     *
+     * @return the number of deleted notifications
+     */
+    int purgeDead();
+}
@@ -5,6 +5,10 @@ import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobOffer;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
 
+/**
+ * Creates push notifications for the users' devices. Notifications are only queued in the notification outbox,
+ * within the caller's transaction, and delivered asynchronously by the {@link NotificationDispatcher}.
+ */
 public interface PushNotificationService {
 
     /**
@@ -14,32 +18,32 @@ public interface PushNotificationService {
     void saveSubscription(PushSubscriptionDto dto);
 
     /**
-     * Sends the customer a push notification with the job request title and job offer amount.
+     * Queues a push notification for the customer with the job request title and job offer amount.
      */
     void notifyCustomerOfJobOffer(ApplicationUser customer, JobRequest jobRequest, JobOffer jobOffer);
 
     /**
-     * Sends the worker a push notification with the job request title.
+     * Queues a push notification for the worker with the job request title.
      */
     void notifyWorkerOfAccept(ApplicationUser worker, JobRequest jobRequest);
 
     /**
-     * Sends all workers with matching Search Alerts a push notification about the new job request.
+     * Queues a push notification for all workers with matching Search Alerts about the new job request.
      */
     void notifyWorkersOfJobRequest(JobRequest jobRequest);
 
     /**
-     * Sends the worker a push notification regarding the new license status.
+     * Queues a push notification for the worker regarding the new license status.
      */
     void notifyWorkerOfLicenseApproved(ApplicationUser worker);
 
     /**
-     * Sends the worker a push notification regarding the new license status.
+     * Queues a push notification for the worker regarding the new license status.
      */
     void notifyWorkerOfLicenseRejected(ApplicationUser worker);
 
     /**
-     * Sends all admins a push notification regarding the license to be approved.
+     * Queues a push notification for all admins regarding the license to be approved.
      */
     void notifyAdminsOfLicense(Long licenseId, boolean isUpdate);
 }
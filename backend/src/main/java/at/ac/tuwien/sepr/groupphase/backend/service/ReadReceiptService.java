@@ -0,0 +1,22 @@
+package at.ac.tuwien.sepr.groupphase.backend.service;
+
+public interface ReadReceiptService {
+
+    /**
+     * Records that a participant read a chat. The messages are marked as read and the other participant is
+     * notified on the next flush, so several read events of the same participant in between cost one update.
+     *
+     * @param username the reading participant
+     * @param chatId   the chat that was read
+     * @throws org.springframework.security.access.AccessDeniedException if the user is not a participant of the chat
+     */
+    void markRead(String username, long chatId);
+
+    /**
+     * Applies all read events recorded since the last flush and broadcasts a read receipt for every chat
+     * that had new messages to mark as read.
+     *
+     * @return the number of read events that were applied
+     */
+    int flushPending();
+}
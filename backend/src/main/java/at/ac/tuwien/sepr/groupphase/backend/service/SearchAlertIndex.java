@@ -0,0 +1,52 @@
+package at.ac.tuwien.sepr.groupphase.backend.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.entity.SearchAlert;
+
+import java.util.List;
+
+/**
+ * Reverse index over all search alerts, used to find the alerts a new job request matches
+ * without evaluating every alert in the database.
+ */
+public interface SearchAlertIndex {
+
+    /**
+     * Rebuilds the whole index from the database.
+     */
+    void rebuild();
+
+    /**
+     * Adds the search alert to the index, replacing it if it was indexed before.
+     * The worker of the alert has to be initialized, as its location is indexed too.
+     */
+    void add(SearchAlert alert);
+
+    /**
+     * Removes the search alert from the index.
+     */
+    void remove(Long alertId);
+
+    /**
+     * Updates the location of a worker for all of their alerts.
+     *
+     * @param workerId  the id of the worker
+     * @param latitude  the new latitude, may be {@code null}
+     * @param longitude the new longitude, may be {@code null}
+     */
+    void updateWorkerLocation(Long workerId, Float latitude, Float longitude);
+
+    /**
+     * Finds all alerts, active or not, the job request matches. An alert matches if
+     * <ul>
+     *   <li>it has no categories or one of them is the category of the request,</li>
+     *   <li>it has no keywords or the title or description of the request contains them, ignoring case, and</li>
+     *   <li>it has no maximum distance or the property of the request is closer than that to the worker.</li>
+     * </ul>
+     * A request without property matches no alert.
+     *
+     * @param jobRequest the new job request
+     * @return the ids of the matching alerts
+     */
+    List<Long> findMatchingAlertIds(JobRequest jobRequest);
+}
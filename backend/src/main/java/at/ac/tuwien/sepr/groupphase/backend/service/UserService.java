@@ -9,6 +9,7 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.user.UserRegistrationDt
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.user.UserUpdateDetailDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.user.UserUpdateDto;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
 
 import java.util.List;
 import java.util.Optional;
@@ -86,8 +87,21 @@ public interface UserService extends UserDetailsService {
      */
     UserDetailDto getUserDetailsById(Long id);
 
+    /**
+     * Loads the user the current request is authenticated as. Repeated calls within a transaction are answered
+     * by the persistence context, callers that only need the id, username or role use {@link #getAuthenticatedUser()}.
+     *
+     * @return the current user
+     */
     ApplicationUser getCurrentUser();
 
+    /**
+     * Returns id, username and role of the user the current request is authenticated as, without loading the user.
+     *
+     * @return the current user as authenticated
+     */
+    AuthenticatedUser getAuthenticatedUser();
+
 
     /**
      * Retrieve all users (for admin view) by Page.
@@ -2,16 +2,30 @@ package at.ac.tuwien.sepr.groupphase.backend.service;
 
 import at.ac.tuwien.sepr.groupphase.backend.entity.PushSubscription;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface WebPushService {
 
     /**
-     * Sends a push notification to the given subscription via Web Push Protocol with VAPID.
+     * Serializes a notification into the payload understood by the service worker of the frontend.
+     * Create it once and pass it to {@link #sendPayload} for every subscription that receives the same notification.
+     *
+     * @param title the displayed title
+     * @param body  the displayed body
+     * @param url   the angular router link to be opened on click
+     * @param tag   an identifier of the notification type, allowing newer notifications for one topic to replace the old one
+     * @return the unencrypted payload
+     */
+    byte[] createPayload(String title, String body, String url, String tag);
+
+    /**
+     * Encrypts the payload for the given subscription and sends it in the background.
+     * Deliveries run concurrently, bounded by the configured connection pool.
      *
      * @param subscription the {@link PushSubscription} of the target device
-     * @param title        the displayed title
-     * @param body         the displayed body
-     * @param url          the angular router link to be opened on click
-     * @param tag          an identifier of the notification type, allowing newer notifications for one topic to replace the old one
+     * @param payload      a payload created by {@link #createPayload}
+     * @return a future completing when the push service accepted the notification, or exceptionally with a
+     *     {@link at.ac.tuwien.sepr.groupphase.backend.exception.PushDeliveryException}
      */
-    void sendNotification(PushSubscription subscription, String title, String body, String url, String tag);
+    CompletableFuture<Void> sendPayload(PushSubscription subscription, byte[] payload);
 }
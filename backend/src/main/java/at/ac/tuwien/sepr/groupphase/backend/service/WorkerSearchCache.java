@@ -0,0 +1,31 @@
+package at.ac.tuwien.sepr.groupphase.backend.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestListWithMinPriceDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestSearchDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.page.PageDto;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
+
+import java.util.function.Supplier;
+
+/**
+ * Caches result pages of worker searches. Workers repeat the same searches from the same location,
+ * while the underlying job requests change comparatively rarely.
+ */
+public interface WorkerSearchCache {
+
+    /**
+     * Returns the cached result page of a search, running the search on a miss.
+     *
+     * @param worker    the searching worker; results exclude requests the worker has a pending offer on
+     * @param searchDto the search parameters
+     * @param page      identifies the requested page, e.g. offset and limit or cursor and limit
+     * @param search    runs the search
+     * @return the result page
+     */
+    PageDto<JobRequestListWithMinPriceDto> get(ApplicationUser worker, JobRequestSearchDto searchDto, String page, Supplier<PageDto<JobRequestListWithMinPriceDto>> search);
+
+    /**
+     * Drops all cached results.
+     */
+    void invalidateAll();
+}
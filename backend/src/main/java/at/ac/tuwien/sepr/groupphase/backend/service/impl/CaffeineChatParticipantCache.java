@@ -0,0 +1,76 @@
+package at.ac.tuwien.sepr.groupphase.backend.service.impl;
+
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatParticipantsDto;
+import at.ac.tuwien.sepr.groupphase.backend.event.ChatParticipantsChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.service.ChatParticipantCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded chat participant cache, evicting entries that were not used for a while.
+ * A {@link ChatParticipantsChangedEvent} evicts the chat it names, or everything if it names none.
+ *
+ * <p>Like the worker search cache, keys carry the generation they were loaded in, so participants loaded
+ * while the cache is invalidated are stored where no later lookup finds them.
+ */
+@Service
+public class CaffeineChatParticipantCache implements ChatParticipantCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final Cache<Key, ChatParticipantsDto> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CaffeineChatParticipantCache(MeterRegistry meterRegistry,
+                                        @Value("${chat.participant-cache.maximum-size:10000}") long maximumSize,
+                                        @Value("${chat.participant-cache.expire-after-access:1h}") Duration expireAfterAccess) {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterAccess(expireAfterAccess)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chat.participants");
+    }
+
+    @Override
+    public ChatParticipantsDto get(long chatId, Supplier<ChatParticipantsDto> load) {
+        // a chat that does not exist is not cached, the loader returns null for it
+        return cache.get(new Key(generation.get(), chatId), key -> load.get());
+    }
+
+    @Override
+    public void evict(long chatId) {
+        cache.invalidate(new Key(generation.get(), chatId));
+    }
+
+    @Override
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChatParticipantsChanged(ChatParticipantsChangedEvent event) {
+        LOGGER.trace("onChatParticipantsChanged({})", event);
+        if (event.chatId() == null) {
+            invalidateAll();
+        } else {
+            evict(event.chatId());
+        }
+    }
+
+    private record Key(long generation, long chatId) {
+    }
+}
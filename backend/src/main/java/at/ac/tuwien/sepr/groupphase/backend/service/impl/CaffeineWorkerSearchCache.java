@@ -0,0 +1,105 @@
+package at.ac.tuwien.sepr.groupphase.backend.service.impl;
+
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestListWithMinPriceDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestSearchDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.page.PageDto;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
+import at.ac.tuwien.sepr.groupphase.backend.event.JobRequestChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.event.UserBanChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.service.WorkerSearchCache;
+import at.ac.tuwien.sepr.groupphase.backend.util.TextTokenizer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded worker search cache, evicting by size and age. Any {@link JobRequestChangedEvent} drops all entries,
+ * since a single change can shift every result page. So does a {@link UserBanChangedEvent}, as the requests of banned
+ * customers are left out of the results.
+ *
+ * <p>Entries are keyed by worker, because results exclude requests the worker has a pending offer on, and by a
+ * coarse cell of the worker location for distance searches, so entries of a worker who moved are not used anymore.
+ * Every key carries the generation it was computed in: a search still running while the cache is invalidated
+ * stores its (possibly stale) page under the old generation, where no later lookup finds it.
+ */
+@Service
+public class CaffeineWorkerSearchCache implements WorkerSearchCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    // about 1 km in latitude
+    private static final double CELL_DEGREES = 0.01;
+
+    private final Cache<Key, PageDto<JobRequestListWithMinPriceDto>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CaffeineWorkerSearchCache(MeterRegistry meterRegistry,
+                                     @Value("${job-request.worker-search-cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${job-request.worker-search-cache.ttl:60s}") Duration ttl) {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "job_request.worker_search");
+    }
+
+    @Override
+    public PageDto<JobRequestListWithMinPriceDto> get(ApplicationUser worker, JobRequestSearchDto searchDto, String page,
+                                                      Supplier<PageDto<JobRequestListWithMinPriceDto>> search) {
+        return cache.get(key(worker, searchDto, page), key -> search.get());
+    }
+
+    @Override
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobRequestChanged(JobRequestChangedEvent event) {
+        LOGGER.trace("onJobRequestChanged({})", event);
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserBanChanged(UserBanChangedEvent event) {
+        LOGGER.trace("onUserBanChanged({})", event);
+        invalidateAll();
+    }
+
+    private Key key(ApplicationUser worker, JobRequestSearchDto searchDto, String page) {
+        // the title only matters through its terms, and the categories are matched with IN
+        List<String> terms = searchDto.getTitle() == null || searchDto.getTitle().isBlank()
+            ? null
+            : TextTokenizer.tokenize(searchDto.getTitle()).stream().distinct().sorted().toList();
+        List<String> categories = searchDto.getCategory() == null || searchDto.getCategory().isEmpty()
+            ? List.of()
+            : Arrays.stream(searchDto.getCategory().split(",")).distinct().sorted().toList();
+        Long cell = null;
+        if (searchDto.getDistance() != null && worker.getLatitude() != null && worker.getLongitude() != null) {
+            long latitudeCell = (long) Math.floor(worker.getLatitude() / CELL_DEGREES);
+            long longitudeCell = (long) Math.floor(worker.getLongitude() / CELL_DEGREES);
+            cell = latitudeCell * 100_000 + longitudeCell;
+        }
+        return new Key(generation.get(), worker.getId(), terms, categories, searchDto.getDeadline(), searchDto.getDistance(), cell,
+            searchDto.getLowestPriceMin(), searchDto.getLowestPriceMax(), page);
+    }
+
+    private record Key(long generation, Long workerId, List<String> terms, List<String> categories, LocalDate deadline, Integer distance, Long cell,
+                       Float lowestPriceMin, Float lowestPriceMax, String page) {
+    }
+}
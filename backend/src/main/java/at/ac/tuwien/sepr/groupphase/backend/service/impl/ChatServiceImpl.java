@@ -5,61 +5,73 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatListItemDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageActionNotification;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageDetailDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessagePayloadDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatParticipantsDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.CreatedChatDto;
-import at.ac.tuwien.sepr.groupphase.backend.endpoint.mapper.ChatMapper;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.mapper.ChatMessageMapper;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.Chat;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ChatMessage;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ChatParticipantSummary;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.event.ChatParticipantsChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.exception.BlobStoreException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.FileSizeLimitExceededException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.ImageInvalidContentTypeException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.ImageUploadException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.ImageValidationException;
+import at.ac.tuwien.sepr.groupphase.backend.exception.InvalidCursorException;
+import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.repository.ChatMessageRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ChatParticipantSummaryRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.ChatRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobOfferRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.ReportRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import at.ac.tuwien.sepr.groupphase.backend.service.ChatParticipantCache;
 import at.ac.tuwien.sepr.groupphase.backend.service.ChatService;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
 import at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
+import at.ac.tuwien.sepr.groupphase.backend.util.ContentHash;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.invoke.MethodHandles;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class ChatServiceImpl implements ChatService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+    private static final int MAX_CHAT_LIST_PAGE_SIZE = 100;
 
     @Autowired
     private ChatRepository chatRepository;
 
-    @Autowired
-    private ChatMapper chatMapper;
-
     @Autowired
     private ChatMessageRepository chatMessageRepository;
 
@@ -78,6 +90,21 @@ public class ChatServiceImpl implements ChatService {
     @Autowired
     private ReportRepository reportRepository;
 
+    @Autowired
+    private ChatParticipantSummaryRepository chatParticipantSummaryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChatParticipantCache chatParticipantCache;
+
+    @Autowired
+    private BlobService blobService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     @Transactional
     public CreatedChatDto findOrCreateChat(ApplicationUser user, long jobRequestId) {
@@ -97,11 +124,14 @@ public class ChatServiceImpl implements ChatService {
         } else {
             Chat chatEntity = Chat.builder()
                 .chatMessages(new LinkedList<>())
+                .participantSummaries(new ArrayList<>())
                 .createdAt(LocalDateTime.now())
                 .jobRequest(jobRequest)
                 .customer(jobRequest.getCustomer())
                 .worker(worker)
                 .build();
+            chatEntity.getParticipantSummaries().add(ChatParticipantSummary.builder().chat(chatEntity).participant(chatEntity.getCustomer()).build());
+            chatEntity.getParticipantSummaries().add(ChatParticipantSummary.builder().chat(chatEntity).participant(chatEntity.getWorker()).build());
 
             this.chatRepository.save(chatEntity);
 
@@ -125,49 +155,57 @@ public class ChatServiceImpl implements ChatService {
             throw new AccessDeniedException("You are not a participant of this chat");
         }
 
-        chat.getChatMessages().forEach(chatMessage -> reportRepository.nullifyChatMessageReferences(chatMessage));
+        chat.getChatMessages().forEach(chatMessage -> {
+            reportRepository.nullifyChatMessageReferences(chatMessage);
+            blobService.release(chatMessage.getMediaBlobKey());
+        });
 
         this.chatRepository.deleteChat(chat, this.chatMessageRepository);
+        this.eventPublisher.publishEvent(new ChatParticipantsChangedEvent(chatId));
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<ChatMessageDetailDto> getChatMessages(ApplicationUser applicationUser, long chatId) {
-        LOGGER.trace("Getting chat messages for chat {}", chatId);
-        Chat chat = this.chatRepository.findById(chatId).orElseThrow(
-            () -> new EntityNotFoundException("Chat with id " + chatId + " does not exist"));
-
-        if (!applicationUser.getId().equals(chat.getWorker().getId())
-            && !applicationUser.getId().equals(chat.getCustomer().getId())) {
-            throw new AccessDeniedException("You are not a participant of this chat");
-        }
+        LOGGER.trace("Getting all chat messages for chat {}", chatId);
+        checkParticipant(applicationUser, chatId);
 
-        List<ChatMessage> messages = new LinkedList<>(chat.getChatMessages());
+        return this.chatMessageRepository.findLatestMessages(chatId, Limit.unlimited());
+    }
 
-        messages.stream()
-            .filter(message -> !message.getSender().getId().equals(applicationUser.getId()) && !message.isRead())
-            .forEach(message -> message.setRead(true));
+    @Override
+    @Transactional(readOnly = true)
+    public List<ChatMessageDetailDto> getChatMessages(ApplicationUser applicationUser, long chatId, Long beforeId, int limit) {
+        LOGGER.trace("Getting chat messages for chat {} before {}", chatId, beforeId);
+        checkParticipant(applicationUser, chatId);
+
+        Limit pageLimit = Limit.of(Math.clamp(limit, 1, MAX_HISTORY_PAGE_SIZE));
+        if (beforeId == null) {
+            return this.chatMessageRepository.findLatestMessages(chatId, pageLimit);
+        }
+        ChatMessage before = findCursorMessage(chatId, beforeId);
+        return this.chatMessageRepository.findMessagesBefore(chatId, before.getTimestamp(), before.getId(), pageLimit);
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ChatMessageDetailDto> getChatMessagesSince(ApplicationUser applicationUser, long chatId, long sinceId, int limit) {
+        LOGGER.trace("Getting chat messages for chat {} since {}", chatId, sinceId);
+        checkParticipant(applicationUser, chatId);
 
-        LOGGER.debug("Message list from chatId {} : {}", chatId, messages);
+        ChatMessage since = findCursorMessage(chatId, sinceId);
+        return this.chatMessageRepository.findMessagesAfter(chatId, since.getTimestamp(), since.getId(), Limit.of(Math.clamp(limit, 1, MAX_HISTORY_PAGE_SIZE)));
+    }
 
-        return chat.getChatMessages().stream()
-            .map(m -> {
-                ChatMessageDetailDto dto = ChatMessageDetailDto.builder()
-                    .id(m.getId())
-                    .senderUsername(m.getSender().getUsername())
-                    .messageType(m.getMessageType())
-                    .message(m.getMessage())
-                    .mediaName(m.getMediaName())
-                    .mediaUrl(m.getMediaUrl())
-                    .read(m.isRead())
-                    .edited(m.isEdited())
-                    .timestamp(m.getTimestamp())
-                    .build();
+    private void checkParticipant(ApplicationUser applicationUser, long chatId) {
+        if (!getParticipants(chatId).isParticipantId(applicationUser.getId())) {
+            throw new AccessDeniedException("You are not a participant of this chat");
+        }
+    }
 
-                return dto;
-            })
-            .collect(Collectors.toList());
+    private ChatMessage findCursorMessage(long chatId, long messageId) {
+        return this.chatMessageRepository.findChatMessageByIdAndChat_Id(messageId, chatId).orElseThrow(
+            () -> new InvalidCursorException("Message " + messageId + " is not part of chat " + chatId));
     }
 
     @Override
@@ -181,10 +219,7 @@ public class ChatServiceImpl implements ChatService {
             throw new AccessDeniedException("You are not a participant of this chat");
         }
 
-        ChatMessage lastMessage = chat.getChatMessages()
-            .stream()
-            .filter(message -> !message.getSender().getId().equals(applicationUser.getId()))
-            .findFirst()
+        ChatMessage lastMessage = this.chatMessageRepository.findFirstByChat_IdAndSender_IdNotOrderByTimestampDescIdDesc(chatId, applicationUser.getId())
             .orElse(null);
 
         if (chat.getWorker().getId().equals(applicationUser.getId())) {
@@ -198,91 +233,92 @@ public class ChatServiceImpl implements ChatService {
 
     @Override
     @Transactional
-    public ChatMessage saveMessage(String username, long chatId, ChatMessageDto chatMessageDto) {
+    public ChatMessagePayloadDto saveMessage(String username, long chatId, ChatMessageDto chatMessageDto) {
         LOGGER.trace("Saving message to chat {}: {}", chatId, chatMessageDto);
 
-        if (!isMember(chatId, username)) {
+        Long senderId = getParticipants(chatId).idOf(username);
+        if (senderId == null) {
             throw new AccessDeniedException("You are not a participant of this chat");
         }
 
-        Chat chat = this.chatRepository.findById(chatId).orElseThrow(
-            () -> new EntityNotFoundException("Chat with id " + chatId + " does not exist")
-        );
-        ApplicationUser user = userService.findUserByUsername(username).orElseThrow(
-            () -> new UsernameNotFoundException(username)
-        );
-
-
+        // chat and sender are only referenced, so sending a message does not load them
         ChatMessage message = chatMessageMapper.dtoToEntity(chatMessageDto);
-        message.setSender(user);
-        message.setChat(chat);
+        message.setSender(this.userRepository.getReferenceById(senderId));
+        message.setChat(this.chatRepository.getReferenceById(chatId));
         message.setTimestamp(LocalDateTime.now());
+        message.setMediaBlobKey(acquireUpload(message.getMediaUrl()));
 
-        LOGGER.debug("Message saved: {}", message);
+        ChatMessage saved = this.chatMessageRepository.save(message);
+        this.chatParticipantSummaryRepository.recordMessage(chatId, senderId, saved.getId(), saved.getMessage(), saved.getTimestamp());
 
-        return this.chatMessageRepository.save(message);
+        LOGGER.debug("Message {} saved to chat {}", saved.getId(), chatId);
+
+        return chatMessageMapper.entityToPayloadDtoOfSender(saved, username);
     }
 
     @Override
-    @Transactional
     public boolean isMember(long chatId, String username) {
-        Chat chat = this.chatRepository.findById(chatId).orElseThrow(
-            () -> new EntityNotFoundException("Chat with id " + chatId + " does not exist")
-        );
-        return chat.getWorker().getUsername().equals(username) || chat.getCustomer().getUsername().equals(username);
+        return getParticipants(chatId).isParticipant(username);
     }
 
     @Override
-    @Transactional
     public String getOtherChatParticipant(long chatId, String username) {
-        Chat chat = this.chatRepository.findById(chatId).orElseThrow(
-            () -> new EntityNotFoundException("Chat with id " + chatId + " does not exist")
-        );
-        return username.equals(chat.getWorker().getUsername()) ? chat.getCustomer().getUsername() : chat.getWorker().getUsername();
+        return getParticipants(chatId).counterpartOf(username);
+    }
+
+    private ChatParticipantsDto getParticipants(long chatId) {
+        ChatParticipantsDto participants = this.chatParticipantCache.get(chatId, () -> this.chatRepository.findParticipants(chatId).orElse(null));
+        if (participants == null) {
+            throw new EntityNotFoundException("Chat with id " + chatId + " does not exist");
+        }
+        return participants;
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<ChatListItemDto> getAllChatsOfUser(String username) {
         LOGGER.debug("Getting all chats of user {}", username);
 
         ApplicationUser user = userService.findUserByUsername(username).orElseThrow();
+        List<ChatListItemDto> chats = this.chatParticipantSummaryRepository.findChatList(user.getId());
 
-        List<ChatListItemDto> chats;
-
-        if (user.getRole().equals(Role.CUSTOMER)) {
-            chats = user.getCustomerChats()
-                .stream()
-                .map(chat -> chatMapper.chatToChatListItemDto(chat, user.getId()))
-                .collect(Collectors.toList());
-        } else { // must be Worker bcs of @RolesAllowed
-            chats = user.getWorkerChats()
-                .stream()
-                .map(chat -> chatMapper.chatToChatListItemDto(chat, user.getId()))
-                .collect(Collectors.toList());
-        }
+        LOGGER.debug("Chats of user {} : {}", username, chats.size());
+        return chats;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ChatListItemDto> getAllChatsOfUser(String username, int offset, int limit) {
+        LOGGER.debug("Getting chats {} to {} of user {}", offset, offset + limit, username);
+
+        ApplicationUser user = userService.findUserByUsername(username).orElseThrow();
+        List<ChatListItemDto> chats = this.chatParticipantSummaryRepository.findChatList(user.getId(), Math.max(offset, 0),
+            Math.clamp(limit, 1, MAX_CHAT_LIST_PAGE_SIZE));
 
-        LOGGER.debug("All chats of user {} : {}", user, chats);
+        LOGGER.debug("Chats of user {} : {}", username, chats.size());
         return chats;
     }
 
     @Override
     @Transactional
-    public void setMessagesToRead(String username, Long chatId) {
-        if (!isMember(chatId, username)) {
+    public boolean setMessagesToRead(String username, Long chatId) {
+        Long readerId = getParticipants(chatId).idOf(username);
+        if (readerId == null) {
             throw new AccessDeniedException("You are not a participant of this chat");
         }
 
-        Chat chat = this.chatRepository.findById(chatId).orElseThrow(
-            () -> new EntityNotFoundException("Chat with id " + chatId + " does not exist")
-        );
-        ApplicationUser user = userService.findUserByUsername(username).orElseThrow(
-            () -> new UsernameNotFoundException(username)
-        );
-
-        chat.getChatMessages().stream()
-            .filter(message -> !message.getSender().getId().equals(user.getId()))
-            .forEach(message -> message.setRead(true));
+        Long lastRead = this.chatParticipantSummaryRepository.findByChat_IdAndParticipant_Id(chatId, readerId)
+            .map(ChatParticipantSummary::getLastReadMessageId)
+            .orElse(null);
+        Long latest = this.chatMessageRepository.findLatestMessageIdNotSentBy(chatId, readerId);
+        if (latest == null || (lastRead != null && latest <= lastRead)) {
+            return false;
+        }
+
+        int marked = this.chatMessageRepository.markReadUpTo(chatId, readerId, latest);
+        this.chatParticipantSummaryRepository.recordRead(chatId, readerId, latest);
+        LOGGER.debug("{} read chat {} up to message {}, {} messages marked as read", username, chatId, latest, marked);
+        return true;
     }
 
     @Override
@@ -298,6 +334,12 @@ public class ChatServiceImpl implements ChatService {
 
         reportRepository.nullifyChatMessageReferences(message);
         chatMessageRepository.deleteById(messageId);
+        blobService.release(message.getMediaBlobKey());
+
+        Chat chat = message.getChat();
+        ApplicationUser recipient = chat.getCustomer().getUsername().equals(username) ? chat.getWorker() : chat.getCustomer();
+        chatParticipantSummaryRepository.findByChat_IdAndParticipant_Id(chatId, recipient.getId())
+            .ifPresent(this::refreshSummary);
 
         return ChatMessageActionNotification.builder()
             .messageId(messageId)
@@ -320,6 +362,7 @@ public class ChatServiceImpl implements ChatService {
 
         message.setMessage(newMessage);
         message.setEdited(true);
+        chatParticipantSummaryRepository.recordEdit(chatId, messageId, newMessage);
 
         return ChatMessageActionNotification.builder()
             .messageId(messageId)
@@ -329,12 +372,36 @@ public class ChatServiceImpl implements ChatService {
             .build();
     }
 
+    @Override
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void createMissingSummaries() {
+        List<Chat> chats = this.chatParticipantSummaryRepository.findChatsWithoutSummaries();
+        for (Chat chat : chats) {
+            for (ApplicationUser participant : List.of(chat.getCustomer(), chat.getWorker())) {
+                ChatParticipantSummary summary = ChatParticipantSummary.builder().chat(chat).participant(participant).build();
+                refreshSummary(summary);
+                this.chatParticipantSummaryRepository.save(summary);
+            }
+        }
+        if (!chats.isEmpty()) {
+            LOGGER.info("Created chat list summaries for {} chats", chats.size());
+        }
+    }
+
+    private void refreshSummary(ChatParticipantSummary summary) {
+        Long chatId = summary.getChat().getId();
+        Long participantId = summary.getParticipant().getId();
+        Optional<ChatMessage> last = this.chatMessageRepository.findFirstByChat_IdAndSender_IdNotOrderByTimestampDescIdDesc(chatId, participantId);
+        summary.setLastMessageId(last.map(ChatMessage::getId).orElse(null));
+        summary.setLastMessage(last.map(ChatMessage::getMessage).orElse(null));
+        summary.setLastMessageTime(last.map(ChatMessage::getTimestamp).orElse(null));
+        summary.setUnreadCount(this.chatMessageRepository.countByChat_IdAndSender_IdNotAndReadFalse(chatId, participantId));
+    }
+
     @Value("${chat.upload.max-file-size}")
     private DataSize maxFileSize;
 
-    @Value("${chat.upload.base-path}")
-    private String uploadBasePath;
-
     @Value("${chat.upload.base-url}")
     private String uploadBaseUrl;
 
@@ -347,16 +414,12 @@ public class ChatServiceImpl implements ChatService {
         if (original != null && original.contains(".")) {
             ext = original.substring(original.lastIndexOf('.')).toLowerCase();
         }
-        // UUID to make it "unique"
-        String filename = UUID.randomUUID() + "_" + image.getOriginalFilename().substring(0, image.getOriginalFilename().length() - ext.length()) + ext;
-
-        Path dir = Paths.get(uploadBasePath);
-        Path target = dir.resolve(filename);
-
-        try {
-            Files.createDirectories(dir);
-            image.transferTo(target);
-        } catch (IOException e) {
+        String filename;
+        try (InputStream content = image.getInputStream()) {
+            // the name is the content hash, so the URL of an upload always serves the same bytes and can be cached forever.
+            // The upload stays unreferenced until it is sent in a message, uploads that are never sent are collected again.
+            filename = blobService.storeChatUpload(content).key() + ext;
+        } catch (IOException | BlobStoreException e) {
             throw new ImageUploadException("Failed to write image: " + e.getMessage());
         }
 
@@ -368,6 +431,30 @@ public class ChatServiceImpl implements ChatService {
             .build();
     }
 
+    @Override
+    public Resource loadUpload(String filename) {
+        LOGGER.trace("loadUpload({})", filename);
+        String key = StringUtils.stripFilenameExtension(filename);
+        if (!ContentHash.isSha256(key)) {
+            throw new NotFoundException("Upload not found: " + filename);
+        }
+        return blobService.loadChatUpload(key);
+    }
+
+    /**
+     * Acquires the upload a media URL points to. Messages may also link media that was not uploaded here.
+     *
+     * @return the key of the upload, or {@code null} if the URL does not point to a known upload
+     */
+    private String acquireUpload(String mediaUrl) {
+        String prefix = uploadBaseUrl + "/";
+        if (mediaUrl == null || !mediaUrl.startsWith(prefix)) {
+            return null;
+        }
+        String key = StringUtils.stripFilenameExtension(mediaUrl.substring(prefix.length()));
+        return ContentHash.isSha256(key) && blobService.acquireChatUpload(key) ? key : null;
+    }
+
     private void validateImage(MultipartFile image) {
         if (image.isEmpty()) {
             throw new ImageValidationException("No image was given.");
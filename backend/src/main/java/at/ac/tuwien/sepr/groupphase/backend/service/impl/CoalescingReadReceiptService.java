@@ -0,0 +1,78 @@
+package at.ac.tuwien.sepr.groupphase.backend.service.impl;
+
+import at.ac.tuwien.sepr.groupphase.backend.service.ChatService;
+import at.ac.tuwien.sepr.groupphase.backend.service.ReadReceiptService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects read events in memory and applies them on a single scheduler thread.
+ * Clients send a read event whenever a message arrives while the chat is open, so a busy chat produces a burst of
+ * events per participant; only one of them reaches the database per flush interval.
+ */
+@Service
+public class CoalescingReadReceiptService implements ReadReceiptService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final ChatService chatService;
+    private final SimpMessagingTemplate broker;
+    private final Set<PendingRead> pending = ConcurrentHashMap.newKeySet();
+
+    public CoalescingReadReceiptService(ChatService chatService, SimpMessagingTemplate broker) {
+        this.chatService = chatService;
+        this.broker = broker;
+    }
+
+    @Override
+    public void markRead(String username, long chatId) {
+        LOGGER.trace("markRead({}, {})", username, chatId);
+        if (!chatService.isMember(chatId, username)) {
+            throw new AccessDeniedException("You are not a participant of this chat");
+        }
+        pending.add(new PendingRead(chatId, username));
+    }
+
+    @Scheduled(fixedDelayString = "${chat.read-receipts.flush-interval:500ms}")
+    public void poll() {
+        try {
+            flushPending();
+        } catch (RuntimeException e) {
+            LOGGER.error("Flushing read receipts failed", e);
+        }
+    }
+
+    @Override
+    public int flushPending() {
+        int flushed = 0;
+        for (PendingRead read : pending) {
+            // an event recorded after the removal is kept for the next flush
+            if (!pending.remove(read)) {
+                continue;
+            }
+            flushed++;
+            try {
+                if (chatService.setMessagesToRead(read.username(), read.chatId())) {
+                    broker.convertAndSend("/topic/chat/" + read.chatId() + "/read", Map.of("read", true, "reader", read.username()));
+                    LOGGER.debug("Sent read message to {}: {}", read.chatId(), read.username());
+                }
+            } catch (RuntimeException e) {
+                // e.g. the chat was deleted in the meantime
+                LOGGER.warn("Could not apply read event of {} in chat {}: {}", read.username(), read.chatId(), e.getMessage());
+            }
+        }
+        return flushed;
+    }
+
+    private record PendingRead(long chatId, String username) {
+    }
+}
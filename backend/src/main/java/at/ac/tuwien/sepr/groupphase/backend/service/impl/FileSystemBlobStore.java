@@ -0,0 +1,157 @@
+package at.ac.tuwien.sepr.groupphase.backend.service.impl;
+
+import at.ac.tuwien.sepr.groupphase.backend.exception.BlobStoreException;
+import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import at.ac.tuwien.sepr.groupphase.backend.util.ContentHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+/**
+ * Keeps blobs as files below a base directory. A blob with key {@code abcdef...} is stored at
+ * {@code ab/cd/abcdef...}, so no single directory grows too large.
+ *
+ * <p>Content is first written to a temporary file while it is hashed, then moved to its final path.
+ * Readers therefore never see a partially written blob. The modification time of a file is the last time its content was stored.
+ */
+@Service
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final Path basePath;
+    private final Path tempPath;
+
+    public FileSystemBlobStore(@Value("${blob-store.base-path:./blob-store}") Path basePath) throws IOException {
+        this.basePath = basePath.toAbsolutePath().normalize();
+        this.tempPath = this.basePath.resolve("tmp");
+        Files.createDirectories(tempPath);
+    }
+
+    @Override
+    public StoredBlob store(InputStream content) {
+        LOGGER.trace("store()");
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(tempPath, "upload-", ".tmp");
+            MessageDigest digest = ContentHash.newDigest();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                size = content.transferTo(out);
+            }
+            String key = HexFormat.of().formatHex(digest.digest());
+
+            Path target = pathOf(key);
+            Files.createDirectories(target.getParent());
+            try {
+                // the same content is already stored, touching it tells the garbage collection it was stored again
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                Files.delete(temp);
+            } catch (NoSuchFileException e) {
+                // a concurrent upload of the same content may win the race, replacing its file with equal bytes is harmless
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            LOGGER.debug("Stored blob {} ({} bytes)", key, size);
+            return new StoredBlob(key, size);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new BlobStoreException("Failed to store blob", e);
+        }
+    }
+
+    @Override
+    public Resource load(String key) {
+        LOGGER.trace("load({})", key);
+        Path path = pathOf(key);
+        if (!Files.isRegularFile(path)) {
+            throw new NotFoundException("Blob not found: " + key);
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public void delete(String key) {
+        LOGGER.trace("delete({})", key);
+        try {
+            Files.deleteIfExists(pathOf(key));
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to delete blob " + key, e);
+        }
+    }
+
+    @Override
+    public boolean deleteIfStoredBefore(String key, Instant storedBefore) {
+        LOGGER.trace("deleteIfStoredBefore({}, {})", key, storedBefore);
+        Path path = pathOf(key);
+        Path deleted = tempPath.resolve(key + ".deleted");
+        try {
+            // once the file is moved away, a concurrent store of the same content finds it missing and writes it anew,
+            // a store that came first has touched it and the file is moved back
+            try {
+                Files.move(path, deleted, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                return false;
+            }
+            if (Files.getLastModifiedTime(deleted).toInstant().isBefore(storedBefore)) {
+                Files.delete(deleted);
+                LOGGER.debug("Deleted blob {}", key);
+                return true;
+            }
+            Files.move(deleted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return false;
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to delete blob " + key, e);
+        }
+    }
+
+    @Override
+    public Stream<String> keys() {
+        LOGGER.trace("keys()");
+        try {
+            // blobs are two directory levels below the base path, temporary files never have a key as name
+            return Files.walk(basePath, 3)
+                .filter(Files::isRegularFile)
+                .map(path -> path.getFileName().toString())
+                .filter(ContentHash::isSha256);
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to list blobs", e);
+        }
+    }
+
+    private Path pathOf(String key) {
+        if (!ContentHash.isSha256(key)) {
+            throw new NotFoundException("Invalid blob key: " + key);
+        }
+        return basePath.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete temporary file {}", path, e);
+        }
+    }
+}
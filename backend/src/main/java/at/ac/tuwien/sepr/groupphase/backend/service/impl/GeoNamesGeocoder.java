@@ -0,0 +1,160 @@
+package at.ac.tuwien.sepr.groupphase.backend.service.impl;
+
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.geolocation.GeonamesApiResponse;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.geolocation.GeonamesResult;
+import at.ac.tuwien.sepr.groupphase.backend.service.Geocoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Geocodes postal codes with an in-process {@link PostalCodeIndex} of a GeoNames dump loaded on startup.
+ *
+ * <p>Countries missing in the dump are looked up at the GeoNames dataset of opendatasoft instead, if enabled.
+ * Remote results are cached, including unknown postal codes; failed lookups are not, so they are retried on the next call.
+ */
+@Service
+public class GeoNamesGeocoder implements Geocoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    // country and postal codes end up in the query of the remote API, anything else is never a valid code
+    private static final Pattern CODE = Pattern.compile("[A-Za-z0-9][A-Za-z0-9 -]{0,19}");
+    // the maximum page size of the remote API
+    private static final int REMOTE_LIMIT = 100;
+
+    private final PostalCodeIndex index;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final String remoteUrl;
+    private final boolean remoteEnabled;
+    private final Cache<String, List<Place>> remoteCache;
+
+    public GeoNamesGeocoder(ResourceLoader resourceLoader, RestTemplateBuilder restTemplateBuilder, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            @Value("${geocoding.postal-codes:}") String postalCodes,
+                            @Value("${geocoding.remote.enabled:true}") boolean remoteEnabled,
+                            @Value("${geocoding.remote.url:https://data.opendatasoft.com/api/explore/v2.1/catalog/datasets/geonames-postal-code@public/records}")
+                            String remoteUrl,
+                            @Value("${geocoding.remote.timeout:2s}") Duration timeout,
+                            @Value("${geocoding.remote.cache.maximum-size:10000}") long cacheSize,
+                            @Value("${geocoding.remote.cache.ttl:24h}") Duration cacheTtl) {
+        this.index = loadIndex(resourceLoader, postalCodes);
+        this.restTemplate = restTemplateBuilder.connectTimeout(timeout).readTimeout(timeout).build();
+        this.objectMapper = objectMapper;
+        this.remoteUrl = remoteUrl;
+        this.remoteEnabled = remoteEnabled;
+        this.remoteCache = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(cacheTtl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, remoteCache, "geocoding.remote");
+    }
+
+    private static PostalCodeIndex loadIndex(ResourceLoader resourceLoader, String location) {
+        if (location == null || location.isBlank()) {
+            LOGGER.info("No postal code dump configured, postal codes are looked up remotely");
+            return PostalCodeIndex.empty();
+        }
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            LOGGER.warn("Postal code dump {} not found, postal codes are looked up remotely", location);
+            return PostalCodeIndex.empty();
+        }
+        long start = System.nanoTime();
+        try (InputStream content = resource.getInputStream()) {
+            PostalCodeIndex index = PostalCodeIndex.load(content, location.toLowerCase(Locale.ROOT).endsWith(".zip"));
+            LOGGER.info("Loaded {} places of {} countries from {} in {} ms",
+                index.size(), index.countries(), location, Duration.ofNanos(System.nanoTime() - start).toMillis());
+            return index;
+        } catch (IOException e) {
+            LOGGER.error("Failed to load postal code dump {}, postal codes are looked up remotely", location, e);
+            return PostalCodeIndex.empty();
+        }
+    }
+
+    @Override
+    public List<Place> findPlaces(String countryCode, String postalCode) {
+        LOGGER.trace("findPlaces({}, {})", countryCode, postalCode);
+        if (countryCode == null || postalCode == null || !CODE.matcher(countryCode).matches() || !CODE.matcher(postalCode).matches()) {
+            return List.of();
+        }
+        if (index.containsCountry(countryCode)) {
+            return index.find(countryCode, postalCode);
+        }
+        if (!remoteEnabled) {
+            return List.of();
+        }
+        String country = countryCode.trim().toUpperCase(Locale.ROOT);
+        String postal = postalCode.trim().toUpperCase(Locale.ROOT);
+        List<Place> places = remoteCache.get(country + ' ' + postal, key -> fetchPlaces(country, postal));
+        return places == null ? List.of() : places;
+    }
+
+    @Override
+    public Optional<Place> locate(String countryCode, String postalCode, String placeName) {
+        LOGGER.trace("locate({}, {}, {})", countryCode, postalCode, placeName);
+        List<Place> places = findPlaces(countryCode, postalCode);
+        if (placeName == null || placeName.isBlank()) {
+            return places.stream().findFirst();
+        }
+        return places.stream()
+            .filter(place -> placeName.trim().equalsIgnoreCase(place.placeName()))
+            .findFirst();
+    }
+
+    /**
+     * Looks up the places of a postal code at the remote API.
+     *
+     * @return the places, or {@code null} if the lookup failed and should not be cached
+     */
+    private List<Place> fetchPlaces(String countryCode, String postalCode) {
+        String url = UriComponentsBuilder.fromUriString(remoteUrl)
+            .queryParam("where", String.format("postal_code='%s' and country_code='%s'", postalCode, countryCode))
+            .queryParam("limit", REMOTE_LIMIT)
+            .build()
+            .toUriString();
+        LOGGER.debug("Calling Geonames API: {}", url);
+        try {
+            String jsonResponse = restTemplate.getForObject(url, String.class);
+            GeonamesApiResponse apiResponse = jsonResponse == null ? null : objectMapper.readValue(jsonResponse, GeonamesApiResponse.class);
+            if (apiResponse == null || apiResponse.getResults() == null) {
+                return List.of();
+            }
+            return apiResponse.getResults().stream()
+                .filter(Objects::nonNull)
+                .filter(result -> result.getLatitude() != null && result.getLongitude() != null)
+                .map(this::toPlace)
+                .toList();
+        } catch (RestClientException | JsonProcessingException e) {
+            LOGGER.warn("Could not fetch data from Geonames API for postalCode {} and country {}: {}", postalCode, countryCode, e.getMessage());
+            return null;
+        }
+    }
+
+    private Place toPlace(GeonamesResult result) {
+        return new Place(result.getPlaceName(), result.getLatitude(), result.getLongitude());
+    }
+}
@@ -0,0 +1,82 @@
+package at.ac.tuwien.sepr.groupphase.backend.service.impl;
+
+import at.ac.tuwien.sepr.groupphase.backend.event.UserBanChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.BannedUserRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the usernames of banned users in memory. Bans on this instance apply as soon as they are committed,
+ * the periodic reload picks up bans made on other instances.
+ */
+@Service
+public class InMemoryBannedUserRegistry implements BannedUserRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final UserRepository userRepository;
+
+    private volatile Set<String> banned = ConcurrentHashMap.newKeySet();
+    private long changes;
+
+    public InMemoryBannedUserRegistry(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public boolean isBanned(String username) {
+        return banned.contains(username);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LOGGER.trace("rebuild()");
+        while (true) {
+            long seen;
+            synchronized (this) {
+                seen = changes;
+            }
+            Set<String> loaded = ConcurrentHashMap.newKeySet();
+            loaded.addAll(userRepository.findBannedUsernames());
+            synchronized (this) {
+                // a ban changed while loading may be missing from what was loaded, so load again
+                if (changes == seen) {
+                    banned = loaded;
+                    LOGGER.debug("Loaded {} banned users", loaded.size());
+                    return;
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.banned-users.refresh-interval:1m}", initialDelayString = "${security.banned-users.refresh-interval:1m}")
+    public void poll() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            LOGGER.error("Reloading banned users failed", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserBanChanged(UserBanChangedEvent event) {
+        LOGGER.trace("onUserBanChanged({})", event);
+        changes++;
+        if (event.banned()) {
+            banned.add(event.username());
+        } else {
+            banned.remove(event.username());
+        }
+    }
+}
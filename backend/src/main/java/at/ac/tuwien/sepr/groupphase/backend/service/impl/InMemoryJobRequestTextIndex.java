@@ -0,0 +1,196 @@
+package at.ac.tuwien.sepr.groupphase.backend.service.impl;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.event.JobRequestChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.projection.JobRequestText;
+import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestTextIndex;
+import at.ac.tuwien.sepr.groupphase.backend.util.TextTokenizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index held in memory: every term maps to the job requests containing it and how often it occurs there.
+ * Terms are kept sorted, so a query term also matches all terms it is a prefix of ("paint" finds "painting").
+ * The index is rebuilt from the database on startup and kept up to date through {@link JobRequestChangedEvent}s,
+ * which are only applied once their transaction committed, so a rolled back change never shows up in a search.
+ */
+@Service
+public class InMemoryJobRequestTextIndex implements JobRequestTextIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    /**
+     * A term in the title counts as much as this many occurrences in the description.
+     */
+    private static final float TITLE_WEIGHT = 3f;
+
+    /**
+     * Prefix matches rank below whole word matches of an equally rare term.
+     */
+    private static final float PREFIX_FACTOR = 0.7f;
+
+    private final JobRequestRepository jobRequestRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+
+    public InMemoryJobRequestTextIndex(JobRequestRepository jobRequestRepository) {
+        this.jobRequestRepository = jobRequestRepository;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LOGGER.trace("rebuild()");
+        List<JobRequestText> texts = jobRequestRepository.findAllTexts();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            for (JobRequestText text : texts) {
+                add(text.id(), text.title(), text.description());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.info("Indexed the text of {} job requests", texts.size());
+    }
+
+    @Override
+    public void index(JobRequest jobRequest) {
+        LOGGER.trace("index({})", jobRequest.getId());
+        lock.writeLock().lock();
+        try {
+            removeDocument(jobRequest.getId());
+            add(jobRequest.getId(), jobRequest.getTitle(), jobRequest.getDescription());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long jobRequestId) {
+        LOGGER.trace("remove({})", jobRequestId);
+        lock.writeLock().lock();
+        try {
+            removeDocument(jobRequestId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-reads the text of the changed job request, or of all of them if several changed at once.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobRequestChanged(JobRequestChangedEvent event) {
+        LOGGER.trace("onJobRequestChanged({})", event);
+        if (event.jobRequestId() == null) {
+            rebuild();
+            return;
+        }
+        jobRequestRepository.findTextById(event.jobRequestId()).ifPresentOrElse(text -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(text.id());
+                add(text.id(), text.title(), text.description());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }, () -> remove(event.jobRequestId()));
+    }
+
+    @Override
+    public List<Long> search(String query) {
+        LOGGER.trace("search({})", query);
+        Set<String> queryTerms = new LinkedHashSet<>(TextTokenizer.tokenize(query));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Float> scores = null;
+        lock.readLock().lock();
+        try {
+            int documents = documentTerms.size();
+            for (String queryTerm : queryTerms) {
+                Map<Long, Float> termScores = scoreTerm(queryTerm, documents);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return scores.entrySet().stream()
+            .sorted(Map.Entry.<Long, Float>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    /**
+     * Scores every document containing the query term or a term starting with it by tf-idf.
+     * If several indexed terms match, the best one counts.
+     */
+    private Map<Long, Float> scoreTerm(String queryTerm, int documents) {
+        Map<Long, Float> scores = new HashMap<>();
+        Map<String, Map<Long, Float>> matchingTerms = postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Map<Long, Float>> term : matchingTerms.entrySet()) {
+            Map<Long, Float> occurrences = term.getValue();
+            float idf = (float) Math.log(1 + (double) documents / occurrences.size());
+            float factor = term.getKey().equals(queryTerm) ? 1f : PREFIX_FACTOR;
+            for (Map.Entry<Long, Float> occurrence : occurrences.entrySet()) {
+                float score = factor * idf * (1 + (float) Math.log(occurrence.getValue()));
+                scores.merge(occurrence.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private void add(Long id, String title, String description) {
+        Map<String, Float> frequencies = new HashMap<>();
+        TextTokenizer.tokenize(title).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Float::sum));
+        TextTokenizer.tokenize(description).forEach(term -> frequencies.merge(term, 1f, Float::sum));
+
+        frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, frequency));
+        documentTerms.put(id, frequencies.keySet());
+    }
+
+    private void removeDocument(Long id) {
+        Set<String> terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> occurrences = postings.get(term);
+            occurrences.remove(id);
+            if (occurrences.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package at.ac.tuwien.sepr.groupphase.backend.service.impl;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.entity.Property;
+import at.ac.tuwien.sepr.groupphase.backend.entity.SearchAlert;
+import at.ac.tuwien.sepr.groupphase.backend.event.SearchAlertChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.event.WorkerLocationChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.repository.SearchAlertRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.SearchAlertIndex;
+import at.ac.tuwien.sepr.groupphase.backend.type.Category;
+import at.ac.tuwien.sepr.groupphase.backend.util.GeoBoundingBox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps every search alert in memory, filed three times: by category, by one trigram of its keywords
+ * and by the grid cell of its worker's location. To match a job request, only the alerts of the smallest
+ * of the three candidate groups are checked exactly; all other alerts cannot match.
+ *
+ * <p>Keywords are filed under their rarest trigram, because every trigram of the keywords occurs in a text
+ * containing them. Locations are filed in tiers: an alert goes to the smallest tier whose radius covers its
+ * maximum distance, and each tier uses a grid with cells as large as its radius, so a request only has to
+ * look at the few cells around it.
+ *
+ * <p>The index follows {@link SearchAlertChangedEvent}s and {@link WorkerLocationChangedEvent}s once their transaction
+ * committed, so a change that is rolled back never reaches it.
+ */
+@Service
+public class InMemorySearchAlertIndex implements SearchAlertIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    /**
+     * Radii of the distance tiers in kilometers, ascending.
+     */
+    private static final int[] DISTANCE_TIERS_KM = {10, 50, 200, 1000};
+    private static final double KM_PER_DEGREE = 111.19;
+    private static final int NO_DISTANCE = -1;
+    private static final int NO_LOCATION = -2;
+    private static final int FAR_DISTANCE = DISTANCE_TIERS_KM.length;
+    private static final int TRIGRAM_LENGTH = 3;
+
+    private final SearchAlertRepository searchAlertRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedAlert> alerts = new HashMap<>();
+    private final Map<Long, Set<Long>> alertsByWorker = new HashMap<>();
+
+    private final Map<Category, Set<Long>> byCategory = new EnumMap<>(Category.class);
+    private final Set<Long> anyCategory = new HashSet<>();
+
+    private final Map<String, Set<Long>> byTrigram = new HashMap<>();
+    private final Set<Long> anyText = new HashSet<>();
+
+    private final List<Map<Long, Set<Long>>> byCell = new ArrayList<>();
+    private final Set<Long> anyDistance = new HashSet<>();
+    private final Set<Long> farDistance = new HashSet<>();
+
+    public InMemorySearchAlertIndex(SearchAlertRepository searchAlertRepository) {
+        this.searchAlertRepository = searchAlertRepository;
+        for (int i = 0; i < DISTANCE_TIERS_KM.length; i++) {
+            byCell.add(new HashMap<>());
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LOGGER.trace("rebuild()");
+        List<SearchAlert> all = searchAlertRepository.findAllWithWorkerAndCategories();
+        lock.writeLock().lock();
+        try {
+            alerts.clear();
+            alertsByWorker.clear();
+            byCategory.clear();
+            anyCategory.clear();
+            byTrigram.clear();
+            anyText.clear();
+            byCell.forEach(Map::clear);
+            anyDistance.clear();
+            farDistance.clear();
+            for (SearchAlert alert : all) {
+                insert(alert.getId(), alert.getWorker(), alert.getCategories(), alert.getKeywords(), alert.getMaxDistance());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.info("Indexed {} search alerts", all.size());
+    }
+
+    @Override
+    public void add(SearchAlert alert) {
+        LOGGER.trace("add({})", alert.getId());
+        lock.writeLock().lock();
+        try {
+            delete(alert.getId());
+            insert(alert.getId(), alert.getWorker(), alert.getCategories(), alert.getKeywords(), alert.getMaxDistance());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long alertId) {
+        LOGGER.trace("remove({})", alertId);
+        lock.writeLock().lock();
+        try {
+            delete(alertId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateWorkerLocation(Long workerId, Float latitude, Float longitude) {
+        LOGGER.trace("updateWorkerLocation({}, {}, {})", workerId, latitude, longitude);
+        lock.writeLock().lock();
+        try {
+            Set<Long> alertIds = alertsByWorker.get(workerId);
+            if (alertIds == null) {
+                return;
+            }
+            for (Long alertId : List.copyOf(alertIds)) {
+                IndexedAlert alert = alerts.get(alertId);
+                delete(alertId);
+                insert(alertId, workerId, alert.categories(), alert.keywords(), alert.maxDistance(), latitude, longitude);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-reads the changed alert, or drops it if it was deleted.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSearchAlertChanged(SearchAlertChangedEvent event) {
+        LOGGER.trace("onSearchAlertChanged({})", event);
+        searchAlertRepository.findWithWorkerAndCategoriesById(event.alertId())
+            .ifPresentOrElse(this::add, () -> remove(event.alertId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkerLocationChanged(WorkerLocationChangedEvent event) {
+        LOGGER.trace("onWorkerLocationChanged({})", event);
+        updateWorkerLocation(event.workerId(), event.latitude(), event.longitude());
+    }
+
+    @Override
+    public List<Long> findMatchingAlertIds(JobRequest jobRequest) {
+        LOGGER.trace("findMatchingAlertIds({})", jobRequest.getId());
+        Property property = jobRequest.getProperty();
+        if (property == null) {
+            return List.of();
+        }
+        Category category = jobRequest.getCategory();
+        String title = lowerCase(jobRequest.getTitle());
+        String description = lowerCase(jobRequest.getDescription());
+        Float latitude = property.getLatitude();
+        Float longitude = property.getLongitude();
+
+        lock.readLock().lock();
+        try {
+            List<Set<Long>> categoryCandidates = new ArrayList<>(List.of(anyCategory));
+            if (category != null && byCategory.containsKey(category)) {
+                categoryCandidates.add(byCategory.get(category));
+            }
+
+            List<Set<Long>> textCandidates = new ArrayList<>(List.of(anyText));
+            Set<String> trigrams = new HashSet<>();
+            addTrigrams(title, trigrams);
+            addTrigrams(description, trigrams);
+            for (String trigram : trigrams) {
+                Set<Long> bucket = byTrigram.get(trigram);
+                if (bucket != null) {
+                    textCandidates.add(bucket);
+                }
+            }
+
+            List<Set<Long>> distanceCandidates = new ArrayList<>(List.of(anyDistance));
+            if (latitude != null && longitude != null) {
+                for (int tier = 0; tier < DISTANCE_TIERS_KM.length; tier++) {
+                    addCellsAround(tier, latitude, longitude, distanceCandidates);
+                }
+                distanceCandidates.add(farDistance);
+            }
+
+            List<Set<Long>> candidates = smallest(categoryCandidates, textCandidates, distanceCandidates);
+            List<Long> matches = new ArrayList<>();
+            for (Set<Long> bucket : candidates) {
+                for (Long alertId : bucket) {
+                    if (alerts.get(alertId).matches(category, title, description, latitude, longitude)) {
+                        matches.add(alertId);
+                    }
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(Long id, ApplicationUser worker, Collection<Category> categories, String keywords, Integer maxDistance) {
+        insert(id, worker.getId(), categories, keywords, maxDistance, worker.getLatitude(), worker.getLongitude());
+    }
+
+    private void insert(Long id, Long workerId, Collection<Category> categories, String keywords, Integer maxDistance, Float latitude, Float longitude) {
+        Set<Category> categorySet = categories == null || categories.isEmpty() ? Set.of() : EnumSet.copyOf(categories);
+        String lowerKeywords = lowerCase(keywords);
+        String trigram = lowerKeywords == null || lowerKeywords.length() < TRIGRAM_LENGTH ? null : rarestTrigram(lowerKeywords);
+        int tier = distanceTier(maxDistance, latitude, longitude);
+        long cell = tier >= 0 && tier < FAR_DISTANCE ? cellKey(tier, latitude, longitude) : 0;
+        IndexedAlert alert = new IndexedAlert(id, workerId, categorySet, lowerKeywords, maxDistance, latitude, longitude, trigram, tier, cell);
+
+        alerts.put(id, alert);
+        alertsByWorker.computeIfAbsent(workerId, w -> new HashSet<>()).add(id);
+        if (categorySet.isEmpty()) {
+            anyCategory.add(id);
+        } else {
+            categorySet.forEach(c -> byCategory.computeIfAbsent(c, k -> new HashSet<>()).add(id));
+        }
+        if (trigram == null) {
+            anyText.add(id);
+        } else {
+            byTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(id);
+        }
+        if (tier == NO_DISTANCE) {
+            anyDistance.add(id);
+        } else if (tier == FAR_DISTANCE) {
+            farDistance.add(id);
+        } else if (tier != NO_LOCATION) {
+            byCell.get(tier).computeIfAbsent(cell, c -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void delete(Long id) {
+        IndexedAlert alert = alerts.remove(id);
+        if (alert == null) {
+            return;
+        }
+        removeFromBucket(alertsByWorker, alert.workerId(), id);
+        if (alert.categories().isEmpty()) {
+            anyCategory.remove(id);
+        } else {
+            alert.categories().forEach(c -> removeFromBucket(byCategory, c, id));
+        }
+        if (alert.trigram() == null) {
+            anyText.remove(id);
+        } else {
+            removeFromBucket(byTrigram, alert.trigram(), id);
+        }
+        if (alert.tier() == NO_DISTANCE) {
+            anyDistance.remove(id);
+        } else if (alert.tier() == FAR_DISTANCE) {
+            farDistance.remove(id);
+        } else if (alert.tier() != NO_LOCATION) {
+            removeFromBucket(byCell.get(alert.tier()), alert.cell(), id);
+        }
+    }
+
+    private static <K> void removeFromBucket(Map<K, Set<Long>> buckets, K key, Long id) {
+        Set<Long> bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Picks the trigram of the keywords with the fewest alerts filed under it, to keep candidate groups small.
+     */
+    private String rarestTrigram(String keywords) {
+        String rarest = null;
+        int rarestCount = Integer.MAX_VALUE;
+        for (int i = 0; i + TRIGRAM_LENGTH <= keywords.length(); i++) {
+            String trigram = keywords.substring(i, i + TRIGRAM_LENGTH);
+            Set<Long> bucket = byTrigram.get(trigram);
+            int count = bucket == null ? 0 : bucket.size();
+            if (count < rarestCount) {
+                rarest = trigram;
+                rarestCount = count;
+            }
+        }
+        return rarest;
+    }
+
+    private static void addTrigrams(String text, Set<String> trigrams) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i + TRIGRAM_LENGTH <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + TRIGRAM_LENGTH));
+        }
+    }
+
+    private static int distanceTier(Integer maxDistance, Float latitude, Float longitude) {
+        if (maxDistance == null) {
+            return NO_DISTANCE;
+        }
+        if (latitude == null || longitude == null) {
+            return NO_LOCATION;
+        }
+        for (int tier = 0; tier < DISTANCE_TIERS_KM.length; tier++) {
+            if (maxDistance <= DISTANCE_TIERS_KM[tier]) {
+                return tier;
+            }
+        }
+        return FAR_DISTANCE;
+    }
+
+    private static double cellSize(int tier) {
+        return DISTANCE_TIERS_KM[tier] / KM_PER_DEGREE;
+    }
+
+    private static long cellKey(int tier, double latitude, double longitude) {
+        return cellKey((int) Math.floor(latitude / cellSize(tier)), (int) Math.floor(longitude / cellSize(tier)));
+    }
+
+    private static long cellKey(int latitudeCell, int longitudeCell) {
+        return ((long) latitudeCell << 32) | (longitudeCell & 0xffffffffL);
+    }
+
+    /**
+     * Adds the buckets of all cells of the tier that can contain a worker within the tier radius of the given point.
+     */
+    private void addCellsAround(int tier, double latitude, double longitude, List<Set<Long>> candidates) {
+        Map<Long, Set<Long>> cells = byCell.get(tier);
+        if (cells.isEmpty()) {
+            return;
+        }
+        GeoBoundingBox box = GeoBoundingBox.around(latitude, longitude, DISTANCE_TIERS_KM[tier]);
+        double size = cellSize(tier);
+        int minLatitudeCell = (int) Math.floor(box.minLatitude() / size);
+        int maxLatitudeCell = (int) Math.floor(box.maxLatitude() / size);
+        int minLongitudeCell = (int) Math.floor(box.minLongitude() / size);
+        int maxLongitudeCell = (int) Math.floor(box.maxLongitude() / size);
+        long cellCount = (long) (maxLatitudeCell - minLatitudeCell + 1) * (maxLongitudeCell - minLongitudeCell + 1);
+        if (cellCount > cells.size()) {
+            candidates.addAll(cells.values());
+            return;
+        }
+        for (int latitudeCell = minLatitudeCell; latitudeCell <= maxLatitudeCell; latitudeCell++) {
+            for (int longitudeCell = minLongitudeCell; longitudeCell <= maxLongitudeCell; longitudeCell++) {
+                Set<Long> bucket = cells.get(cellKey(latitudeCell, longitudeCell));
+                if (bucket != null) {
+                    candidates.add(bucket);
+                }
+            }
+        }
+    }
+
+    @SafeVarargs
+    private static List<Set<Long>> smallest(List<Set<Long>>... groups) {
+        List<Set<Long>> smallest = null;
+        long smallestSize = Long.MAX_VALUE;
+        for (List<Set<Long>> group : groups) {
+            long size = group.stream().mapToLong(Set::size).sum();
+            if (size < smallestSize) {
+                smallest = group;
+                smallestSize = size;
+            }
+        }
+        return smallest;
+    }
+
+    private static String lowerCase(String text) {
+        return text == null ? null : text.toLowerCase(Locale.ROOT);
+    }
+
+    private record IndexedAlert(Long id, Long workerId, Set<Category> categories, String keywords, Integer maxDistance,
+                                Float workerLatitude, Float workerLongitude, String trigram, int tier, long cell) {
+
+        boolean matches(Category category, String title, String description, Float latitude, Float longitude) {
+            if (!categories.isEmpty() && !categories.contains(category)) {
+                return false;
+            }
+            if (keywords != null && !(title != null && title.contains(keywords)) && !(description != null && description.contains(keywords))) {
+                return false;
+            }
+            if (maxDistance == null) {
+                return true;
+            }
+            return latitude != null && longitude != null && workerLatitude != null && workerLongitude != null
+                && GeoBoundingBox.distanceKm(workerLatitude, workerLongitude, latitude, longitude) < maxDistance;
+        }
+    }
+}
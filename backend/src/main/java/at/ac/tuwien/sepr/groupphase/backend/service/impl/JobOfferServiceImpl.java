@@ -9,9 +9,11 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.mapper.JobOfferMapper;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobOffer;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.event.JobRequestChangedEvent;
 import at.ac.tuwien.sepr.groupphase.backend.exception.OfferAlreadyExistsException;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobOfferRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
 import at.ac.tuwien.sepr.groupphase.backend.service.JobOfferService;
 import at.ac.tuwien.sepr.groupphase.backend.service.PushNotificationService;
 import at.ac.tuwien.sepr.groupphase.backend.service.RatingService;
@@ -26,6 +28,9 @@ import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -49,6 +54,7 @@ public class JobOfferServiceImpl implements JobOfferService {
     private final Validator validator;
     private final PushNotificationService pushNotificationService;
     private final RatingService ratingService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public JobOfferServiceImpl(JobOfferRepository jobOfferRepository,
@@ -57,7 +63,8 @@ public class JobOfferServiceImpl implements JobOfferService {
                                JobOfferMapper jobOfferMapper,
                                Validator validator,
                                PushNotificationService pushNotificationService,
-                               RatingService ratingService) {
+                               RatingService ratingService,
+                               ApplicationEventPublisher eventPublisher) {
         this.jobOfferRepository = jobOfferRepository;
         this.jobRequestRepository = jobRequestRepository;
         this.userService = userService;
@@ -65,9 +72,22 @@ public class JobOfferServiceImpl implements JobOfferService {
         this.validator = validator;
         this.pushNotificationService = pushNotificationService;
         this.ratingService = ratingService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Recomputes the stored offer summary of all job requests once the application (and the data generator) started,
+     * so requests created before the summary columns existed get correct values.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void refreshOfferSummaries() {
+        int updated = jobRequestRepository.refreshAllOfferSummaries();
+        LOGGER.debug("Refreshed offer summary of {} job requests", updated);
     }
 
     @Override
+    @Transactional
     public JobOfferDetailDto createJobOffer(Long jobRequestId, JobOfferCreateDto createDto) throws AccessDeniedException {
         LOGGER.trace("create() with parameters: {}", createDto);
 
@@ -100,6 +120,8 @@ public class JobOfferServiceImpl implements JobOfferService {
             .build();
 
         JobOffer saved = jobOfferRepository.save(offer);
+        jobRequestRepository.refreshOfferSummary(request.getId());
+        eventPublisher.publishEvent(new JobRequestChangedEvent(request.getId()));
 
         // send a push notification
         pushNotificationService.notifyCustomerOfJobOffer(request.getCustomer(), request, saved);
@@ -110,56 +132,38 @@ public class JobOfferServiceImpl implements JobOfferService {
     @Override
     @Transactional(readOnly = true)
     public PageDto<JobOfferSummaryDto> getOffersFromWorker(int offset, int limit) throws AccessDeniedException {
-        ApplicationUser worker = userService.getCurrentUser();
+        AuthenticatedUser worker = userService.getAuthenticatedUser();
 
-        if (!worker.getRole().equals(Role.WORKER)) {
+        if (worker.role() != Role.WORKER) {
             throw new AccessDeniedException("Only workers can see their sent job offers");
         }
         Pageable pageable = PageRequest.of(offset / limit, limit);
         Page<JobOffer> offers = jobOfferRepository.findAllByWorkerIdAndStatusNotWithJobRequest(
-            worker.getId(), JobOfferStatus.HIDDEN, pageable
+            worker.id(), JobOfferStatus.HIDDEN, pageable
         );
         return new PageDto<>(offers.stream()
-            .map(offer -> {
-                JobRequest jobRequest = offer.getJobRequest();
-                jobRequest.getReceivedJobOffers().size();
-                JobOfferSummaryDto dto = jobOfferMapper.jobOfferToSummaryDto(offer);
-                dto.setLowestPrice(findLowestPrice(jobRequest));
-                return dto;
-            })
+            .map(jobOfferMapper::jobOfferToSummaryDto)
             .collect(Collectors.toList()),
             (int) offers.getTotalElements(), limit, offset);
     }
 
     public List<JobOfferSummaryDto> getOffers() throws AccessDeniedException {
-        ApplicationUser worker = userService.getCurrentUser();
+        AuthenticatedUser worker = userService.getAuthenticatedUser();
 
-        if (!worker.getRole().equals(Role.WORKER)) {
+        if (worker.role() != Role.WORKER) {
             throw new AccessDeniedException("Only workers can see their sent job offers");
         }
 
-        List<JobOffer> offers = jobOfferRepository.findAllByWorkerIdWithJobRequestAndOffers(worker.getId());
+        List<JobOffer> offers = jobOfferRepository.findAllByWorkerIdWithJobRequest(worker.id());
 
         return offers.stream()
             .filter(offer -> offer.getStatus() != JobOfferStatus.HIDDEN)
-            .map(offer -> {
-                JobOfferSummaryDto dto = jobOfferMapper.jobOfferToSummaryDto(offer);
-                dto.setLowestPrice(findLowestPrice(offer.getJobRequest()));
-                return dto;
-            })
+            .map(jobOfferMapper::jobOfferToSummaryDto)
             .collect(Collectors.toList());
     }
 
-
-    private Float findLowestPrice(JobRequest jobRequest) {
-        return jobRequest.getReceivedJobOffers().stream()
-            .filter(offer -> offer.getStatus() == JobOfferStatus.PENDING)
-            .map(JobOffer::getPrice)
-            .min(Float::compare)
-            .orElse(0.0f);
-    }
-
     @Override
+    @Transactional
     public void deleteOffer(Long id) {
         JobOffer offer = jobOfferRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException(
@@ -175,6 +179,8 @@ public class JobOfferServiceImpl implements JobOfferService {
         } else {
             jobOfferRepository.delete(offer);
         }
+        jobRequestRepository.refreshOfferSummary(offer.getJobRequest().getId());
+        eventPublisher.publishEvent(new JobRequestChangedEvent(offer.getJobRequest().getId()));
     }
 
     @Transactional
@@ -190,6 +196,8 @@ public class JobOfferServiceImpl implements JobOfferService {
 
         offer.setStatus(JobOfferStatus.WITHDRAWN);
         jobOfferRepository.save(offer);
+        jobRequestRepository.refreshOfferSummary(offer.getJobRequest().getId());
+        eventPublisher.publishEvent(new JobRequestChangedEvent(offer.getJobRequest().getId()));
     }
 
     @Transactional
@@ -218,19 +226,21 @@ public class JobOfferServiceImpl implements JobOfferService {
         }
 
         jobRequest.setStatus(JobStatus.ACCEPTED);
+        jobRequestRepository.refreshOfferSummary(jobRequest.getId());
+        eventPublisher.publishEvent(new JobRequestChangedEvent(jobRequest.getId()));
 
         pushNotificationService.notifyWorkerOfAccept(offer.getWorker(), jobRequest);
     }
 
     @Override
     public List<JobOfferDetailWithUsernameDto> getOffersForCustomer() throws AccessDeniedException {
-        ApplicationUser customer = userService.getCurrentUser();
+        AuthenticatedUser customer = userService.getAuthenticatedUser();
 
-        if (!customer.getRole().equals(Role.CUSTOMER)) {
+        if (customer.role() != Role.CUSTOMER) {
             throw new AccessDeniedException("Only customers can see their received job offers");
         }
 
-        List<JobOffer> allOffers = jobOfferRepository.findAllForCustomerWithWorker(customer.getId());
+        List<JobOffer> allOffers = jobOfferRepository.findAllForCustomerWithWorker(customer.id());
 
         return allOffers.stream()
             .filter(offer -> {
@@ -302,6 +312,8 @@ public class JobOfferServiceImpl implements JobOfferService {
         JobOffer saved = jobOfferRepository.save(offer);
 
         if (priceUpdated) {
+            jobRequestRepository.refreshOfferSummary(saved.getJobRequest().getId());
+            eventPublisher.publishEvent(new JobRequestChangedEvent(saved.getJobRequest().getId()));
             // send a push notification
             JobRequest request = saved.getJobRequest();
             pushNotificationService.notifyCustomerOfJobOffer(request.getCustomer(), request, saved);
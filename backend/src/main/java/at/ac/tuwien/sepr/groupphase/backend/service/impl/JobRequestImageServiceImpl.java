@@ -4,18 +4,28 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequestimage.JobRequ
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequestimage.JobRequestImageDetailDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.mapper.JobRequestImageMapper;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ImageVariant;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequestImage;
+import at.ac.tuwien.sepr.groupphase.backend.event.JobRequestImageCreatedEvent;
 import at.ac.tuwien.sepr.groupphase.backend.exception.ImageLimitExceededException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.ImageValidationException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestImageRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
 import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestImageService;
+import at.ac.tuwien.sepr.groupphase.backend.type.ImageSize;
+import at.ac.tuwien.sepr.groupphase.backend.type.JobStatus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @Service
@@ -27,17 +37,24 @@ public class JobRequestImageServiceImpl implements JobRequestImageService {
     private final JobRequestImageRepository imageRepository;
     private final JobRequestRepository jobRequestRepository;
     private final JobRequestImageMapper imageMapper;
+    private final BlobService blobService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public JobRequestImageServiceImpl(JobRequestImageRepository imageRepository,
                                       JobRequestRepository jobRequestRepository,
-                                      JobRequestImageMapper imageMapper) {
+                                      JobRequestImageMapper imageMapper,
+                                      BlobService blobService,
+                                      ApplicationEventPublisher eventPublisher) {
         this.imageRepository = imageRepository;
         this.jobRequestRepository = jobRequestRepository;
         this.imageMapper = imageMapper;
+        this.blobService = blobService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public JobRequestImageDetailDto createImage(Long jobRequestId, MultipartFile file, int displayPosition) throws NotFoundException, ImageValidationException {
 
         // Get parent job request
@@ -57,6 +74,7 @@ public class JobRequestImageServiceImpl implements JobRequestImageService {
         adjustImagePositions(jobRequestId, displayPosition);
 
         JobRequestImage savedImage = imageRepository.save(image);
+        eventPublisher.publishEvent(new JobRequestImageCreatedEvent(savedImage.getId()));
         return imageMapper.toDetailDto(savedImage);
     }
 
@@ -74,8 +92,11 @@ public class JobRequestImageServiceImpl implements JobRequestImageService {
         image.setJobRequest(jobRequest);
         image.setImageType(contentType);
         image.setDisplayPosition(displayPosition);
-        try {
-            image.setImage(file.getBytes());
+        try (InputStream content = file.getInputStream()) {
+            BlobStore.StoredBlob blob = blobService.store(content);
+            blobService.acquire(blob.key());
+            image.setBlobKey(blob.key());
+            image.setContentLength(blob.size());
         } catch (IOException e) {
             throw new ImageValidationException("Failed to read image data");
         }
@@ -105,21 +126,52 @@ public class JobRequestImageServiceImpl implements JobRequestImageService {
     }
 
     @Override
-    public JobRequestImageDataDto getImageData(Long jobRequestId, Long imageId) throws NotFoundException {
+    public JobRequestImageDataDto getImageData(Long jobRequestId, Long imageId, ImageSize size) throws NotFoundException {
         JobRequestImage image = imageRepository.findByJobRequestIdAndId(jobRequestId, imageId)
             .orElseThrow(() -> new NotFoundException("Image not found"));
 
-        return new JobRequestImageDataDto(
-            image.getImage(),
-            image.getImageType()
-        );
+        if (image.getBlobKey() == null) {
+            throw new NotFoundException("Image content not found");
+        }
+
+        ImageVariant variant = switch (size) {
+            case ORIGINAL -> null;
+            case MEDIUM -> image.getMedium();
+            case THUMBNAIL -> image.getThumbnail();
+        };
+        // blobs are keyed by the SHA-256 of their content
+        if (variant == null || variant.getBlobKey() == null) {
+            return new JobRequestImageDataDto(image.getBlobKey(), image.getImageType(), image.getContentLength(), ImageSize.ORIGINAL);
+        }
+        return new JobRequestImageDataDto(variant.getBlobKey(), image.getImageType(), variant.getContentLength(), size);
+    }
+
+    @Override
+    public Resource getImageContent(JobRequestImageDataDto image) throws NotFoundException {
+        return blobService.load(image.getContentHash());
     }
 
     @Override
+    @Transactional
     public void deleteImage(Long jobRequestId, Long imageId) throws NotFoundException {
-        if (!imageRepository.existsByJobRequestIdAndId(jobRequestId, imageId)) {
-            throw new NotFoundException("Image not found");
-        }
-        imageRepository.deleteById(imageId);
+        JobRequestImage image = imageRepository.findByJobRequestIdAndId(jobRequestId, imageId)
+            .orElseThrow(() -> new NotFoundException("Image not found"));
+        imageRepository.delete(image);
+        // identical content uploaded for another image or elsewhere shares the blob, it is only collected once unreferenced
+        image.blobKeys().forEach(blobService::release);
+    }
+
+    @Override
+    public void releaseImageContent(Long jobRequestId) {
+        imageRepository.findByJobRequestIdOrderByDisplayPositionAsc(jobRequestId)
+            .forEach(image -> image.blobKeys().forEach(blobService::release));
+    }
+
+    @Override
+    @Transactional
+    public void deleteImagesOfCustomer(Long customerId, JobStatus status) {
+        imageRepository.findByCustomerIdAndJobRequestStatus(customerId, status)
+            .forEach(image -> image.blobKeys().forEach(blobService::release));
+        imageRepository.deleteByCustomerIdAndJobRequestStatus(customerId, status);
     }
 }
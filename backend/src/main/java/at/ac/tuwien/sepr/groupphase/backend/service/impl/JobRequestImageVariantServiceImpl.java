@@ -0,0 +1,338 @@
+package at.ac.tuwien.sepr.groupphase.backend.service.impl;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequestImage;
+import at.ac.tuwien.sepr.groupphase.backend.event.JobRequestImageCreatedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestImageRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestImageVariantService;
+import at.ac.tuwien.sepr.groupphase.backend.type.ImageSize;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates image variants with ImageIO on a fixed number of threads with a bounded queue, so uploads never wait
+ * for image processing and a burst of uploads cannot exhaust memory. Images that could not be queued, or were
+ * uploaded while the application was down, are picked up on the next start.
+ */
+@Service
+public class JobRequestImageVariantServiceImpl implements JobRequestImageVariantService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final String PNG = "image/png";
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private final JobRequestImageRepository imageRepository;
+    private final BlobService blobService;
+    private final ThreadPoolExecutor executor;
+    private final float jpegQuality;
+    private final boolean backfillOnStartup;
+
+    public JobRequestImageVariantServiceImpl(JobRequestImageRepository imageRepository, BlobService blobService, MeterRegistry meterRegistry,
+                                             @Value("${job-request-image.variants.threads:2}") int threads,
+                                             @Value("${job-request-image.variants.queue-capacity:200}") int queueCapacity,
+                                             @Value("${job-request-image.variants.jpeg-quality:0.85}") float jpegQuality,
+                                             @Value("${job-request-image.variants.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.imageRepository = imageRepository;
+        this.blobService = blobService;
+        this.jpegQuality = jpegQuality;
+        this.backfillOnStartup = backfillOnStartup;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("image-variants-", 0).daemon(true).factory());
+        new ExecutorServiceMetrics(executor, "image.variants", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    @TransactionalEventListener
+    public void onImageCreated(JobRequestImageCreatedEvent event) {
+        LOGGER.trace("onImageCreated({})", event);
+        scheduleVariants(event.imageId());
+    }
+
+    /**
+     * Queues all images whose variants are missing, e.g. because they were uploaded before variants existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleMissingVariants() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        List<Long> imageIds = imageRepository.findIdsWithoutVariants();
+        int scheduled = 0;
+        for (Long imageId : imageIds) {
+            if (!scheduleVariants(imageId)) {
+                break;
+            }
+            scheduled++;
+        }
+        if (!imageIds.isEmpty()) {
+            LOGGER.info("Queued {} of {} images without variants", scheduled, imageIds.size());
+        }
+    }
+
+    @Override
+    public boolean scheduleVariants(Long imageId) {
+        LOGGER.trace("scheduleVariants({})", imageId);
+        try {
+            executor.execute(() -> {
+                try {
+                    generateVariants(imageId);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Generating the variants of image {} failed", imageId, e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Variant queue is full, variants of image {} are generated on the next start", imageId);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean generateVariants(Long imageId) {
+        LOGGER.trace("generateVariants({})", imageId);
+        JobRequestImage image = imageRepository.findById(imageId).orElse(null);
+        if (image == null || image.getBlobKey() == null) {
+            return false;
+        }
+
+        BlobStore.StoredBlob medium;
+        BlobStore.StoredBlob thumbnail;
+        try {
+            BufferedImage decoded = decode(image.getBlobKey());
+            if (decoded == null) {
+                LOGGER.warn("Image {} cannot be decoded, no variants are generated", imageId);
+                return false;
+            }
+            boolean png = PNG.equals(image.getImageType());
+            medium = storeVariant(decoded, ImageSize.MEDIUM, png);
+            thumbnail = storeVariant(decoded, ImageSize.THUMBNAIL, png);
+        } catch (IOException e) {
+            LOGGER.warn("Image {} cannot be read, no variants are generated", imageId, e);
+            return false;
+        }
+
+        blobService.acquire(medium.key());
+        blobService.acquire(thumbnail.key());
+        if (imageRepository.updateVariants(imageId, medium.key(), medium.size(), thumbnail.key(), thumbnail.size()) == 0) {
+            // the image was deleted while its variants were generated
+            blobService.release(medium.key());
+            blobService.release(thumbnail.key());
+            return false;
+        }
+        // variants generated again replace the previous ones
+        if (image.getMedium() != null) {
+            blobService.release(image.getMedium().getBlobKey());
+        }
+        if (image.getThumbnail() != null) {
+            blobService.release(image.getThumbnail().getBlobKey());
+        }
+        LOGGER.debug("Generated variants of image {}", imageId);
+        return true;
+    }
+
+    /**
+     * Decodes an image turned upright, since the variants are written without the EXIF orientation that told
+     * viewers how to turn the original.
+     */
+    private BufferedImage decode(String blobKey) throws IOException {
+        int orientation = exifOrientation(blobKey);
+        try (InputStream content = blobService.load(blobKey).getInputStream();
+             ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // the largest variant needs no more than twice its size, so most pixels of a large photo are skipped while decoding
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / (2 * ImageSize.MEDIUM.getMaxDimension()));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return orient(reader.read(0, param), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Reads the EXIF orientation of a JPEG, which phones set instead of rotating the pixels of a photo taken with
+     * the phone turned. Returns 1, upright, if the image has none.
+     */
+    private int exifOrientation(String blobKey) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(blobService.load(blobKey).getInputStream()))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            // metadata segments come before the start of scan, each with its length
+            int marker = in.readUnsignedShort();
+            while ((marker & 0xFF00) == 0xFF00 && marker != 0xFFDA && marker != 0xFFD9) {
+                int length = in.readUnsignedShort() - 2;
+                if (marker == 0xFFE1) {
+                    int orientation = exifOrientation(in.readNBytes(length));
+                    if (orientation != 0) {
+                        return orientation;
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+                marker = in.readUnsignedShort();
+            }
+            return 1;
+        } catch (EOFException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * Finds the orientation tag in the first directory of the TIFF structure of an APP1 segment.
+     *
+     * @return the orientation, or 0 if the segment does not hold one
+     */
+    private static int exifOrientation(byte[] segment) {
+        if (segment.length < 14 || !"Exif\0\0".equals(new String(segment, 0, 6, StandardCharsets.ISO_8859_1))) {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(segment, 6, segment.length - 6).slice();
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        try {
+            int directory = tiff.getInt(4);
+            int entries = Short.toUnsignedInt(tiff.getShort(directory));
+            for (int i = 0; i < entries; i++) {
+                int entry = directory + 2 + 12 * i;
+                if (Short.toUnsignedInt(tiff.getShort(entry)) == ORIENTATION_TAG) {
+                    return Short.toUnsignedInt(tiff.getShort(entry + 8));
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            LOGGER.debug("Ignoring truncated EXIF data");
+        }
+        return 0;
+    }
+
+    /**
+     * Turns and mirrors an image as its EXIF orientation says, before it is resized.
+     */
+    private static BufferedImage orient(BufferedImage source, int orientation) {
+        if (orientation < 2 || orientation > 8) {
+            return source;
+        }
+        int width = source.getWidth();
+        int height = source.getHeight();
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, width, height);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, height, width);
+            default -> new AffineTransform(0, -1, 1, 0, 0, width);
+        };
+        // orientations 5 to 8 turn the image by a quarter, swapping width and height
+        boolean turned = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(turned ? height : width, turned ? width : height,
+            source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.drawImage(source, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    private BlobStore.StoredBlob storeVariant(BufferedImage source, ImageSize size, boolean png) throws IOException {
+        BufferedImage resized = resize(source, size.getMaxDimension(), png && source.getColorModel().hasAlpha());
+        return blobService.store(new ByteArrayInputStream(encode(resized, png)));
+    }
+
+    private static BufferedImage resize(BufferedImage source, int maxDimension, boolean alpha) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        // halving step by step keeps bilinear filtering from skipping pixels when shrinking a lot
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image, boolean png) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(png ? "png" : "jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (!png) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+            }
+            // only pixels are written, EXIF data and comments of the upload are left behind
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
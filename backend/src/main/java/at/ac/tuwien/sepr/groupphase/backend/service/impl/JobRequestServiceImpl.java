@@ -13,24 +13,32 @@ import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobOffer;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
 import at.ac.tuwien.sepr.groupphase.backend.entity.Property;
+import at.ac.tuwien.sepr.groupphase.backend.event.JobRequestChangedEvent;
 import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobOfferRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.PropertyRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.ReportRepository;
-import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
+import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestImageService;
 import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestService;
+import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestTextIndex;
 import at.ac.tuwien.sepr.groupphase.backend.service.LicenseService;
 import at.ac.tuwien.sepr.groupphase.backend.service.PushNotificationService;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
+import at.ac.tuwien.sepr.groupphase.backend.service.WorkerSearchCache;
 import at.ac.tuwien.sepr.groupphase.backend.type.Category;
 import at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus;
 import at.ac.tuwien.sepr.groupphase.backend.type.JobStatus;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
+import at.ac.tuwien.sepr.groupphase.backend.util.GeoBoundingBox;
+import at.ac.tuwien.sepr.groupphase.backend.util.PageCursor;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -42,10 +50,20 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static at.ac.tuwien.sepr.groupphase.backend.type.JobStatus.PENDING;
 
@@ -54,32 +72,46 @@ import static at.ac.tuwien.sepr.groupphase.backend.type.JobStatus.PENDING;
 public class JobRequestServiceImpl implements JobRequestService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    /**
+     * The most text search matches bound to a single statement.
+     */
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
     private final JobRequestRepository jobRequestRepository;
     private final PropertyRepository propertyRepository;
-    private final UserRepository userRepository;
     private final JobRequestMapper jobRequestMapper;
     private final UserService userService;
     private final JobOfferRepository jobOfferRepository;
     private final LicenseService licenseService;
     private final PushNotificationService pushNotificationService;
     private final ReportRepository reportRepository;
+    private final JobRequestTextIndex jobRequestTextIndex;
+    private final WorkerSearchCache workerSearchCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JobRequestImageService jobRequestImageService;
 
     @Autowired
-    public JobRequestServiceImpl(JobRequestRepository jobRequestRepository, PropertyRepository propertyRepository, UserRepository userRepository,
+    public JobRequestServiceImpl(JobRequestRepository jobRequestRepository, PropertyRepository propertyRepository,
                                  JobRequestMapper jobRequestMapper, UserService userService, JobOfferRepository jobOfferRepository, LicenseService licenseService, PushNotificationService pushNotificationService,
-                                 ReportRepository reportRepository) {
+                                 ReportRepository reportRepository, JobRequestTextIndex jobRequestTextIndex, WorkerSearchCache workerSearchCache,
+                                 ApplicationEventPublisher eventPublisher, JobRequestImageService jobRequestImageService) {
         this.jobRequestRepository = jobRequestRepository;
         this.propertyRepository = propertyRepository;
-        this.userRepository = userRepository;
         this.jobRequestMapper = jobRequestMapper;
         this.userService = userService;
         this.jobOfferRepository = jobOfferRepository;
         this.licenseService = licenseService;
         this.pushNotificationService = pushNotificationService;
         this.reportRepository = reportRepository;
+        this.jobRequestTextIndex = jobRequestTextIndex;
+        this.workerSearchCache = workerSearchCache;
+        this.eventPublisher = eventPublisher;
+        this.jobRequestImageService = jobRequestImageService;
     }
 
     @Override
+    @Transactional
     public JobRequestDetailDto create(JobRequestCreateDto createDto) throws ConstraintViolationException {
         LOGGER.trace("create() with parameters: {}", createDto);
         ApplicationUser user = userService.getCurrentUser();
@@ -101,6 +133,7 @@ public class JobRequestServiceImpl implements JobRequestService {
         }
 
         JobRequest saved = jobRequestRepository.save(jobRequest);
+        eventPublisher.publishEvent(new JobRequestChangedEvent(saved.getId()));
 
         // send push notifications
         pushNotificationService.notifyWorkersOfJobRequest(saved);
@@ -110,7 +143,7 @@ public class JobRequestServiceImpl implements JobRequestService {
 
     @Override
     public JobRequestUpdateDto update(JobRequestUpdateDto updateDto) throws NotFoundException, ConstraintViolationException {
-        ApplicationUser user = userService.getCurrentUser();
+        AuthenticatedUser user = userService.getAuthenticatedUser();
         LOGGER.trace("update() with parameters: {}", updateDto);
         JobRequest jobRequest = jobRequestRepository.findById(updateDto.getId()).orElseThrow(() -> {
             LOGGER.error("Error while updating JobRequest: {}", updateDto);
@@ -121,8 +154,8 @@ public class JobRequestServiceImpl implements JobRequestService {
             throw new NotFoundException("JobRequest was already deleted");
         }
 
-        if (!jobRequest.getCustomer().getId().equals(user.getId())) {
-            LOGGER.error("User '{}' is not authorized to update JobRequest with id {}", user.getUsername(), updateDto.getId());
+        if (!jobRequest.getCustomer().getId().equals(user.id())) {
+            LOGGER.error("User '{}' is not authorized to update JobRequest with id {}", user.username(), updateDto.getId());
             throw new AccessDeniedException("You are not Authorized");
         }
         jobRequestMapper.updateJobRequestFromDto(updateDto, jobRequest);
@@ -136,6 +169,7 @@ public class JobRequestServiceImpl implements JobRequestService {
             jobRequest.setProperty(null);
         }
         jobRequestRepository.save(jobRequest);
+        eventPublisher.publishEvent(new JobRequestChangedEvent(jobRequest.getId()));
         return jobRequestMapper.jobRequestToUpdateDto(jobRequest);
     }
 
@@ -171,13 +205,9 @@ public class JobRequestServiceImpl implements JobRequestService {
 
     @Override
     public List<JobRequestListDto> listJobRequests() {
-        String username = userService.getCurrentUser().getUsername();
-        LOGGER.trace("listJobRequests() with parameters: {}", username);
-        ApplicationUser user = userRepository.findUserByUsername(username).orElseThrow(() -> {
-            LOGGER.error("Error while fetching Job Request: {}", username);
-            return new NotFoundException("User not found");
-        });
-        Long id = user.getId();
+        AuthenticatedUser user = userService.getAuthenticatedUser();
+        LOGGER.trace("listJobRequests() with parameters: {}", user.username());
+        Long id = user.id();
         return jobRequestMapper.jobRequestToListDto(
             jobRequestRepository.findAllByCustomerIdAndCustomerBannedFalse(id).stream()
                 .filter(request -> request.getStatus() != JobStatus.HIDDEN)
@@ -188,19 +218,19 @@ public class JobRequestServiceImpl implements JobRequestService {
     @Override
     public void deleteById(long id) throws NotFoundException {
         LOGGER.trace("deleteById({})", id);
-        ApplicationUser user = userService.getCurrentUser();
+        AuthenticatedUser user = userService.getAuthenticatedUser();
         ApplicationUser deletingUser = jobRequestRepository.findById(id).orElseThrow(() -> {
             LOGGER.error("Error while deleting Job Request: {}", id);
             return new NotFoundException();
         }).getCustomer();
 
-        boolean isOwner = deletingUser.getId().equals(user.getId());
+        boolean isOwner = deletingUser.getId().equals(user.id());
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         boolean isAdmin = auth.getAuthorities().stream()
             .anyMatch(granted -> granted.getAuthority().equals("ROLE_ADMIN"));
 
         if (!isOwner && !isAdmin) {
-            LOGGER.error("User '{}' is not authorized to delete JobRequest with id {}", user.getUsername(), id);
+            LOGGER.error("User '{}' is not authorized to delete JobRequest with id {}", user.username(), id);
             throw new AccessDeniedException("You are not Authorized");
         }
         JobRequest jobRequest = jobRequestRepository.findById(id).orElseThrow(() -> new NotFoundException("JobRequest not found"));
@@ -211,44 +241,43 @@ public class JobRequestServiceImpl implements JobRequestService {
         } else if (jobRequest.getStatus() == JobStatus.HIDDEN) {
             throw new IllegalStateException("jobRequest was already deleted");
         } else {
+            // the images are deleted along with the job request
+            jobRequestImageService.releaseImageContent(id);
             jobRequestRepository.delete(jobRequest);
         }
+        eventPublisher.publishEvent(new JobRequestChangedEvent(id));
     }
 
     @Override
-    public List<JobRequestListDto> findAll() {
-        LOGGER.trace("findAll()");
-        return jobRequestMapper.jobRequestToListDto(jobRequestRepository.findAllByStatusAndCustomerBannedFalse(PENDING));
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<JobRequestListDto> action) {
+        LOGGER.trace("streamAll()");
+        try (Stream<JobRequestListDto> requests = jobRequestRepository.streamListByStatus(PENDING)) {
+            requests.forEach(action);
+        }
     }
 
     @Override
-    public List<JobRequestListWithMinPriceDto> findAllOpen() {
-        LOGGER.trace("findAllOpen()");
-        ApplicationUser worker = userService.getCurrentUser();
+    @Transactional(readOnly = true)
+    public void streamAllOpen(Consumer<JobRequestListWithMinPriceDto> action) {
+        LOGGER.trace("streamAllOpen()");
+        AuthenticatedUser worker = userService.getAuthenticatedUser();
 
-        if (worker.getRole() == Role.WORKER && !licenseService.hasApprovedLicense(worker.getId())) {
-            return Collections.emptyList();
+        if (worker.role() == Role.WORKER && !licenseService.hasApprovedLicense(worker.id())) {
+            return;
         }
 
-        List<JobRequest> openRequests = jobRequestRepository.findAllByStatusWithOffers(PENDING);
-
-        // filter those with PENDING offer from worker out
-        return getJobRequestListWithMinPriceDtos(worker, openRequests);
-    }
-
-    private Float findLowestPrice(JobRequest jobRequest) {
-        return jobRequest.getReceivedJobOffers().stream()
-            .filter(offer -> offer.getStatus() == JobOfferStatus.PENDING)
-            .map(JobOffer::getPrice)
-            .min(Float::compare)
-            .orElse(0.0f);
+        // requests with a PENDING offer from the worker are filtered out by the query
+        try (Stream<JobRequestListWithMinPriceDto> requests = jobRequestRepository.streamOpenForWorker(worker.id())) {
+            requests.forEach(action);
+        }
     }
 
 
     @Override
     public void markRequestDone(Long id) throws NotFoundException {
         LOGGER.trace("markRequestDone({})", id);
-        ApplicationUser currentUser = userService.getCurrentUser();
+        AuthenticatedUser currentUser = userService.getAuthenticatedUser();
 
         JobRequest jobRequest = jobRequestRepository.findById(id)
             .orElseThrow(() -> {
@@ -260,8 +289,8 @@ public class JobRequestServiceImpl implements JobRequestService {
             throw new NotFoundException("JobRequest was already deleted");
         }
 
-        if (!jobRequest.getCustomer().getId().equals(currentUser.getId())) {
-            LOGGER.warn("User {} is not the owner of JobRequest {}", currentUser.getId(), id);
+        if (!jobRequest.getCustomer().getId().equals(currentUser.id())) {
+            LOGGER.warn("User {} is not the owner of JobRequest {}", currentUser.id(), id);
             throw new AccessDeniedException("You are not authorized to complete this job request");
         }
 
@@ -276,27 +305,37 @@ public class JobRequestServiceImpl implements JobRequestService {
 
         jobOfferRepository.save(acceptedOffer);
         jobRequestRepository.save(jobRequest);
+        eventPublisher.publishEvent(new JobRequestChangedEvent(jobRequest.getId()));
     }
 
     @Override
     public PageDto<JobRequestListDto> searchJobRequestsCustomer(JobRequestSearchDto searchDto, int offset, int limit) {
-        ApplicationUser user = userService.getCurrentUser();
-        Pageable pageable = PageRequest.of(offset / limit, limit);
+        AuthenticatedUser user = userService.getAuthenticatedUser();
+        List<Long> rankedIds = matchTitle(searchDto);
+        if (rankedIds != null && rankedIds.isEmpty()) {
+            return new PageDto<>(Collections.emptyList(), 0, limit, offset);
+        }
 
         List<Category> categories = parseCategories(searchDto.getCategory());
         List<JobStatus> statuses = parseStatuses(searchDto.getStatus());
+        if (rankedIds != null) {
+            return toRankedPage(rankedIds, offset, limit,
+                ids -> jobRequestRepository.searchJobRequestIdsCustomer(
+                    user.id(), ids, categories, statuses, searchDto.getDeadline(), searchDto.getPropertyId()),
+                ids -> jobRequestRepository.searchJobRequestsCustomer(
+                    user.id(), ids, categories, statuses, searchDto.getDeadline(), searchDto.getPropertyId(), Pageable.unpaged()),
+                jobRequestMapper::jobRequestToListDto);
+        }
         Page<JobRequest> jobRequestPage = jobRequestRepository.searchJobRequestsCustomer(
-            user.getId(),
-            searchDto.getTitle(),
+            user.id(),
+            null,
             categories,
             statuses,
             searchDto.getDeadline(),
             searchDto.getPropertyId(),
-            pageable
+            PageRequest.of(offset / limit, limit)
         );
-        List<JobRequestListDto> jobRequestListDtos = jobRequestMapper.jobRequestToListDto(jobRequestPage.getContent());
-        return new PageDto<>(jobRequestListDtos, (int) jobRequestPage.getTotalElements(), limit, offset);
-
+        return toPage(jobRequestPage, offset, limit, jobRequestMapper::jobRequestToListDto);
     }
 
     @Override
@@ -310,66 +349,309 @@ public class JobRequestServiceImpl implements JobRequestService {
             return new PageDto<>(Collections.emptyList(), 0, 0, 0);
         }
 
+        return workerSearchCache.get(worker, searchDto, "offset=" + offset + ",limit=" + limit, () -> searchWorker(worker, searchDto, offset, limit));
+    }
+
+    private PageDto<JobRequestListWithMinPriceDto> searchWorker(ApplicationUser worker, JobRequestSearchDto searchDto, int offset, int limit) {
+        List<Long> rankedIds = matchTitle(searchDto);
+        if (rankedIds != null && rankedIds.isEmpty()) {
+            return new PageDto<>(Collections.emptyList(), 0, limit, offset);
+        }
+
         List<String> categoryNames = (searchDto.getCategory() != null && !searchDto.getCategory().isEmpty())
             ? Arrays.asList(searchDto.getCategory().split(","))
             : null;
 
-        Pageable pageable = PageRequest.of(offset / limit, limit, Sort.by(Sort.Direction.DESC, "id"));
+        Function<List<JobRequest>, List<JobRequestListWithMinPriceDto>> mapper =
+            page -> page.stream().map(jobRequestMapper::jobRequestToListWithMinPriceDto).toList();
+
+        if (searchDto.getDistance() == null) {
+            if (rankedIds != null) {
+                return toRankedPage(rankedIds, offset, limit,
+                    ids -> jobRequestRepository.searchOpenJobRequestIdsWorker(
+                        ids, categoryNames, searchDto.getDeadline(), searchDto.getLowestPriceMin(), searchDto.getLowestPriceMax(), worker.getId()),
+                    ids -> jobRequestRepository.searchOpenJobRequestsWorker(
+                        ids, categoryNames, searchDto.getDeadline(), searchDto.getLowestPriceMin(), searchDto.getLowestPriceMax(), worker.getId(),
+                        Pageable.unpaged()),
+                    mapper);
+            }
+            Page<JobRequest> jobRequestPage = jobRequestRepository.searchOpenJobRequestsWorker(
+                null,
+                categoryNames,
+                searchDto.getDeadline(),
+                searchDto.getLowestPriceMin(),
+                searchDto.getLowestPriceMax(),
+                worker.getId(),
+                PageRequest.of(offset / limit, limit, Sort.by(Sort.Direction.DESC, "id"))
+            );
+            return toPage(jobRequestPage, offset, limit, mapper);
+        }
 
+        if (worker.getLatitude() == null || worker.getLongitude() == null) {
+            return new PageDto<>(Collections.emptyList(), 0, limit, offset);
+        }
+        GeoBoundingBox box = GeoBoundingBox.around(worker.getLatitude(), worker.getLongitude(), searchDto.getDistance());
+        if (rankedIds != null) {
+            return toRankedPage(rankedIds, offset, limit,
+                ids -> jobRequestRepository.searchOpenJobRequestIdsWorkerWithDistance(
+                    ids, categoryNames, searchDto.getDeadline(), worker.getLatitude(), worker.getLongitude(), searchDto.getDistance(),
+                    box.minLatitude(), box.maxLatitude(), box.minLongitude(), box.maxLongitude(),
+                    searchDto.getLowestPriceMin(), searchDto.getLowestPriceMax(), worker.getId()),
+                ids -> jobRequestRepository.searchOpenJobRequestsWorkerWithDistance(
+                    ids, categoryNames, searchDto.getDeadline(), worker.getLatitude(), worker.getLongitude(), searchDto.getDistance(),
+                    box.minLatitude(), box.maxLatitude(), box.minLongitude(), box.maxLongitude(),
+                    searchDto.getLowestPriceMin(), searchDto.getLowestPriceMax(), worker.getId(), Pageable.unpaged()),
+                mapper);
+        }
         Page<JobRequest> jobRequestPage = jobRequestRepository.searchOpenJobRequestsWorkerWithDistance(
-            searchDto.getTitle(),
+            null,
             categoryNames,
             searchDto.getDeadline(),
             worker.getLatitude(),
             worker.getLongitude(),
             searchDto.getDistance(),
+            box.minLatitude(),
+            box.maxLatitude(),
+            box.minLongitude(),
+            box.maxLongitude(),
             searchDto.getLowestPriceMin(),
             searchDto.getLowestPriceMax(),
             worker.getId(),
-            pageable
+            PageRequest.of(offset / limit, limit, Sort.by(Sort.Direction.DESC, "id"))
         );
-
-        List<JobRequestListWithMinPriceDto> jobRequestListDtos = jobRequestPage.getContent().stream()
-            .map(request -> {
-                JobRequestListWithMinPriceDto dto = jobRequestMapper.jobRequestToListWithMinPriceDto(request);
-                dto.setLowestPrice(findLowestPrice(request));
-                return dto;
-            })
-            .toList();
-
-        return new PageDto<>(jobRequestListDtos, (int) jobRequestPage.getTotalElements(), limit, offset);
-    }
-
-    private List<JobRequestListWithMinPriceDto> getJobRequestListWithMinPriceDtos(ApplicationUser worker, List<JobRequest> openRequests) {
-        return openRequests.stream()
-            .filter(request -> request.getReceivedJobOffers().stream()
-                .noneMatch(offer -> offer.getWorker().equals(worker) && offer.getStatus() == JobOfferStatus.PENDING))
-            .map(request -> {
-                JobRequestListWithMinPriceDto dto = jobRequestMapper.jobRequestToListWithMinPriceDto(request);
-                dto.setLowestPrice(findLowestPrice(request));
-                return dto;
-            })
-            .toList();
+        return toPage(jobRequestPage, offset, limit, mapper);
     }
 
     @Override
     public PageDto<JobRequestListDto> searchJobRequestsAdmin(JobRequestSearchDto searchDto, int offset, int limit) {
         LOGGER.trace("searchJobRequestsAdmin() with parameters: {}", searchDto);
+        List<Long> rankedIds = matchTitle(searchDto);
+        if (rankedIds != null && rankedIds.isEmpty()) {
+            return new PageDto<>(Collections.emptyList(), 0, limit, offset);
+        }
         List<Category> categories = parseCategories(searchDto.getCategory());
         List<JobStatus> statuses = parseStatuses(searchDto.getStatus());
-        Pageable pageable = PageRequest.of(offset / limit, limit, Sort.by(Sort.Direction.DESC, "id"));
+        if (rankedIds != null) {
+            return toRankedPage(rankedIds, offset, limit,
+                ids -> jobRequestRepository.searchJobRequestIdsAdmin(ids, categories, statuses, searchDto.getDeadline()),
+                ids -> jobRequestRepository.searchJobRequestsAdmin(ids, categories, statuses, searchDto.getDeadline(), Pageable.unpaged()),
+                jobRequestMapper::jobRequestToListDto);
+        }
 
         Page<JobRequest> jobRequestPage = jobRequestRepository.searchJobRequestsAdmin(
-            searchDto.getTitle(),
+            null,
             categories,
             statuses,
             searchDto.getDeadline(),
-            pageable
+            PageRequest.of(offset / limit, limit, Sort.by(Sort.Direction.DESC, "id"))
         );
+        return toPage(jobRequestPage, offset, limit, jobRequestMapper::jobRequestToListDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageDto<JobRequestListDto> searchJobRequestsCustomerByCursor(JobRequestSearchDto searchDto, String cursor, int limit) {
+        LOGGER.trace("searchJobRequestsCustomer() with parameters: {}, cursor {}", searchDto, cursor);
+        long beforeId = PageCursor.decode(cursor);
+        AuthenticatedUser user = userService.getAuthenticatedUser();
+        List<Long> matchingIds = matchTitle(searchDto);
+        if (matchingIds != null && matchingIds.isEmpty()) {
+            return new PageDto<>(Collections.emptyList(), 0, limit, 0);
+        }
+
+        List<Category> categories = parseCategories(searchDto.getCategory());
+        List<JobStatus> statuses = parseStatuses(searchDto.getStatus());
+        return toCursorPage(matchingIds, beforeId, limit,
+            (ids, rowLimit) -> jobRequestRepository.searchJobRequestsCustomerBefore(
+                user.id(),
+                ids,
+                categories,
+                statuses,
+                searchDto.getDeadline(),
+                searchDto.getPropertyId(),
+                beforeId,
+                rowLimit
+            ),
+            jobRequestMapper::jobRequestToListDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageDto<JobRequestListWithMinPriceDto> searchJobRequestsWorkerByCursor(JobRequestSearchDto searchDto, String cursor, int limit) {
+        LOGGER.trace("searchJobRequestsWorker() with parameters: {}, cursor {}", searchDto, cursor);
+        long beforeId = PageCursor.decode(cursor);
 
-        List<JobRequestListDto> jobRequestListDtos = jobRequestMapper.jobRequestToListDto(jobRequestPage.getContent());
-        return new PageDto<>(jobRequestListDtos, (int) jobRequestPage.getTotalElements(), limit, offset);
+        ApplicationUser worker = userService.getCurrentUser();
+
+        if (!licenseService.hasApprovedLicense(worker.getId())) {
+            return new PageDto<>(Collections.emptyList(), 0, limit, 0);
+        }
+
+        return workerSearchCache.get(worker, searchDto, "before=" + beforeId + ",limit=" + limit, () -> searchWorkerBefore(worker, searchDto, beforeId, limit));
+    }
+
+    private PageDto<JobRequestListWithMinPriceDto> searchWorkerBefore(ApplicationUser worker, JobRequestSearchDto searchDto, long beforeId, int limit) {
+        List<Long> matchingIds = matchTitle(searchDto);
+        if (matchingIds != null && matchingIds.isEmpty()) {
+            return new PageDto<>(Collections.emptyList(), 0, limit, 0);
+        }
+
+        List<String> categoryNames = (searchDto.getCategory() != null && !searchDto.getCategory().isEmpty())
+            ? Arrays.asList(searchDto.getCategory().split(","))
+            : null;
+
+        BiFunction<List<Long>, Limit, List<JobRequest>> loader;
+        if (searchDto.getDistance() == null) {
+            loader = (ids, rowLimit) -> jobRequestRepository.searchOpenJobRequestsWorkerBefore(
+                ids,
+                categoryNames,
+                searchDto.getDeadline(),
+                searchDto.getLowestPriceMin(),
+                searchDto.getLowestPriceMax(),
+                worker.getId(),
+                beforeId,
+                rowLimit
+            );
+        } else {
+            if (worker.getLatitude() == null || worker.getLongitude() == null) {
+                return new PageDto<>(Collections.emptyList(), 0, limit, 0);
+            }
+            GeoBoundingBox box = GeoBoundingBox.around(worker.getLatitude(), worker.getLongitude(), searchDto.getDistance());
+            loader = (ids, rowLimit) -> jobRequestRepository.searchOpenJobRequestsWorkerWithDistanceBefore(
+                ids,
+                categoryNames,
+                searchDto.getDeadline(),
+                worker.getLatitude(),
+                worker.getLongitude(),
+                searchDto.getDistance(),
+                box.minLatitude(),
+                box.maxLatitude(),
+                box.minLongitude(),
+                box.maxLongitude(),
+                searchDto.getLowestPriceMin(),
+                searchDto.getLowestPriceMax(),
+                worker.getId(),
+                beforeId,
+                rowLimit
+            );
+        }
+
+        return toCursorPage(matchingIds, beforeId, limit, loader,
+            page -> page.stream().map(jobRequestMapper::jobRequestToListWithMinPriceDto).toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageDto<JobRequestListDto> searchJobRequestsAdminByCursor(JobRequestSearchDto searchDto, String cursor, int limit) {
+        LOGGER.trace("searchJobRequestsAdmin() with parameters: {}, cursor {}", searchDto, cursor);
+        long beforeId = PageCursor.decode(cursor);
+        List<Long> matchingIds = matchTitle(searchDto);
+        if (matchingIds != null && matchingIds.isEmpty()) {
+            return new PageDto<>(Collections.emptyList(), 0, limit, 0);
+        }
+
+        List<Category> categories = parseCategories(searchDto.getCategory());
+        List<JobStatus> statuses = parseStatuses(searchDto.getStatus());
+        return toCursorPage(matchingIds, beforeId, limit,
+            (ids, rowLimit) -> jobRequestRepository.searchJobRequestsAdminBefore(
+                ids,
+                categories,
+                statuses,
+                searchDto.getDeadline(),
+                beforeId,
+                rowLimit
+            ),
+            jobRequestMapper::jobRequestToListDto);
+    }
+
+    /**
+     * Runs the title of the search through the full-text index.
+     *
+     * @return the ids of the matching job requests, most relevant first, or {@code null} if the search has no title
+     */
+    private List<Long> matchTitle(JobRequestSearchDto searchDto) {
+        if (searchDto.getTitle() == null || searchDto.getTitle().isBlank()) {
+            return null;
+        }
+        return jobRequestTextIndex.search(searchDto.getTitle());
+    }
+
+    /**
+     * Builds an offset page from a page the database already sliced.
+     */
+    private <T> PageDto<T> toPage(Page<JobRequest> jobRequestPage, int offset, int limit, Function<List<JobRequest>, List<T>> mapper) {
+        return new PageDto<>(mapper.apply(jobRequestPage.getContent()), (int) jobRequestPage.getTotalElements(), limit, offset);
+    }
+
+    /**
+     * Builds an offset page of a text search. The ids ranked by the text index are first narrowed down to the ones
+     * passing the other filters, in chunks of at most {@value #MAX_IDS_PER_QUERY} so no statement binds every match.
+     * Only the job requests of the requested page are then loaded and put back into the order of relevance.
+     *
+     * @param filter returns those of the given ids that pass the other filters
+     * @param loader loads the job requests with the given ids
+     */
+    private <T> PageDto<T> toRankedPage(List<Long> rankedIds, int offset, int limit, Function<List<Long>, List<Long>> filter,
+                                        Function<List<Long>, Page<JobRequest>> loader, Function<List<JobRequest>, List<T>> mapper) {
+        List<Long> matchingIds = new ArrayList<>();
+        for (int from = 0; from < rankedIds.size(); from += MAX_IDS_PER_QUERY) {
+            // copied, Hibernate cannot bind a sublist view as a collection parameter
+            List<Long> chunk = List.copyOf(rankedIds.subList(from, Math.min(from + MAX_IDS_PER_QUERY, rankedIds.size())));
+            Set<Long> matching = new HashSet<>(filter.apply(chunk));
+            chunk.stream().filter(matching::contains).forEach(matchingIds::add);
+        }
+
+        int from = Math.min(Math.max(offset, 0), matchingIds.size());
+        List<Long> pageIds = List.copyOf(matchingIds.subList(from, Math.min(from + limit, matchingIds.size())));
+        if (pageIds.isEmpty()) {
+            return new PageDto<>(Collections.emptyList(), matchingIds.size(), limit, offset);
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < pageIds.size(); i++) {
+            rank.put(pageIds.get(i), i);
+        }
+        List<JobRequest> page = loader.apply(pageIds).getContent().stream()
+            .sorted(Comparator.comparing(jobRequest -> rank.get(jobRequest.getId())))
+            .toList();
+        return new PageDto<>(mapper.apply(page), matchingIds.size(), limit, offset);
+    }
+
+    /**
+     * Builds a keyset page of a search that may be narrowed down by the ids of a text search. The ids below the cursor
+     * are walked newest first in chunks of at most {@value #MAX_IDS_PER_QUERY}, like in {@link #toRankedPage}, until
+     * {@code limit + 1} rows passed the other filters. Every chunk only holds lower ids than the one before, so the rows
+     * stay ordered by descending id.
+     *
+     * @param matchingIds the ids matching the title, or {@code null} if the search has no title
+     * @param loader      loads the job requests below the cursor passing the other filters, restricted to the given ids
+     *                    unless they are {@code null}, newest first and at most as many as the given limit
+     */
+    private <T> PageDto<T> toCursorPage(List<Long> matchingIds, long beforeId, int limit,
+                                        BiFunction<List<Long>, Limit, List<JobRequest>> loader, Function<List<JobRequest>, List<T>> mapper) {
+        if (matchingIds == null) {
+            return toCursorPage(loader.apply(null, Limit.of(limit + 1)), limit, mapper);
+        }
+        List<Long> candidates = matchingIds.stream()
+            .filter(id -> id < beforeId)
+            .sorted(Comparator.reverseOrder())
+            .toList();
+        List<JobRequest> rows = new ArrayList<>();
+        for (int from = 0; from < candidates.size() && rows.size() <= limit; from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = List.copyOf(candidates.subList(from, Math.min(from + MAX_IDS_PER_QUERY, candidates.size())));
+            rows.addAll(loader.apply(chunk, Limit.of(limit + 1 - rows.size())));
+        }
+        return toCursorPage(rows, limit, mapper);
+    }
 
+    /**
+     * Builds a keyset page from up to {@code limit + 1} rows ordered by descending id.
+     * The extra row only tells whether there is a next page and is not returned.
+     */
+    private <T> PageDto<T> toCursorPage(List<JobRequest> rows, int limit, Function<List<JobRequest>, List<T>> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<JobRequest> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? PageCursor.encode(page.getLast().getId()) : null;
+        return new PageDto<>(mapper.apply(page), -1, limit, 0, nextCursor);
     }
 
     private List<Category> parseCategories(String categoryStr) {
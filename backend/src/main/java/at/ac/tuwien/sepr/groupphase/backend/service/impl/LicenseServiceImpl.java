@@ -14,6 +14,9 @@ import at.ac.tuwien.sepr.groupphase.backend.exception.LicenseAlreadyApprovedExce
 import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.repository.LicenseRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
 import at.ac.tuwien.sepr.groupphase.backend.service.LicenseService;
 import at.ac.tuwien.sepr.groupphase.backend.service.PushNotificationService;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
@@ -25,9 +28,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.invoke.MethodHandles;
 import java.util.List;
 
@@ -40,32 +45,34 @@ public class LicenseServiceImpl implements LicenseService {
     private final LicenseRepository licenseRepository;
     private final LicenseMapper licenseMapper;
     private final PushNotificationService pushNotificationService;
+    private final BlobService blobService;
 
 
-    public LicenseServiceImpl(UserService userService, LicenseRepository licenseRepository, LicenseMapper licenseMapper, UserRepository userRepository, PushNotificationService pushNotificationService) {
+    public LicenseServiceImpl(UserService userService, LicenseRepository licenseRepository, LicenseMapper licenseMapper, UserRepository userRepository,
+                              PushNotificationService pushNotificationService, BlobService blobService) {
         this.userService = userService;
         this.licenseRepository = licenseRepository;
         this.licenseMapper = licenseMapper;
         this.userRepository = userRepository;
         this.pushNotificationService = pushNotificationService;
+        this.blobService = blobService;
     }
 
 
     @Override
+    @Transactional
     public LicenseCreateDto create(LicenseCreateDto createDto, MultipartFile license) throws IOException {
         LOGGER.trace("create() with parameters: {} {}", createDto, license);
-        String username = userService.getCurrentUser().getUsername();
-        ApplicationUser user = userRepository.findUserByUsername(username).orElseThrow(() -> {
-            LOGGER.error("Error while fetching: {}", username);
-            return new NotFoundException();
-        });
+        ApplicationUser user = userService.getCurrentUser();
 
+        BlobStore.StoredBlob file = storeFile(license);
         License licenseInfo = License.builder()
             .filename(createDto.getFilename())
             .description(createDto.getDescription())
             .worker(user)
             .mediaType(createDto.getMediaType())
-            .file(license.getBytes())
+            .contentHash(file.key())
+            .contentLength(file.size())
             .build();
 
         License saved = licenseRepository.save(licenseInfo);
@@ -93,18 +100,36 @@ public class LicenseServiceImpl implements LicenseService {
         });
         Long id = user.getId();
 
-        return licenseMapper.licenseToListDto(licenseRepository.findAllByWorkerId(id));
+        return licenseRepository.findListByWorkerId(id);
 
     }
 
     @Override
     public LicenseDownloadDto downloadFileById(Long id) {
         LOGGER.trace("downloadFileById() with parameters: {}", id);
-        return licenseMapper.licenseToDownloadDto(licenseRepository.findById(id)
-            .orElseThrow(() -> new NotFoundException("License information not found")));
+        LicenseDownloadDto download = getDownloadInformationById(id);
+        if (download.getContentHash() == null) {
+            throw new NotFoundException("License file not found");
+        }
+        download.setFile(blobService.load(download.getContentHash()));
+        return download;
+    }
+
+    @Override
+    public LicenseDownloadDto getDownloadInformationById(Long id) {
+        LOGGER.trace("getDownloadInformationById() with parameters: {}", id);
+        LicenseRepository.FileInfo fileInfo = licenseRepository.findFileInfoById(id)
+            .orElseThrow(() -> new NotFoundException("License information not found"));
+        return LicenseDownloadDto.builder()
+            .filename(fileInfo.getFilename())
+            .mediaType(fileInfo.getMediaType())
+            .contentHash(fileInfo.getContentHash())
+            .contentLength(fileInfo.getContentLength())
+            .build();
     }
 
     @Override
+    @Transactional
     public LicenseUpdateDto update(LicenseUpdateDto licenseUpdateDto, MultipartFile license) throws IOException {
         LOGGER.trace("update() with parameters: {}, {}", licenseUpdateDto, license);
         License licenseInfo = licenseRepository.findById(licenseUpdateDto.getId())
@@ -118,13 +143,18 @@ public class LicenseServiceImpl implements LicenseService {
             throw new LicenseAlreadyApprovedException();
         }
 
-        if (!licenseInfo.getWorker().getId().equals(userService.getCurrentUser().getId())) {
+        if (!licenseInfo.getWorker().getId().equals(userService.getAuthenticatedUser().id())) {
             LOGGER.error("User '{}' is not authorized to update License with id{}", licenseInfo.getWorker().getUsername(), licenseUpdateDto.getId());
             throw new AccessDeniedException("Not Authorized");
         }
         licenseMapper.updateLicenseFromDto(licenseUpdateDto, licenseInfo);
-        licenseInfo.setFile(license.getBytes());
+        // the previous file is only released, other licenses or uploads may share its content
+        final String previousHash = licenseInfo.getContentHash();
+        BlobStore.StoredBlob file = storeFile(license);
+        licenseInfo.setContentHash(file.key());
+        licenseInfo.setContentLength(file.size());
         licenseRepository.save(licenseInfo);
+        blobService.release(previousHash);
 
         // send a push notification
         pushNotificationService.notifyAdminsOfLicense(licenseInfo.getId(), true);
@@ -133,55 +163,53 @@ public class LicenseServiceImpl implements LicenseService {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
-        ApplicationUser user = userService.getCurrentUser();
+        AuthenticatedUser user = userService.getAuthenticatedUser();
         LOGGER.trace("deleteById() with parameters: {}", id);
-        ApplicationUser authorizedUser = licenseRepository.findById(id)
-            .orElseThrow(() -> new NotFoundException("No user with id: " + id))
-            .getWorker();
+        License license = licenseRepository.findById(id)
+            .orElseThrow(() -> new NotFoundException("No user with id: " + id));
+        ApplicationUser authorizedUser = license.getWorker();
 
-        if (!user.getId().equals(authorizedUser.getId())) {
+        if (!user.id().equals(authorizedUser.getId())) {
             LOGGER.error("You are not Authorized");
             throw new AccessDeniedException("You are not Authorized");
         }
 
         licenseRepository.deleteById(id);
+        blobService.release(license.getContentHash());
     }
 
     @Override
     public List<AdminLicenseListDto> listPendingLicenses() {
         LOGGER.trace("listPendingLicenses()");
-        List<License> pending = licenseRepository.findAllByStatus(LicenseStatus.PENDING);
-        return licenseMapper.licenseToAdminDto(pending);
+        return licenseRepository.findAdminListByStatus(LicenseStatus.PENDING);
     }
 
     @Override
     public PageDto<AdminLicenseListDto> listLicensesPageByStatus(int offset, int limit, LicenseStatus status, String username) {
         Pageable pageable = PageRequest.of(offset / limit, limit);
-        Page<License> licensePage;
+        Page<AdminLicenseListDto> licensePage;
 
         if (username == null || username.isBlank()) {
-            licensePage = licenseRepository.findAllByStatus(status, pageable);
+            licensePage = licenseRepository.findAdminListByStatus(status, pageable);
         } else {
-            licensePage = licenseRepository.findAllByStatusAndWorker_UsernameContainingIgnoreCase(status, username, pageable);
+            licensePage = licenseRepository.findAdminListByStatusAndUsername(status, username, pageable);
         }
-        List<AdminLicenseListDto> licenseList = licenseMapper.licenseToAdminDto(licensePage.getContent());
-        return new PageDto<>(licenseList, (int) licensePage.getTotalElements(), limit, offset);
+        return new PageDto<>(licensePage.getContent(), (int) licensePage.getTotalElements(), limit, offset);
     }
 
     @Override
     public List<AdminLicenseListDto> listApprovedLicenses() {
         LOGGER.trace("listApprovedLicenses()");
-        List<License> pending = licenseRepository.findAllByStatus(LicenseStatus.APPROVED);
-        return licenseMapper.licenseToAdminDto(pending);
+        return licenseRepository.findAdminListByStatus(LicenseStatus.APPROVED);
     }
 
 
     @Override
     public List<AdminLicenseListDto> listRejectedLicenses() {
         LOGGER.trace("listRejectedLicenses()");
-        List<License> pending = licenseRepository.findAllByStatus(LicenseStatus.REJECTED);
-        return licenseMapper.licenseToAdminDto(pending);
+        return licenseRepository.findAdminListByStatus(LicenseStatus.REJECTED);
     }
 
 
@@ -208,4 +236,12 @@ public class LicenseServiceImpl implements LicenseService {
     public boolean hasApprovedLicense(Long workerId) {
         return licenseRepository.existsByWorkerIdAndStatus(workerId, LicenseStatus.APPROVED);
     }
+
+    private BlobStore.StoredBlob storeFile(MultipartFile license) throws IOException {
+        try (InputStream content = license.getInputStream()) {
+            BlobStore.StoredBlob file = blobService.store(content);
+            blobService.acquire(file.key());
+            return file;
+        }
+    }
 }
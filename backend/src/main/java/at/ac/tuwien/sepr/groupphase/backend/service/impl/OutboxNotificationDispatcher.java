@@ -0,0 +1,289 @@
+package at.ac.tuwien.sepr.groupphase.backend.service.impl;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.NotificationOutbox;
+import at.ac.tuwien.sepr.groupphase.backend.entity.PushSubscription;
+import at.ac.tuwien.sepr.groupphase.backend.exception.PushDeliveryException;
+import at.ac.tuwien.sepr.groupphase.backend.repository.NotificationOutboxRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.PushSubscriptionRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.NotificationDispatcher;
+import at.ac.tuwien.sepr.groupphase.backend.service.WebPushService;
+import at.ac.tuwien.sepr.groupphase.backend.type.OutboxStatus;
+import at.ac.tuwien.sepr.groupphase.backend.type.PushDeliveryOutcome;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the notification outbox on a single scheduler thread.
+ * No transaction is held while talking to push services: a batch is claimed, delivered concurrently by the
+ * {@link WebPushService}, and the outcome is written back.
+ *
+ * <p>Claiming locks the due rows, skipping rows locked by other instances, and moves their next attempt past
+ * a claim timeout before committing. Other instances therefore leave the batch alone while it is delivered,
+ * and pick it up again if this instance died before writing back the outcome.
+ *
+ * <p>Responses are classified with {@link PushDeliveryOutcome}. Gone subscriptions are deleted right away.
+ * Subscriptions whose push service keeps failing are backed off, and deleted as well once they failed
+ * too many times in a row.
+ */
+@Service
+public class OutboxNotificationDispatcher implements NotificationDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final int MAX_ERROR_LENGTH = 1023;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final PushSubscriptionRepository pushSubscriptionRepository;
+    private final WebPushService webPushService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int maxConsecutiveFailures;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+    private final Duration deadRetention;
+
+    public OutboxNotificationDispatcher(NotificationOutboxRepository outboxRepository, PushSubscriptionRepository pushSubscriptionRepository, WebPushService webPushService,
+                                        MeterRegistry meterRegistry, TransactionTemplate transactionTemplate,
+                                        @Value("${notification.outbox.batch-size:100}") int batchSize,
+                                        @Value("${notification.outbox.max-attempts:8}") int maxAttempts,
+                                        @Value("${notification.push.max-consecutive-failures:20}") int maxConsecutiveFailures,
+                                        @Value("${notification.outbox.initial-backoff:5s}") Duration initialBackoff,
+                                        @Value("${notification.outbox.max-backoff:1h}") Duration maxBackoff,
+                                        @Value("${notification.outbox.claim-timeout:5m}") Duration claimTimeout,
+                                        @Value("${notification.outbox.dead-retention:7d}") Duration deadRetention) {
+        this.outboxRepository = outboxRepository;
+        this.pushSubscriptionRepository = pushSubscriptionRepository;
+        this.webPushService = webPushService;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+        this.deadRetention = deadRetention;
+
+        Gauge.builder("push.subscriptions", pushSubscriptionRepository, PushSubscriptionRepository::count)
+            .description("Stored push subscriptions")
+            .register(meterRegistry);
+        Gauge.builder("push.subscriptions.backing_off", pushSubscriptionRepository, repository -> repository.countByBackoffUntilAfter(LocalDateTime.now()))
+            .description("Push subscriptions held back because their push service keeps failing")
+            .register(meterRegistry);
+        Gauge.builder("notification.outbox.dead", outboxRepository, repository -> repository.countByStatus(OutboxStatus.DEAD))
+            .description("Notifications that could not be delivered")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval:1s}")
+    public void poll() {
+        try {
+            dispatchPending();
+        } catch (RuntimeException e) {
+            LOGGER.error("Dispatching notifications failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.purge-interval:1h}")
+    public void purge() {
+        try {
+            purgeDead();
+        } catch (RuntimeException e) {
+            LOGGER.error("Purging dead notifications failed", e);
+        }
+    }
+
+    @Override
+    public int purgeDead() {
+        LOGGER.trace("purgeDead()");
+        int purged = outboxRepository.deleteDeadCreatedBefore(LocalDateTime.now().minus(deadRetention));
+        if (purged > 0) {
+            LOGGER.info("Deleted {} notifications that could not be delivered", purged);
+        }
+        return purged;
+    }
+
+    @Override
+    public int dispatchPending() {
+        LOGGER.trace("dispatchPending()");
+        int dispatched = 0;
+        int batch;
+        do {
+            batch = dispatchBatch();
+            dispatched += batch;
+        } while (batch == batchSize);
+        if (dispatched > 0) {
+            LOGGER.debug("Dispatched {} notifications", dispatched);
+        }
+        return dispatched;
+    }
+
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutbox> due = transactionTemplate.execute(status -> claimDue(now));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, PushSubscription> subscriptions = pushSubscriptionRepository.findAllById(due.stream().map(NotificationOutbox::getSubscriptionId).distinct().toList()).stream()
+            .collect(Collectors.toMap(PushSubscription::getId, Function.identity()));
+
+        // a broadcast queues the same notification for many subscriptions, so each payload is serialized once
+        Map<List<String>, byte[]> payloads = new HashMap<>();
+        Map<NotificationOutbox, CompletableFuture<Void>> deliveries = new LinkedHashMap<>();
+        List<Long> done = new ArrayList<>();
+        List<NotificationOutbox> changed = new ArrayList<>();
+        for (NotificationOutbox notification : due) {
+            PushSubscription subscription = subscriptions.get(notification.getSubscriptionId());
+            if (subscription == null) {
+                // the device unsubscribed, its user was deleted or the subscription was pruned in the meantime
+                done.add(notification.getId());
+                continue;
+            }
+            if (subscription.getBackoffUntil() != null && subscription.getBackoffUntil().isAfter(now)) {
+                notification.setNextAttemptAt(subscription.getBackoffUntil());
+                changed.add(notification);
+                continue;
+            }
+            byte[] payload = payloads.computeIfAbsent(Arrays.asList(notification.getTitle(), notification.getBody(), notification.getUrl(), notification.getTag()),
+                key -> webPushService.createPayload(key.get(0), key.get(1), key.get(2), key.get(3)));
+            deliveries.put(notification, webPushService.sendPayload(subscription, payload));
+        }
+
+        Set<Long> delivered = new HashSet<>();
+        Set<Long> gone = new HashSet<>();
+        Map<Long, PushSubscription> failing = new HashMap<>();
+        for (Map.Entry<NotificationOutbox, CompletableFuture<Void>> delivery : deliveries.entrySet()) {
+            NotificationOutbox notification = delivery.getKey();
+            RuntimeException error = null;
+            try {
+                delivery.getValue().join();
+            } catch (CompletionException e) {
+                error = e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            PushDeliveryOutcome outcome = error == null ? PushDeliveryOutcome.DELIVERED
+                : error instanceof PushDeliveryException deliveryException ? deliveryException.getOutcome()
+                : PushDeliveryOutcome.RETRYABLE;
+            meterRegistry.counter("push.delivery.results", "outcome", outcome.name().toLowerCase()).increment();
+
+            switch (outcome) {
+                case DELIVERED -> {
+                    done.add(notification.getId());
+                    delivered.add(notification.getSubscriptionId());
+                }
+                case GONE -> {
+                    done.add(notification.getId());
+                    gone.add(notification.getSubscriptionId());
+                }
+                case REJECTED -> {
+                    LOGGER.warn("Push service rejected notification {} for subscription {}: {}", notification.getId(), notification.getSubscriptionId(), error.getMessage());
+                    notification.setAttempts(notification.getAttempts() + 1);
+                    notification.setLastError(truncate(error.getMessage()));
+                    notification.setStatus(OutboxStatus.DEAD);
+                    changed.add(notification);
+                }
+                default -> {
+                    scheduleRetry(notification, error);
+                    changed.add(notification);
+                    failing.put(notification.getSubscriptionId(), subscriptions.get(notification.getSubscriptionId()));
+                }
+            }
+        }
+
+        outboxRepository.deleteAllByIdInBatch(done);
+        outboxRepository.saveAll(changed);
+        updateSubscriptions(delivered, gone, failing, now);
+        return due.size();
+    }
+
+    /**
+     * Locks the due notifications and holds them back for the claim timeout, which every outcome written back
+     * replaces or deletes.
+     */
+    private List<NotificationOutbox> claimDue(LocalDateTime now) {
+        List<NotificationOutbox> due = outboxRepository.findDue(now, Limit.of(batchSize));
+        LocalDateTime claimedUntil = now.plus(claimTimeout);
+        due.forEach(notification -> notification.setNextAttemptAt(claimedUntil));
+        return due;
+    }
+
+    private void updateSubscriptions(Set<Long> delivered, Set<Long> gone, Map<Long, PushSubscription> failing, LocalDateTime now) {
+        if (!delivered.isEmpty()) {
+            pushSubscriptionRepository.resetFailures(delivered);
+        }
+
+        Set<Long> pruned = new HashSet<>(gone);
+        for (PushSubscription subscription : failing.values()) {
+            if (gone.contains(subscription.getId()) || delivered.contains(subscription.getId())) {
+                continue;
+            }
+            int failures = subscription.getFailureCount() + 1;
+            if (failures >= maxConsecutiveFailures) {
+                LOGGER.info("Removing push subscription {} after {} failed deliveries in a row", subscription.getId(), failures);
+                meterRegistry.counter("push.subscriptions.pruned", "reason", "failing").increment();
+                pruned.add(subscription.getId());
+                continue;
+            }
+            pushSubscriptionRepository.recordFailure(subscription.getId(), failures, now.plus(backoff(failures)));
+        }
+
+        if (!gone.isEmpty()) {
+            LOGGER.info("Removing {} expired push subscriptions", gone.size());
+            meterRegistry.counter("push.subscriptions.pruned", "reason", "gone").increment(gone.size());
+        }
+        if (!pruned.isEmpty()) {
+            pushSubscriptionRepository.deleteAllByIdInBatch(pruned);
+        }
+    }
+
+    private void scheduleRetry(NotificationOutbox notification, RuntimeException e) {
+        int attempts = notification.getAttempts() + 1;
+        notification.setAttempts(attempts);
+        String error = String.valueOf(e.getMessage());
+        notification.setLastError(truncate(error));
+
+        if (attempts >= maxAttempts) {
+            LOGGER.warn("Giving up on notification {} for subscription {} after {} attempts: {}", notification.getId(), notification.getSubscriptionId(), attempts, error);
+            notification.setStatus(OutboxStatus.DEAD);
+            return;
+        }
+        Duration backoff = backoff(attempts);
+        LOGGER.debug("Notification {} failed (attempt {}), retrying in {}: {}", notification.getId(), attempts, backoff, error);
+        notification.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+    }
+
+    private Duration backoff(int failures) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(failures - 1, 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private static String truncate(String error) {
+        String message = String.valueOf(error);
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
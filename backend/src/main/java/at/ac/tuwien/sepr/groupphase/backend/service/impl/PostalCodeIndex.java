@@ -0,0 +1,225 @@
+package at.ac.tuwien.sepr.groupphase.backend.service.impl;
+
+import at.ac.tuwien.sepr.groupphase.backend.service.Geocoder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Immutable in-memory index of a GeoNames postal code dump (https://download.geonames.org/export/zip/).
+ *
+ * <p>Places are kept in parallel arrays sorted by country and postal code, so a lookup is a binary search without
+ * any per-place objects besides the names. Places of the same postal code keep the order of the dump.
+ */
+public final class PostalCodeIndex {
+
+    private static final int COUNTRY_CODE = 0;
+    private static final int POSTAL_CODE = 1;
+    private static final int PLACE_NAME = 2;
+    private static final int LATITUDE = 9;
+    private static final int LONGITUDE = 10;
+    private static final int MIN_COLUMNS = 11;
+
+    private static final PostalCodeIndex EMPTY = new PostalCodeIndex(new String[0], new String[0], new float[0], new float[0], Set.of());
+
+    private final String[] keys;
+    private final String[] placeNames;
+    private final float[] latitudes;
+    private final float[] longitudes;
+    private final Set<String> countryCodes;
+
+    private PostalCodeIndex(String[] keys, String[] placeNames, float[] latitudes, float[] longitudes, Set<String> countryCodes) {
+        this.keys = keys;
+        this.placeNames = placeNames;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.countryCodes = countryCodes;
+    }
+
+    /**
+     * Returns an index without any places.
+     */
+    public static PostalCodeIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Reads a GeoNames postal code dump, either the tab-separated text file or the zip archive it is published in.
+     * Lines that are not a valid record are skipped.
+     *
+     * @param content the dump, not closed
+     * @param zipped  whether the dump is a zip archive
+     * @return the index of all places in the dump
+     * @throws IOException if the dump could not be read
+     */
+    public static PostalCodeIndex load(InputStream content, boolean zipped) throws IOException {
+        if (!zipped) {
+            return read(content);
+        }
+        ZipInputStream zip = new ZipInputStream(content, StandardCharsets.UTF_8);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            // archives come with a readme next to the data
+            if (!entry.isDirectory() && entry.getName().endsWith(".txt") && !entry.getName().equalsIgnoreCase("readme.txt")) {
+                return read(zip);
+            }
+        }
+        throw new IOException("No postal code file in the archive");
+    }
+
+    private static PostalCodeIndex read(InputStream content) throws IOException {
+        Builder builder = new Builder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+        String[] columns = new String[MIN_COLUMNS];
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (split(line, columns)) {
+                builder.add(columns);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Splits the leading columns of a tab-separated line without a regular expression, most lines of a dump are read only once.
+     */
+    private static boolean split(String line, String[] columns) {
+        int start = 0;
+        for (int i = 0; i < columns.length; i++) {
+            int end = line.indexOf('\t', start);
+            if (end < 0) {
+                if (i < columns.length - 1) {
+                    return false;
+                }
+                end = line.length();
+            }
+            columns[i] = line.substring(start, end);
+            start = end + 1;
+        }
+        return !columns[COUNTRY_CODE].isBlank() && !columns[POSTAL_CODE].isBlank()
+            && !columns[LATITUDE].isBlank() && !columns[LONGITUDE].isBlank();
+    }
+
+    /**
+     * Returns the places of a postal code.
+     *
+     * @param countryCode the ISO 3166-1 alpha-2 code of the country, ignoring case
+     * @param postalCode  the postal code, ignoring case and surrounding whitespace
+     * @return the places in the order of the dump, empty if the postal code is not in the index
+     */
+    public List<Geocoder.Place> find(String countryCode, String postalCode) {
+        String key = key(countryCode, postalCode);
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        List<Geocoder.Place> places = new ArrayList<>(1);
+        for (int i = low; i < keys.length && keys[i].equals(key); i++) {
+            places.add(new Geocoder.Place(placeNames[i], latitudes[i], longitudes[i]));
+        }
+        return places;
+    }
+
+    /**
+     * Returns whether the index holds the places of a country, in which case postal codes not found are unknown.
+     *
+     * @param countryCode the ISO 3166-1 alpha-2 code of the country, ignoring case
+     */
+    public boolean containsCountry(String countryCode) {
+        return countryCodes.contains(countryCode.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the number of places in the index.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the number of countries in the index.
+     */
+    public int countries() {
+        return countryCodes.size();
+    }
+
+    private static String key(String countryCode, String postalCode) {
+        return countryCode.trim().toUpperCase(Locale.ROOT) + ' ' + postalCode.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static final class Builder {
+
+        private String[] keys = new String[1024];
+        private String[] placeNames = new String[1024];
+        private float[] latitudes = new float[1024];
+        private float[] longitudes = new float[1024];
+        private final Set<String> countryCodes = new HashSet<>();
+        private int size;
+
+        void add(String[] columns) {
+            float latitude;
+            float longitude;
+            try {
+                latitude = Float.parseFloat(columns[LATITUDE]);
+                longitude = Float.parseFloat(columns[LONGITUDE]);
+            } catch (NumberFormatException e) {
+                return;
+            }
+            if (size == keys.length) {
+                int capacity = size * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                placeNames = Arrays.copyOf(placeNames, capacity);
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+            }
+            String key = key(columns[COUNTRY_CODE], columns[POSTAL_CODE]);
+            // places of a postal code follow each other in the dumps, they share one key instance
+            keys[size] = size > 0 && keys[size - 1].equals(key) ? keys[size - 1] : key;
+            placeNames[size] = columns[PLACE_NAME];
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            countryCodes.add(key.substring(0, key.indexOf(' ')));
+            size++;
+        }
+
+        PostalCodeIndex build() {
+            // the sort is stable, places of a postal code keep the order of the dump
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(i -> keys[i]));
+
+            String[] sortedKeys = new String[size];
+            String[] sortedPlaceNames = new String[size];
+            float[] sortedLatitudes = new float[size];
+            float[] sortedLongitudes = new float[size];
+            for (int i = 0; i < size; i++) {
+                int from = order[i];
+                sortedKeys[i] = keys[from];
+                sortedPlaceNames[i] = placeNames[from];
+                sortedLatitudes[i] = latitudes[from];
+                sortedLongitudes[i] = longitudes[from];
+            }
+            return new PostalCodeIndex(sortedKeys, sortedPlaceNames, sortedLatitudes, sortedLongitudes, Set.copyOf(countryCodes));
+        }
+    }
+}
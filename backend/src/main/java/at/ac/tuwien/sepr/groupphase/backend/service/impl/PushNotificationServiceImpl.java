@@ -4,19 +4,22 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.pushsubscriptions.PushS
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobOffer;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.entity.NotificationOutbox;
 import at.ac.tuwien.sepr.groupphase.backend.entity.PushSubscription;
 import at.ac.tuwien.sepr.groupphase.backend.entity.SearchAlert;
+import at.ac.tuwien.sepr.groupphase.backend.repository.NotificationOutboxRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.PushSubscriptionRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.SearchAlertRepository;
 import at.ac.tuwien.sepr.groupphase.backend.service.PushNotificationService;
+import at.ac.tuwien.sepr.groupphase.backend.service.SearchAlertIndex;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
-import at.ac.tuwien.sepr.groupphase.backend.service.WebPushService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,14 +29,17 @@ public class PushNotificationServiceImpl implements PushNotificationService {
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
     private final UserService userService;
     private final PushSubscriptionRepository pushSubscriptionRepository;
-    private final WebPushService webPushService;
+    private final NotificationOutboxRepository notificationOutboxRepository;
     private final SearchAlertRepository searchAlertRepository;
+    private final SearchAlertIndex searchAlertIndex;
 
-    public PushNotificationServiceImpl(UserService userService, PushSubscriptionRepository pushSubscriptionRepository, WebPushService webPushService, SearchAlertRepository searchAlertRepository) {
+    public PushNotificationServiceImpl(UserService userService, PushSubscriptionRepository pushSubscriptionRepository, NotificationOutboxRepository notificationOutboxRepository,
+                                       SearchAlertRepository searchAlertRepository, SearchAlertIndex searchAlertIndex) {
         this.userService = userService;
         this.pushSubscriptionRepository = pushSubscriptionRepository;
-        this.webPushService = webPushService;
+        this.notificationOutboxRepository = notificationOutboxRepository;
         this.searchAlertRepository = searchAlertRepository;
+        this.searchAlertIndex = searchAlertIndex;
     }
 
     @Override
@@ -48,11 +54,15 @@ public class PushNotificationServiceImpl implements PushNotificationService {
         pushSubscription.setEndpoint(dto.getEndpoint());
         pushSubscription.setP256dh(dto.getP256dh());
         pushSubscription.setUser(user);
+        // a renewed subscription starts over, even if its previous endpoint kept failing
+        pushSubscription.setFailureCount(0);
+        pushSubscription.setBackoffUntil(null);
 
         pushSubscriptionRepository.save(pushSubscription);
     }
 
     @Override
+    @Transactional
     public void notifyCustomerOfJobOffer(ApplicationUser customer, JobRequest jobRequest, JobOffer jobOffer) {
         LOGGER.trace("notifyCustomerOfJobOffer() with parameters: {}, {}, {}", customer, jobRequest, jobOffer);
         String title = "New job offer";
@@ -64,6 +74,7 @@ public class PushNotificationServiceImpl implements PushNotificationService {
     }
 
     @Override
+    @Transactional
     public void notifyWorkerOfAccept(ApplicationUser worker, JobRequest jobRequest) {
         LOGGER.trace("notifyWorkerOfAccept() with parameters: {}, {}", worker, jobRequest);
         String title = "Job offer accepted";
@@ -79,17 +90,15 @@ public class PushNotificationServiceImpl implements PushNotificationService {
     public void notifyWorkersOfJobRequest(JobRequest jobRequest) {
         LOGGER.trace("notifyWorkersOfJobRequest() with {}", jobRequest);
 
-        List<SearchAlert> matchingAlerts = searchAlertRepository.findMatchingAlertsForJobRequest(jobRequest.getId());
+        List<Long> matchingAlertIds = searchAlertIndex.findMatchingAlertIds(jobRequest);
 
-        if (matchingAlerts == null) {
+        if (matchingAlertIds.isEmpty()) {
             return;
         }
 
-        for (SearchAlert alert : matchingAlerts) {
-            alert.setCount(alert.getCount() + 1);
-            if (!alert.isActive()) {
-                continue;
-            }
+        // inactive alerts still count matching requests, but only active ones notify
+        searchAlertRepository.incrementCounts(matchingAlertIds);
+        for (SearchAlert alert : searchAlertRepository.findActiveWithWorkerByIdIn(matchingAlertIds)) {
             ApplicationUser worker = alert.getWorker();
             String title = "New job request";
             String body = String.format("A new job '%s' matches your saved search.", jobRequest.getTitle());
@@ -101,6 +110,7 @@ public class PushNotificationServiceImpl implements PushNotificationService {
     }
 
     @Override
+    @Transactional
     public void notifyWorkerOfLicenseApproved(ApplicationUser worker) {
         LOGGER.trace("notifyWorkerOfLicenseApproved() with parameter: {}", worker);
         String title = "License approved";
@@ -112,6 +122,7 @@ public class PushNotificationServiceImpl implements PushNotificationService {
     }
 
     @Override
+    @Transactional
     public void notifyWorkerOfLicenseRejected(ApplicationUser worker) {
         LOGGER.trace("notifyWorkerOfLicenseRejected() with parameter: {}", worker);
         String title = "License rejected";
@@ -123,6 +134,7 @@ public class PushNotificationServiceImpl implements PushNotificationService {
     }
 
     @Override
+    @Transactional
     public void notifyAdminsOfLicense(Long licenseId, boolean isUpdate) {
         String title = isUpdate ? "License updated" : "New license uploaded";
         String body = isUpdate
@@ -136,28 +148,27 @@ public class PushNotificationServiceImpl implements PushNotificationService {
 
 
     private void sendToAllSubscriptions(ApplicationUser user, String title, String body, String url, String tag) {
-        List<PushSubscription> subscriptions = pushSubscriptionRepository.findByUser(user);
-
-        for (PushSubscription sub : subscriptions) {
-            try {
-                webPushService.sendNotification(sub, title, body, url, tag);
-            } catch (Exception e) {
-                LOGGER.error("Error while sending push notification: ", e);
-            }
-        }
+        enqueue(pushSubscriptionRepository.findByUser(user), title, body, url, tag);
     }
 
     private void sendToAllAdmins(String title, String body, String url, String tag) {
-        List<PushSubscription> adminSubscriptions = pushSubscriptionRepository.findAllByAdminRole();
-
-        if (adminSubscriptions != null) {
-            for (PushSubscription subscription : adminSubscriptions) {
-                try {
-                    webPushService.sendNotification(subscription, title, body, url, tag);
-                } catch (Exception e) {
-                    LOGGER.error("Error while sending push notification: ", e);
-                }
-            }
+        enqueue(pushSubscriptionRepository.findAllByAdminRole(), title, body, url, tag);
+    }
+
+    private void enqueue(List<PushSubscription> subscriptions, String title, String body, String url, String tag) {
+        if (subscriptions == null || subscriptions.isEmpty()) {
+            return;
+        }
+        List<NotificationOutbox> notifications = new ArrayList<>(subscriptions.size());
+        for (PushSubscription subscription : subscriptions) {
+            notifications.add(NotificationOutbox.builder()
+                .subscriptionId(subscription.getId())
+                .title(title)
+                .body(body)
+                .url(url)
+                .tag(tag)
+                .build());
         }
+        notificationOutboxRepository.saveAll(notifications);
     }
 }
@@ -11,6 +11,7 @@ import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobOfferRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.RatingRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
 import at.ac.tuwien.sepr.groupphase.backend.service.RatingService;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
@@ -51,8 +52,8 @@ public class RatingServiceImpl implements RatingService {
 
     @Override
     public RatingDto getRatingByRequestId(Long jobRequestId) {
-        ApplicationUser user = userService.getCurrentUser();
-        return ratingRepository.findByFromUserIdAndJobRequestId(user.getId(), jobRequestId)
+        AuthenticatedUser user = userService.getAuthenticatedUser();
+        return ratingRepository.findByFromUserIdAndJobRequestId(user.id(), jobRequestId)
             .map(ratingMapper::ratingToDto)
             .orElse(null);
     }
@@ -84,9 +85,9 @@ public class RatingServiceImpl implements RatingService {
 
     @Override
     public void updateRating(Long jobRequestId, RatingDto ratingDto) {
-        ApplicationUser currentUser = userService.getCurrentUser();
+        AuthenticatedUser currentUser = userService.getAuthenticatedUser();
 
-        Rating rating = ratingRepository.findByFromUserIdAndJobRequestId(currentUser.getId(), jobRequestId)
+        Rating rating = ratingRepository.findByFromUserIdAndJobRequestId(currentUser.id(), jobRequestId)
             .orElseThrow(() -> new EntityNotFoundException("No existing rating to update."));
 
         Set<ConstraintViolation<RatingDto>> violations = validator.validate(ratingDto);
@@ -0,0 +1,184 @@
+package at.ac.tuwien.sepr.groupphase.backend.service.impl;
+
+import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
+import at.ac.tuwien.sepr.groupphase.backend.repository.BlobReferenceRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Counts references to blobs in the {@code blob_reference} table and deletes unreferenced blobs on a schedule.
+ *
+ * <p>Counts change in the transaction of the row referring to the blob, so a rolled back upload or deletion leaves them as
+ * they were. Before a blob is deleted its actual references are counted once more: a count that drifted too low keeps
+ * a blob alive, it never deletes one that is still used. Counts that drifted too high are corrected on the next start.
+ */
+@Service
+public class ReferenceCountingBlobService implements BlobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final BlobReferenceRepository referenceRepository;
+    private final BlobStore blobStore;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final boolean reconcileOnStartup;
+
+    public ReferenceCountingBlobService(BlobReferenceRepository referenceRepository, BlobStore blobStore, TransactionTemplate transactionTemplate,
+                                        @Value("${blob-store.gc.grace-period:24h}") Duration gracePeriod,
+                                        @Value("${blob-store.gc.batch-size:100}") int batchSize,
+                                        @Value("${blob-store.reconcile-on-startup:true}") boolean reconcileOnStartup) {
+        this.referenceRepository = referenceRepository;
+        this.blobStore = blobStore;
+        this.transactionTemplate = transactionTemplate;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+        this.reconcileOnStartup = reconcileOnStartup;
+    }
+
+    @Override
+    @Transactional
+    public BlobStore.StoredBlob store(InputStream content) {
+        LOGGER.trace("store()");
+        BlobStore.StoredBlob blob = blobStore.store(content);
+        referenceRepository.register(blob.key(), LocalDateTime.now());
+        return blob;
+    }
+
+    @Override
+    @Transactional
+    public BlobStore.StoredBlob storeChatUpload(InputStream content) {
+        LOGGER.trace("storeChatUpload()");
+        BlobStore.StoredBlob blob = store(content);
+        referenceRepository.markChatUpload(blob.key());
+        return blob;
+    }
+
+    @Override
+    @Transactional
+    public boolean acquire(String key) {
+        LOGGER.trace("acquire({})", key);
+        return referenceRepository.acquire(key) > 0;
+    }
+
+    @Override
+    @Transactional
+    public boolean acquireChatUpload(String key) {
+        LOGGER.trace("acquireChatUpload({})", key);
+        return referenceRepository.acquireChatUpload(key) > 0;
+    }
+
+    @Override
+    @Transactional
+    public void release(String key) {
+        LOGGER.trace("release({})", key);
+        if (key != null && referenceRepository.release(key, LocalDateTime.now()) == 0) {
+            LOGGER.warn("Released blob {} which had no references", key);
+        }
+    }
+
+    @Override
+    public Resource load(String key) {
+        return blobStore.load(key);
+    }
+
+    @Override
+    public Resource loadChatUpload(String key) {
+        if (!referenceRepository.existsByBlobKeyAndChatUploadTrue(key)) {
+            throw new NotFoundException("Upload not found");
+        }
+        return blobStore.load(key);
+    }
+
+    @Scheduled(fixedDelayString = "${blob-store.gc.interval:1h}")
+    public void collect() {
+        try {
+            collectGarbage();
+        } catch (RuntimeException e) {
+            LOGGER.error("Collecting unreferenced blobs failed", e);
+        }
+    }
+
+    @Override
+    public int collectGarbage() {
+        LOGGER.trace("collectGarbage()");
+        LocalDateTime releasedBefore = LocalDateTime.now().minus(gracePeriod);
+        Instant storedBefore = releasedBefore.atZone(ZoneId.systemDefault()).toInstant();
+        int deleted = 0;
+        List<String> keys;
+        do {
+            keys = referenceRepository.findCollectableKeys(releasedBefore, Limit.of(batchSize));
+            for (String key : keys) {
+                // the row goes first, content stored again meanwhile registers a new row and keeps its file
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> forget(key, releasedBefore)))
+                    && blobStore.deleteIfStoredBefore(key, storedBefore)) {
+                    deleted++;
+                }
+            }
+        } while (keys.size() == batchSize);
+        if (deleted > 0) {
+            LOGGER.info("Deleted {} unreferenced blobs", deleted);
+        }
+        return deleted;
+    }
+
+    private boolean forget(String key, LocalDateTime releasedBefore) {
+        long references = referenceRepository.countReferences(key);
+        if (references > 0) {
+            LOGGER.warn("Blob {} is referenced {} times although its count dropped to zero, keeping it", key, references);
+            referenceRepository.updateReferenceCount(key, (int) references);
+            return false;
+        }
+        return referenceRepository.deleteCollectable(key, releasedBefore) > 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (reconcileOnStartup) {
+            reconcileReferences();
+        }
+    }
+
+    @Override
+    public void reconcileReferences() {
+        LOGGER.trace("reconcileReferences()");
+        LocalDateTime now = LocalDateTime.now();
+        Integer counted = transactionTemplate.execute(status -> referenceRepository.recountReferenced());
+        Integer released = transactionTemplate.execute(status -> referenceRepository.releaseUnreferenced(now));
+        transactionTemplate.execute(status -> referenceRepository.markAttachedChatUploads());
+
+        int registered = 0;
+        try (Stream<String> keys = blobStore.keys()) {
+            Iterator<String> iterator = keys.iterator();
+            while (iterator.hasNext()) {
+                String key = iterator.next();
+                if (!referenceRepository.existsById(key)) {
+                    transactionTemplate.executeWithoutResult(status -> referenceRepository.register(key, now));
+                    registered++;
+                }
+            }
+        }
+        LOGGER.info("Recounted {} referenced blobs, released {} and registered {} unknown ones", counted, released, registered);
+    }
+}
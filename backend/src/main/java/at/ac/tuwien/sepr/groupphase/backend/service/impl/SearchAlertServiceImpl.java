@@ -5,7 +5,9 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.searchalert.SearchAlert
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.mapper.SearchAlertMapper;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.SearchAlert;
+import at.ac.tuwien.sepr.groupphase.backend.event.SearchAlertChangedEvent;
 import at.ac.tuwien.sepr.groupphase.backend.repository.SearchAlertRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
 import at.ac.tuwien.sepr.groupphase.backend.service.SearchAlertService;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
 import at.ac.tuwien.sepr.groupphase.backend.type.Category;
@@ -13,6 +15,7 @@ import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,12 +32,14 @@ public class SearchAlertServiceImpl implements SearchAlertService {
     private final SearchAlertRepository searchAlertRepository;
     private final UserService userService;
     private final SearchAlertMapper searchAlertMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public SearchAlertServiceImpl(SearchAlertRepository repository, UserService userService, SearchAlertMapper mapper) {
+    public SearchAlertServiceImpl(SearchAlertRepository repository, UserService userService, SearchAlertMapper mapper, ApplicationEventPublisher eventPublisher) {
         this.searchAlertRepository = repository;
         this.userService = userService;
         this.searchAlertMapper = mapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -43,7 +48,8 @@ public class SearchAlertServiceImpl implements SearchAlertService {
 
         SearchAlert searchAlert = searchAlertMapper.toEntity(dto);
         searchAlert.setWorker(worker);
-        searchAlertRepository.save(searchAlert);
+        SearchAlert saved = searchAlertRepository.save(searchAlert);
+        eventPublisher.publishEvent(new SearchAlertChangedEvent(saved.getId()));
     }
 
     @Override
@@ -72,16 +78,17 @@ public class SearchAlertServiceImpl implements SearchAlertService {
 
     @Override
     public void deleteAlert(Long id) {
-        ApplicationUser worker = userService.getCurrentUser();
+        AuthenticatedUser worker = userService.getAuthenticatedUser();
 
         SearchAlert alert = searchAlertRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("SearchAlert with id " + id + " not found"));
 
-        if (!alert.getWorker().getId().equals(worker.getId())) {
+        if (!alert.getWorker().getId().equals(worker.id())) {
             throw new AccessDeniedException("You can only delete your own search alerts");
         }
 
         searchAlertRepository.delete(alert);
+        eventPublisher.publishEvent(new SearchAlertChangedEvent(id));
     }
 
     @Override
@@ -89,8 +96,8 @@ public class SearchAlertServiceImpl implements SearchAlertService {
         SearchAlert alert = searchAlertRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("SearchAlert with id " + id + " not found"));
 
-        ApplicationUser worker = userService.getCurrentUser();
-        if (!alert.getWorker().getId().equals(worker.getId())) {
+        AuthenticatedUser worker = userService.getAuthenticatedUser();
+        if (!alert.getWorker().getId().equals(worker.id())) {
             throw new AccessDeniedException("You can only delete your own search alerts");
         }
 
@@ -100,11 +107,11 @@ public class SearchAlertServiceImpl implements SearchAlertService {
 
     @Override
     public void resetAlertCount(Long id) {
-        ApplicationUser worker = userService.getCurrentUser();
+        AuthenticatedUser worker = userService.getAuthenticatedUser();
         SearchAlert alert = searchAlertRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("SearchAlert with id " + id + " not found"));
 
-        if (!alert.getWorker().getId().equals(worker.getId())) {
+        if (!alert.getWorker().getId().equals(worker.id())) {
             throw new AccessDeniedException("You can only reset your own search alerts");
         }
 
@@ -1,6 +1,5 @@
 package at.ac.tuwien.sepr.groupphase.backend.service.impl;
 
-import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.geolocation.GeonamesApiResponse;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.page.PageDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.user.UserDetailDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.user.UserListDto;
@@ -10,32 +9,35 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.user.UserUpdateDetailDt
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.user.UserUpdateDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.mapper.UserMapper;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
-import at.ac.tuwien.sepr.groupphase.backend.entity.Chat;
-import at.ac.tuwien.sepr.groupphase.backend.entity.ChatMessage;
-import at.ac.tuwien.sepr.groupphase.backend.entity.JobOffer;
-import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
-import at.ac.tuwien.sepr.groupphase.backend.entity.License;
-import at.ac.tuwien.sepr.groupphase.backend.entity.Property;
-import at.ac.tuwien.sepr.groupphase.backend.entity.Rating;
-import at.ac.tuwien.sepr.groupphase.backend.entity.Report;
+import at.ac.tuwien.sepr.groupphase.backend.event.ChatParticipantsChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.event.JobRequestChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.event.UserBanChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.event.WorkerLocationChangedEvent;
 import at.ac.tuwien.sepr.groupphase.backend.exception.EmailAlreadyExistsException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.UserAlreadyExistsException;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ChatMessageRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ChatParticipantSummaryRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ChatRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.JobOfferRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.LicenseRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.PropertyRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.PushSubscriptionRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.RatingRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.ReportRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
 import at.ac.tuwien.sepr.groupphase.backend.security.JwtTokenizer;
+import at.ac.tuwien.sepr.groupphase.backend.service.Geocoder;
+import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestImageService;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
-import at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus;
 import at.ac.tuwien.sepr.groupphase.backend.type.JobStatus;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -43,6 +45,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -51,11 +54,9 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
-import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.util.List;
 import java.util.Objects;
@@ -65,30 +66,48 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final String AUTHENTICATED_USER_ATTRIBUTE = UserServiceImpl.class.getName() + ".authenticatedUser";
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenizer jwtTokenizer;
     private final UserMapper userMapper;
-    private final ObjectMapper objectMapper;
+    private final Geocoder geocoder;
     private final PushSubscriptionRepository pushSubscriptionRepository;
     private final PropertyRepository propertyRepository;
     private final JobRequestRepository jobRequestRepository;
     private final RatingRepository ratingRepository;
     private final ReportRepository reportRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChatParticipantSummaryRepository chatParticipantSummaryRepository;
+    private final JobRequestImageService jobRequestImageService;
+    private final JobOfferRepository jobOfferRepository;
+    private final ChatRepository chatRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final LicenseRepository licenseRepository;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtTokenizer jwtTokenizer, UserMapper userMapper, ObjectMapper objectMapper, PushSubscriptionRepository pushSubscriptionRepository,
-                           PropertyRepository propertyRepository, JobRequestRepository jobRequestRepository, RatingRepository ratingRepository, ReportRepository reportRepository) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtTokenizer jwtTokenizer, UserMapper userMapper, Geocoder geocoder, PushSubscriptionRepository pushSubscriptionRepository,
+                           PropertyRepository propertyRepository, JobRequestRepository jobRequestRepository, RatingRepository ratingRepository, ReportRepository reportRepository,
+                           ApplicationEventPublisher eventPublisher, ChatParticipantSummaryRepository chatParticipantSummaryRepository,
+                           JobRequestImageService jobRequestImageService, JobOfferRepository jobOfferRepository, ChatRepository chatRepository,
+                           ChatMessageRepository chatMessageRepository, LicenseRepository licenseRepository) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtTokenizer = jwtTokenizer;
         this.userMapper = userMapper;
-        this.objectMapper = objectMapper;
+        this.geocoder = geocoder;
         this.pushSubscriptionRepository = pushSubscriptionRepository;
         this.propertyRepository = propertyRepository;
         this.jobRequestRepository = jobRequestRepository;
         this.ratingRepository = ratingRepository;
         this.reportRepository = reportRepository;
+        this.eventPublisher = eventPublisher;
+        this.chatParticipantSummaryRepository = chatParticipantSummaryRepository;
+        this.jobRequestImageService = jobRequestImageService;
+        this.jobOfferRepository = jobOfferRepository;
+        this.chatRepository = chatRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.licenseRepository = licenseRepository;
     }
 
     @Override
@@ -169,128 +188,56 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUserByUsername(String username) {
         ApplicationUser user = userRepository.findUserByUsername(username).orElseThrow(() -> new NotFoundException("No user with username: " + username));
+        ApplicationUser deletedUser = userRepository.findUserByUsername("deleted user").orElseThrow();
 
-        // remove from push notifications
+        // every step is one statement over all rows of the user, nothing is loaded into the persistence context
         pushSubscriptionRepository.deleteByUser(user);
 
-        ApplicationUser deletedUser = userRepository.findUserByUsername("deleted user").orElseThrow();
+        // swap user with deletedUser in ratings and reports
+        ratingRepository.reassignFromUser(user, deletedUser);
+        ratingRepository.reassignToUser(user, deletedUser);
+        reportRepository.reassignReporter(user, deletedUser);
+        reportRepository.reassignTarget(user, deletedUser);
 
-        // swap user with deletedUser in ratings
-        List<Rating> ratingsFrom = ratingRepository.findAllByFromUser(user);
-        if (ratingsFrom != null) {
-            for (Rating rating : ratingsFrom) {
-                rating.setFromUser(deletedUser);
-            }
-        }
+        // the deleted user takes over the chats, but nobody reads their chat list
+        chatParticipantSummaryRepository.deleteAllByParticipant(user);
+        // the user is replaced by a placeholder in all their chats, whatever their role
+        eventPublisher.publishEvent(new ChatParticipantsChangedEvent(null));
+        // a ban ends with the account, so a new account with the same name starts unbanned
+        eventPublisher.publishEvent(new UserBanChangedEvent(username, false));
 
-        List<Rating> ratingsTo = ratingRepository.findAllByToUser(user);
-        if (ratingsTo != null) {
-            for (Rating rating : ratingsTo) {
-                rating.setToUser(deletedUser);
-            }
-        }
+        if (user.getRole() == Role.CUSTOMER) {
 
-        // swap user with deletedUser in reports
-        List<Report> reportsByReporter = reportRepository.findAllByReporter(user);
-        if (reportsByReporter != null) {
-            for (Report report : reportsByReporter) {
-                report.setReporter(deletedUser);
-            }
-        }
+            // reported job requests are hidden instead of deleted, like when their customer deletes them
+            jobRequestRepository.hideReportedPendingByCustomer(user);
 
-        List<Report> reportsByTarget = reportRepository.findAllByTarget(user);
-        if (reportsByTarget != null) {
-            for (Report report : reportsByTarget) {
-                report.setTarget(deletedUser);
-            }
-        }
+            // delete pending job requests, bulk deletes do not cascade to their offers and images
+            jobRequestImageService.deleteImagesOfCustomer(user.getId(), JobStatus.PENDING);
+            jobOfferRepository.deleteAllByCustomerAndJobRequestStatus(user, JobStatus.PENDING);
+            jobRequestRepository.deleteAllByCustomerAndStatus(user, JobStatus.PENDING);
 
-        if (user.getRole() == Role.CUSTOMER) {
+            // accepted job requests are done, together with their accepted offer
+            jobOfferRepository.completeAcceptedByCustomer(user);
+            jobRequestRepository.completeAcceptedByCustomer(user);
 
-            // delete pending job requests and set deleted customer at other requests
-            List<JobRequest> jobRequests = user.getJobRequests();
-            if (jobRequests != null) {
-                for (JobRequest jobRequest : jobRequests) {
-                    jobRequest.setProperty(null);
-
-                    if (jobRequest.getStatus() == JobStatus.PENDING) {
-                        jobRequestRepository.delete(jobRequest);
-                    } else {
-                        // if accepted: set joboffer to done
-                        if (jobRequest.getStatus() == JobStatus.ACCEPTED) {
-                            jobRequest.setStatus(JobStatus.DONE);
-
-                            List<JobOffer> receivedJobOffers = jobRequest.getReceivedJobOffers();
-                            if (receivedJobOffers != null) {
-                                for (JobOffer receivedJobOffer : receivedJobOffers) {
-                                    if (receivedJobOffer.getStatus() == JobOfferStatus.ACCEPTED) {
-                                        receivedJobOffer.setStatus(JobOfferStatus.DONE);
-                                    }
-                                }
-                            }
-                        }
-                        jobRequest.setCustomer(deletedUser);
-                    }
-                }
-            }
+            // set deleted customer at the other requests, which lose their property
+            jobRequestRepository.reassignCustomer(user, deletedUser);
 
-            // delete properties
-            List<Property> properties = user.getProperties();
-            if (properties != null) {
-                propertyRepository.deleteAll(properties);
-            }
+            eventPublisher.publishEvent(new JobRequestChangedEvent(null));
+
+            propertyRepository.deleteAllByCustomer(user);
 
             // set deleted user at chats and chat messages
-            List<Chat> customerChats = user.getCustomerChats();
-            if (customerChats != null) {
-                for (Chat customerChat : customerChats) {
-                    customerChat.setCustomer(deletedUser);
-
-                    List<ChatMessage> chatMessages = customerChat.getChatMessages();
-                    if (chatMessages != null) {
-                        for (ChatMessage chatMessage : chatMessages) {
-                            if (chatMessage.getSender() != null && chatMessage.getSender().equals(user)) {
-                                chatMessage.setSender(deletedUser);
-                            }
-                        }
-                    }
-                }
-            }
+            chatRepository.reassignCustomer(user, deletedUser);
+            chatMessageRepository.reassignSender(user, deletedUser);
 
         } else if (user.getRole() == Role.WORKER) {
 
-            // set deleted user at job offers
-            List<JobOffer> sentJobOffers = user.getSentJobOffers();
-            if (sentJobOffers != null) {
-                for (JobOffer sentJobOffer : sentJobOffers) {
-                    sentJobOffer.setWorker(deletedUser);
-                }
-            }
-
-            // set deleted user at licenses
-            List<License> licenses = user.getLicenses();
-            if (licenses != null) {
-                for (License license : licenses) {
-                    license.setWorker(deletedUser);
-                }
-            }
-
-            // set deleted user at chats and chat messages
-            List<Chat> workerChats = user.getWorkerChats();
-            if (workerChats != null) {
-                for (Chat workerChat : workerChats) {
-                    workerChat.setWorker(deletedUser);
-
-                    List<ChatMessage> chatMessages = workerChat.getChatMessages();
-                    if (chatMessages != null) {
-                        for (ChatMessage chatMessage : chatMessages) {
-                            if (chatMessage.getSender() != null && chatMessage.getSender().equals(user)) {
-                                chatMessage.setSender(deletedUser);
-                            }
-                        }
-                    }
-                }
-            }
+            // set deleted user at job offers, licenses, chats and chat messages
+            jobOfferRepository.reassignWorker(user, deletedUser);
+            licenseRepository.reassignWorker(user, deletedUser);
+            chatRepository.reassignWorker(user, deletedUser);
+            chatMessageRepository.reassignSender(user, deletedUser);
         }
 
         userRepository.delete(user);
@@ -319,14 +266,14 @@ public class UserServiceImpl implements UserService {
     public UserUpdateDto update(UserUpdateDto userUpdate) {
         LOGGER.trace("update() called for DTO: {}", userUpdate);
 
-        ApplicationUser currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = getAuthenticatedUser();
 
         ApplicationUser userToUpdate = userRepository.findUserByUsername(userUpdate.getUsername())
             .orElseThrow(() -> new NotFoundException("Target user not found: " + userUpdate.getUsername()));
 
-        if (!currentUser.getId().equals(userToUpdate.getId()) && currentUser.getRole() != Role.ADMIN) {
+        if (!currentUser.id().equals(userToUpdate.getId()) && currentUser.role() != Role.ADMIN) {
             LOGGER.warn("User '{}' (ID: {}) attempted to update user '{}' (ID: {}) without permission.",
-                currentUser.getUsername(), currentUser.getId(), userToUpdate.getUsername(), userToUpdate.getId());
+                currentUser.username(), currentUser.id(), userToUpdate.getUsername(), userToUpdate.getId());
             throw new AccessDeniedException("You are not authorized to update this user's profile.");
         }
 
@@ -353,6 +300,9 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.save(userToUpdate);
+        if (locationChanged && userToUpdate.getRole() == Role.WORKER) {
+            eventPublisher.publishEvent(new WorkerLocationChangedEvent(userToUpdate.getId(), userToUpdate.getLatitude(), userToUpdate.getLongitude()));
+        }
         return userUpdate;
     }
 
@@ -375,8 +325,30 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public ApplicationUser getCurrentUser() {
-        String username = (String) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return this.findUserByUsername(username).orElseThrow(() -> new NotFoundException("User not found: " + username));
+        AuthenticatedUser authenticated = getAuthenticatedUser();
+        return userRepository.findById(authenticated.id()).orElseThrow(() -> new NotFoundException("User not found: " + authenticated.username()));
+    }
+
+    @Override
+    public AuthenticatedUser getAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user && user.id() != null) {
+            return user;
+        }
+
+        // principals without an id are looked up once per request
+        String username = authentication.getName();
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(AUTHENTICATED_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof AuthenticatedUser user
+            && user.username().equals(username)) {
+            return user;
+        }
+        ApplicationUser user = this.findUserByUsername(username).orElseThrow(() -> new NotFoundException("User not found: " + username));
+        AuthenticatedUser resolved = new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+        if (request != null) {
+            request.setAttribute(AUTHENTICATED_USER_ATTRIBUTE, resolved, RequestAttributes.SCOPE_REQUEST);
+        }
+        return resolved;
     }
 
     @Override
@@ -394,6 +366,7 @@ public class UserServiceImpl implements UserService {
             .orElseThrow(() -> new NotFoundException("User not found with id: " + id));
         user.setBanned(true);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserBanChangedEvent(user.getUsername(), true));
     }
 
     @Override
@@ -402,6 +375,7 @@ public class UserServiceImpl implements UserService {
             .orElseThrow(() -> new NotFoundException("User not found with id: " + id));
         user.setBanned(false);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserBanChangedEvent(user.getUsername(), false));
     }
 
     @Override
@@ -418,52 +392,11 @@ public class UserServiceImpl implements UserService {
     }
 
     private void updateUserWithGeonamesData(ApplicationUser user) {
-        try {
-            String jsonResponse = fetchGeonamesDataFromApi(user.getPostalCode(), user.getCountryCode(), user.getArea());
-            if (jsonResponse != null) {
-                GeonamesApiResponse apiResponse = objectMapper.readValue(jsonResponse, GeonamesApiResponse.class);
-
-                if (apiResponse != null && apiResponse.getResults() != null && !apiResponse.getResults().isEmpty()) {
-                    var result = apiResponse.getResults().getFirst();
-                    if (result != null) {
-                        user.setLatitude(result.getLatitude());
-                        user.setLongitude(result.getLongitude());
-                        LOGGER.info("Geocoded user for zipcode {}: area='{}', lat={}, lon={}",
-                            user.getPostalCode(), user.getArea(), user.getLatitude(), user.getLongitude());
-                    }
-                } else {
-                    LOGGER.warn("Geonames API returned no records for zipcode: {} and country: {}", user.getPostalCode(), user.getCountryCode());
-                }
-            }
-        } catch (IOException e) {
-            LOGGER.error("Failed to parse Geonames API response for zipcode {}: {}", user.getPostalCode(), e.getMessage());
-        } catch (Exception e) {
-            LOGGER.error("An unexpected error occurred during geocoding for zipcode {}: {}", user.getPostalCode(), e.getMessage());
-        }
-    }
-
-    private String fetchGeonamesDataFromApi(String postalCode, String countryCode, String area) throws IOException {
-        String whereClause;
-        // Improved null safety for the area parameter
-        if (area == null || area.isBlank()) {
-            whereClause = String.format("postal_code='%s' and country_code='%s'", postalCode, countryCode);
-        } else {
-            whereClause = String.format("postal_code='%s' and country_code='%s' and place_name='%s'", postalCode, countryCode, area);
-        }
-
-        String url = UriComponentsBuilder
-            .fromHttpUrl("https://data.opendatasoft.com/api/explore/v2.1/catalog/datasets/geonames-postal-code@public/records")
-            .queryParam("where", whereClause)
-            .build()
-            .toUriString();
-
-        LOGGER.info("Calling Geonames API: {}", url);
-        RestTemplate restTemplate = new RestTemplate();
-        try {
-            return restTemplate.getForObject(url, String.class);
-        } catch (HttpClientErrorException e) {
-            LOGGER.warn("Could not fetch data from Geonames API for postalCode {}: {} {}", postalCode, e.getStatusCode(), e.getResponseBodyAsString());
-            return null;
-        }
+        geocoder.locate(user.getCountryCode(), user.getPostalCode(), user.getArea()).ifPresentOrElse(place -> {
+            user.setLatitude(place.latitude());
+            user.setLongitude(place.longitude());
+            LOGGER.debug("Geocoded user for zipcode {}: area='{}', lat={}, lon={}",
+                user.getPostalCode(), user.getArea(), user.getLatitude(), user.getLongitude());
+        }, () -> LOGGER.warn("No geonames record for zipcode: {}, area: '{}' and country: {}", user.getPostalCode(), user.getArea(), user.getCountryCode()));
     }
 }
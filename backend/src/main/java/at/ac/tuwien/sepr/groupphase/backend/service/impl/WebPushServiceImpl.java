@@ -1,34 +1,83 @@
 package at.ac.tuwien.sepr.groupphase.backend.service.impl;
 
 import at.ac.tuwien.sepr.groupphase.backend.entity.PushSubscription;
+import at.ac.tuwien.sepr.groupphase.backend.exception.PushDeliveryException;
 import at.ac.tuwien.sepr.groupphase.backend.service.WebPushService;
+import at.ac.tuwien.sepr.groupphase.backend.type.PushDeliveryOutcome;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import nl.martijndwars.webpush.Encoding;
 import nl.martijndwars.webpush.Notification;
 import nl.martijndwars.webpush.PushService;
 import nl.martijndwars.webpush.Utils;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
 import java.security.Security;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
+/**
+ * Delivers push notifications with one shared, pooled HTTP client. Every delivery runs on its own virtual thread;
+ * the number of requests in flight is bounded overall and per push service origin by the connection pool.
+ */
 @Service
 public class WebPushServiceImpl implements WebPushService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final int MAX_CACHED_KEYS = 10_000;
     private final PushService pushService;
     private final String vapidSubject = "mailto: <brp@example.com>";
     private final String vapidPublicKey = "BER6kdQUX7-PBTkhVkfG4hVO5u_q43sahUMzmPJb1GIiCs__9rtkQQxBlQ3T0s0sTOAoxb73rp1YuapHNvc9aDg";
     private final String vapidPrivateKey = "A4Z_iiEEnE6MMFGGk0MLsIXiH7jndlK5WJTENlxXKbE";
     private final ObjectMapper objectMapper;
+    private final CloseableHttpClient httpClient;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Map<String, Semaphore> originPermits = new ConcurrentHashMap<>();
+    private final int maxConnectionsPerOrigin;
+    private final MeterRegistry meterRegistry;
+    // subscribers re-use their key for every notification, decoding it is a curve point decompression each time
+    private final Map<String, PublicKey> subscriberKeys = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PublicKey> eldest) {
+            return size() > MAX_CACHED_KEYS;
+        }
+    });
 
-    public WebPushServiceImpl() {
+    public WebPushServiceImpl(MeterRegistry meterRegistry,
+                              @Value("${notification.push.max-concurrency:64}") int maxConcurrency,
+                              @Value("${notification.push.max-connections-per-origin:16}") int maxConnectionsPerOrigin,
+                              @Value("${notification.push.connect-timeout:5s}") Duration connectTimeout,
+                              @Value("${notification.push.read-timeout:10s}") Duration readTimeout) {
         Security.addProvider(new BouncyCastleProvider());
 
         try {
@@ -40,14 +89,40 @@ public class WebPushServiceImpl implements WebPushService {
             throw new RuntimeException(e);
         }
         objectMapper = new ObjectMapper();
-    }
 
-    @Override
-    public void sendNotification(PushSubscription subscription, String title, String body, String url, String tag) {
-        LOGGER.trace("called sendNotification() with parameters: {}, {}, {}, {}", subscription, title, body, url);
+        // push services are few origins (FCM, Mozilla, Apple), so connections are pooled per origin
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConcurrency);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerOrigin);
+        httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .build())
+            .disableCookieManagement()
+            .build();
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        permits = new Semaphore(maxConcurrency);
+        this.maxConnectionsPerOrigin = maxConnectionsPerOrigin;
 
-        String json;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("push.delivery.in_flight", permits, p -> maxConcurrency - p.availablePermits())
+            .description("Push notifications currently being delivered")
+            .register(meterRegistry);
+        Gauge.builder("push.subscriber_keys.cached", subscriberKeys, Map::size)
+            .description("Decoded subscriber public keys held in memory")
+            .register(meterRegistry);
+    }
 
+    @PreDestroy
+    public void close() throws IOException {
+        executor.shutdownNow();
+        httpClient.close();
+    }
+
+    @Override
+    public byte[] createPayload(String title, String body, String url, String tag) {
         ObjectNode data = objectMapper.createObjectNode();
         data.put("url", url);
 
@@ -62,26 +137,94 @@ public class WebPushServiceImpl implements WebPushService {
         payload.set("notification", notification);
 
         try {
-            json = objectMapper.writeValueAsString(payload);
+            return objectMapper.writeValueAsString(payload).getBytes(StandardCharsets.UTF_8);
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
+    }
+
+    @Override
+    public CompletableFuture<Void> sendPayload(PushSubscription subscription, byte[] payload) {
+        return CompletableFuture.runAsync(() -> deliver(subscription, payload), executor);
+    }
 
+    private void deliver(PushSubscription subscription, byte[] payload) {
+        URI endpoint = endpoint(subscription.getEndpoint());
+        String host = endpoint.getHost() == null ? "unknown" : endpoint.getHost();
+        Semaphore origin = originPermits.computeIfAbsent(endpoint.getScheme() + "://" + endpoint.getAuthority(), key -> new Semaphore(maxConnectionsPerOrigin));
+        long start = System.nanoTime();
+        String outcome = "failed";
+        try {
+            // waiting here instead of inside the connection pool, whose lease blocks while holding a monitor and would pin the virtual thread
+            permits.acquire();
+            try {
+                origin.acquire();
+                try {
+                    outcome = post(subscription, payload);
+                } finally {
+                    origin.release();
+                }
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PushDeliveryException("Interrupted while sending push notification", e);
+        } finally {
+            Timer.builder("push.delivery")
+                .description("Latency of push service requests")
+                .tag("host", host)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private String post(PushSubscription subscription, byte[] payload) {
+        HttpPost request;
         try {
             Notification pushNotification = new Notification(
                 subscription.getEndpoint(),
-                Utils.loadPublicKey(subscription.getP256dh()),
+                subscriberKey(subscription.getP256dh()),
                 Base64.getUrlDecoder().decode(subscription.getAuth()),
-                json.getBytes()
+                payload
             );
+            request = pushService.preparePost(pushNotification, Encoding.AES128GCM);
+        } catch (Exception e) {
+            LOGGER.error("Failed to encrypt push notification for {}", subscription.getEndpoint(), e);
+            // the subscription keys are broken, so this subscription will never accept a notification
+            throw new PushDeliveryException("Failed to encrypt push notification: " + e.getMessage(), PushDeliveryOutcome.REJECTED, e);
+        }
+
+        LOGGER.debug("Subscription endpoint: {}", subscription.getEndpoint());
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            // the connection only returns to the pool once the response was consumed
+            EntityUtils.consumeQuietly(response.getEntity());
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode < 200 || statusCode >= 300) {
+                throw new PushDeliveryException("Push service responded with " + response.getStatusLine(), statusCode);
+            }
+            return "delivered";
+        } catch (IOException e) {
+            LOGGER.warn("Failed to send push notification to {}: {}", subscription.getEndpoint(), e.getMessage());
+            throw new PushDeliveryException("Failed to send push notification: " + e.getMessage(), e);
+        }
+    }
 
-            LOGGER.debug("Subscription endpoint: " + subscription.getEndpoint());
-            LOGGER.debug("Payload: " + json);
+    private PublicKey subscriberKey(String p256dh) throws Exception {
+        PublicKey key = subscriberKeys.get(p256dh);
+        if (key == null) {
+            key = Utils.loadPublicKey(p256dh);
+            subscriberKeys.put(p256dh, key);
+        }
+        return key;
+    }
 
-            pushService.send(pushNotification, Encoding.AES128GCM);
-        } catch (Exception e) {
-            LOGGER.error("Failed to send push notification", e);
-            throw new RuntimeException(e);
+    private static URI endpoint(String endpoint) {
+        try {
+            return URI.create(endpoint);
+        } catch (IllegalArgumentException e) {
+            throw new PushDeliveryException("Invalid push endpoint " + endpoint, PushDeliveryOutcome.REJECTED, e);
         }
     }
 }
@@ -0,0 +1,24 @@
+package at.ac.tuwien.sepr.groupphase.backend.type;
+
+/**
+ * Enum representing the sizes a job request image is served in.
+ * Every size but {@link #ORIGINAL} is a variant generated after upload, fitting into a square of its maximum dimension.
+ */
+public enum ImageSize {
+    ORIGINAL(0),
+    MEDIUM(800),
+    THUMBNAIL(200);
+
+    private final int maxDimension;
+
+    ImageSize(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    /**
+     * Returns the maximum width and height of this variant in pixels, or 0 for the original.
+     */
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+}
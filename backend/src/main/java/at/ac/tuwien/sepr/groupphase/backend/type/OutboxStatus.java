@@ -0,0 +1,10 @@
+package at.ac.tuwien.sepr.groupphase.backend.type;
+
+/**
+ * Enum representing the delivery state of a queued push notification.
+ * Delivered notifications are removed from the outbox, so there is no state for them.
+ */
+public enum OutboxStatus {
+    PENDING,
+    DEAD
+}
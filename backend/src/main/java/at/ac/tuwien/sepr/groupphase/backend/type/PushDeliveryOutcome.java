@@ -0,0 +1,42 @@
+package at.ac.tuwien.sepr.groupphase.backend.type;
+
+/**
+ * Enum classifying the response of a push service to a notification.
+ */
+public enum PushDeliveryOutcome {
+    /**
+     * The push service accepted the notification.
+     */
+    DELIVERED,
+    /**
+     * The subscription expired or was revoked (404, 410) and will never accept notifications again.
+     */
+    GONE,
+    /**
+     * A temporary problem, like a timeout, rate limiting (429) or a server error (5xx). Worth retrying later.
+     */
+    RETRYABLE,
+    /**
+     * The push service rejected this notification (any other 4xx); sending it again would fail the same way.
+     */
+    REJECTED;
+
+    /**
+     * Classifies an HTTP status code of a push service.
+     *
+     * @param statusCode the status code, {@code 0} if there was no response
+     * @return the outcome
+     */
+    public static PushDeliveryOutcome of(int statusCode) {
+        if (statusCode >= 200 && statusCode < 300) {
+            return DELIVERED;
+        }
+        if (statusCode == 404 || statusCode == 410) {
+            return GONE;
+        }
+        if (statusCode >= 400 && statusCode < 500 && statusCode != 408 && statusCode != 429) {
+            return REJECTED;
+        }
+        return RETRYABLE;
+    }
+}
@@ -0,0 +1,68 @@
+package at.ac.tuwien.sepr.groupphase.backend.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Computes the SHA-256 hash of stored files. The lowercase hex hash names content in blob keys and
+ * upload file names and is sent as its strong {@code ETag}.
+ */
+public final class ContentHash {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private ContentHash() {
+    }
+
+    /**
+     * Hashes the given bytes.
+     *
+     * @param content the content to hash
+     * @return the lowercase hex SHA-256 hash
+     */
+    public static String sha256(byte[] content) {
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+
+    /**
+     * Hashes everything left in the given stream. The stream is read to its end but not closed.
+     *
+     * @param content the content to hash
+     * @return the lowercase hex SHA-256 hash
+     * @throws IOException if the stream cannot be read
+     */
+    public static String sha256(InputStream content) throws IOException {
+        MessageDigest digest = newDigest();
+        new DigestInputStream(content, digest).transferTo(OutputStream.nullOutputStream());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Checks whether the given value has the form of a hash returned by this class.
+     *
+     * @param value the value to check, may be {@code null}
+     * @return {@code true} if the value is a lowercase hex SHA-256 hash
+     */
+    public static boolean isSha256(String value) {
+        return value != null && HASH_PATTERN.matcher(value).matches();
+    }
+
+    /**
+     * Creates a new SHA-256 digest.
+     *
+     * @return the digest
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package at.ac.tuwien.sepr.groupphase.backend.util;
+
+/**
+ * A latitude/longitude rectangle that encloses every point within a given great-circle distance of a center.
+ * Used as an index-friendly prefilter in front of the exact {@code acos} distance check, so the box is
+ * intentionally a little larger than needed and never excludes a point the exact check would accept.
+ *
+ * @param minLatitude  southern bound in degrees
+ * @param maxLatitude  northern bound in degrees
+ * @param minLongitude western bound in degrees
+ * @param maxLongitude eastern bound in degrees
+ */
+public record GeoBoundingBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+
+    /**
+     * Mean earth radius in kilometers, the same constant the distance queries use.
+     */
+    public static final double EARTH_RADIUS_KM = 6371;
+
+    /**
+     * Roughly 10 meters of slack to absorb float rounding of the stored coordinates.
+     */
+    private static final double MARGIN_DEGREES = 1e-4;
+
+    /**
+     * Computes the bounding box of all points within {@code distanceKm} of the given center.
+     * If the circle touches a pole or crosses the antimeridian, the longitude range covers the whole globe.
+     *
+     * @param latitude   latitude of the center in degrees
+     * @param longitude  longitude of the center in degrees
+     * @param distanceKm radius in kilometers
+     * @return the enclosing bounding box
+     */
+    public static GeoBoundingBox around(double latitude, double longitude, double distanceKm) {
+        double angularDistance = Math.max(distanceKm, 0) / EARTH_RADIUS_KM;
+        double latitudeDelta = Math.toDegrees(angularDistance) + MARGIN_DEGREES;
+
+        double minLatitude = latitude - latitudeDelta;
+        double maxLatitude = latitude + latitudeDelta;
+        if (minLatitude <= -90 || maxLatitude >= 90) {
+            return new GeoBoundingBox(Math.max(minLatitude, -90), Math.min(maxLatitude, 90), -180, 180);
+        }
+
+        double ratio = Math.sin(angularDistance) / Math.cos(Math.toRadians(latitude));
+        if (angularDistance >= Math.PI / 2 || ratio >= 1) {
+            return new GeoBoundingBox(minLatitude, maxLatitude, -180, 180);
+        }
+
+        double longitudeDelta = Math.toDegrees(Math.asin(ratio)) + MARGIN_DEGREES;
+        double minLongitude = longitude - longitudeDelta;
+        double maxLongitude = longitude + longitudeDelta;
+        if (minLongitude < -180 || maxLongitude > 180) {
+            return new GeoBoundingBox(minLatitude, maxLatitude, -180, 180);
+        }
+        return new GeoBoundingBox(minLatitude, maxLatitude, minLongitude, maxLongitude);
+    }
+
+    /**
+     * Great-circle distance between two points, computed with the same spherical law of cosines as the native queries.
+     *
+     * @return the distance in kilometers
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double lat1 = Math.toRadians(latitude1);
+        double lat2 = Math.toRadians(latitude2);
+        double cosine = Math.cos(lat1) * Math.cos(lat2) * Math.cos(Math.toRadians(longitude2) - Math.toRadians(longitude1))
+            + Math.sin(lat1) * Math.sin(lat2);
+        return EARTH_RADIUS_KM * Math.acos(Math.min(1, Math.max(-1, cosine)));
+    }
+
+    /**
+     * Checks whether the given point lies inside the box.
+     */
+    public boolean contains(double latitude, double longitude) {
+        return latitude >= minLatitude && latitude <= maxLatitude
+            && longitude >= minLongitude && longitude <= maxLongitude;
+    }
+}
@@ -0,0 +1,69 @@
+package at.ac.tuwien.sepr.groupphase.backend.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes items to a response body as they are produced instead of collecting them first,
+ * either as one JSON array or as newline delimited JSON (one object per line).
+ */
+public final class JsonStreams {
+
+    private JsonStreams() {
+    }
+
+    /**
+     * Creates a response body writing all items passed by {@code source} as one JSON array.
+     *
+     * @param objectMapper the mapper used to serialize the items
+     * @param source       called once with a consumer accepting the items to write
+     * @return the streaming response body
+     */
+    public static <T> StreamingResponseBody array(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                source.accept(item -> write(generator, item, false));
+                generator.writeEndArray();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    /**
+     * Creates a response body writing all items passed by {@code source} as newline delimited JSON.
+     *
+     * @param objectMapper the mapper used to serialize the items
+     * @param source       called once with a consumer accepting the items to write
+     * @return the streaming response body
+     */
+    public static <T> StreamingResponseBody lines(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                source.accept(item -> write(generator, item, true));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private static void write(JsonGenerator generator, Object item, boolean newline) {
+        try {
+            generator.writeObject(item);
+            if (newline) {
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            // e.g. the client went away, which also ends reading from the database
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package at.ac.tuwien.sepr.groupphase.backend.util;
+
+import at.ac.tuwien.sepr.groupphase.backend.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination over entities ordered by descending id.
+ * The cursor encodes the id of the last element of the previous page; the next page
+ * starts with the first element whose id is lower.
+ */
+public final class PageCursor {
+
+    private static final String PREFIX = "id:";
+
+    private PageCursor() {
+    }
+
+    /**
+     * Encodes the id of the last element of a page as cursor.
+     *
+     * @param lastId id of the last returned element
+     * @return the opaque cursor string
+     */
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into the exclusive upper id bound of the next page.
+     * A {@code null} or blank cursor denotes the first page.
+     *
+     * @param cursor the cursor of the previous page
+     * @return all elements of the next page have an id lower than this value
+     * @throws InvalidCursorException if the cursor was not created by {@link #encode(long)}
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Invalid page cursor");
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid page cursor");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package at.ac.tuwien.sepr.groupphase.backend.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits free text into normalized search terms, so indexed text and queries are tokenized the same way.
+ * Terms are lower case, stripped of diacritics ("Küche" becomes "kuche") and separated by anything that is
+ * neither a letter nor a digit.
+ */
+public final class TextTokenizer {
+
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private TextTokenizer() {
+    }
+
+    /**
+     * Tokenizes the given text.
+     *
+     * @param text the text, may be {@code null}
+     * @return the terms in order of appearance, including duplicates; empty if there are none
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String term : SEPARATOR.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
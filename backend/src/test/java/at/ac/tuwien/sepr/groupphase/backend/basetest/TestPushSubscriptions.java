@@ -0,0 +1,52 @@
+package at.ac.tuwien.sepr.groupphase.backend.basetest;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
+import at.ac.tuwien.sepr.groupphase.backend.entity.PushSubscription;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+
+/**
+ * Creates push subscriptions with valid subscriber keys, so notifications can be encrypted for them and
+ * delivered to a local stub push service.
+ */
+public final class TestPushSubscriptions {
+
+    private TestPushSubscriptions() {
+    }
+
+    public static PushSubscription create(ApplicationUser user, String endpoint) {
+        ECPublicKey publicKey;
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            publicKey = (ECPublicKey) generator.generateKeyPair().getPublic();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+
+        // uncompressed point encoding as sent by browsers
+        byte[] point = new byte[65];
+        point[0] = 0x04;
+        copyUnsigned(publicKey.getW().getAffineX(), point, 1);
+        copyUnsigned(publicKey.getW().getAffineY(), point, 33);
+        byte[] auth = new byte[16];
+
+        PushSubscription subscription = new PushSubscription();
+        subscription.setUser(user);
+        subscription.setEndpoint(endpoint);
+        subscription.setP256dh(Base64.getUrlEncoder().withoutPadding().encodeToString(point));
+        subscription.setAuth(Base64.getUrlEncoder().withoutPadding().encodeToString(auth));
+        return subscription;
+    }
+
+    private static void copyUnsigned(BigInteger value, byte[] target, int offset) {
+        byte[] bytes = value.toByteArray();
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, target, offset + 32 - length, length);
+    }
+}
@@ -1,5 +1,6 @@
 package at.ac.tuwien.sepr.groupphase.backend.integrationtest.endpoint;
 
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageDto;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobOffer;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
@@ -9,9 +10,14 @@ import at.ac.tuwien.sepr.groupphase.backend.repository.JobOfferRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.PropertyRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import at.ac.tuwien.sepr.groupphase.backend.service.ChatService;
+import at.ac.tuwien.sepr.groupphase.backend.service.ReadReceiptService;
 import at.ac.tuwien.sepr.groupphase.backend.type.Category;
 import at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus;
+import at.ac.tuwien.sepr.groupphase.backend.type.MessageType;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
+import at.ac.tuwien.sepr.groupphase.backend.util.ContentHash;
 import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,11 +32,15 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.RequestPostProcessor;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -64,6 +74,15 @@ public class ChatEndpointTest {
     @Autowired
     private ChatRepository chatRepository;
 
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private BlobService blobService;
+
+    @Autowired
+    private ReadReceiptService readReceiptService;
+
     private static final String BASE_PATH = "/api/v1/chats";
 
     private long jobRequestId;
@@ -126,6 +145,107 @@ public class ChatEndpointTest {
             .andExpect(jsonPath("$").isArray());
     }
 
+    @Test
+    void getMessages_withoutParameters_returnsWholeHistoryNewestFirst() throws Exception {
+        var seeded = mockMvc.perform(get(BASE_PATH + "/-100/messages").param("limit", "200").with(marieAuth()))
+            .andReturn();
+        int seededCount = JsonPath.read(seeded.getResponse().getContentAsString(), "$.length()");
+        for (int i = 0; i < 60; i++) {
+            chatService.saveMessage("james", -100L, ChatMessageDto.builder().messageType(MessageType.TEXT).message("Message " + i).build());
+        }
+
+        mockMvc.perform(get(BASE_PATH + "/-100/messages").with(marieAuth()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(seededCount + 60))
+            .andExpect(jsonPath("$[0].message").value("Message 59"))
+            .andExpect(jsonPath("$[59].message").value("Message 0"));
+    }
+
+    @Test
+    void getMessages_withLimit_returnsLatestPageNewestFirst() throws Exception {
+        mockMvc.perform(get(BASE_PATH + "/-100/messages").param("limit", "3").with(marieAuth()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].id").value(contains(-93, -94, -95)));
+    }
+
+    @Test
+    void getMessages_before_returnsOlderPage() throws Exception {
+        mockMvc.perform(get(BASE_PATH + "/-100/messages").param("before", "-95").param("limit", "3").with(marieAuth()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].id").value(contains(-96, -97, -98)));
+    }
+
+    @Test
+    void getMessages_since_returnsNewerMessagesOldestFirst() throws Exception {
+        mockMvc.perform(get(BASE_PATH + "/-100/messages").param("since", "-95").with(marieAuth()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].id").value(contains(-94, -93)))
+            .andExpect(jsonPath("$[0].senderUsername").value("james"));
+    }
+
+    @Test
+    void getMessages_cursorOfOtherChat_returns400() throws Exception {
+        mockMvc.perform(get(BASE_PATH + "/-100/messages").param("before", "-90").with(marieAuth()))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllChats_returnsSummariesOfParticipant() throws Exception {
+        mockMvc.perform(get(BASE_PATH).with(marieAuth()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].id").value(containsInAnyOrder(-100, -101)))
+            .andExpect(jsonPath("$[?(@.id == -100)].counterPartName").value(contains("james")))
+            .andExpect(jsonPath("$[?(@.id == -100)].lastMessageOfCounterpart").value(contains("It’ll be €1200 for the full facade.")))
+            .andExpect(jsonPath("$[?(@.id == -100)].numberOfUnreadMessages").value(contains(0)));
+    }
+
+    @Test
+    void getAllChats_afterNewMessage_countsItAsUnread() throws Exception {
+        chatService.saveMessage("james", -100L, ChatMessageDto.builder().messageType(MessageType.TEXT).message("Let's say €1000").build());
+
+        mockMvc.perform(get(BASE_PATH).with(marieAuth()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.id == -100)].lastMessageOfCounterpart").value(contains("Let's say €1000")))
+            .andExpect(jsonPath("$[?(@.id == -100)].numberOfUnreadMessages").value(contains(1)));
+    }
+
+    @Test
+    void getMessages_latestPage_marksMessagesOfCounterpartAsRead() throws Exception {
+        chatService.saveMessage("james", -100L, ChatMessageDto.builder().messageType(MessageType.TEXT).message("Let's say €1000").build());
+
+        mockMvc.perform(get(BASE_PATH + "/-100/messages").param("before", "-95").param("limit", "3").with(marieAuth()))
+            .andExpect(status().isOk());
+        readReceiptService.flushPending();
+        mockMvc.perform(get(BASE_PATH).with(marieAuth()))
+            .andExpect(jsonPath("$[?(@.id == -100)].numberOfUnreadMessages").value(contains(1)));
+
+        mockMvc.perform(get(BASE_PATH + "/-100/messages").param("limit", "3").with(marieAuth()))
+            .andExpect(status().isOk());
+        readReceiptService.flushPending();
+        mockMvc.perform(get(BASE_PATH).with(marieAuth()))
+            .andExpect(jsonPath("$[?(@.id == -100)].numberOfUnreadMessages").value(contains(0)));
+    }
+
+    @Test
+    void getAllChats_withLimit_returnsOnePage() throws Exception {
+        mockMvc.perform(get(BASE_PATH).param("limit", "1").with(marieAuth()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void getAllChats_withOffsetNotMultipleOfLimit_skipsExactlyOffsetChats() throws Exception {
+        var all = mockMvc.perform(get(BASE_PATH).with(marieAuth()))
+            .andExpect(status().isOk())
+            .andReturn();
+        List<Integer> ids = JsonPath.read(all.getResponse().getContentAsString(), "$[*].id");
+        assertThat(ids).hasSize(2);
+
+        mockMvc.perform(get(BASE_PATH).param("offset", "1").param("limit", "2").with(marieAuth()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].id").value(contains(ids.get(1))));
+    }
+
     @Test
     void deleteConversation_whenParticipant_deletesChat() throws Exception {
         var res = mockMvc.perform(post(BASE_PATH + "/engage/" + jobRequestId)
@@ -142,6 +262,15 @@ public class ChatEndpointTest {
         assertThat(chatRepository.findById((long) chatId)).isEmpty();
     }
 
+    private RequestPostProcessor marieAuth() {
+        return authentication(
+            new UsernamePasswordAuthenticationToken(
+                "marie", null,
+                List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))
+            )
+        );
+    }
+
     @Test
     void uploadImage_whenNotImplemented_returns201() throws Exception {
         var file = new MockMultipartFile("image","test.jpg",MediaType.IMAGE_JPEG_VALUE,"content".getBytes());
@@ -150,4 +279,40 @@ public class ChatEndpointTest {
                 .with(csrf()))
             .andExpect(status().isCreated());
     }
+
+    @Test
+    void uploadImage_shouldServeContentAddressedUrlWithCacheHeaders() throws Exception {
+        byte[] content = "cached upload".getBytes();
+        String hash = ContentHash.sha256(content);
+        var file = new MockMultipartFile("image", "photo.png", MediaType.IMAGE_PNG_VALUE, content);
+        String response = mockMvc.perform(multipart(BASE_PATH + "/uploads").file(file)
+                .with(customerAuth)
+                .with(csrf()))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        String mediaUrl = JsonPath.read(response, "$.mediaUrl");
+        assertThat(mediaUrl).isEqualTo(BASE_PATH + "/uploads/" + hash + ".png");
+
+        mockMvc.perform(get(mediaUrl))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"" + hash + "\""))
+            .andExpect(header().string("Cache-Control", containsString("immutable")))
+            .andExpect(content().bytes(content));
+
+        mockMvc.perform(get(mediaUrl).header("If-None-Match", "\"" + hash + "\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getUpload_withBlobNotUploadedToChat_returnsNotFound() throws Exception {
+        String hash = blobService.store(new ByteArrayInputStream("license file".getBytes())).key();
+
+        mockMvc.perform(get(BASE_PATH + "/uploads/" + hash + ".pdf"))
+            .andExpect(status().isNotFound())
+            .andExpect(header().doesNotExist("ETag"));
+
+        mockMvc.perform(get(BASE_PATH + "/uploads/" + hash + ".pdf").header("If-None-Match", "\"" + hash + "\""))
+            .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,156 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.endpoint;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.ChatParticipantSummary;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ChatMessageRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ChatParticipantSummaryRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.JwtTokenizer;
+import at.ac.tuwien.sepr.groupphase.backend.service.ChatParticipantCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends chat messages over a real STOMP connection and measures the round trip until each one is broadcast back,
+ * once with the participants of the chat cached and once with the cache invalidated before every message.
+ * Timings are logged, the assertions only rely on the statements Hibernate counts.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "datagen"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class ChatMessageLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final int MESSAGES = 200;
+    private static final long CHAT_ID = -100L;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtTokenizer jwtTokenizer;
+    @Autowired
+    private ChatParticipantCache chatParticipantCache;
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+    @Autowired
+    private ChatParticipantSummaryRepository chatParticipantSummaryRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private WebSocketStompClient stompClient;
+    private StompSession session;
+    private final BlockingQueue<Map<?, ?>> broadcasts = new LinkedBlockingQueue<>();
+    private List<ChatParticipantSummary> summaries;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // chat -100 between marie and james, restored after the test
+        summaries = chatParticipantSummaryRepository.findAll().stream().filter(s -> s.getChat().getId() == CHAT_ID).toList();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", jwtTokenizer.getAuthToken("james", List.of("ROLE_WORKER"), -109L));
+        session = stompClient.connectAsync("http://localhost:" + port + "/ws-chat", new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+        session.subscribe("/topic/chat/" + CHAT_ID, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                broadcasts.add((Map<?, ?>) payload);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.disconnect();
+        stompClient.stop();
+        statistics.setStatisticsEnabled(false);
+        chatMessageRepository.deleteAll(chatMessageRepository.findAll().stream().filter(m -> m.getId() > 0).toList());
+        chatParticipantSummaryRepository.saveAll(summaries);
+    }
+
+    @Test
+    void sendMessage_withCachedParticipants_onlyWritesTheMessage() throws Exception {
+        // warm up connection, JIT and the participant cache
+        sendAll(MESSAGES, false);
+
+        statistics.clear();
+        long cachedNanos = sendAll(MESSAGES, false);
+        long cachedLoads = statistics.getEntityLoadCount();
+        long cachedInserts = statistics.getEntityInsertCount();
+        long cachedStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long uncachedNanos = sendAll(MESSAGES, true);
+        long uncachedStatements = statistics.getPrepareStatementCount();
+
+        LOGGER.info("{} messages, participants cached: {} ms ({} statements), participants loaded per message: {} ms ({} statements)",
+            MESSAGES, TimeUnit.NANOSECONDS.toMillis(cachedNanos), cachedStatements,
+            TimeUnit.NANOSECONDS.toMillis(uncachedNanos), uncachedStatements);
+
+        assertEquals(0, cachedLoads, "sending with cached participants must not load any entity");
+        assertEquals(MESSAGES, cachedInserts);
+        // the message insert and the summary update
+        assertEquals(2L * MESSAGES, cachedStatements);
+        assertTrue(uncachedStatements >= cachedStatements + MESSAGES);
+    }
+
+    private long sendAll(int messages, boolean invalidateBeforeEach) throws InterruptedException {
+        long total = 0;
+        for (int i = 0; i < messages; i++) {
+            if (invalidateBeforeEach) {
+                chatParticipantCache.invalidateAll();
+            }
+            long start = System.nanoTime();
+            session.send("/app/chat/" + CHAT_ID + "/sendMessage", Map.of("messageType", "TEXT", "message", "load " + i));
+            Map<?, ?> broadcast = broadcasts.poll(10, TimeUnit.SECONDS);
+            total += System.nanoTime() - start;
+
+            assertNotNull(broadcast, "message " + i + " was not broadcast");
+            assertEquals("james", broadcast.get("senderUsername"));
+        }
+        return total;
+    }
+}
@@ -10,7 +10,9 @@ import at.ac.tuwien.sepr.groupphase.backend.security.JwtTokenizer;
 import at.ac.tuwien.sepr.groupphase.backend.type.Category;
 import at.ac.tuwien.sepr.groupphase.backend.type.JobStatus;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
+import at.ac.tuwien.sepr.groupphase.backend.util.PageCursor;
 import com.google.gson.JsonObject;
+import com.jayway.jsonpath.JsonPath;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,11 +23,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
 import java.time.LocalDate;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -176,21 +180,61 @@ public class JobRequestEndpointTest implements TestData {
 
 
     @Test
+    // the list is streamed on another thread in its own transaction, so the test data has to be committed
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public void listAllJobRequests_shouldReturnOkAndList() throws Exception {
+        try {
+            saveJobRequest("List All Test");
+
+            MvcResult result = mockMvc.perform(get(JOB_REQUEST_URI + "/all")
+                    .header("Authorization", customerToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].title").value("List All Test"));
+        } finally {
+            cleanup.clearAll();
+        }
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void listAllJobRequests_withNdjson_shouldReturnOneRequestPerLine() throws Exception {
+        try {
+            saveJobRequest("First streamed");
+            saveJobRequest("Second streamed");
+
+            MvcResult result = mockMvc.perform(get(JOB_REQUEST_URI + "/all")
+                    .header("Authorization", customerToken)
+                    .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+            String[] lines = body.split("\n");
+            assertEquals(2, lines.length);
+            assertEquals("First streamed", JsonPath.read(lines[0], "$.title"));
+            assertEquals("Second streamed", JsonPath.read(lines[1], "$.title"));
+        } finally {
+            cleanup.clearAll();
+        }
+    }
+
+    private void saveJobRequest(String title) {
         JobRequest jobRequest = new JobRequest();
-        jobRequest.setTitle("List All Test");
+        jobRequest.setTitle(title);
         jobRequest.setDescription("For list all test");
         jobRequest.setCategory(Category.FLOORING);
         jobRequest.setDeadline(LocalDate.now().plusDays(5));
         jobRequest.setCustomer(customer);
         jobRequest.setStatus(JobStatus.PENDING);
         jobRequestRepository.save(jobRequest);
-
-        mockMvc.perform(get(JOB_REQUEST_URI + "/all")
-                .header("Authorization", customerToken))
-            .andExpect(status().isOk())
-            .andExpect(jsonPath("$").isArray())
-            .andExpect(jsonPath("$[0].title").value("List All Test"));
     }
 
     @Test
@@ -203,4 +247,64 @@ public class JobRequestEndpointTest implements TestData {
             .andExpect(jsonPath("$.content").isArray());
     }
 
+    @Test
+    public void searchCustomerJobRequests_withCursor_shouldPageByDescendingId() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            JobRequest jobRequest = new JobRequest();
+            jobRequest.setTitle("Cursor Test " + i);
+            jobRequest.setDescription("For cursor test");
+            jobRequest.setCategory(Category.FLOORING);
+            jobRequest.setDeadline(LocalDate.now().plusDays(5));
+            jobRequest.setCustomer(customer);
+            jobRequest.setStatus(JobStatus.PENDING);
+            jobRequestRepository.save(jobRequest);
+        }
+
+        MvcResult firstPage = mockMvc.perform(get(JOB_REQUEST_URI + "/user/search")
+                .header("Authorization", customerToken)
+                .param("cursor", "")
+                .param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(2))
+            .andExpect(jsonPath("$.content[0].title").value("Cursor Test 3"))
+            .andExpect(jsonPath("$.content[1].title").value("Cursor Test 2"))
+            .andExpect(jsonPath("$.totalElements").value(-1))
+            .andExpect(jsonPath("$.nextCursor").isString())
+            .andReturn();
+        String nextCursor = JsonPath.read(firstPage.getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(get(JOB_REQUEST_URI + "/user/search")
+                .header("Authorization", customerToken)
+                .param("cursor", nextCursor)
+                .param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.content[0].title").value("Cursor Test 1"))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    public void searchCustomerJobRequests_withInvalidCursor_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get(JOB_REQUEST_URI + "/user/search")
+                .header("Authorization", customerToken)
+                .param("cursor", "not-a-cursor"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void searchCustomerJobRequests_withCursorAndZeroLimit_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get(JOB_REQUEST_URI + "/user/search")
+                .header("Authorization", customerToken)
+                .param("cursor", PageCursor.encode(Long.MAX_VALUE))
+                .param("limit", "0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void searchWorkerJobRequests_withNegativeLimit_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get(JOB_REQUEST_URI + "/worker/search")
+                .header("Authorization", customerToken)
+                .param("limit", "-1"))
+            .andExpect(status().isBadRequest());
+    }
 }
@@ -2,6 +2,9 @@ package at.ac.tuwien.sepr.groupphase.backend.integrationtest.endpoint;
 
 import at.ac.tuwien.sepr.groupphase.backend.basetest.TestData;
 import at.ac.tuwien.sepr.groupphase.backend.security.JwtTokenizer;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestImageVariantService;
+import at.ac.tuwien.sepr.groupphase.backend.util.ContentHash;
 import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,14 +13,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -35,6 +49,12 @@ public class JobRequestImageEndpointTest implements TestData {
     @Autowired
     private JwtTokenizer jwtTokenizer;
 
+    @MockitoSpyBean
+    private BlobStore blobStore;
+
+    @Autowired
+    private JobRequestImageVariantService variantService;
+
     private String getAuthTokenFor(List<String> roles) {
         return jwtTokenizer.getAuthToken("ned", roles, -104L);
     }
@@ -158,6 +178,88 @@ public class JobRequestImageEndpointTest implements TestData {
             .andExpect(content().bytes("test image".getBytes()));
     }
 
+    @Test
+    public void getImageData_whenValid_shouldReturnContentHashAsEtag() throws Exception {
+        Long imageId = upload("cached image");
+
+        mockMvc.perform(get(JOB_REQUEST_URI + "/-106/images/" + imageId)
+                .header("Authorization", getAuthTokenFor(List.of("ROLE_CUSTOMER"))))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"" + ContentHash.sha256("cached image".getBytes()) + "\""))
+            .andExpect(header().string("Cache-Control", containsString("immutable")))
+            .andExpect(content().bytes("cached image".getBytes()));
+    }
+
+    @Test
+    public void getImageData_whenEtagMatches_shouldReturnNotModifiedWithoutReadingContent() throws Exception {
+        Long imageId = upload("cached image");
+        String etag = "\"" + ContentHash.sha256("cached image".getBytes()) + "\"";
+
+        mockMvc.perform(get(JOB_REQUEST_URI + "/-106/images/" + imageId)
+                .header("If-None-Match", etag)
+                .header("Authorization", getAuthTokenFor(List.of("ROLE_CUSTOMER"))))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", etag))
+            .andExpect(header().string("Cache-Control", containsString("immutable")))
+            .andExpect(content().bytes(new byte[0]));
+
+        verify(blobStore, never()).load(any());
+    }
+
+    @Test
+    public void getImageData_whenEtagDiffers_shouldReturnImage() throws Exception {
+        Long imageId = upload("cached image");
+
+        mockMvc.perform(get(JOB_REQUEST_URI + "/-106/images/" + imageId)
+                .header("If-None-Match", "\"" + ContentHash.sha256("other image".getBytes()) + "\"")
+                .header("Authorization", getAuthTokenFor(List.of("ROLE_CUSTOMER"))))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes("cached image".getBytes()));
+    }
+
+    @Test
+    public void getImageData_withSize_shouldServeOriginalUntilVariantIsGenerated() throws Exception {
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(1000, 600, BufferedImage.TYPE_INT_RGB), "jpeg", jpeg);
+        Long imageId = upload(jpeg.toByteArray());
+
+        mockMvc.perform(get(JOB_REQUEST_URI + "/-106/images/" + imageId)
+                .param("size", "THUMBNAIL")
+                .header("Authorization", getAuthTokenFor(List.of("ROLE_CUSTOMER"))))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", containsString("no-cache")))
+            .andExpect(content().bytes(jpeg.toByteArray()));
+
+        assertTrue(variantService.generateVariants(imageId));
+
+        byte[] thumbnail = mockMvc.perform(get(JOB_REQUEST_URI + "/-106/images/" + imageId)
+                .param("size", "THUMBNAIL")
+                .header("Authorization", getAuthTokenFor(List.of("ROLE_CUSTOMER"))))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+            .andExpect(header().string("Cache-Control", containsString("immutable")))
+            .andReturn().getResponse().getContentAsByteArray();
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(thumbnail));
+        assertEquals(200, decoded.getWidth());
+        assertEquals(120, decoded.getHeight());
+    }
+
+    private Long upload(String content) throws Exception {
+        return upload(content.getBytes());
+    }
+
+    private Long upload(byte[] content) throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "test.jpg", "image/jpeg", content);
+        MvcResult uploadResult = mockMvc.perform(multipart(JOB_REQUEST_URI + "/-106/images")
+                .file(file)
+                .param("displayPosition", "0")
+                .header("Authorization", getAuthTokenFor(List.of("ROLE_CUSTOMER")))
+                .contentType(MediaType.MULTIPART_FORM_DATA))
+            .andExpect(status().isCreated())
+            .andReturn();
+        return JsonPath.parse(uploadResult.getResponse().getContentAsString()).read("$.id", Long.class);
+    }
+
     @Test
     public void deleteImage_whenValid_shouldReturnNoContent() throws Exception {
         MockMultipartFile file = new MockMultipartFile(
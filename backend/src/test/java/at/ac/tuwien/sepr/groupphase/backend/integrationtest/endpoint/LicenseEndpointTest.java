@@ -7,7 +7,10 @@ import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.License;
 import at.ac.tuwien.sepr.groupphase.backend.repository.LicenseRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import at.ac.tuwien.sepr.groupphase.backend.service.LicenseService;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
+import at.ac.tuwien.sepr.groupphase.backend.util.ContentHash;
 import com.google.gson.Gson;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,12 +24,17 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -48,10 +56,17 @@ public class LicenseEndpointTest implements TestData {
     @Autowired
     private DatabaseCleanup cleanup;
 
+    @Autowired
+    private BlobStore blobStore;
+
+    @MockitoSpyBean
+    private LicenseService licenseService;
+
     private Long testLicenseId;
     private ApplicationUser testUser;
 
     private static final String LICENSE_URI = "/api/v1/licenses";
+    private static final byte[] LICENSE_FILE = "Dummy content".getBytes(StandardCharsets.UTF_8);
     private final Gson gson = new Gson();
 
     @BeforeEach
@@ -82,10 +97,12 @@ public class LicenseEndpointTest implements TestData {
             new UsernamePasswordAuthenticationToken("ethan", "12345678", List.of())
         );
 
+        BlobStore.StoredBlob blob = blobStore.store(new ByteArrayInputStream(LICENSE_FILE));
         License license = License.builder()
             .filename("test-license.pdf")
             .description("A test license")
-            .file("Dummy content".getBytes(StandardCharsets.UTF_8))
+            .contentHash(blob.key())
+            .contentLength(blob.size())
             .mediaType("application/pdf")
             .worker(testUser)
             .build();
@@ -209,6 +226,69 @@ public class LicenseEndpointTest implements TestData {
             .andExpect(content().contentTypeCompatibleWith("application/pdf"));
     }
 
+    @Test
+    @WithMockUser(username = "ethan", roles = {"WORKER"})
+    public void getLicenseFile_whenValid_shouldReturnContentHashAsEtag() throws Exception {
+        mockMvc.perform(get(LICENSE_URI + "/" + testLicenseId + "/file"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"" + ContentHash.sha256(LICENSE_FILE) + "\""))
+            .andExpect(header().string("Cache-Control", "no-cache, private"))
+            .andExpect(content().bytes(LICENSE_FILE));
+    }
+
+    @Test
+    @WithMockUser(username = "ethan", roles = {"WORKER"})
+    public void getLicenseFile_whenEtagMatches_shouldReturnNotModifiedWithoutLoadingFile() throws Exception {
+        mockMvc.perform(get(LICENSE_URI + "/" + testLicenseId + "/file")
+                .header("If-None-Match", "\"" + ContentHash.sha256(LICENSE_FILE) + "\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+
+        verify(licenseService, never()).downloadFileById(any());
+    }
+
+    @Test
+    @WithMockUser(username = "ethan", roles = {"WORKER"})
+    public void getLicenseFile_withRange_shouldReturnPartialContent() throws Exception {
+        mockMvc.perform(get(LICENSE_URI + "/" + testLicenseId + "/file")
+                .header("Range", "bytes=6-12"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string("Accept-Ranges", "bytes"))
+            .andExpect(header().string("Content-Range", "bytes 6-12/" + LICENSE_FILE.length))
+            .andExpect(header().string("ETag", "\"" + ContentHash.sha256(LICENSE_FILE) + "\""))
+            .andExpect(content().string("content"));
+    }
+
+    @Test
+    @WithMockUser(username = "ethan", roles = {"WORKER"})
+    public void getLicenseFile_withRangeAndMatchingIfRange_shouldReturnPartialContent() throws Exception {
+        mockMvc.perform(get(LICENSE_URI + "/" + testLicenseId + "/file")
+                .header("Range", "bytes=0-4")
+                .header("If-Range", "\"" + ContentHash.sha256(LICENSE_FILE) + "\""))
+            .andExpect(status().isPartialContent())
+            .andExpect(content().string("Dummy"));
+    }
+
+    @Test
+    @WithMockUser(username = "ethan", roles = {"WORKER"})
+    public void getLicenseFile_withRangeAndOutdatedIfRange_shouldReturnWholeFile() throws Exception {
+        mockMvc.perform(get(LICENSE_URI + "/" + testLicenseId + "/file")
+                .header("Range", "bytes=0-4")
+                .header("If-Range", "\"" + "0".repeat(64) + "\""))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Content-Range"))
+            .andExpect(header().longValue("Content-Length", LICENSE_FILE.length))
+            .andExpect(content().bytes(LICENSE_FILE));
+    }
+
+    @Test
+    @WithMockUser(username = "ethan", roles = {"WORKER"})
+    public void getLicenseFile_withUnsatisfiableRange_shouldReturnRangeNotSatisfiable() throws Exception {
+        mockMvc.perform(get(LICENSE_URI + "/" + testLicenseId + "/file")
+                .header("Range", "bytes=100-200"))
+            .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
     @Test
     @WithMockUser(username = "ethan", roles = {"WORKER"})
     public void updateLicense_whenInvalidFileType_shouldReturnBadRequest() throws Exception {
@@ -0,0 +1,223 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.endpoint;
+
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.license.LicenseListDto;
+import at.ac.tuwien.sepr.groupphase.backend.repository.LicenseRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.JwtTokenizer;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import at.ac.tuwien.sepr.groupphase.backend.util.ContentHash;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Uploads and downloads several large license files in parallel over a real HTTP connection.
+ * Besides checking every file arrives intact, it sums up what the server's request threads allocated meanwhile:
+ * streamed transfers only allocate small short-lived buffers, a transfer held in memory would allocate at least its full size.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.servlet.multipart.max-file-size=50MB",
+    "spring.servlet.multipart.max-request-size=51MB",
+    "license.max-file-size=50MB"
+})
+@ActiveProfiles({"test", "datagen"})
+public class LicenseTransferLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final int TRANSFERS = 8;
+    private static final long FILE_SIZE = DataSize.ofMegabytes(50).toBytes();
+    private static final long ETHAN_ID = -111L;
+    private static final String FILENAME_PREFIX = "transfer-";
+    private static final String BOUNDARY = "license-transfer-boundary";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtTokenizer jwtTokenizer;
+    @Autowired
+    private LicenseRepository licenseRepository;
+    @Autowired
+    private BlobStore blobStore;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @AfterEach
+    void tearDown() {
+        for (LicenseListDto license : transferredLicenses()) {
+            licenseRepository.findFileInfoById(license.getId()).ifPresent(fileInfo -> blobStore.delete(fileInfo.getContentHash()));
+            licenseRepository.deleteById(license.getId());
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void parallelUploadsAndDownloads_shouldStreamWithSmallBuffers() throws Exception {
+        String token = jwtTokenizer.getAuthToken("ethan", List.of("ROLE_WORKER"), ETHAN_ID);
+        List<String> expectedHashes = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS; i++) {
+            expectedHashes.add(ContentHash.sha256(new GeneratedContent(i, FILE_SIZE)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(TRANSFERS);
+        try {
+            Map<Long, Long> allocatedBefore = serverThreadAllocatedBytes();
+            long start = System.nanoTime();
+
+            List<Future<Integer>> uploads = new ArrayList<>();
+            for (int i = 0; i < TRANSFERS; i++) {
+                int seed = i;
+                uploads.add(executor.submit(() -> upload(token, seed)));
+            }
+            for (Future<Integer> upload : uploads) {
+                assertEquals(200, upload.get(2, TimeUnit.MINUTES));
+            }
+            long uploaded = System.nanoTime();
+
+            List<LicenseListDto> licenses = transferredLicenses();
+            assertEquals(TRANSFERS, licenses.size());
+            List<Future<String>> downloads = new ArrayList<>();
+            for (LicenseListDto license : licenses) {
+                downloads.add(executor.submit(() -> download(token, license.getId())));
+            }
+            List<String> downloadedHashes = new ArrayList<>();
+            for (Future<String> download : downloads) {
+                downloadedHashes.add(download.get(2, TimeUnit.MINUTES));
+            }
+            long downloaded = System.nanoTime();
+
+            long allocated = allocatedSince(allocatedBefore);
+            long transferred = 2 * TRANSFERS * FILE_SIZE;
+            LOGGER.info("{} parallel uploads of {} MB in {} ms, downloads in {} ms, request threads allocated {} MB for {} MB transferred",
+                TRANSFERS, DataSize.ofBytes(FILE_SIZE).toMegabytes(), TimeUnit.NANOSECONDS.toMillis(uploaded - start),
+                TimeUnit.NANOSECONDS.toMillis(downloaded - uploaded), allocated / (1024 * 1024), transferred / (1024 * 1024));
+
+            assertEquals(expectedHashes.stream().sorted().toList(), downloadedHashes.stream().sorted().toList());
+            // buffering every upload once as byte[] would alone allocate TRANSFERS * FILE_SIZE
+            assertTrue(allocated < TRANSFERS * FILE_SIZE / 2, "Request threads allocated " + allocated + " bytes");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int upload(String token, int seed) throws Exception {
+        byte[] head = ("--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"certificateInfo\"\r\n"
+            + "Content-Type: application/json\r\n\r\n"
+            + "{\"filename\":\"" + FILENAME_PREFIX + seed + ".pdf\",\"description\":\"Parallel transfer\"}\r\n"
+            + "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"certificate\"; filename=\"" + FILENAME_PREFIX + seed + ".pdf\"\r\n"
+            + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8);
+
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/v1/licenses"))
+            .header("Authorization", token)
+            .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+            .POST(HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofInputStream(() -> new SequenceInputStream(
+                new SequenceInputStream(new ByteArrayInputStream(head), new GeneratedContent(seed, FILE_SIZE)),
+                new ByteArrayInputStream(tail))), head.length + FILE_SIZE + tail.length))
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private String download(String token, Long id) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/v1/licenses/" + id + "/file"))
+            .header("Authorization", token)
+            .GET()
+            .build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        try (InputStream body = response.body()) {
+            return ContentHash.sha256(body);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private List<LicenseListDto> transferredLicenses() {
+        return licenseRepository.findListByWorkerId(ETHAN_ID).stream()
+            .filter(license -> license.getFilename().startsWith(FILENAME_PREFIX))
+            .toList();
+    }
+
+    private static Map<Long, Long> serverThreadAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Map<Long, Long> allocated = new HashMap<>();
+        Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.getName().startsWith("http-nio-"))
+            .forEach(thread -> allocated.put(thread.threadId(), threads.getThreadAllocatedBytes(thread.threadId())));
+        return allocated;
+    }
+
+    private static long allocatedSince(Map<Long, Long> before) {
+        return serverThreadAllocatedBytes().entrySet().stream()
+            .mapToLong(entry -> entry.getValue() - before.getOrDefault(entry.getKey(), 0L))
+            .sum();
+    }
+
+    /**
+     * Produces {@code size} bytes by repeating a block of pseudo random bytes chosen by the seed, without holding them all.
+     */
+    private static final class GeneratedContent extends InputStream {
+
+        private final byte[] block = new byte[64 * 1024];
+        private final long size;
+        private long position;
+
+        GeneratedContent(long seed, long size) {
+            new Random(seed).nextBytes(block);
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            if (position >= size) {
+                return -1;
+            }
+            return block[(int) (position++ % block.length)] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position >= size) {
+                return -1;
+            }
+            int offset = (int) (position % block.length);
+            int count = (int) Math.min(Math.min(len, block.length - offset), size - position);
+            System.arraycopy(block, offset, b, off, count);
+            position += count;
+            return count;
+        }
+    }
+}
@@ -7,6 +7,8 @@ import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.RatingRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.JwtTokenizer;
+import at.ac.tuwien.sepr.groupphase.backend.service.BannedUserRegistry;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -51,6 +53,12 @@ public class UserEndpointTest implements TestData {
     @Autowired
     private DatabaseCleanup cleanup;
 
+    @Autowired
+    private JwtTokenizer jwtTokenizer;
+
+    @Autowired
+    private BannedUserRegistry bannedUserRegistry;
+
     private ApplicationUser worker;
     private ApplicationUser customer;
     private ApplicationUser admin;
@@ -155,6 +163,26 @@ public class UserEndpointTest implements TestData {
             .andExpect(status().isNoContent());
     }
 
+    @Test
+    public void banUser_rejectsTokensOfBannedUserUntilUnbanned() throws Exception {
+        // the users of earlier tests were replaced directly in the database
+        bannedUserRegistry.rebuild();
+        String adminToken = jwtTokenizer.getAuthToken("admin", List.of("ROLE_ADMIN"), admin.getId());
+        String workerToken = jwtTokenizer.getAuthToken("testworker", List.of("ROLE_WORKER"), worker.getId());
+        mockMvc.perform(get("/api/v1/users/edit").header("Authorization", workerToken))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/api/v1/users/" + worker.getId() + "/ban").header("Authorization", adminToken))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/v1/users/edit").header("Authorization", workerToken))
+            .andExpect(status().isLocked());
+
+        mockMvc.perform(patch("/api/v1/users/" + worker.getId() + "/unban").header("Authorization", adminToken))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/v1/users/edit").header("Authorization", workerToken))
+            .andExpect(status().isOk());
+    }
+
     @Test
     @WithMockUser(username = "notadmin", roles = {"ADMIN"})
     public void deleteUser_whenNotAdmin_shouldReturnForbidden() throws Exception {
@@ -0,0 +1,83 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.endpoint;
+
+import at.ac.tuwien.sepr.groupphase.backend.security.JwtTokenizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "datagen"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class WebSocketMetricsTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtTokenizer jwtTokenizer;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    @Qualifier("clientOutboundChannelExecutor")
+    private ThreadPoolTaskExecutor outboundExecutor;
+
+    private WebSocketStompClient stompClient;
+
+    @AfterEach
+    void tearDown() {
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+    }
+
+    @Test
+    void outboundChannel_usesConfiguredPool() {
+        assertEquals(8, outboundExecutor.getCorePoolSize());
+        assertEquals(32, outboundExecutor.getMaxPoolSize());
+        assertEquals(10000, outboundExecutor.getQueueCapacity());
+    }
+
+    @Test
+    void subscribe_isCountedInGauges() throws Exception {
+        stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", jwtTokenizer.getAuthToken("james", List.of("ROLE_WORKER"), -109L));
+
+        StompSession session = stompClient.connectAsync("http://localhost:" + port + "/ws-chat", new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+        session.subscribe("/topic/chat/-100", new StompSessionHandlerAdapter() {
+        });
+
+        // the subscription is registered asynchronously, after the frame was handled by the inbound channel
+        await().atMost(Duration.ofSeconds(10)).until(() -> meterRegistry.get("stomp.subscriptions").gauge().value() == 1.0);
+        assertEquals(1.0, meterRegistry.get("stomp.sessions").gauge().value());
+        assertEquals(1.0, meterRegistry.get("stomp.users").gauge().value());
+        assertEquals(0.0, meterRegistry.get("stomp.channel.queued").tag("channel", "outbound").gauge().value());
+
+        session.disconnect();
+    }
+}
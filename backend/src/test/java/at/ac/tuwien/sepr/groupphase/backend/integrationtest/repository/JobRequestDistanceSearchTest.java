@@ -0,0 +1,191 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.repository;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.entity.Property;
+import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.PropertyRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.type.Category;
+import at.ac.tuwien.sepr.groupphase.backend.util.GeoBoundingBox;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.invoke.MethodHandles;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Compares the bounding-box prefiltered distance search with the unfiltered one (a box covering the whole globe)
+ * and with a brute force distance check, and logs the timings of both queries.
+ */
+@ActiveProfiles({"test", "datagen"})
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+@Transactional
+public class JobRequestDistanceSearchTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final String TITLE = "bbox-benchmark";
+    private static final int REQUESTS = 3000;
+    private static final GeoBoundingBox WORLD = new GeoBoundingBox(-90, 90, -180, 180);
+
+    @Autowired
+    private JobRequestRepository jobRequestRepository;
+    @Autowired
+    private PropertyRepository propertyRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Property> properties = new ArrayList<>();
+
+    @BeforeEach
+    void insertSpreadOutRequests() {
+        ApplicationUser customer = userRepository.findUserByUsername("marie").orElseThrow();
+        Random random = new Random(42);
+        List<JobRequest> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            Property property = propertyRepository.save(Property.builder()
+                .customer(customer)
+                .countryCode("AT")
+                .postalCode("1010")
+                .area("Wien")
+                .address("Benchmarkgasse " + i)
+                .latitude(46f + random.nextFloat() * 3f)
+                .longitude(9.5f + random.nextFloat() * 7.5f)
+                .build());
+            properties.add(property);
+            requests.add(JobRequest.builder()
+                .customer(customer)
+                .property(property)
+                .title(TITLE + " " + i)
+                .description("Spread out request")
+                .category(Category.PAINTING)
+                .deadline(LocalDate.now().plusDays(30))
+                .build());
+        }
+        jobRequestRepository.saveAll(requests);
+        jobRequestRepository.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void distanceSearch_withBoundingBox_returnsSameResultsAsWithoutPrefilter() {
+        Random random = new Random(7);
+        int[] distances = {5, 20, 50, 150, 400};
+
+        for (int run = 0; run < 20; run++) {
+            float latitude = 46f + random.nextFloat() * 3f;
+            float longitude = 9.5f + random.nextFloat() * 7.5f;
+            int distance = distances[run % distances.length];
+
+            Set<Long> boxed = search(latitude, longitude, distance, GeoBoundingBox.around(latitude, longitude, distance));
+            Set<Long> unboxed = search(latitude, longitude, distance, WORLD);
+            Set<Long> benchmarkPropertyIds = properties.stream().map(Property::getId).collect(Collectors.toSet());
+            Set<Long> bruteForce = properties.stream()
+                .filter(p -> GeoBoundingBox.distanceKm(latitude, longitude, p.getLatitude(), p.getLongitude()) < distance)
+                .map(Property::getId)
+                .collect(Collectors.toSet());
+            // datagen properties are geocoded as well, the brute force check only knows the spread out ones
+            Set<Long> boxedPropertyIds = jobRequestRepository.findAllById(boxed).stream()
+                .map(request -> request.getProperty().getId())
+                .filter(benchmarkPropertyIds::contains)
+                .collect(Collectors.toSet());
+            entityManager.clear();
+
+            assertEquals(unboxed, boxed, "bounding box must not change the result for distance " + distance);
+            assertEquals(bruteForce, boxedPropertyIds);
+        }
+    }
+
+    @Test
+    void distanceSearchBefore_walkingAllPages_returnsSameResultsAsPagedSearch() {
+        int distance = 150;
+        float latitude = 47.5f;
+        float longitude = 13f;
+        GeoBoundingBox box = GeoBoundingBox.around(latitude, longitude, distance);
+
+        List<Long> walked = new ArrayList<>();
+        long beforeId = Long.MAX_VALUE;
+        List<JobRequest> page;
+        do {
+            page = jobRequestRepository.searchOpenJobRequestsWorkerWithDistanceBefore(
+                null, null, null, latitude, longitude, distance,
+                box.minLatitude(), box.maxLatitude(), box.minLongitude(), box.maxLongitude(),
+                null, null, -109L, beforeId, Limit.of(100));
+            page.forEach(request -> walked.add(request.getId()));
+            if (!page.isEmpty()) {
+                beforeId = page.getLast().getId();
+            }
+            entityManager.clear();
+        } while (page.size() == 100);
+
+        Set<Long> expected = search(latitude, longitude, distance, box);
+        assertEquals(expected.size(), walked.size());
+        assertEquals(expected, Set.copyOf(walked));
+        assertEquals(walked.stream().sorted(Comparator.reverseOrder()).toList(), walked);
+    }
+
+    @Test
+    void distanceSearch_benchmark() {
+        int distance = 25;
+        float latitude = 47.5f;
+        float longitude = 13f;
+        GeoBoundingBox box = GeoBoundingBox.around(latitude, longitude, distance);
+
+        for (int i = 0; i < 5; i++) {
+            search(latitude, longitude, distance, box);
+            search(latitude, longitude, distance, WORLD);
+        }
+
+        int iterations = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            search(latitude, longitude, distance, box);
+        }
+        long boxedMicros = (System.nanoTime() - start) / 1000 / iterations;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            search(latitude, longitude, distance, WORLD);
+        }
+        long unboxedMicros = (System.nanoTime() - start) / 1000 / iterations;
+
+        assertFalse(search(latitude, longitude, distance, box).isEmpty());
+        LOGGER.info("Distance search ({} km) over {} requests: {} us with bounding box, {} us without",
+            distance, REQUESTS, boxedMicros, unboxedMicros);
+    }
+
+    private Set<Long> search(float latitude, float longitude, int distance, GeoBoundingBox box) {
+        // large enough for the spread out requests and the ones of the datagen profile
+        Pageable pageable = PageRequest.of(0, 2 * REQUESTS, Sort.by(Sort.Direction.DESC, "id"));
+        return jobRequestRepository.searchOpenJobRequestsWorkerWithDistance(
+                null, null, null, latitude, longitude, distance,
+                box.minLatitude(), box.maxLatitude(), box.minLongitude(), box.maxLongitude(),
+                null, null, -109L, pageable)
+            .getContent().stream()
+            .map(JobRequest::getId)
+            .collect(Collectors.toSet());
+    }
+}
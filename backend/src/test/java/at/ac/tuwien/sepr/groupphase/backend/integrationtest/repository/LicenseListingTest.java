@@ -0,0 +1,82 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.repository;
+
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.license.AdminLicenseListDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.license.LicenseListDto;
+import at.ac.tuwien.sepr.groupphase.backend.repository.LicenseRepository;
+import at.ac.tuwien.sepr.groupphase.backend.type.LicenseStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * License listings are built from projections of the metadata columns, the license files are never read.
+ */
+@ActiveProfiles({"test", "datagen"})
+@SpringBootTest
+public class LicenseListingTest {
+
+    private static final long ETHAN_ID = -111L;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void listings_shouldNotLoadLicenseEntities() {
+        List<LicenseListDto> workerLicenses = licenseRepository.findListByWorkerId(ETHAN_ID);
+        List<AdminLicenseListDto> pending = licenseRepository.findAdminListByStatus(LicenseStatus.PENDING);
+        Page<AdminLicenseListDto> approvedPage = licenseRepository.findAdminListByStatus(LicenseStatus.APPROVED, PageRequest.of(0, 1));
+        Page<AdminLicenseListDto> filteredPage = licenseRepository.findAdminListByStatusAndUsername(LicenseStatus.PENDING, "ETH", PageRequest.of(0, 10));
+
+        assertTrue(workerLicenses.stream().anyMatch(license -> "hunt_security.pdf".equals(license.getFilename())));
+        assertTrue(pending.stream().anyMatch(license -> "ethan".equals(license.getUsername())));
+        assertEquals(1, approvedPage.getContent().size());
+        assertTrue(approvedPage.getTotalElements() >= 2);
+        assertEquals(List.of("ethan"), filteredPage.getContent().stream().map(AdminLicenseListDto::getUsername).toList());
+        assertEquals("Executive Protection Specialist Certification", filteredPage.getContent().getFirst().getDescription());
+
+        // only the selected columns were read, no license or user entity was materialized
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+
+    @Test
+    void licenseTable_shouldHaveNoBlobColumns() {
+        List<String> largeObjectColumns = jdbcTemplate.queryForList(
+            "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE UPPER(TABLE_NAME) = 'LICENSE' AND DATA_TYPE LIKE '%LARGE OBJECT'",
+            String.class);
+
+        assertTrue(largeObjectColumns.isEmpty(), "License table still has large object columns: " + largeObjectColumns);
+    }
+}
@@ -0,0 +1,170 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.license.LicenseCreateDto;
+import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import at.ac.tuwien.sepr.groupphase.backend.service.ChatService;
+import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestImageService;
+import at.ac.tuwien.sepr.groupphase.backend.service.LicenseService;
+import at.ac.tuwien.sepr.groupphase.backend.type.MessageType;
+import at.ac.tuwien.sepr.groupphase.backend.type.Role;
+import at.ac.tuwien.sepr.groupphase.backend.util.ContentHash;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts references to blobs shared by job request images, license files and chat uploads and collects unreferenced ones.
+ */
+@ActiveProfiles({"test", "datagen"})
+@SpringBootTest
+@Transactional
+public class BlobServiceTest {
+
+    @Autowired
+    private BlobService blobService;
+    @Autowired
+    private JobRequestImageService jobRequestImageService;
+    @Autowired
+    private LicenseService licenseService;
+    @Autowired
+    private ChatService chatService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void uploads_withSameContent_shouldShareOneBlobCountingItsReferences() throws IOException {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            new AuthenticatedUser(-104L, "ned", Role.CUSTOMER), null, List.of()));
+        byte[] content = uniqueContent();
+        String key = ContentHash.sha256(content);
+
+        String mediaUrl = chatService.uploadImage(new MockMultipartFile("image", "photo.png", "image/png", content)).getMediaUrl();
+        jobRequestImageService.createImage(-106L, new MockMultipartFile("file", "photo.png", "image/png", content), 0);
+        licenseService.create(new LicenseCreateDto("photo.png", "shared content", "image/png"),
+            new MockMultipartFile("file", "photo.png", "image/png", content));
+
+        assertTrue(mediaUrl.endsWith("/" + key + ".png"));
+        // the chat upload is only referenced once it is sent in a message
+        assertEquals(2, referenceCount(key));
+    }
+
+    @Test
+    void collectGarbage_withBlobUnreferencedLongerThanGracePeriod_shouldDeleteIt() throws IOException {
+        BlobStore.StoredBlob blob = blobService.store(new ByteArrayInputStream(uniqueContent()));
+        blobService.acquire(blob.key());
+        blobService.release(blob.key());
+        ageBeyondGracePeriod(blob.key());
+
+        blobService.collectGarbage();
+
+        assertThrows(NotFoundException.class, () -> blobService.load(blob.key()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM blob_reference WHERE blob_key = ?", Integer.class, blob.key()));
+    }
+
+    @Test
+    void collectGarbage_withBlobWithinGracePeriod_shouldKeepIt() {
+        BlobStore.StoredBlob blob = blobService.store(new ByteArrayInputStream(uniqueContent()));
+
+        blobService.collectGarbage();
+
+        assertTrue(blobService.load(blob.key()).exists());
+    }
+
+    @Test
+    void collectGarbage_withReferencedBlobWhoseCountDrifted_shouldKeepItAndFixCount() throws IOException {
+        BlobStore.StoredBlob blob = blobService.store(new ByteArrayInputStream(uniqueContent()));
+        jdbcTemplate.update("UPDATE license SET content_hash = ? WHERE id = (SELECT MIN(id) FROM license)", blob.key());
+        ageBeyondGracePeriod(blob.key());
+
+        blobService.collectGarbage();
+
+        assertTrue(blobService.load(blob.key()).exists());
+        assertEquals(1, referenceCount(blob.key()));
+    }
+
+    @Test
+    void reconcileReferences_shouldRecountReferencesFromReferringRows() {
+        BlobStore.StoredBlob blob = blobService.store(new ByteArrayInputStream(uniqueContent()));
+        blobService.acquire(blob.key());
+        blobService.acquire(blob.key());
+        blobService.acquire(blob.key());
+        jdbcTemplate.update("UPDATE license SET content_hash = ? WHERE id = (SELECT MIN(id) FROM license)", blob.key());
+
+        blobService.reconcileReferences();
+
+        assertEquals(1, referenceCount(blob.key()));
+    }
+
+    @Test
+    void saveMessage_withMediaUrlOfBlobNotUploadedToChat_shouldNotAcquireIt() {
+        BlobStore.StoredBlob license = blobService.store(new ByteArrayInputStream(uniqueContent()));
+        BlobStore.StoredBlob upload = blobService.storeChatUpload(new ByteArrayInputStream(uniqueContent()));
+
+        sendMedia("/api/v1/chats/uploads/" + license.key() + ".pdf");
+        sendMedia("/api/v1/chats/uploads/" + upload.key() + ".png");
+
+        assertEquals(0, referenceCount(license.key()));
+        assertEquals(1, referenceCount(upload.key()));
+        assertThrows(NotFoundException.class, () -> chatService.loadUpload(license.key() + ".pdf"));
+        assertTrue(chatService.loadUpload(upload.key() + ".png").exists());
+    }
+
+    @Test
+    void reconcileReferences_shouldMarkBlobsAttachedToChatMessagesAsChatUploads() {
+        BlobStore.StoredBlob blob = blobService.store(new ByteArrayInputStream(uniqueContent()));
+        jdbcTemplate.update("UPDATE chat_message SET media_blob_key = ? WHERE id = (SELECT MIN(id) FROM chat_message)", blob.key());
+
+        blobService.reconcileReferences();
+
+        assertTrue(blobService.acquireChatUpload(blob.key()));
+        assertTrue(blobService.loadChatUpload(blob.key()).exists());
+    }
+
+    private void sendMedia(String mediaUrl) {
+        chatService.saveMessage("james", -100L, ChatMessageDto.builder()
+            .messageType(MessageType.MEDIA).message("photo").mediaName("photo").mediaUrl(mediaUrl).build());
+    }
+
+    private byte[] uniqueContent() {
+        return ("blob-" + UUID.randomUUID()).getBytes();
+    }
+
+    private int referenceCount(String key) {
+        return jdbcTemplate.queryForObject("SELECT reference_count FROM blob_reference WHERE blob_key = ?", Integer.class, key);
+    }
+
+    private void ageBeyondGracePeriod(String key) throws IOException {
+        jdbcTemplate.update("UPDATE blob_reference SET released_at = ? WHERE blob_key = ?", LocalDateTime.now().minusDays(2), key);
+        Files.setLastModifiedTime(blobService.load(key).getFile().toPath(), FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+    }
+}
@@ -0,0 +1,68 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.migration.ChatUploadMigration;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import at.ac.tuwien.sepr.groupphase.backend.util.ContentHash;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Moves chat uploads from the legacy upload directory to the blob store.
+ */
+@ActiveProfiles({"test", "datagen"})
+@SpringBootTest(properties = {"blob-store.migration.batch-size=2", "chat.upload.base-path=./target/legacy-chat-uploads"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ChatUploadMigrationTest {
+
+    @Autowired
+    private ChatUploadMigration migration;
+    @Autowired
+    private BlobStore blobStore;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Value("${chat.upload.base-url}")
+    private String uploadBaseUrl;
+
+    @Test
+    void migrate_withLegacyUploads_shouldMoveThemAndRewriteMediaUrls() throws IOException {
+        Path legacyPath = Files.createDirectories(Path.of("./target/legacy-chat-uploads"));
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM chat_message ORDER BY id LIMIT 5", Long.class);
+        for (Long id : ids) {
+            Files.write(legacyPath.resolve("legacy-" + id + ".PNG"), ("legacy-upload-" + id).getBytes());
+            jdbcTemplate.update("UPDATE chat_message SET media_url = ?, media_blob_key = NULL WHERE id = ?",
+                uploadBaseUrl + "/legacy-" + id + ".PNG", id);
+        }
+
+        int moved = migration.migrate();
+
+        assertEquals(ids.size(), moved);
+        for (Long id : ids) {
+            byte[] expected = ("legacy-upload-" + id).getBytes();
+            String key = ContentHash.sha256(expected);
+            Map<String, Object> row = jdbcTemplate.queryForMap("SELECT media_url, media_blob_key FROM chat_message WHERE id = ?", id);
+            assertEquals(uploadBaseUrl + "/" + key + ".png", row.get("MEDIA_URL"));
+            assertEquals(key, row.get("MEDIA_BLOB_KEY"));
+            assertEquals(1, jdbcTemplate.queryForObject("SELECT reference_count FROM blob_reference WHERE blob_key = ?", Integer.class, key));
+            try (InputStream in = blobStore.load(key).getInputStream()) {
+                assertArrayEquals(expected, in.readAllBytes());
+            }
+            assertFalse(Files.exists(legacyPath.resolve("legacy-" + id + ".PNG")));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.service.Geocoder;
+import at.ac.tuwien.sepr.groupphase.backend.service.impl.GeoNamesGeocoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads a GeoNames dump of 500k places into the offline index and geocodes random postal codes with it,
+ * then geocodes through the remote fallback against a local mock API answering after a fixed delay,
+ * once uncached and once cached, and logs startup time and lookup latencies.
+ */
+public class GeocoderBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final int COUNTRIES = 50;
+    private static final int POSTAL_CODES_PER_COUNTRY = 5_000;
+    private static final int PLACES_PER_POSTAL_CODE = 2;
+    private static final int LOOKUPS = 200_000;
+    private static final int REMOTE_POSTAL_CODES = 20;
+    private static final long REMOTE_LATENCY_MILLIS = 20;
+
+    @TempDir
+    private Path directory;
+
+    private HttpServer remoteApi;
+    private final AtomicInteger remoteRequests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        remoteApi = HttpServer.create(new InetSocketAddress("localhost", 0), 64);
+        remoteApi.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        remoteApi.createContext("/records", exchange -> {
+            remoteRequests.incrementAndGet();
+            try {
+                Thread.sleep(REMOTE_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"total_count\":1,\"results\":[{\"place_name\":\"Remote\",\"latitude\":47.5,\"longitude\":13.5}]}"
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        remoteApi.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        remoteApi.stop(0);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void geocode_withOfflineIndex_isFasterThanRemoteLookups() throws IOException {
+        Path dump = writeDump(directory.resolve("allCountries.txt"));
+
+        long start = System.nanoTime();
+        Geocoder offline = geocoder("file:" + dump, false);
+        long startupNanos = System.nanoTime() - start;
+
+        Random random = new Random(42);
+        int found = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (offline.locate(countryCode(random.nextInt(COUNTRIES)), postalCode(random.nextInt(POSTAL_CODES_PER_COUNTRY)), null).isPresent()) {
+                found++;
+            }
+        }
+        long offlineNanos = System.nanoTime() - start;
+        assertEquals(LOOKUPS, found);
+
+        Geocoder remote = geocoder("", true);
+        start = System.nanoTime();
+        for (int i = 0; i < REMOTE_POSTAL_CODES; i++) {
+            assertTrue(remote.locate("AT", postalCode(i), null).isPresent());
+        }
+        long uncachedNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            remote.locate("AT", postalCode(random.nextInt(REMOTE_POSTAL_CODES)), "remote");
+        }
+        long cachedNanos = System.nanoTime() - start;
+
+        double offlineMicros = offlineNanos / 1_000.0 / LOOKUPS;
+        double uncachedMicros = uncachedNanos / 1_000.0 / REMOTE_POSTAL_CODES;
+        double cachedMicros = cachedNanos / 1_000.0 / LOOKUPS;
+        LOGGER.info("Loaded {} places in {} ms", COUNTRIES * POSTAL_CODES_PER_COUNTRY * PLACES_PER_POSTAL_CODE, Duration.ofNanos(startupNanos).toMillis());
+        LOGGER.info("Offline lookup: {} us, remote lookup: {} us uncached, {} us cached",
+            String.format(Locale.ROOT, "%.2f", offlineMicros), String.format(Locale.ROOT, "%.2f", uncachedMicros), String.format(Locale.ROOT, "%.2f", cachedMicros));
+
+        assertEquals(REMOTE_POSTAL_CODES, remoteRequests.get());
+        assertTrue(offlineMicros * 10 < uncachedMicros, "offline lookups should be far faster than remote ones");
+    }
+
+    private Geocoder geocoder(String postalCodes, boolean remoteEnabled) {
+        return new GeoNamesGeocoder(new DefaultResourceLoader(), new RestTemplateBuilder(), new ObjectMapper(), new SimpleMeterRegistry(),
+            postalCodes, remoteEnabled, "http://localhost:" + remoteApi.getAddress().getPort() + "/records",
+            Duration.ofSeconds(2), 10_000, Duration.ofHours(1));
+    }
+
+    private Path writeDump(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int country = 0; country < COUNTRIES; country++) {
+                for (int postalCode = 0; postalCode < POSTAL_CODES_PER_COUNTRY; postalCode++) {
+                    for (int place = 0; place < PLACES_PER_POSTAL_CODE; place++) {
+                        writer.write(String.join("\t", countryCode(country), postalCode(postalCode), "Place " + postalCode + "-" + place,
+                            "State", "01", "County", "101", "", "", String.valueOf(40 + postalCode % 10), String.valueOf(10 + place), "4"));
+                        writer.newLine();
+                    }
+                }
+            }
+        }
+        return file;
+    }
+
+    private static String countryCode(int country) {
+        return String.valueOf((char) ('A' + country / 26)) + (char) ('A' + country % 26);
+    }
+
+    private static String postalCode(int postalCode) {
+        return String.format(Locale.ROOT, "%05d", postalCode);
+    }
+}
@@ -3,7 +3,10 @@ package at.ac.tuwien.sepr.groupphase.backend.integrationtest.service;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.joboffer.JobOfferCreateDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.joboffer.JobOfferDetailDto;
 import at.ac.tuwien.sepr.groupphase.backend.exception.OfferAlreadyExistsException;
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
 import at.ac.tuwien.sepr.groupphase.backend.service.JobOfferService;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ConstraintViolationException;
@@ -20,6 +23,7 @@ import java.nio.file.AccessDeniedException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ActiveProfiles({"test", "datagen"})
@@ -29,6 +33,10 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 public class JobOfferServiceTest {
     @Autowired
     private JobOfferService jobOfferService;
+    @Autowired
+    private JobRequestRepository jobRequestRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     @BeforeEach
     void setupSecurityContext() {
@@ -85,4 +93,39 @@ public class JobOfferServiceTest {
             jobOfferService.createJobOffer(-1108L, createDto)
         );
     }
+
+    @Test
+    void offerSummary_shouldFollowCreateUpdateAndWithdraw() throws Exception {
+        JobRequest before = reloadJobRequest(-103L);
+        assertEquals(180f, before.getLowestOfferPrice());
+        assertEquals(2, before.getPendingOfferCount());
+
+        JobOfferDetailDto offer = jobOfferService.createJobOffer(-103L, new JobOfferCreateDto(150f, null));
+        JobRequest afterCreate = reloadJobRequest(-103L);
+        assertEquals(150f, afterCreate.getLowestOfferPrice());
+        assertEquals(3, afterCreate.getPendingOfferCount());
+
+        jobOfferService.updateOffer(offer.getId(), new JobOfferCreateDto(190f, null));
+        assertEquals(180f, reloadJobRequest(-103L).getLowestOfferPrice());
+
+        jobOfferService.withdrawOffer(offer.getId());
+        JobRequest afterWithdraw = reloadJobRequest(-103L);
+        assertEquals(180f, afterWithdraw.getLowestOfferPrice());
+        assertEquals(2, afterWithdraw.getPendingOfferCount());
+    }
+
+    @Test
+    void offerSummary_whenOfferAccepted_shouldHaveNoPendingOffers() {
+        jobOfferService.acceptOffer(-208L, null);
+
+        JobRequest accepted = reloadJobRequest(-104L);
+        assertNull(accepted.getLowestOfferPrice());
+        assertEquals(0, accepted.getPendingOfferCount());
+    }
+
+    private JobRequest reloadJobRequest(Long id) {
+        entityManager.flush();
+        entityManager.clear();
+        return jobRequestRepository.findById(id).orElseThrow();
+    }
 }
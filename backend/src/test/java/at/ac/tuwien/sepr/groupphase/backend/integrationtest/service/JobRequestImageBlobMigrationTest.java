@@ -0,0 +1,68 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.migration.JobRequestImageBlobMigration;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Moves images from the legacy BLOB column to the blob store.
+ */
+@ActiveProfiles({"test", "datagen"})
+@SpringBootTest(properties = "blob-store.migration.batch-size=2")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class JobRequestImageBlobMigrationTest {
+
+    @Autowired
+    private JobRequestImageBlobMigration migration;
+    @Autowired
+    private BlobStore blobStore;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrate_withLegacyImages_shouldMoveThemInBatchesAndDropColumn() throws IOException {
+        jdbcTemplate.execute("ALTER TABLE job_request_image ADD COLUMN image BLOB");
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM job_request_image ORDER BY id LIMIT 5", Long.class);
+        for (Long id : ids) {
+            jdbcTemplate.update("UPDATE job_request_image SET image = ?, blob_key = NULL, content_length = NULL WHERE id = ?",
+                ("legacy-" + id).getBytes(), id);
+        }
+
+        int moved = migration.migrate();
+
+        assertEquals(ids.size(), moved);
+        for (Long id : ids) {
+            Map<String, Object> row = jdbcTemplate.queryForMap("SELECT blob_key, content_length FROM job_request_image WHERE id = ?", id);
+            byte[] expected = ("legacy-" + id).getBytes();
+            assertNotNull(row.get("BLOB_KEY"));
+            assertEquals((long) expected.length, ((Number) row.get("CONTENT_LENGTH")).longValue());
+            try (InputStream in = blobStore.load((String) row.get("BLOB_KEY")).getInputStream()) {
+                assertArrayEquals(expected, in.readAllBytes());
+            }
+        }
+        Integer legacyColumns = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'JOB_REQUEST_IMAGE' AND COLUMN_NAME = 'IMAGE'", Integer.class);
+        assertEquals(0, legacyColumns);
+    }
+
+    @Test
+    void migrate_withoutLegacyColumn_shouldDoNothing() {
+        assertEquals(0, migration.migrate());
+        assertTrue(jdbcTemplate.queryForList("SELECT id FROM job_request_image WHERE blob_key IS NULL", Long.class).isEmpty());
+    }
+}
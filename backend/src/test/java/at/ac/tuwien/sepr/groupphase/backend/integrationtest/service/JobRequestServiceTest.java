@@ -2,12 +2,25 @@ package at.ac.tuwien.sepr.groupphase.backend.integrationtest.service;
 
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestCreateDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestDetailDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestListDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestListWithMinPriceDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestSearchDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequest.JobRequestUpdateDto;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobOffer;
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
 import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
+import at.ac.tuwien.sepr.groupphase.backend.repository.JobOfferRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
 import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestService;
 import at.ac.tuwien.sepr.groupphase.backend.type.Category;
+import at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus;
 import at.ac.tuwien.sepr.groupphase.backend.type.JobStatus;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityKey;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,14 +29,20 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ActiveProfiles({"test", "datagen"})
 @SpringBootTest
@@ -33,6 +52,14 @@ public class JobRequestServiceTest {
 
     @Autowired
     private JobRequestService jobRequestService;
+    @Autowired
+    private JobRequestRepository jobRequestRepository;
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     @BeforeEach
     void setupSecurityContext() {
@@ -62,6 +89,54 @@ public class JobRequestServiceTest {
         assertNotNull(detailDto.getId());
     }
 
+    @Test
+    void searchJobRequestsCustomer_byTitle_shouldFindCreatedAndUpdatedRequestsByRelevance() {
+        // the text index only picks up committed changes
+        TestTransaction.end();
+        JobRequestDetailDto inTitle = jobRequestService.create(createDto("Zebrawood shelf assembly", "Mount it in the hallway"));
+        JobRequestDetailDto inDescription = jobRequestService.create(createDto("Hallway shelf", "Needs zebrawood veneer"));
+        try {
+            searchByTitle(inTitle, inDescription);
+        } finally {
+            jobRequestService.deleteById(inTitle.getId());
+            jobRequestService.deleteById(inDescription.getId());
+        }
+        assertTrue(jobRequestService.searchJobRequestsCustomer(JobRequestSearchDto.builder().title("zebrawood").build(), 0, 10).getContent().isEmpty());
+    }
+
+    @Test
+    void searchJobRequestsCustomer_byTitle_shouldNotFindRequestCreatedInUncommittedTransaction() {
+        jobRequestService.create(createDto("Quarterstaff rack", "Hang it next to the door"));
+
+        assertTrue(jobRequestService.searchJobRequestsCustomer(JobRequestSearchDto.builder().title("quarterstaff").build(), 0, 10).getContent().isEmpty());
+    }
+
+    private void searchByTitle(JobRequestDetailDto inTitle, JobRequestDetailDto inDescription) {
+        JobRequestSearchDto searchDto = JobRequestSearchDto.builder().title("zebrawood").build();
+
+        var result = jobRequestService.searchJobRequestsCustomer(searchDto, 0, 10);
+
+        assertEquals(List.of(inTitle.getId(), inDescription.getId()), result.getContent().stream().map(JobRequestListDto::getId).toList());
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(inDescription.getId()),
+            jobRequestService.searchJobRequestsCustomer(searchDto, 1, 1).getContent().stream().map(JobRequestListDto::getId).toList());
+
+        JobRequestUpdateDto updateDto = new JobRequestUpdateDto();
+        updateDto.setId(inDescription.getId());
+        updateDto.setTitle("Hallway shelf");
+        updateDto.setDescription("Needs walnut veneer");
+        updateDto.setCategory(Category.CARPENTRY);
+        updateDto.setDeadline(LocalDate.now().plusDays(10));
+        updateDto.setStatus(JobStatus.PENDING);
+        jobRequestService.update(updateDto);
+
+        assertEquals(List.of(inTitle.getId()),
+            jobRequestService.searchJobRequestsCustomer(searchDto, 0, 10).getContent().stream().map(JobRequestListDto::getId).toList());
+        assertEquals(List.of(inDescription.getId()),
+            jobRequestService.searchJobRequestsCustomerByCursor(JobRequestSearchDto.builder().title("walnut hall").build(), null, 10)
+                .getContent().stream().map(JobRequestListDto::getId).toList());
+    }
+
     @Test
     void createJobRequest_withNonExistingProperty_shouldThrowNotFoundException() {
         JobRequestCreateDto createDto = new JobRequestCreateDto();
@@ -143,12 +218,61 @@ public class JobRequestServiceTest {
     }
 
     @Test
-    void findAll_shouldReturnList() {
-        UsernamePasswordAuthenticationToken auth =
-            new UsernamePasswordAuthenticationToken("ethan", "12345678");
-        SecurityContextHolder.getContext().setAuthentication(auth);
+    void streamAllOpen_shouldExcludeOwnPendingOffersAndReportLowestPrice() {
+        JobRequestDetailDto offeredByOthers = jobRequestService.create(createDto("Stream test offered by others", "Two offers"));
+        JobRequestDetailDto offeredByJames = jobRequestService.create(createDto("Stream test offered by james", "One offer"));
+        JobRequestDetailDto withoutOffers = jobRequestService.create(createDto("Stream test without offers", "No offer"));
+        ApplicationUser james = userRepository.findUserByUsername("james").orElseThrow();
+        ApplicationUser sarah = userRepository.findUserByUsername("sarah").orElseThrow();
+        offer(offeredByOthers.getId(), sarah, 120.0f, JobOfferStatus.PENDING);
+        offer(offeredByOthers.getId(), sarah, 80.0f, JobOfferStatus.PENDING);
+        offer(offeredByOthers.getId(), james, 50.0f, JobOfferStatus.WITHDRAWN);
+        offer(offeredByJames.getId(), james, 100.0f, JobOfferStatus.PENDING);
+        entityManager.clear();
 
-        var list = jobRequestService.findAllOpen();
-        assertNotNull(list);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("james", "12345678"));
+        List<JobRequestListWithMinPriceDto> open = new ArrayList<>();
+        jobRequestService.streamAllOpen(open::add);
+
+        Map<Long, Float> lowestPrices = open.stream().collect(Collectors.toMap(JobRequestListWithMinPriceDto::getId, JobRequestListWithMinPriceDto::getLowestPrice));
+        assertEquals(80.0f, lowestPrices.get(offeredByOthers.getId()));
+        assertEquals(0.0f, lowestPrices.get(withoutOffers.getId()));
+        assertFalse(lowestPrices.containsKey(offeredByJames.getId()));
+        assertTrue(open.stream().allMatch(request -> request.getStatus() == JobStatus.PENDING));
+        // only projections are read, no job requests or offers are attached to the persistence context
+        assertTrue(entityManager.unwrap(Session.class).getStatistics().getEntityKeys().stream()
+            .map(EntityKey.class::cast)
+            .noneMatch(key -> key.getEntityName().equals(JobRequest.class.getName()) || key.getEntityName().equals(JobOffer.class.getName())));
+    }
+
+    @Test
+    void streamAll_shouldPassPendingRequestsWithAddress() {
+        JobRequestDetailDto created = jobRequestService.create(createDto("Stream all test", "Pending"));
+
+        List<JobRequestListDto> all = new ArrayList<>();
+        jobRequestService.streamAll(all::add);
+
+        assertTrue(all.stream().anyMatch(request -> request.getId().equals(created.getId())));
+        assertTrue(all.stream().allMatch(request -> request.getStatus() == JobStatus.PENDING));
+    }
+
+    private void offer(Long jobRequestId, ApplicationUser worker, float price, JobOfferStatus status) {
+        jobOfferRepository.save(JobOffer.builder()
+            .jobRequest(entityManager.getReference(JobRequest.class, jobRequestId))
+            .worker(worker)
+            .price(price)
+            .status(status)
+            .build());
+        jobRequestRepository.refreshOfferSummary(jobRequestId);
+    }
+
+    private JobRequestCreateDto createDto(String title, String description) {
+        JobRequestCreateDto createDto = new JobRequestCreateDto();
+        createDto.setTitle(title);
+        createDto.setDescription(description);
+        createDto.setCategory(Category.CARPENTRY);
+        createDto.setDeadline(LocalDate.now().plusDays(10));
+        createDto.setStatus(JobStatus.PENDING);
+        return createDto;
     }
 }
@@ -0,0 +1,59 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.migration.LicenseBlobMigration;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Moves license files from the legacy BLOB column to the blob store.
+ */
+@ActiveProfiles({"test", "datagen"})
+@SpringBootTest(properties = "blob-store.migration.batch-size=2")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class LicenseBlobMigrationTest {
+
+    @Autowired
+    private LicenseBlobMigration migration;
+    @Autowired
+    private BlobStore blobStore;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrate_withLegacyFiles_shouldMoveThemAndDropColumn() throws IOException {
+        jdbcTemplate.execute("ALTER TABLE license ADD COLUMN file BLOB");
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM license ORDER BY id", Long.class);
+        for (Long id : ids) {
+            jdbcTemplate.update("UPDATE license SET file = ?, content_hash = NULL, content_length = NULL WHERE id = ?",
+                ("legacy-license-" + id).getBytes(), id);
+        }
+
+        int moved = migration.migrate();
+
+        assertEquals(ids.size(), moved);
+        for (Long id : ids) {
+            Map<String, Object> row = jdbcTemplate.queryForMap("SELECT content_hash, content_length FROM license WHERE id = ?", id);
+            byte[] expected = ("legacy-license-" + id).getBytes();
+            assertEquals((long) expected.length, ((Number) row.get("CONTENT_LENGTH")).longValue());
+            try (InputStream in = blobStore.load((String) row.get("CONTENT_HASH")).getInputStream()) {
+                assertArrayEquals(expected, in.readAllBytes());
+            }
+        }
+        Integer legacyColumns = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'LICENSE' AND COLUMN_NAME = 'FILE'", Integer.class);
+        assertEquals(0, legacyColumns);
+    }
+}
@@ -0,0 +1,179 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.basetest.TestPushSubscriptions;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.entity.NotificationOutbox;
+import at.ac.tuwien.sepr.groupphase.backend.entity.PushSubscription;
+import at.ac.tuwien.sepr.groupphase.backend.repository.NotificationOutboxRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.PushSubscriptionRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.NotificationDispatcher;
+import at.ac.tuwien.sepr.groupphase.backend.service.PushNotificationService;
+import at.ac.tuwien.sepr.groupphase.backend.type.OutboxStatus;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delivers queued notifications to a local stub push service.
+ */
+@ActiveProfiles({"test", "datagen"})
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+@Transactional
+public class NotificationOutboxTest {
+
+    @Autowired
+    private PushNotificationService pushNotificationService;
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+    @Autowired
+    private PushSubscriptionRepository pushSubscriptionRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private HttpServer pushServer;
+    private final AtomicInteger responseStatus = new AtomicInteger(201);
+    private final List<String> receivedEncodings = new CopyOnWriteArrayList<>();
+
+    private ApplicationUser worker;
+    private PushSubscription subscription;
+    private JobRequest jobRequest;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pushServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        pushServer.createContext("/push", exchange -> {
+            receivedEncodings.add(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(responseStatus.get(), -1);
+            exchange.close();
+        });
+        pushServer.start();
+
+        notificationOutboxRepository.deleteAll();
+        worker = userRepository.findUserByUsername("james").orElseThrow();
+        subscription = pushSubscriptionRepository.save(TestPushSubscriptions.create(worker, "http://localhost:" + pushServer.getAddress().getPort() + "/push/device-1"));
+        jobRequest = JobRequest.builder().id(1L).title("Paint the hallway").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pushServer.stop(0);
+    }
+
+    @Test
+    void notify_shouldOnlyQueueAndDispatcherShouldDeliverToPushService() {
+        pushNotificationService.notifyWorkerOfAccept(worker, jobRequest);
+
+        List<NotificationOutbox> queued = notificationOutboxRepository.findByStatus(OutboxStatus.PENDING);
+        assertEquals(1, queued.size());
+        assertEquals("Your offer for Paint the hallway was accepted", queued.getFirst().getBody());
+        assertTrue(receivedEncodings.isEmpty());
+
+        assertEquals(1, notificationDispatcher.dispatchPending());
+
+        assertEquals(List.of("aes128gcm"), receivedEncodings);
+        assertTrue(notificationOutboxRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void dispatchPending_whenPushServiceFails_shouldRetryAfterBackoff() {
+        responseStatus.set(500);
+        pushNotificationService.notifyWorkerOfAccept(worker, jobRequest);
+
+        notificationDispatcher.dispatchPending();
+
+        NotificationOutbox pending = notificationOutboxRepository.findByStatus(OutboxStatus.PENDING).getFirst();
+        assertEquals(1, pending.getAttempts());
+        assertTrue(pending.getLastError().contains("500"));
+        assertTrue(pending.getNextAttemptAt().isAfter(LocalDateTime.now()));
+
+        // not due yet
+        assertEquals(0, notificationDispatcher.dispatchPending());
+
+        responseStatus.set(201);
+        pending.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        notificationOutboxRepository.save(pending);
+        assertEquals(1, notificationDispatcher.dispatchPending());
+
+        assertEquals(2, receivedEncodings.size());
+        assertTrue(notificationOutboxRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void dispatchPending_whenSubscriptionExpired_shouldRemoveSubscription() {
+        responseStatus.set(410);
+        pushNotificationService.notifyWorkerOfAccept(worker, jobRequest);
+        pushNotificationService.notifyWorkerOfLicenseApproved(worker);
+
+        assertEquals(2, notificationDispatcher.dispatchPending());
+        entityManager.clear();
+
+        assertTrue(pushSubscriptionRepository.findById(subscription.getId()).isEmpty());
+        assertTrue(notificationOutboxRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void dispatchPending_whenPushServiceRecovers_shouldResetFailureCount() {
+        responseStatus.set(503);
+        pushNotificationService.notifyWorkerOfAccept(worker, jobRequest);
+        notificationDispatcher.dispatchPending();
+        entityManager.clear();
+
+        PushSubscription failing = pushSubscriptionRepository.findById(subscription.getId()).orElseThrow();
+        assertEquals(1, failing.getFailureCount());
+        assertTrue(failing.getBackoffUntil().isAfter(LocalDateTime.now()));
+
+        failing.setBackoffUntil(LocalDateTime.now().minusSeconds(1));
+        pushSubscriptionRepository.saveAndFlush(failing);
+        NotificationOutbox pending = notificationOutboxRepository.findByStatus(OutboxStatus.PENDING).getFirst();
+        pending.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        notificationOutboxRepository.saveAndFlush(pending);
+        responseStatus.set(201);
+        notificationDispatcher.dispatchPending();
+        entityManager.clear();
+
+        assertEquals(0, pushSubscriptionRepository.findById(subscription.getId()).orElseThrow().getFailureCount());
+    }
+
+    @Test
+    void purgeDead_shouldOnlyDeleteDeadNotificationsOlderThanRetention() {
+        pushNotificationService.notifyWorkerOfAccept(worker, jobRequest);
+        pushNotificationService.notifyWorkerOfLicenseApproved(worker);
+        pushNotificationService.notifyWorkerOfLicenseApproved(worker);
+        List<NotificationOutbox> queued = notificationOutboxRepository.findAll();
+        queued.forEach(notification -> notification.setCreatedAt(LocalDateTime.now().minusDays(30)));
+        queued.get(0).setStatus(OutboxStatus.DEAD);
+        queued.get(1).setStatus(OutboxStatus.DEAD);
+        queued.get(1).setCreatedAt(LocalDateTime.now().minusDays(1));
+        notificationOutboxRepository.saveAllAndFlush(queued);
+
+        assertEquals(1, notificationDispatcher.purgeDead());
+
+        assertEquals(Stream.of(queued.get(1).getId(), queued.get(2).getId()).sorted().toList(),
+            notificationOutboxRepository.findAll().stream().map(NotificationOutbox::getId).sorted().toList());
+    }
+}
@@ -0,0 +1,107 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
+import at.ac.tuwien.sepr.groupphase.backend.entity.Chat;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ChatMessage;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ChatParticipantSummary;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ChatMessageRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ChatParticipantSummaryRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ChatRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.ReadReceiptService;
+import at.ac.tuwien.sepr.groupphase.backend.type.MessageType;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles({"test", "datagen"})
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+@Transactional
+public class ReadReceiptServiceTest {
+
+    @Autowired
+    private ReadReceiptService readReceiptService;
+    @Autowired
+    private ChatRepository chatRepository;
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+    @Autowired
+    private ChatParticipantSummaryRepository chatParticipantSummaryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Chat chat;
+    private ApplicationUser james;
+
+    @BeforeEach
+    void setUp() {
+        // chat -100 between marie and james
+        chat = chatRepository.findById(-100L).orElseThrow();
+        james = userRepository.findUserByUsername("james").orElseThrow();
+        readReceiptService.flushPending();
+    }
+
+    @Test
+    void repeatedReadEvents_areAppliedOnce() {
+        ChatMessage first = sendAsJames("Are you there?");
+        ChatMessage second = sendAsJames("Hello?");
+
+        readReceiptService.markRead("marie", -100L);
+        readReceiptService.markRead("marie", -100L);
+        readReceiptService.markRead("marie", -100L);
+
+        assertEquals(1, readReceiptService.flushPending());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(chatMessageRepository.findById(first.getId()).orElseThrow().isRead());
+        assertTrue(chatMessageRepository.findById(second.getId()).orElseThrow().isRead());
+        ChatParticipantSummary marie = chatParticipantSummaryRepository.findByChat_IdAndParticipant_Id(-100L, -101L).orElseThrow();
+        assertEquals(second.getId(), marie.getLastReadMessageId());
+        assertEquals(0, marie.getUnreadCount());
+        assertNull(chatParticipantSummaryRepository.findByChat_IdAndParticipant_Id(-100L, -109L).orElseThrow().getLastReadMessageId());
+    }
+
+    @Test
+    void readEvent_doesNotMarkOwnMessagesAsRead() {
+        ChatMessage fromJames = sendAsJames("See you tomorrow");
+
+        readReceiptService.markRead("james", -100L);
+        readReceiptService.flushPending();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertFalse(chatMessageRepository.findById(fromJames.getId()).orElseThrow().isRead());
+        assertEquals(-93L, chatParticipantSummaryRepository.findByChat_IdAndParticipant_Id(-100L, -109L).orElseThrow().getLastReadMessageId());
+    }
+
+    @Test
+    void readEvent_ofNonParticipant_isRejected() {
+        assertThrows(AccessDeniedException.class, () -> readReceiptService.markRead("sarah", -100L));
+        assertEquals(0, readReceiptService.flushPending());
+    }
+
+    private ChatMessage sendAsJames(String text) {
+        return chatMessageRepository.save(ChatMessage.builder()
+            .chat(chat)
+            .sender(james)
+            .messageType(MessageType.TEXT)
+            .message(text)
+            .build());
+    }
+}
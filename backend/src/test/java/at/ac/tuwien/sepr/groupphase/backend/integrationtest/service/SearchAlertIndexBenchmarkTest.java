@@ -0,0 +1,202 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.entity.Property;
+import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.PropertyRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.SearchAlertIndex;
+import at.ac.tuwien.sepr.groupphase.backend.type.Category;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.invoke.MethodHandles;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Matches job requests against search alerts with the {@link SearchAlertIndex} and with a reference
+ * query evaluating every alert in the database and checks that both find the same alerts.
+ * The default run compares them on a few thousand alerts, the runs with 100k alerts are tagged as benchmark
+ * and only run with {@code -Pbenchmark}.
+ */
+@ActiveProfiles({"test", "datagen"})
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+@Transactional
+public class SearchAlertIndexBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final int WORKERS = 2_000;
+    private static final int ALERTS = 100_000;
+    private static final int FEW_WORKERS = 100;
+    private static final int FEW_ALERTS = 2_000;
+    private static final int REQUESTS = 20;
+    private static final long FIRST_ID = 1_000_000;
+    private static final String[] WORDS = {
+        "paint", "wall", "sink", "leak", "roof", "tile", "floor", "garden", "hedge", "move", "piano", "kitchen",
+        "bathroom", "window", "door", "fence", "lamp", "socket", "heater", "boiler", "shower", "stairs", "attic",
+        "cellar", "parquet", "carpet", "wardrobe", "shelf", "lawn", "gutter", "chimney", "balcony", "terrace"
+    };
+    private static final Integer[] DISTANCES = {null, null, null, 5, 10, 25, 50, 100, 300, 2000};
+
+    /**
+     * The matching rules of {@link SearchAlertIndex#findMatchingAlertIds} as a query over all alerts,
+     * which is how the alerts were matched before the index.
+     */
+    private static final String REFERENCE_QUERY = """
+        SELECT DISTINCT sa.id FROM search_alert sa
+        JOIN app_user w ON sa.worker_id = w.id
+        JOIN job_request jr ON jr.id = ?
+        JOIN property p ON jr.property_id = p.id
+        LEFT JOIN search_alert_categories sac ON sac.id = sa.id
+        WHERE (
+            NOT EXISTS (SELECT 1 FROM search_alert_categories sac2 WHERE sac2.id = sa.id)
+            OR sac.category = jr.category
+          )
+          AND (
+            sa.keywords IS NULL
+            OR LOWER(jr.title) LIKE CONCAT('%', LOWER(sa.keywords), '%')
+            OR LOWER(jr.description) LIKE CONCAT('%', LOWER(sa.keywords), '%')
+          )
+          AND (
+            sa.max_distance IS NULL OR
+                (
+                    (p.latitude IS NOT NULL AND p.longitude IS NOT NULL AND
+                    w.latitude IS NOT NULL AND w.longitude IS NOT NULL)
+                    AND (6371 * acos(cos(radians(w.latitude)) * cos(radians(p.latitude)) * cos(radians(p.longitude) - radians(w.longitude)) + sin(radians(w.latitude)) * sin(radians(p.latitude)))) < sa.max_distance
+                )
+            )
+        """;
+
+    @Autowired
+    private SearchAlertIndex searchAlertIndex;
+    @Autowired
+    private JobRequestRepository jobRequestRepository;
+    @Autowired
+    private PropertyRepository propertyRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findMatchingAlertIds_matchesReferenceQuery() {
+        assertMatchesReferenceQuery(insertAlertsAndRequests(FEW_WORKERS, FEW_ALERTS));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void findMatchingAlertIds_with100kAlerts_matchesReferenceQuery() {
+        assertMatchesReferenceQuery(insertAlertsAndRequests(WORKERS, ALERTS));
+    }
+
+    private void assertMatchesReferenceQuery(List<JobRequest> requests) {
+        int matches = 0;
+        for (JobRequest request : requests) {
+            Set<Long> indexed = Set.copyOf(searchAlertIndex.findMatchingAlertIds(request));
+            Set<Long> reference = Set.copyOf(jdbcTemplate.queryForList(REFERENCE_QUERY, Long.class, request.getId()));
+            assertEquals(reference, indexed, "index and reference query differ for request " + request.getTitle());
+            matches += indexed.size();
+        }
+        assertTrue(matches > 0);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void findMatchingAlertIds_with100kAlerts_isFasterThanReferenceQuery() {
+        List<JobRequest> requests = insertAlertsAndRequests(WORKERS, ALERTS);
+
+        long start = System.nanoTime();
+        for (JobRequest request : requests) {
+            searchAlertIndex.findMatchingAlertIds(request);
+        }
+        long indexMicros = (System.nanoTime() - start) / 1000 / REQUESTS;
+        start = System.nanoTime();
+        for (JobRequest request : requests) {
+            jdbcTemplate.queryForList(REFERENCE_QUERY, Long.class, request.getId());
+        }
+        long queryMicros = (System.nanoTime() - start) / 1000 / REQUESTS;
+
+        LOGGER.info("Matching a job request against {} search alerts: {} us with the index, {} us with the query", ALERTS, indexMicros, queryMicros);
+        assertTrue(indexMicros < queryMicros);
+    }
+
+    private List<JobRequest> insertAlertsAndRequests(int workerCount, int alertCount) {
+        Random random = new Random(42);
+        insertAlerts(random, workerCount, alertCount);
+        searchAlertIndex.rebuild();
+        entityManager.clear();
+        return insertRequests(random);
+    }
+
+    private void insertAlerts(Random random, int workerCount, int alertCount) {
+        List<Object[]> workers = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            Float latitude = random.nextInt(20) == 0 ? null : 46.5f + random.nextFloat() * 2.5f;
+            Float longitude = latitude == null ? null : 9.5f + random.nextFloat() * 7.5f;
+            workers.add(new Object[] {FIRST_ID + i, "bench-worker-" + i, "password", "bench-worker-" + i + "@test.com", "WORKER", latitude, longitude});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO app_user (id, username, password, email, role, latitude, longitude, banned) VALUES (?, ?, ?, ?, ?, ?, ?, FALSE)", workers);
+
+        Category[] categories = Category.values();
+        List<Object[]> alerts = new ArrayList<>();
+        List<Object[]> alertCategories = new ArrayList<>();
+        for (int i = 0; i < alertCount; i++) {
+            long id = FIRST_ID + i;
+            String keywords = random.nextInt(3) == 0 ? null : WORDS[random.nextInt(WORDS.length)];
+            alerts.add(new Object[] {id, FIRST_ID + random.nextInt(workerCount), keywords, DISTANCES[random.nextInt(DISTANCES.length)]});
+            int categoryCount = random.nextInt(3);
+            for (int c = 0; c < categoryCount; c++) {
+                alertCategories.add(new Object[] {id, categories[(i + c) % categories.length].name()});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO search_alert (id, worker_id, keywords, max_distance, active, count) VALUES (?, ?, ?, ?, TRUE, 0)", alerts);
+        jdbcTemplate.batchUpdate("INSERT INTO search_alert_categories (id, category) VALUES (?, ?)", alertCategories);
+    }
+
+    private List<JobRequest> insertRequests(Random random) {
+        ApplicationUser customer = userRepository.findUserByUsername("marie").orElseThrow();
+        Category[] categories = Category.values();
+        List<JobRequest> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            Property property = propertyRepository.save(Property.builder()
+                .customer(customer)
+                .countryCode("AT")
+                .postalCode("1010")
+                .area("Wien")
+                .address("Benchmarkgasse " + i)
+                .latitude(46.5f + random.nextFloat() * 2.5f)
+                .longitude(9.5f + random.nextFloat() * 7.5f)
+                .build());
+            requests.add(jobRequestRepository.save(JobRequest.builder()
+                .customer(customer)
+                .property(property)
+                .title(WORDS[random.nextInt(WORDS.length)] + " and " + WORDS[random.nextInt(WORDS.length)])
+                .description("Please also check the " + WORDS[random.nextInt(WORDS.length)])
+                .category(categories[random.nextInt(categories.length)])
+                .deadline(LocalDate.now().plusDays(30))
+                .build()));
+        }
+        jobRequestRepository.flush();
+        return requests;
+    }
+}
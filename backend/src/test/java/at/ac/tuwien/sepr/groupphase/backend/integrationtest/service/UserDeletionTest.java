@@ -0,0 +1,215 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
+import at.ac.tuwien.sepr.groupphase.backend.entity.Chat;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ChatMessage;
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobOffer;
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.entity.License;
+import at.ac.tuwien.sepr.groupphase.backend.entity.Rating;
+import at.ac.tuwien.sepr.groupphase.backend.entity.Report;
+import at.ac.tuwien.sepr.groupphase.backend.event.ChatParticipantsChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.event.JobRequestChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.event.UserBanChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ChatParticipantSummaryRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.PropertyRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.PushSubscriptionRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ReportRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestImageService;
+import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
+import at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus;
+import at.ac.tuwien.sepr.groupphase.backend.type.JobStatus;
+import at.ac.tuwien.sepr.groupphase.backend.type.Role;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deletes every customer and worker of the datagen profile once with the set-based deletion and once with the
+ * entity-by-entity reassignment it replaced, each in a transaction that is rolled back, and compares all tables.
+ */
+@ActiveProfiles({"test", "datagen"})
+@SpringBootTest
+public class UserDeletionTest {
+
+    // set to the time of the deletion, so only whether it is set is compared
+    private static final Set<String> TIMESTAMP_COLUMNS = Set.of("RELEASED_AT");
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PushSubscriptionRepository pushSubscriptionRepository;
+    @Autowired
+    private PropertyRepository propertyRepository;
+    @Autowired
+    private JobRequestRepository jobRequestRepository;
+    @Autowired
+    private ReportRepository reportRepository;
+    @Autowired
+    private ChatParticipantSummaryRepository chatParticipantSummaryRepository;
+    @Autowired
+    private JobRequestImageService jobRequestImageService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void deleteUserByUsername_shouldLeaveSameRowsAsEntityByEntityDeletion() {
+        // deleting a reported pending job request entity by entity failed on the reference from the report
+        List<String> usernames = jdbcTemplate.queryForList("""
+            SELECT u.username FROM app_user u
+            WHERE u.role IN ('CUSTOMER', 'WORKER') AND u.username <> 'deleted user'
+              AND NOT EXISTS (SELECT 1 FROM job_request j JOIN report r ON r.job_request_id = j.id WHERE j.customer_id = u.id AND j.status = 'PENDING')
+            ORDER BY u.id
+            """, String.class);
+        assertTrue(usernames.containsAll(List.of("marie", "james", "sarah")));
+
+        for (String username : usernames) {
+            Map<String, List<String>> expected = deleteAndRollBack(() -> deleteEntityByEntity(username));
+            Map<String, List<String>> actual = deleteAndRollBack(() -> userService.deleteUserByUsername(username));
+
+            assertEquals(expected.keySet(), actual.keySet());
+            for (String table : expected.keySet()) {
+                assertEquals(expected.get(table), actual.get(table), "rows of " + table + " after deleting " + username);
+            }
+        }
+    }
+
+    @Test
+    void deleteUserByUsername_withReportedPendingJobRequest_shouldHideIt() {
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.deleteUserByUsername("ellen");
+            entityManager.flush();
+
+            Map<String, Object> reported = jdbcTemplate.queryForMap("SELECT status, customer_id, property_id FROM job_request WHERE id = -103");
+            assertEquals("HIDDEN", reported.get("STATUS"));
+            assertEquals(-100L, reported.get("CUSTOMER_ID"));
+            assertNull(reported.get("PROPERTY_ID"));
+            assertEquals(-103L, jdbcTemplate.queryForObject("SELECT job_request_id FROM report WHERE id = -100", Long.class));
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM app_user WHERE username = 'ellen'", Integer.class));
+            status.setRollbackOnly();
+        });
+    }
+
+    private Map<String, List<String>> deleteAndRollBack(Runnable deletion) {
+        return transactionTemplate.execute(status -> {
+            deletion.run();
+            entityManager.flush();
+            Map<String, List<String>> tables = snapshot();
+            status.setRollbackOnly();
+            return tables;
+        });
+    }
+
+    private Map<String, List<String>> snapshot() {
+        Map<String, List<String>> tables = new TreeMap<>();
+        for (String table : jdbcTemplate.queryForList(
+            "SELECT table_name FROM information_schema.tables WHERE table_schema = 'PUBLIC' AND table_type = 'BASE TABLE'", String.class)) {
+            tables.put(table, jdbcTemplate.queryForList("SELECT * FROM " + table).stream()
+                .map(row -> {
+                    Map<String, Object> columns = new TreeMap<>(row);
+                    TIMESTAMP_COLUMNS.forEach(column -> columns.computeIfPresent(column, (name, value) -> "set"));
+                    return columns.toString();
+                })
+                .sorted()
+                .toList());
+        }
+        return tables;
+    }
+
+    /**
+     * The deletion as it was before it was done with bulk statements: every row of the user is loaded and
+     * reassigned or deleted on its own.
+     */
+    private void deleteEntityByEntity(String username) {
+        // deleting the push subscriptions clears the persistence context, so the user is loaded afterwards
+        pushSubscriptionRepository.deleteByUser(userRepository.findUserByUsername(username).orElseThrow());
+        ApplicationUser user = userRepository.findUserByUsername(username).orElseThrow();
+        ApplicationUser deletedUser = userRepository.findUserByUsername("deleted user").orElseThrow();
+
+        entityManager.createQuery("SELECT r FROM Rating r WHERE r.fromUser = :user", Rating.class).setParameter("user", user)
+            .getResultList().forEach(rating -> rating.setFromUser(deletedUser));
+        entityManager.createQuery("SELECT r FROM Rating r WHERE r.toUser = :user", Rating.class).setParameter("user", user)
+            .getResultList().forEach(rating -> rating.setToUser(deletedUser));
+        for (Report report : reportRepository.findAllByReporter(user)) {
+            report.setReporter(deletedUser);
+        }
+        for (Report report : reportRepository.findAllByTarget(user)) {
+            report.setTarget(deletedUser);
+        }
+        chatParticipantSummaryRepository.deleteAllByParticipant(user);
+        eventPublisher.publishEvent(new ChatParticipantsChangedEvent(null));
+        eventPublisher.publishEvent(new UserBanChangedEvent(username, false));
+
+        if (user.getRole() == Role.CUSTOMER) {
+            for (JobRequest jobRequest : user.getJobRequests()) {
+                jobRequest.setProperty(null);
+                if (jobRequest.getStatus() == JobStatus.PENDING) {
+                    jobRequestImageService.releaseImageContent(jobRequest.getId());
+                    jobRequestRepository.delete(jobRequest);
+                } else {
+                    if (jobRequest.getStatus() == JobStatus.ACCEPTED) {
+                        jobRequest.setStatus(JobStatus.DONE);
+                        for (JobOffer offer : jobRequest.getReceivedJobOffers()) {
+                            if (offer.getStatus() == JobOfferStatus.ACCEPTED) {
+                                offer.setStatus(JobOfferStatus.DONE);
+                            }
+                        }
+                    }
+                    jobRequest.setCustomer(deletedUser);
+                }
+            }
+            eventPublisher.publishEvent(new JobRequestChangedEvent(null));
+            propertyRepository.deleteAll(user.getProperties());
+            reassignChats(user.getCustomerChats(), user, deletedUser, true);
+        } else if (user.getRole() == Role.WORKER) {
+            for (JobOffer offer : user.getSentJobOffers()) {
+                offer.setWorker(deletedUser);
+            }
+            for (License license : user.getLicenses()) {
+                license.setWorker(deletedUser);
+            }
+            reassignChats(user.getWorkerChats(), user, deletedUser, false);
+        }
+
+        userRepository.delete(user);
+    }
+
+    private void reassignChats(List<Chat> chats, ApplicationUser user, ApplicationUser deletedUser, boolean customer) {
+        for (Chat chat : chats) {
+            if (customer) {
+                chat.setCustomer(deletedUser);
+            } else {
+                chat.setWorker(deletedUser);
+            }
+            for (ChatMessage message : chat.getChatMessages()) {
+                if (message.getSender() != null && message.getSender().equals(user)) {
+                    message.setSender(deletedUser);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package at.ac.tuwien.sepr.groupphase.backend.integrationtest.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.basetest.TestPushSubscriptions;
+import at.ac.tuwien.sepr.groupphase.backend.entity.PushSubscription;
+import at.ac.tuwien.sepr.groupphase.backend.service.impl.WebPushServiceImpl;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Broadcasts a notification to many subscriptions of a local mock push service, which answers after a fixed delay
+ * like a remote push service would, once one by one and once with the concurrent fan-out, and logs the timings.
+ */
+public class WebPushFanOutBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final int SUBSCRIPTIONS = 200;
+    private static final long PUSH_SERVICE_LATENCY_MILLIS = 50;
+
+    private HttpServer pushServer;
+    private final AtomicInteger received = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private WebPushServiceImpl webPushService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pushServer = HttpServer.create(new InetSocketAddress("localhost", 0), 256);
+        pushServer.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        pushServer.createContext("/push", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(PUSH_SERVICE_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.incrementAndGet();
+            exchange.sendResponseHeaders(201, -1);
+            exchange.close();
+        });
+        pushServer.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        webPushService = new WebPushServiceImpl(meterRegistry, 64, 32, Duration.ofSeconds(5), Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        webPushService.close();
+        pushServer.stop(0);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void sendPayload_toManySubscriptions_isFasterThanSendingOneByOne() {
+        List<PushSubscription> subscriptions = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIPTIONS; i++) {
+            subscriptions.add(TestPushSubscriptions.create(null, "http://localhost:" + pushServer.getAddress().getPort() + "/push/device-" + i));
+        }
+
+        // warm up encryption and connections, this also decodes and caches every subscriber key
+        CompletableFuture.allOf(subscriptions.stream()
+            .map(subscription -> webPushService.sendPayload(subscription, webPushService.createPayload("Warm up", "", "/", "warm-up")))
+            .toArray(CompletableFuture[]::new)).join();
+
+        long start = System.nanoTime();
+        for (PushSubscription subscription : subscriptions) {
+            webPushService.sendPayload(subscription,
+                webPushService.createPayload("New job request", "A new job matches your saved search.", "/worker/saved-searches", "saved-1")).join();
+        }
+        long serialMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        byte[] payload = webPushService.createPayload("New job request", "A new job matches your saved search.", "/worker/saved-searches", "saved-1");
+        CompletableFuture.allOf(subscriptions.stream()
+            .map(subscription -> webPushService.sendPayload(subscription, payload))
+            .toArray(CompletableFuture[]::new)).join();
+        long fanOutMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(3 * SUBSCRIPTIONS, received.get());
+        Timer delivered = meterRegistry.get("push.delivery").tag("outcome", "delivered").timer();
+        assertEquals(3 * SUBSCRIPTIONS, delivered.count());
+
+        LOGGER.info("Sending to {} subscriptions with {} ms push service latency: {} ms one by one, {} ms fan-out ({} notifications/s), mean latency {} ms",
+            SUBSCRIPTIONS, PUSH_SERVICE_LATENCY_MILLIS, serialMillis, fanOutMillis, SUBSCRIPTIONS * 1000L / Math.max(fanOutMillis, 1),
+            Math.round(delivered.mean(TimeUnit.MILLISECONDS)));
+        assertTrue(fanOutMillis * 2 < serialMillis);
+    }
+}
@@ -2,6 +2,7 @@ package at.ac.tuwien.sepr.groupphase.backend.unittests.service;
 
 import at.ac.tuwien.sepr.groupphase.backend.entity.Chat;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ChatMessage;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ChatParticipantSummary;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobOffer;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
@@ -9,25 +10,39 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.CreatedChatDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageDetailDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageActionNotification;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessageDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatMessagePayloadDto;
+import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.chat.ChatParticipantsDto;
+import at.ac.tuwien.sepr.groupphase.backend.event.ChatParticipantsChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.exception.InvalidCursorException;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import at.ac.tuwien.sepr.groupphase.backend.service.ChatParticipantCache;
+import at.ac.tuwien.sepr.groupphase.backend.service.impl.CaffeineChatParticipantCache;
 import at.ac.tuwien.sepr.groupphase.backend.service.impl.ChatServiceImpl;
-import at.ac.tuwien.sepr.groupphase.backend.endpoint.mapper.ChatMapper;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.mapper.ChatMessageMapper;
 import at.ac.tuwien.sepr.groupphase.backend.repository.ChatRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.ChatMessageRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ChatParticipantSummaryRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobOfferRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.ReportRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
 import at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus;
+import at.ac.tuwien.sepr.groupphase.backend.type.MessageType;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.LinkedList;
 import java.util.List;
@@ -43,13 +58,17 @@ import org.springframework.security.access.AccessDeniedException;
 class ChatServiceTest {
 
     @Mock ChatRepository chatRepository;
-    @Mock ChatMapper chatMapper;
     @Mock ChatMessageRepository chatMessageRepository;
     @Mock ChatMessageMapper chatMessageMapper;
     @Mock UserService userService;
     @Mock JobRequestRepository jobRequestRepository;
     @Mock JobOfferRepository jobOfferRepository;
     @Mock ReportRepository reportRepository;
+    @Mock ChatParticipantSummaryRepository chatParticipantSummaryRepository;
+    @Mock UserRepository userRepository;
+    @Mock ApplicationEventPublisher eventPublisher;
+    @Mock BlobService blobService;
+    @Spy ChatParticipantCache chatParticipantCache = new CaffeineChatParticipantCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
 
     @InjectMocks
     ChatServiceImpl chatService;
@@ -58,6 +77,7 @@ class ChatServiceTest {
     ApplicationUser worker;
     JobRequest jobRequest;
     Chat existingChat;
+    ChatParticipantsDto participants;
 
     @BeforeEach
     void setUp() {
@@ -71,6 +91,7 @@ class ChatServiceTest {
             .worker(worker)
             .chatMessages(new LinkedList<>())
             .build();
+        participants = new ChatParticipantsDto(100L, customer.getId(), customer.getUsername(), worker.getId(), worker.getUsername());
     }
 
     @Test
@@ -118,21 +139,140 @@ class ChatServiceTest {
 
     @Test
     void getChatMessages_noChat_throwsEntityNotFound() {
-        when(chatRepository.findById(999L)).thenReturn(Optional.empty());
+        when(chatRepository.findParticipants(999L)).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class,
-            () -> chatService.getChatMessages(customer, 999L)
+            () -> chatService.getChatMessages(customer, 999L, null, 20)
         );
     }
 
     @Test
-    void isMember_returnsTrueForParticipant() {
+    void getChatMessages_before_continuesFromCursorMessage() {
+        LocalDateTime timestamp = LocalDateTime.now();
+        ChatMessage cursor = ChatMessage.builder().id(50L).chat(existingChat).sender(customer).timestamp(timestamp).build();
+        List<ChatMessageDetailDto> page = List.of(ChatMessageDetailDto.builder().id(49L).build());
+        when(chatRepository.findParticipants(100L)).thenReturn(Optional.of(participants));
+        when(chatMessageRepository.findChatMessageByIdAndChat_Id(50L, 100L)).thenReturn(Optional.of(cursor));
+        when(chatMessageRepository.findMessagesBefore(100L, timestamp, 50L, Limit.of(20))).thenReturn(page);
+
+        assertThat(chatService.getChatMessages(customer, 100L, 50L, 20)).isEqualTo(page);
+        verify(chatMessageRepository, never()).findLatestMessages(any(), any());
+    }
+
+    @Test
+    void getChatMessages_limitTooLarge_isCapped() {
+        when(chatRepository.findParticipants(100L)).thenReturn(Optional.of(participants));
+        when(chatMessageRepository.findLatestMessages(100L, Limit.of(200))).thenReturn(List.of());
+
+        assertThat(chatService.getChatMessages(worker, 100L, null, 10_000)).isEmpty();
+    }
+
+    @Test
+    void getChatMessagesSince_cursorOfOtherChat_throwsInvalidCursor() {
+        when(chatRepository.findParticipants(100L)).thenReturn(Optional.of(participants));
+        when(chatMessageRepository.findChatMessageByIdAndChat_Id(7L, 100L)).thenReturn(Optional.empty());
+
+        assertThrows(InvalidCursorException.class,
+            () -> chatService.getChatMessagesSince(customer, 100L, 7L, 20)
+        );
+    }
+
+    @Test
+    void getChatMessagesSince_notParticipant_throwsAccessDenied() {
+        when(chatRepository.findParticipants(100L)).thenReturn(Optional.of(participants));
+        ApplicationUser other = ApplicationUser.builder().id(99L).role(Role.CUSTOMER).build();
+
+        assertThrows(AccessDeniedException.class,
+            () -> chatService.getChatMessagesSince(other, 100L, 50L, 20)
+        );
+    }
+
+    @Test
+    void setMessagesToRead_nothingNewSinceLastRead_doesNotUpdate() {
+        when(chatRepository.findParticipants(100L)).thenReturn(Optional.of(participants));
+        when(chatParticipantSummaryRepository.findByChat_IdAndParticipant_Id(100L, worker.getId()))
+            .thenReturn(Optional.of(ChatParticipantSummary.builder().lastReadMessageId(42L).build()));
+        when(chatMessageRepository.findLatestMessageIdNotSentBy(100L, worker.getId())).thenReturn(42L);
+
+        assertThat(chatService.setMessagesToRead(worker.getUsername(), 100L)).isFalse();
+        verify(chatMessageRepository, never()).markReadUpTo(any(), any(), any());
+        verify(chatParticipantSummaryRepository, never()).recordRead(any(), any(), any());
+    }
+
+    @Test
+    void setMessagesToRead_newMessages_movesWatermarkOfReader() {
+        when(chatRepository.findParticipants(100L)).thenReturn(Optional.of(participants));
+        when(chatParticipantSummaryRepository.findByChat_IdAndParticipant_Id(100L, worker.getId()))
+            .thenReturn(Optional.of(ChatParticipantSummary.builder().lastReadMessageId(42L).build()));
+        when(chatMessageRepository.findLatestMessageIdNotSentBy(100L, worker.getId())).thenReturn(45L);
+        when(chatMessageRepository.markReadUpTo(100L, worker.getId(), 45L)).thenReturn(3);
+
+        assertThat(chatService.setMessagesToRead(worker.getUsername(), 100L)).isTrue();
+        verify(chatParticipantSummaryRepository).recordRead(100L, worker.getId(), 45L);
+    }
+
+    @Test
+    void saveMessage_recordsMessageInSummaryOfRecipient() {
+        ChatMessageDto dto = ChatMessageDto.builder().messageType(MessageType.TEXT).message("hi").build();
+        when(chatRepository.findParticipants(100L)).thenReturn(Optional.of(participants));
+        when(chatMessageMapper.dtoToEntity(dto)).thenReturn(ChatMessage.builder().messageType(MessageType.TEXT).message("hi").build());
+        when(chatMessageRepository.save(any(ChatMessage.class))).thenAnswer(inv -> {
+            ChatMessage m = inv.getArgument(0);
+            m.setId(77L);
+            return m;
+        });
+        when(chatMessageMapper.entityToPayloadDtoOfSender(any(ChatMessage.class), eq(worker.getUsername())))
+            .thenReturn(ChatMessagePayloadDto.builder().id(77L).build());
+
+        assertThat(chatService.saveMessage(worker.getUsername(), 100L, dto).getId()).isEqualTo(77L);
+
+        verify(chatParticipantSummaryRepository).recordMessage(eq(100L), eq(worker.getId()), eq(77L), eq("hi"), any(LocalDateTime.class));
+        verify(userRepository).getReferenceById(worker.getId());
+        verify(chatRepository).getReferenceById(100L);
+    }
+
+    @Test
+    void saveMessage_repeatedly_loadsParticipantsOnce() {
+        ChatMessageDto dto = ChatMessageDto.builder().messageType(MessageType.TEXT).message("hi").build();
+        when(chatRepository.findParticipants(100L)).thenReturn(Optional.of(participants));
+        when(chatMessageMapper.dtoToEntity(dto)).thenAnswer(inv -> ChatMessage.builder().messageType(MessageType.TEXT).message("hi").build());
+        when(chatMessageRepository.save(any(ChatMessage.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        chatService.saveMessage(worker.getUsername(), 100L, dto);
+        chatService.saveMessage(customer.getUsername(), 100L, dto);
+
+        verify(chatRepository, times(1)).findParticipants(100L);
+        verify(chatRepository, never()).findById(any());
+        verify(userService, never()).findUserByUsername(any());
+    }
+
+    @Test
+    void saveMessage_notParticipant_throwsAccessDenied() {
+        when(chatRepository.findParticipants(100L)).thenReturn(Optional.of(participants));
+
+        assertThrows(AccessDeniedException.class,
+            () -> chatService.saveMessage("other", 100L, ChatMessageDto.builder().messageType(MessageType.TEXT).message("hi").build())
+        );
+        verify(chatMessageRepository, never()).save(any());
+    }
+
+    @Test
+    void deleteChat_participant_evictsParticipantsOfChat() {
         when(chatRepository.findById(100L)).thenReturn(Optional.of(existingChat));
+
+        chatService.deleteChat(customer, 100L);
+
+        verify(eventPublisher).publishEvent(new ChatParticipantsChangedEvent(100L));
+    }
+
+    @Test
+    void isMember_returnsTrueForParticipant() {
+        when(chatRepository.findParticipants(100L)).thenReturn(Optional.of(participants));
         assertThat(chatService.isMember(100L, customer.getUsername())).isTrue();
     }
 
     @Test
     void getOtherChatParticipant_returnsCorrectName() {
-        when(chatRepository.findById(100L)).thenReturn(Optional.of(existingChat));
+        when(chatRepository.findParticipants(100L)).thenReturn(Optional.of(participants));
         String other = chatService.getOtherChatParticipant(100L, customer.getUsername());
         assertThat(other).isEqualTo(worker.getUsername());
     }
@@ -0,0 +1,140 @@
+package at.ac.tuwien.sepr.groupphase.backend.unittests.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import at.ac.tuwien.sepr.groupphase.backend.service.impl.FileSystemBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileSystemBlobStoreTest {
+
+    private static final byte[] CONTENT = "image-content".getBytes();
+
+    @TempDir
+    private Path basePath;
+
+    private FileSystemBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        blobStore = new FileSystemBlobStore(basePath);
+    }
+
+    @Test
+    void store_shouldReturnContentHashAndSize() {
+        BlobStore.StoredBlob blob = blobStore.store(new ByteArrayInputStream(CONTENT));
+
+        assertEquals(64, blob.key().length());
+        assertEquals(CONTENT.length, blob.size());
+        assertTrue(Files.isRegularFile(basePath.resolve(blob.key().substring(0, 2)).resolve(blob.key().substring(2, 4)).resolve(blob.key())));
+    }
+
+    @Test
+    void store_withSameContentTwice_shouldKeepOneCopy() throws IOException {
+        BlobStore.StoredBlob first = blobStore.store(new ByteArrayInputStream(CONTENT));
+        BlobStore.StoredBlob second = blobStore.store(new ByteArrayInputStream(CONTENT));
+
+        assertEquals(first.key(), second.key());
+        try (Stream<Path> files = Files.walk(basePath)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void store_withDifferentContent_shouldUseDifferentKeys() {
+        BlobStore.StoredBlob first = blobStore.store(new ByteArrayInputStream(CONTENT));
+        BlobStore.StoredBlob second = blobStore.store(new ByteArrayInputStream("other".getBytes()));
+
+        assertNotEquals(first.key(), second.key());
+    }
+
+    @Test
+    void load_shouldStreamStoredContent() throws IOException {
+        BlobStore.StoredBlob blob = blobStore.store(new ByteArrayInputStream(CONTENT));
+
+        Resource resource = blobStore.load(blob.key());
+
+        assertEquals(CONTENT.length, resource.contentLength());
+        try (InputStream in = resource.getInputStream()) {
+            assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void load_withUnknownKey_shouldThrowNotFoundException() {
+        assertThrows(NotFoundException.class, () -> blobStore.load("0".repeat(64)));
+    }
+
+    @Test
+    void load_withInvalidKey_shouldThrowNotFoundException() {
+        assertThrows(NotFoundException.class, () -> blobStore.load("../application.yml"));
+    }
+
+    @Test
+    void delete_shouldRemoveContent() {
+        BlobStore.StoredBlob blob = blobStore.store(new ByteArrayInputStream(CONTENT));
+
+        blobStore.delete(blob.key());
+
+        assertThrows(NotFoundException.class, () -> blobStore.load(blob.key()));
+    }
+
+    @Test
+    void deleteIfStoredBefore_withOldContent_shouldRemoveIt() throws IOException {
+        BlobStore.StoredBlob blob = blobStore.store(new ByteArrayInputStream(CONTENT));
+        Path file = blobStore.load(blob.key()).getFile().toPath();
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        assertTrue(blobStore.deleteIfStoredBefore(blob.key(), Instant.now().minus(Duration.ofDays(1))));
+        assertThrows(NotFoundException.class, () -> blobStore.load(blob.key()));
+    }
+
+    @Test
+    void deleteIfStoredBefore_withContentStoredAgain_shouldKeepIt() throws IOException {
+        BlobStore.StoredBlob blob = blobStore.store(new ByteArrayInputStream(CONTENT));
+        Path file = blobStore.load(blob.key()).getFile().toPath();
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        blobStore.store(new ByteArrayInputStream(CONTENT));
+
+        assertFalse(blobStore.deleteIfStoredBefore(blob.key(), Instant.now().minus(Duration.ofDays(1))));
+        try (InputStream in = blobStore.load(blob.key()).getInputStream()) {
+            assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void deleteIfStoredBefore_withUnknownKey_shouldReturnFalse() {
+        assertFalse(blobStore.deleteIfStoredBefore("0".repeat(64), Instant.now()));
+    }
+
+    @Test
+    void keys_shouldListStoredBlobsOnly() throws IOException {
+        BlobStore.StoredBlob first = blobStore.store(new ByteArrayInputStream(CONTENT));
+        BlobStore.StoredBlob second = blobStore.store(new ByteArrayInputStream("other".getBytes()));
+        Files.writeString(basePath.resolve("notes.txt"), "not a blob");
+
+        try (Stream<String> keys = blobStore.keys()) {
+            assertEquals(List.of(first.key(), second.key()).stream().sorted().toList(), keys.sorted().toList());
+        }
+    }
+}
@@ -11,6 +11,7 @@ import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
 import at.ac.tuwien.sepr.groupphase.backend.exception.OfferAlreadyExistsException;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobOfferRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
 import at.ac.tuwien.sepr.groupphase.backend.service.PushNotificationService;
 import at.ac.tuwien.sepr.groupphase.backend.service.RatingService;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
@@ -29,6 +30,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDate;
@@ -68,6 +70,9 @@ class JobOfferServiceTest {
     @Mock
     private RatingService ratingService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private JobOfferServiceImpl jobOfferService;
 
@@ -253,7 +258,7 @@ class JobOfferServiceTest {
         jobOffer.setStatus(JobOfferStatus.PENDING);
 
         when(userService.getCurrentUser()).thenReturn(worker);
-        when(jobOfferRepository.findAllByWorkerIdWithJobRequestAndOffers(worker.getId()))
+        when(jobOfferRepository.findAllByWorkerIdWithJobRequest(worker.getId()))
             .thenReturn(List.of(jobOffer));
         when(jobOfferMapper.jobOfferToSummaryDto(any(JobOffer.class))).thenReturn(new JobOfferSummaryDto());
 
@@ -280,7 +285,7 @@ class JobOfferServiceTest {
         jobOffer.setJobRequest(acceptedRequest);
         jobOffer.setStatus(JobOfferStatus.ACCEPTED);
 
-        when(userService.getCurrentUser()).thenReturn(customer);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(customer));
         when(jobOfferRepository.findAllForCustomerWithWorker(customer.getId()))
             .thenReturn(List.of(jobOffer));
 
@@ -300,7 +305,7 @@ class JobOfferServiceTest {
     @Test
     void getOffersForCustomer_invalidRole_shouldThrowAccessDeniedException() {
         worker.setRole(Role.WORKER);
-        when(userService.getCurrentUser()).thenReturn(worker);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(worker));
 
         assertThrows(AccessDeniedException.class, () -> jobOfferService.getOffersForCustomer());
     }
@@ -422,8 +427,8 @@ class JobOfferServiceTest {
 
         jobRequest.setReceivedJobOffers(List.of(jobOffer, hiddenOffer));
 
-        when(userService.getCurrentUser()).thenReturn(worker);
-        when(jobOfferRepository.findAllByWorkerIdWithJobRequestAndOffers(worker.getId()))
+        when(userService.getAuthenticatedUser()).thenReturn(principal(worker));
+        when(jobOfferRepository.findAllByWorkerIdWithJobRequest(worker.getId()))
             .thenReturn(List.of(jobOffer, hiddenOffer));
         when(jobOfferMapper.jobOfferToSummaryDto(jobOffer)).thenReturn(new JobOfferSummaryDto());
 
@@ -441,7 +446,7 @@ class JobOfferServiceTest {
         JobOffer withdrawnOffer = JobOffer.builder().id(2L).status(JobOfferStatus.WITHDRAWN).jobRequest(jobRequest).worker(worker).build();
         jobRequest.setReceivedJobOffers(List.of(pendingOffer, withdrawnOffer));
 
-        when(userService.getCurrentUser()).thenReturn(customer);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(customer));
         when(jobOfferRepository.findAllForCustomerWithWorker(customer.getId())).thenReturn(List.of(pendingOffer, withdrawnOffer));
         when(ratingService.getRatingStats(any(Long.class))).thenReturn(new at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.rating.RatingStatsDto(5.0f, 1));
         when(jobOfferMapper.jobOfferToDetailDtoWithWorker(any(JobOffer.class), anyFloat())).thenReturn(new JobOfferDetailWithUsernameDto());
@@ -455,7 +460,7 @@ class JobOfferServiceTest {
 
     @Test
     void getOffersForCustomer_noOffers_shouldReturnEmptyList() throws AccessDeniedException {
-        when(userService.getCurrentUser()).thenReturn(customer);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(customer));
         when(jobOfferRepository.findAllForCustomerWithWorker(customer.getId())).thenReturn(Collections.emptyList());
 
         var result = jobOfferService.getOffersForCustomer();
@@ -482,4 +487,8 @@ class JobOfferServiceTest {
 
         assertThrows(IllegalStateException.class, () -> jobOfferService.withdrawOffer(1L));
     }
-}
\ No newline at end of file
+
+    private static AuthenticatedUser principal(ApplicationUser user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+    }
+}
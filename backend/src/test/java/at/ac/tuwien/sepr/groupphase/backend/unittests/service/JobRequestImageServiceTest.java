@@ -3,20 +3,28 @@ package at.ac.tuwien.sepr.groupphase.backend.unittests.service;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequestimage.JobRequestImageDataDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.jobrequestimage.JobRequestImageDetailDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.mapper.JobRequestImageMapper;
+import at.ac.tuwien.sepr.groupphase.backend.entity.ImageVariant;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequestImage;
+import at.ac.tuwien.sepr.groupphase.backend.event.JobRequestImageCreatedEvent;
 import at.ac.tuwien.sepr.groupphase.backend.exception.ImageLimitExceededException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.ImageValidationException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestImageRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
 import at.ac.tuwien.sepr.groupphase.backend.service.impl.JobRequestImageServiceImpl;
+import at.ac.tuwien.sepr.groupphase.backend.type.ImageSize;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -26,6 +34,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +49,12 @@ public class JobRequestImageServiceTest {
     @Mock
     private JobRequestImageMapper imageMapper;
 
+    @Mock
+    private BlobService blobService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private JobRequestImageServiceImpl imageService;
 
@@ -47,6 +62,7 @@ public class JobRequestImageServiceTest {
     private static final Long IMAGE_ID = 1L;
     private static final String VALID_IMAGE_TYPE = "image/jpeg";
     private static final byte[] IMAGE_DATA = "image-data".getBytes();
+    private static final String BLOB_KEY = "a".repeat(64);
 
     private JobRequest jobRequest;
     private JobRequestImage image;
@@ -62,6 +78,8 @@ public class JobRequestImageServiceTest {
             .id(IMAGE_ID)
             .jobRequest(jobRequest)
             .imageType(VALID_IMAGE_TYPE)
+            .blobKey(BLOB_KEY)
+            .contentLength((long) IMAGE_DATA.length)
             .displayPosition(1)
             .build();
 
@@ -79,6 +97,7 @@ public class JobRequestImageServiceTest {
         // Setup
         when(jobRequestRepository.findById(JOB_REQUEST_ID)).thenReturn(Optional.of(jobRequest));
         when(imageRepository.countByJobRequestId(JOB_REQUEST_ID)).thenReturn(3);
+        when(blobService.store(any())).thenReturn(new BlobStore.StoredBlob(BLOB_KEY, IMAGE_DATA.length));
         when(imageRepository.save(any(JobRequestImage.class))).thenReturn(image);
         when(imageMapper.toDetailDto(image)).thenReturn(new JobRequestImageDetailDto());
 
@@ -87,7 +106,9 @@ public class JobRequestImageServiceTest {
 
         // Verify
         assertNotNull(result);
-        verify(imageRepository).save(any(JobRequestImage.class));
+        verify(imageRepository).save(argThat(saved -> BLOB_KEY.equals(saved.getBlobKey()) && saved.getContentLength() == IMAGE_DATA.length));
+        verify(blobService).acquire(BLOB_KEY);
+        verify(eventPublisher).publishEvent(new JobRequestImageCreatedEvent(IMAGE_ID));
         verify(imageRepository).findByJobRequestIdOrderByDisplayPositionAsc(JOB_REQUEST_ID);
         verify(imageMapper).toDetailDto(image);
     }
@@ -126,7 +147,7 @@ public class JobRequestImageServiceTest {
         MultipartFile corruptFile = mock(MultipartFile.class);
         when(corruptFile.getContentType()).thenReturn(VALID_IMAGE_TYPE);
         when(corruptFile.getSize()).thenReturn(1024L);
-        when(corruptFile.getBytes()).thenThrow(new IOException("Read error"));
+        when(corruptFile.getInputStream()).thenThrow(new IOException("Read error"));
 
         when(jobRequestRepository.findById(JOB_REQUEST_ID)).thenReturn(Optional.of(jobRequest));
         when(imageRepository.countByJobRequestId(JOB_REQUEST_ID)).thenReturn(3);
@@ -162,19 +183,57 @@ public class JobRequestImageServiceTest {
     }
 
     @Test
-    void getImageData_withValidIds_shouldReturnDataDto() {
+    void getImageData_withValidIds_shouldReturnDataDtoWithoutReadingContent() {
         // Setup
         when(imageRepository.findByJobRequestIdAndId(JOB_REQUEST_ID, IMAGE_ID))
             .thenReturn(Optional.of(image));
-        image.setImage(IMAGE_DATA);
 
         // Execute
-        JobRequestImageDataDto result = imageService.getImageData(JOB_REQUEST_ID, IMAGE_ID);
+        JobRequestImageDataDto result = imageService.getImageData(JOB_REQUEST_ID, IMAGE_ID, ImageSize.ORIGINAL);
 
         // Verify
         assertNotNull(result);
-        assertEquals(IMAGE_DATA, result.getImageData());
+        assertEquals(BLOB_KEY, result.getContentHash());
+        assertEquals(IMAGE_DATA.length, result.getContentLength());
         assertEquals(VALID_IMAGE_TYPE, result.getContentType());
+        verifyNoInteractions(blobService);
+    }
+
+    @Test
+    void getImageData_withGeneratedVariant_shouldDescribeVariant() {
+        String thumbnailKey = "b".repeat(64);
+        image.setThumbnail(new ImageVariant(thumbnailKey, 42L));
+        when(imageRepository.findByJobRequestIdAndId(JOB_REQUEST_ID, IMAGE_ID))
+            .thenReturn(Optional.of(image));
+
+        JobRequestImageDataDto result = imageService.getImageData(JOB_REQUEST_ID, IMAGE_ID, ImageSize.THUMBNAIL);
+
+        assertEquals(thumbnailKey, result.getContentHash());
+        assertEquals(42L, result.getContentLength());
+        assertEquals(VALID_IMAGE_TYPE, result.getContentType());
+        assertEquals(ImageSize.THUMBNAIL, result.getSize());
+    }
+
+    @Test
+    void getImageData_withVariantNotGeneratedYet_shouldDescribeOriginal() {
+        when(imageRepository.findByJobRequestIdAndId(JOB_REQUEST_ID, IMAGE_ID))
+            .thenReturn(Optional.of(image));
+
+        JobRequestImageDataDto result = imageService.getImageData(JOB_REQUEST_ID, IMAGE_ID, ImageSize.MEDIUM);
+
+        assertEquals(BLOB_KEY, result.getContentHash());
+        assertEquals(IMAGE_DATA.length, result.getContentLength());
+        assertEquals(ImageSize.ORIGINAL, result.getSize());
+    }
+
+    @Test
+    void getImageContent_shouldLoadBlobByContentHash() {
+        Resource content = new ByteArrayResource(IMAGE_DATA);
+        when(blobService.load(BLOB_KEY)).thenReturn(content);
+
+        Resource result = imageService.getImageContent(new JobRequestImageDataDto(BLOB_KEY, VALID_IMAGE_TYPE, IMAGE_DATA.length, ImageSize.ORIGINAL));
+
+        assertEquals(content, result);
     }
 
     @Test
@@ -183,26 +242,59 @@ public class JobRequestImageServiceTest {
             .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () ->
-            imageService.getImageData(JOB_REQUEST_ID, IMAGE_ID)
+            imageService.getImageData(JOB_REQUEST_ID, IMAGE_ID, ImageSize.ORIGINAL)
         );
     }
 
     @Test
-    void deleteImage_withValidIds_shouldDelete() {
-        when(imageRepository.existsByJobRequestIdAndId(JOB_REQUEST_ID, IMAGE_ID))
-            .thenReturn(true);
+    void deleteImage_withValidIds_shouldDeleteImageAndReleaseBlob() {
+        when(imageRepository.findByJobRequestIdAndId(JOB_REQUEST_ID, IMAGE_ID))
+            .thenReturn(Optional.of(image));
 
         assertDoesNotThrow(() ->
             imageService.deleteImage(JOB_REQUEST_ID, IMAGE_ID)
         );
 
-        verify(imageRepository).deleteById(IMAGE_ID);
+        verify(imageRepository).delete(image);
+        verify(blobService).release(BLOB_KEY);
+        verifyNoMoreInteractions(blobService);
+    }
+
+    @Test
+    void deleteImage_withVariants_shouldReleaseVariantBlobs() {
+        String mediumKey = "b".repeat(64);
+        String thumbnailKey = "c".repeat(64);
+        image.setMedium(new ImageVariant(mediumKey, 2L));
+        image.setThumbnail(new ImageVariant(thumbnailKey, 1L));
+        when(imageRepository.findByJobRequestIdAndId(JOB_REQUEST_ID, IMAGE_ID))
+            .thenReturn(Optional.of(image));
+
+        imageService.deleteImage(JOB_REQUEST_ID, IMAGE_ID);
+
+        verify(blobService).release(BLOB_KEY);
+        verify(blobService).release(mediumKey);
+        verify(blobService).release(thumbnailKey);
+    }
+
+    @Test
+    void releaseImageContent_shouldReleaseAllImagesOfJobRequest() {
+        JobRequestImage other = new JobRequestImage();
+        other.setBlobKey("d".repeat(64));
+        other.setThumbnail(new ImageVariant("e".repeat(64), 1L));
+        when(imageRepository.findByJobRequestIdOrderByDisplayPositionAsc(JOB_REQUEST_ID)).thenReturn(List.of(image, other));
+
+        imageService.releaseImageContent(JOB_REQUEST_ID);
+
+        verify(blobService).release(BLOB_KEY);
+        verify(blobService).release("d".repeat(64));
+        verify(blobService).release("e".repeat(64));
+        verifyNoMoreInteractions(blobService);
     }
 
     @Test
     void deleteImage_whenImageNotFound_shouldThrowNotFoundException() {
-        when(imageRepository.existsByJobRequestIdAndId(JOB_REQUEST_ID, IMAGE_ID))
-            .thenReturn(false);
+        when(imageRepository.findByJobRequestIdAndId(JOB_REQUEST_ID, IMAGE_ID))
+            .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () ->
             imageService.deleteImage(JOB_REQUEST_ID, IMAGE_ID)
@@ -230,6 +322,7 @@ public class JobRequestImageServiceTest {
         when(imageRepository.countByJobRequestId(JOB_REQUEST_ID)).thenReturn(3);
         when(imageRepository.findByJobRequestIdOrderByDisplayPositionAsc(JOB_REQUEST_ID))
             .thenReturn(existingImages);
+        when(blobService.store(any())).thenReturn(new BlobStore.StoredBlob(BLOB_KEY, IMAGE_DATA.length));
         when(imageRepository.save(any(JobRequestImage.class))).thenAnswer(invocation -> {
             JobRequestImage newImage = invocation.getArgument(0);
             newImage.setId(4L);
@@ -0,0 +1,300 @@
+package at.ac.tuwien.sepr.groupphase.backend.unittests.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequestImage;
+import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestImageRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
+import at.ac.tuwien.sepr.groupphase.backend.service.impl.FileSystemBlobStore;
+import at.ac.tuwien.sepr.groupphase.backend.service.impl.JobRequestImageVariantServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JobRequestImageVariantServiceTest {
+
+    private static final Long IMAGE_ID = 1L;
+
+    @Mock
+    private JobRequestImageRepository imageRepository;
+
+    @TempDir
+    private Path blobPath;
+
+    @Mock
+    private BlobService blobService;
+
+    private BlobStore blobStore;
+    private JobRequestImageVariantServiceImpl variantService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        blobStore = new FileSystemBlobStore(blobPath);
+        // content is kept in a real blob store, only the reference counts are mocked
+        lenient().when(blobService.store(any())).thenAnswer(invocation -> blobStore.store(invocation.getArgument(0)));
+        lenient().when(blobService.load(anyString())).thenAnswer(invocation -> blobStore.load(invocation.getArgument(0)));
+        variantService = new JobRequestImageVariantServiceImpl(imageRepository, blobService, new SimpleMeterRegistry(), 1, 1, 0.85f, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        variantService.close();
+    }
+
+    @Test
+    void generateVariants_withLargeJpeg_shouldStoreScaledJpegs() throws IOException {
+        givenImage(encode(image(1600, 1000, false), "jpeg"), "image/jpeg");
+        when(imageRepository.updateVariants(eq(IMAGE_ID), anyString(), anyLong(), anyString(), anyLong())).thenReturn(1);
+
+        assertTrue(variantService.generateVariants(IMAGE_ID));
+
+        Variants variants = capturedVariants();
+        assertDimensions(variants.medium, 800, 500);
+        assertDimensions(variants.thumbnail, 200, 125);
+        assertTrue(isJpeg(variants.medium));
+        assertTrue(isJpeg(variants.thumbnail));
+    }
+
+    @Test
+    void generateVariants_withTransparentPng_shouldKeepPngWithAlpha() throws IOException {
+        givenImage(encode(image(1000, 1000, true), "png"), "image/png");
+        when(imageRepository.updateVariants(eq(IMAGE_ID), anyString(), anyLong(), anyString(), anyLong())).thenReturn(1);
+
+        assertTrue(variantService.generateVariants(IMAGE_ID));
+
+        BufferedImage thumbnail = read(capturedVariants().thumbnail);
+        assertEquals(200, thumbnail.getWidth());
+        assertTrue(thumbnail.getColorModel().hasAlpha());
+    }
+
+    @Test
+    void generateVariants_withSmallImage_shouldNotUpscale() throws IOException {
+        givenImage(encode(image(120, 60, false), "jpeg"), "image/jpeg");
+        when(imageRepository.updateVariants(eq(IMAGE_ID), anyString(), anyLong(), anyString(), anyLong())).thenReturn(1);
+
+        assertTrue(variantService.generateVariants(IMAGE_ID));
+
+        Variants variants = capturedVariants();
+        assertDimensions(variants.medium, 120, 60);
+        assertDimensions(variants.thumbnail, 120, 60);
+    }
+
+    @Test
+    void generateVariants_withExifData_shouldStripMetadata() throws IOException {
+        givenImage(withExifSegment(encode(image(400, 300, false), "jpeg")), "image/jpeg");
+        when(imageRepository.updateVariants(eq(IMAGE_ID), anyString(), anyLong(), anyString(), anyLong())).thenReturn(1);
+
+        assertTrue(variantService.generateVariants(IMAGE_ID));
+
+        Variants variants = capturedVariants();
+        assertFalse(new String(bytes(variants.medium), StandardCharsets.ISO_8859_1).contains("Exif"));
+        assertFalse(new String(bytes(variants.thumbnail), StandardCharsets.ISO_8859_1).contains("Exif"));
+    }
+
+    @Test
+    void generateVariants_withExifOrientation6_shouldTurnPhotoUprightBeforeResizing() throws IOException {
+        // a portrait photo as phones store it: sideways pixels, orange on the left, and orientation 6 to turn it clockwise
+        givenImage(withExifOrientation(encode(image(1600, 800, false), "jpeg"), 6), "image/jpeg");
+        when(imageRepository.updateVariants(eq(IMAGE_ID), anyString(), anyLong(), anyString(), anyLong())).thenReturn(1);
+
+        assertTrue(variantService.generateVariants(IMAGE_ID));
+
+        Variants variants = capturedVariants();
+        assertDimensions(variants.thumbnail, 100, 200);
+        BufferedImage medium = read(variants.medium);
+        assertEquals(400, medium.getWidth());
+        assertEquals(800, medium.getHeight());
+        // turned clockwise, the orange left half is on top
+        assertTrue(isOrange(medium.getRGB(200, 100)));
+        assertFalse(isOrange(medium.getRGB(200, 700)));
+    }
+
+    @Test
+    void generateVariants_withUndecodableContent_shouldNotRecordVariants() {
+        givenImage("not an image".getBytes(), "image/jpeg");
+
+        assertFalse(variantService.generateVariants(IMAGE_ID));
+
+        verify(imageRepository, never()).updateVariants(any(), any(), anyLong(), any(), anyLong());
+    }
+
+    @Test
+    void generateVariants_whenImageDeletedMeanwhile_shouldReleaseVariantBlobs() throws IOException {
+        givenImage(encode(image(400, 300, false), "jpeg"), "image/jpeg");
+        when(imageRepository.updateVariants(eq(IMAGE_ID), anyString(), anyLong(), anyString(), anyLong())).thenReturn(0);
+
+        assertFalse(variantService.generateVariants(IMAGE_ID));
+
+        Variants variants = capturedVariants();
+        verify(blobService).acquire(variants.medium);
+        verify(blobService).acquire(variants.thumbnail);
+        verify(blobService).release(variants.medium);
+        verify(blobService).release(variants.thumbnail);
+    }
+
+    @Test
+    void generateVariants_whenImageDoesNotExist_shouldReturnFalse() {
+        when(imageRepository.findById(IMAGE_ID)).thenReturn(Optional.empty());
+
+        assertFalse(variantService.generateVariants(IMAGE_ID));
+    }
+
+    @Test
+    void scheduleVariants_whenQueueIsFull_shouldRejectWithoutBlocking() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(imageRepository.findById(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+
+        // one image is processed, one waits in the queue of capacity 1
+        assertTrue(variantService.scheduleVariants(1L));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertTrue(variantService.scheduleVariants(2L));
+        assertFalse(variantService.scheduleVariants(3L));
+
+        release.countDown();
+        verify(imageRepository, timeout(10_000)).findById(2L);
+        verify(imageRepository, never()).findById(3L);
+    }
+
+    private void givenImage(byte[] content, String contentType) {
+        BlobStore.StoredBlob blob = blobStore.store(new ByteArrayInputStream(content));
+        JobRequestImage image = JobRequestImage.builder()
+            .id(IMAGE_ID)
+            .blobKey(blob.key())
+            .contentLength(blob.size())
+            .imageType(contentType)
+            .build();
+        when(imageRepository.findById(IMAGE_ID)).thenReturn(Optional.of(image));
+    }
+
+    private Variants capturedVariants() {
+        ArgumentCaptor<String> medium = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> thumbnail = ArgumentCaptor.forClass(String.class);
+        verify(imageRepository).updateVariants(eq(IMAGE_ID), medium.capture(), anyLong(), thumbnail.capture(), anyLong());
+        return new Variants(medium.getValue(), thumbnail.getValue());
+    }
+
+    private record Variants(String medium, String thumbnail) {
+    }
+
+    private static BufferedImage image(int width, int height, boolean alpha) {
+        BufferedImage image = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        return image;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(ImageIO.write(image, format, out));
+        return out.toByteArray();
+    }
+
+    /**
+     * Inserts an APP1 segment with an EXIF header right after the start of image marker.
+     */
+    private static byte[] withExifSegment(byte[] jpeg) {
+        byte[] payload = "Exif\0\0camera serial 12345".getBytes(StandardCharsets.ISO_8859_1);
+        int length = payload.length + 2;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(length >> 8);
+        out.write(length & 0xFF);
+        out.writeBytes(payload);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    /**
+     * Inserts an APP1 segment with EXIF data that only holds the given orientation right after the start of image marker.
+     */
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        ByteArrayOutputStream exif = new ByteArrayOutputStream();
+        exif.writeBytes("Exif\0\0".getBytes(StandardCharsets.ISO_8859_1));
+        // big endian TIFF header pointing to the first directory right behind it
+        exif.writeBytes(new byte[] {'M', 'M', 0, 42, 0, 0, 0, 8});
+        // one entry: orientation, type SHORT, count 1, value, then no next directory
+        exif.writeBytes(new byte[] {0, 1, 0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0, 0, 0, 0, 0});
+        byte[] payload = exif.toByteArray();
+        int length = payload.length + 2;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(length >> 8);
+        out.write(length & 0xFF);
+        out.writeBytes(payload);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    private static boolean isOrange(int rgb) {
+        Color color = new Color(rgb);
+        return color.getRed() > 200 && color.getGreen() > 150 && color.getBlue() < 60;
+    }
+
+    private byte[] bytes(String blobKey) throws IOException {
+        try (InputStream in = blobStore.load(blobKey).getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private BufferedImage read(String blobKey) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes(blobKey)));
+        assertNotNull(image);
+        return image;
+    }
+
+    private void assertDimensions(String blobKey, int width, int height) throws IOException {
+        BufferedImage image = read(blobKey);
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+    }
+
+    private boolean isJpeg(String blobKey) throws IOException {
+        byte[] content = bytes(blobKey);
+        return (content[0] & 0xFF) == 0xFF && (content[1] & 0xFF) == 0xD8;
+    }
+}
@@ -13,26 +13,37 @@ import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobOffer;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
 import at.ac.tuwien.sepr.groupphase.backend.entity.Property;
+import at.ac.tuwien.sepr.groupphase.backend.event.JobRequestChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.event.UserBanChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.exception.InvalidCursorException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobOfferRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.PropertyRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.ReportRepository;
-import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
+import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestImageService;
+import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestTextIndex;
 import at.ac.tuwien.sepr.groupphase.backend.service.LicenseService;
 import at.ac.tuwien.sepr.groupphase.backend.service.PushNotificationService;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
+import at.ac.tuwien.sepr.groupphase.backend.service.impl.CaffeineWorkerSearchCache;
 import at.ac.tuwien.sepr.groupphase.backend.service.impl.JobRequestServiceImpl;
 import at.ac.tuwien.sepr.groupphase.backend.type.Category;
 import at.ac.tuwien.sepr.groupphase.backend.type.JobOfferStatus;
 import at.ac.tuwien.sepr.groupphase.backend.type.JobStatus;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
+import at.ac.tuwien.sepr.groupphase.backend.util.PageCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -42,24 +53,33 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -74,8 +94,6 @@ public class JobRequestServiceTest {
     @Mock
     private UserService userService;
     @Mock
-    private UserRepository userRepository;
-    @Mock
     private JobOfferRepository jobOfferRepository;
     @Mock
     private LicenseService licenseService;
@@ -83,6 +101,14 @@ public class JobRequestServiceTest {
     private PushNotificationService pushNotificationService;
     @Mock
     private ReportRepository reportRepository;
+    @Mock
+    private JobRequestTextIndex jobRequestTextIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private JobRequestImageService jobRequestImageService;
+    @Spy
+    private CaffeineWorkerSearchCache workerSearchCache = new CaffeineWorkerSearchCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
 
     @InjectMocks
     private JobRequestServiceImpl jobRequestService;
@@ -154,6 +180,7 @@ public class JobRequestServiceTest {
 
         assertNotNull(result);
         verify(jobRequestRepository).save(any(JobRequest.class));
+        verify(eventPublisher).publishEvent(new JobRequestChangedEvent(JOB_REQUEST_ID));
     }
 
     @Test
@@ -182,7 +209,7 @@ public class JobRequestServiceTest {
 
     @Test
     void update_whenValid_shouldReturnUpdateDto() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(jobRequestRepository.findById(JOB_REQUEST_ID)).thenReturn(Optional.of(jobRequest));
         when(jobRequestRepository.save(any())).thenReturn(jobRequest);
         when(jobRequestMapper.jobRequestToUpdateDto(any())).thenReturn(updateDto);
@@ -195,7 +222,7 @@ public class JobRequestServiceTest {
 
     @Test
     void update_whenNotOwner_shouldThrowAccessDenied() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         ApplicationUser otherUser = ApplicationUser.builder().id(2L).build();
         jobRequest.setCustomer(otherUser);
         when(jobRequestRepository.findById(JOB_REQUEST_ID)).thenReturn(Optional.of(jobRequest));
@@ -222,8 +249,7 @@ public class JobRequestServiceTest {
 
     @Test
     void listJobRequests_shouldReturnListDto() {
-        when(userService.getCurrentUser()).thenReturn(user);
-        when(userRepository.findUserByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(jobRequestRepository.findAllByCustomerIdAndCustomerBannedFalse(USER_ID)).thenReturn(List.of(jobRequest));
         when(jobRequestMapper.jobRequestToListDto(anyList())).thenReturn(List.of(new JobRequestListDto()));
 
@@ -239,7 +265,7 @@ public class JobRequestServiceTest {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         SecurityContextHolder.setContext(securityContext);
 
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(jobRequestRepository.findById(JOB_REQUEST_ID)).thenReturn(Optional.of(jobRequest));
 
         assertDoesNotThrow(() -> jobRequestService.deleteById(JOB_REQUEST_ID));
@@ -248,25 +274,23 @@ public class JobRequestServiceTest {
     }
 
     @Test
-    void findAllOpen_shouldFilterWorkerOffers() {
+    void streamAllOpen_shouldExcludeOffersOfCurrentWorker() {
         ApplicationUser worker = ApplicationUser.builder().id(2L).role(Role.WORKER).build();
+        JobRequestListWithMinPriceDto open = JobRequestListWithMinPriceDto.builder().id(JOB_REQUEST_ID).lowestPrice(80.0f).build();
 
-        JobOffer pendingOffer = new JobOffer();
-        pendingOffer.setWorker(worker);
-        pendingOffer.setStatus(JobOfferStatus.PENDING);
-
-        jobRequest.setReceivedJobOffers(List.of(pendingOffer));
-
-        when(userService.getCurrentUser()).thenReturn(worker);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(worker));
+        when(licenseService.hasApprovedLicense(worker.getId())).thenReturn(true);
+        when(jobRequestRepository.streamOpenForWorker(worker.getId())).thenReturn(Stream.of(open));
 
-        List<JobRequestListWithMinPriceDto> result = jobRequestService.findAllOpen();
+        List<JobRequestListWithMinPriceDto> result = new ArrayList<>();
+        jobRequestService.streamAllOpen(result::add);
 
-        assertTrue(result.isEmpty(), "Should filter out requests with pending offers from the current worker");
+        assertEquals(List.of(open), result);
     }
 
     @Test
     void markRequestDone_whenValid_shouldUpdateStatus() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         JobOffer acceptedOffer = new JobOffer();
         acceptedOffer.setStatus(JobOfferStatus.ACCEPTED);
 
@@ -286,7 +310,7 @@ public class JobRequestServiceTest {
 
     @Test
     void markRequestDone_whenNotOwner_shouldThrowAccessDenied() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         ApplicationUser otherUser = ApplicationUser.builder().id(2L).build();
         jobRequest.setCustomer(otherUser);
 
@@ -296,8 +320,11 @@ public class JobRequestServiceTest {
     }
     @Test
     void searchJobRequestsCustomer_shouldReturnFilteredResults() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
+        when(jobRequestTextIndex.search("Test")).thenReturn(List.of(JOB_REQUEST_ID));
 
+        when(jobRequestRepository.searchJobRequestIdsCustomer(eq(user.getId()), eq(List.of(JOB_REQUEST_ID)), any(), any(), any(), any()))
+            .thenReturn(List.of(JOB_REQUEST_ID));
         Page<JobRequest> jobRequestPage = new PageImpl<>(List.of(jobRequest), PageRequest.of(0, 10), 1);
         when(jobRequestRepository.searchJobRequestsCustomer(
             eq(user.getId()), any(), any(), any(), any(), any(), any())
@@ -309,19 +336,80 @@ public class JobRequestServiceTest {
         PageDto<JobRequestListDto> result = jobRequestService.searchJobRequestsCustomer(searchDto, 0, 10);
 
         assertFalse(result.getContent().isEmpty());
-        verify(jobRequestRepository).searchJobRequestsCustomer(eq(user.getId()), any(), any(), any(), any(), any(), any());
+        verify(jobRequestRepository).searchJobRequestsCustomer(eq(user.getId()), eq(List.of(JOB_REQUEST_ID)), any(), any(), any(), any(), eq(Pageable.unpaged()));
+    }
+
+    @Test
+    void searchJobRequestsCustomer_withoutTextMatches_shouldReturnEmptyPageWithoutQuery() {
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
+        when(jobRequestTextIndex.search("Test")).thenReturn(List.of());
+
+        PageDto<JobRequestListDto> result = jobRequestService.searchJobRequestsCustomer(searchDto, 0, 10);
+
+        assertTrue(result.getContent().isEmpty());
+        assertEquals(0, result.getTotalElements());
+        verifyNoInteractions(jobRequestRepository);
+    }
+
+    @Test
+    void searchJobRequestsCustomer_withTextMatches_shouldOrderByRelevanceAndSlice() {
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
+        JobRequest second = JobRequest.builder().id(2L).build();
+        JobRequest third = JobRequest.builder().id(3L).build();
+        when(jobRequestTextIndex.search("Test")).thenReturn(List.of(4L, 3L, JOB_REQUEST_ID, 2L));
+        when(jobRequestRepository.searchJobRequestIdsCustomer(any(), eq(List.of(4L, 3L, JOB_REQUEST_ID, 2L)), any(), any(), any(), any()))
+            .thenReturn(List.of(JOB_REQUEST_ID, 2L, 3L));
+        when(jobRequestRepository.searchJobRequestsCustomer(any(), eq(List.of(JOB_REQUEST_ID, 2L)), any(), any(), any(), any(), eq(Pageable.unpaged())))
+            .thenReturn(new PageImpl<>(List.of(second, jobRequest)));
+        when(jobRequestMapper.jobRequestToListDto(anyList()))
+            .thenAnswer(invocation -> invocation.<List<JobRequest>>getArgument(0).stream()
+                .map(request -> JobRequestListDto.builder().id(request.getId()).build())
+                .toList());
+
+        PageDto<JobRequestListDto> result = jobRequestService.searchJobRequestsCustomer(searchDto, 1, 2);
+
+        assertEquals(List.of(JOB_REQUEST_ID, 2L), result.getContent().stream().map(JobRequestListDto::getId).toList());
+        assertEquals(3, result.getTotalElements());
+        verify(jobRequestRepository, never()).searchJobRequestsCustomer(any(), eq(List.of(3L, JOB_REQUEST_ID, 2L)), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchJobRequestsCustomer_withManyTextMatches_shouldBindAtMostThousandIdsPerQuery() {
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
+        List<Long> rankedIds = LongStream.rangeClosed(1, 2500).boxed().toList();
+        when(jobRequestTextIndex.search("Test")).thenReturn(rankedIds);
+        when(jobRequestRepository.searchJobRequestIdsCustomer(any(), anyList(), any(), any(), any(), any()))
+            .thenAnswer(invocation -> invocation.<List<Long>>getArgument(1));
+        when(jobRequestRepository.searchJobRequestsCustomer(any(), eq(List.of(2001L)), any(), any(), any(), any(), eq(Pageable.unpaged())))
+            .thenReturn(new PageImpl<>(List.of(JobRequest.builder().id(2001L).build())));
+        when(jobRequestMapper.jobRequestToListDto(anyList()))
+            .thenAnswer(invocation -> invocation.<List<JobRequest>>getArgument(0).stream()
+                .map(request -> JobRequestListDto.builder().id(request.getId()).build())
+                .toList());
+
+        PageDto<JobRequestListDto> result = jobRequestService.searchJobRequestsCustomer(searchDto, 2000, 1);
+
+        assertEquals(List.of(2001L), result.getContent().stream().map(JobRequestListDto::getId).toList());
+        assertEquals(2500, result.getTotalElements());
+        verify(jobRequestRepository, times(3)).searchJobRequestIdsCustomer(any(), argThat(ids -> ids.size() <= 1000), any(), any(), any(), any());
     }
 
     @Test
     void searchJobRequestsWorker_withDistance_shouldCallDistanceSearch() {
 
         searchDto.setDistance(50); // distance triggers the specific repository call
+        worker.setLatitude(48.2f);
+        worker.setLongitude(16.37f);
         when(userService.getCurrentUser()).thenReturn(worker);
         when(licenseService.hasApprovedLicense(worker.getId())).thenReturn(true);
+        when(jobRequestTextIndex.search("Test")).thenReturn(List.of(JOB_REQUEST_ID));
 
+        when(jobRequestRepository.searchOpenJobRequestIdsWorkerWithDistance(
+            any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any())
+        ).thenReturn(List.of(JOB_REQUEST_ID));
         Page<JobRequest> jobRequestPage = new PageImpl<>(List.of(jobRequest), PageRequest.of(0, 10), 1);
         when(jobRequestRepository.searchOpenJobRequestsWorkerWithDistance(
-            any(), any(), any(), any(), any(), any(), any(), any(), any(), any())
+            any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any())
         ).thenReturn(jobRequestPage);
 
         when(jobRequestMapper.jobRequestToListWithMinPriceDto(jobRequest))
@@ -331,7 +419,94 @@ public class JobRequestServiceTest {
 
         assertFalse(pageDto.getContent().isEmpty());
         verify(jobRequestRepository).searchOpenJobRequestsWorkerWithDistance(
-            any(), any(), any(), any(), any(), any(), any(), any(), any(), any());
+            any(), any(), any(), eq(48.2f), eq(16.37f), eq(50), any(), any(), any(), any(), any(), any(), eq(worker.getId()), any());
+    }
+
+    @Test
+    void searchJobRequestsWorker_withoutDistance_shouldSkipDistanceSearch() {
+        when(userService.getCurrentUser()).thenReturn(worker);
+        when(licenseService.hasApprovedLicense(worker.getId())).thenReturn(true);
+        when(jobRequestTextIndex.search("Test")).thenReturn(List.of(JOB_REQUEST_ID));
+
+        Page<JobRequest> jobRequestPage = new PageImpl<>(List.of(jobRequest), PageRequest.of(0, 10), 1);
+        when(jobRequestRepository.searchOpenJobRequestIdsWorker(any(), any(), any(), any(), any(), any())).thenReturn(List.of(JOB_REQUEST_ID));
+        when(jobRequestRepository.searchOpenJobRequestsWorker(any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(jobRequestPage);
+        when(jobRequestMapper.jobRequestToListWithMinPriceDto(jobRequest))
+            .thenReturn(new JobRequestListWithMinPriceDto());
+
+        var pageDto = jobRequestService.searchJobRequestsWorker(searchDto, 0, 10);
+
+        assertFalse(pageDto.getContent().isEmpty());
+        verify(jobRequestRepository, never()).searchOpenJobRequestsWorkerWithDistance(
+            any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchJobRequestsWorker_repeated_shouldBeServedFromCache() {
+        when(userService.getCurrentUser()).thenReturn(worker);
+        when(licenseService.hasApprovedLicense(worker.getId())).thenReturn(true);
+        when(jobRequestTextIndex.search("Test")).thenReturn(List.of(JOB_REQUEST_ID));
+        when(jobRequestRepository.searchOpenJobRequestIdsWorker(any(), any(), any(), any(), any(), any())).thenReturn(List.of(JOB_REQUEST_ID));
+        when(jobRequestRepository.searchOpenJobRequestsWorker(any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(new PageImpl<>(List.of(jobRequest), PageRequest.of(0, 10), 1));
+        when(jobRequestMapper.jobRequestToListWithMinPriceDto(jobRequest)).thenReturn(new JobRequestListWithMinPriceDto());
+
+        var first = jobRequestService.searchJobRequestsWorker(searchDto, 0, 10);
+        var second = jobRequestService.searchJobRequestsWorker(JobRequestSearchDto.builder().title("  TEST ").category("PLUMBING").deadline(LocalDate.now()).build(), 0, 10);
+        jobRequestService.searchJobRequestsWorker(searchDto, 10, 10);
+
+        assertSame(first, second);
+        verify(jobRequestRepository, times(2)).searchOpenJobRequestIdsWorker(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchJobRequestsWorker_afterJobRequestChanged_shouldSearchAgain() {
+        when(userService.getCurrentUser()).thenReturn(worker);
+        when(licenseService.hasApprovedLicense(worker.getId())).thenReturn(true);
+        when(jobRequestTextIndex.search("Test")).thenReturn(List.of(JOB_REQUEST_ID));
+        when(jobRequestRepository.searchOpenJobRequestIdsWorker(any(), any(), any(), any(), any(), any())).thenReturn(List.of(JOB_REQUEST_ID));
+        when(jobRequestRepository.searchOpenJobRequestsWorker(any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(new PageImpl<>(List.of(jobRequest), PageRequest.of(0, 10), 1));
+        when(jobRequestMapper.jobRequestToListWithMinPriceDto(jobRequest)).thenReturn(new JobRequestListWithMinPriceDto());
+
+        jobRequestService.searchJobRequestsWorker(searchDto, 0, 10);
+        workerSearchCache.onJobRequestChanged(new JobRequestChangedEvent(JOB_REQUEST_ID));
+        jobRequestService.searchJobRequestsWorker(searchDto, 0, 10);
+
+        verify(jobRequestRepository, times(2)).searchOpenJobRequestsWorker(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchJobRequestsWorker_afterUserBanChanged_shouldSearchAgain() {
+        when(userService.getCurrentUser()).thenReturn(worker);
+        when(licenseService.hasApprovedLicense(worker.getId())).thenReturn(true);
+        when(jobRequestTextIndex.search("Test")).thenReturn(List.of(JOB_REQUEST_ID));
+        when(jobRequestRepository.searchOpenJobRequestIdsWorker(any(), any(), any(), any(), any(), any())).thenReturn(List.of(JOB_REQUEST_ID));
+        when(jobRequestRepository.searchOpenJobRequestsWorker(any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(new PageImpl<>(List.of(jobRequest), PageRequest.of(0, 10), 1));
+        when(jobRequestMapper.jobRequestToListWithMinPriceDto(jobRequest)).thenReturn(new JobRequestListWithMinPriceDto());
+
+        jobRequestService.searchJobRequestsWorker(searchDto, 0, 10);
+        workerSearchCache.onUserBanChanged(new UserBanChangedEvent(user.getUsername(), true));
+        jobRequestService.searchJobRequestsWorker(searchDto, 0, 10);
+
+        verify(jobRequestRepository, times(2)).searchOpenJobRequestsWorker(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchJobRequestsWorker_withDistanceButNoWorkerLocation_shouldReturnEmptyPage() {
+        searchDto.setDistance(50);
+        worker.setLatitude(null);
+        worker.setLongitude(null);
+        when(userService.getCurrentUser()).thenReturn(worker);
+        when(licenseService.hasApprovedLicense(worker.getId())).thenReturn(true);
+        when(jobRequestTextIndex.search("Test")).thenReturn(List.of(JOB_REQUEST_ID));
+
+        var pageDto = jobRequestService.searchJobRequestsWorker(searchDto, 0, 10);
+
+        assertTrue(pageDto.getContent().isEmpty());
+        verifyNoInteractions(jobRequestRepository);
     }
 
 
@@ -373,7 +548,7 @@ public class JobRequestServiceTest {
         updateDto.setPropertyId(null);
         jobRequest.setProperty(new Property());
 
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(jobRequestRepository.findById(JOB_REQUEST_ID)).thenReturn(Optional.of(jobRequest));
         when(jobRequestRepository.save(any())).thenReturn(jobRequest);
         when(jobRequestMapper.jobRequestToUpdateDto(any())).thenReturn(updateDto);
@@ -384,36 +559,16 @@ public class JobRequestServiceTest {
     }
 
     @Test
-    void findAllOpen_shouldCalculateLowestPrice() {
+    void streamAllOpen_shouldReturnNothing_whenLicenseNotApproved() {
         ApplicationUser worker = ApplicationUser.builder().id(2L).role(Role.WORKER).build();
 
-        JobOffer offer1 = JobOffer.builder().worker(new ApplicationUser()).price(100.0f).status(JobOfferStatus.PENDING).build();
-        JobOffer offer2 = JobOffer.builder().worker(new ApplicationUser()).price(80.0f).status(JobOfferStatus.PENDING).build();
-        jobRequest.setReceivedJobOffers(List.of(offer1, offer2));
-
-        when(userService.getCurrentUser()).thenReturn(worker);
-        when(licenseService.hasApprovedLicense(worker.getId())).thenReturn(true);
-        when(jobRequestRepository.findAllByStatusWithOffers(JobStatus.PENDING)).thenReturn(List.of(jobRequest));
-        when(jobRequestMapper.jobRequestToListWithMinPriceDto(any())).thenAnswer(invocation -> {
-            JobRequestListWithMinPriceDto dto = new JobRequestListWithMinPriceDto();
-            dto.setLowestPrice(80.0f);
-            return dto;
-        });
-
-        List<JobRequestListWithMinPriceDto> result = jobRequestService.findAllOpen();
-
-        assertEquals(80.0f, result.getFirst().getLowestPrice());
-    }
-
-    @Test
-    void findAllOpen_shouldReturnEmptyList_whenLicenseNotApproved() {
-        ApplicationUser worker = ApplicationUser.builder().id(2L).role(Role.WORKER).build();
-
-        when(userService.getCurrentUser()).thenReturn(worker);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(worker));
         when(licenseService.hasApprovedLicense(worker.getId())).thenReturn(false);
-        List<JobRequestListWithMinPriceDto> result = jobRequestService.findAllOpen();
+        List<JobRequestListWithMinPriceDto> result = new ArrayList<>();
+        jobRequestService.streamAllOpen(result::add);
 
-        assertTrue(result.isEmpty(), "Expected empty list when worker has no approved license");
+        assertTrue(result.isEmpty(), "Expected no job requests when worker has no approved license");
+        verify(jobRequestRepository, never()).streamOpenForWorker(any());
     }
 
     @Test
@@ -439,15 +594,14 @@ public class JobRequestServiceTest {
 
     @Test
     void listJobRequests_whenUserNotFoundInRepo_throwsNotFoundException() {
-        when(userService.getCurrentUser()).thenReturn(user);
-        when(userRepository.findUserByUsername(user.getUsername())).thenReturn(Optional.empty());
+        when(userService.getAuthenticatedUser()).thenThrow(new NotFoundException("User not found: " + user.getUsername()));
         assertThrows(NotFoundException.class, () -> jobRequestService.listJobRequests());
     }
 
     @Test
     void deleteById_whenJobIsDone_shouldSetStatusToHidden() {
         jobRequest.setStatus(JobStatus.DONE);
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(jobRequestRepository.findById(JOB_REQUEST_ID)).thenReturn(Optional.of(jobRequest));
 
         jobRequestService.deleteById(JOB_REQUEST_ID);
@@ -460,7 +614,7 @@ public class JobRequestServiceTest {
     @Test
     void deleteById_whenJobHasReport_shouldSetStatusToHidden() {
         when(reportRepository.existsByJobRequest_Id(JOB_REQUEST_ID)).thenReturn(true);
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(jobRequestRepository.findById(JOB_REQUEST_ID)).thenReturn(Optional.of(jobRequest));
 
         jobRequestService.deleteById(JOB_REQUEST_ID);
@@ -473,7 +627,7 @@ public class JobRequestServiceTest {
     @Test
     void deleteById_whenAlreadyHidden_shouldThrowIllegalStateException() {
         jobRequest.setStatus(JobStatus.HIDDEN);
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(jobRequestRepository.findById(JOB_REQUEST_ID)).thenReturn(Optional.of(jobRequest));
 
         assertThrows(IllegalStateException.class, () -> jobRequestService.deleteById(JOB_REQUEST_ID));
@@ -481,7 +635,7 @@ public class JobRequestServiceTest {
 
     @Test
     void markRequestDone_whenNoAcceptedOffer_shouldThrowIllegalStateException() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(jobRequestRepository.findById(JOB_REQUEST_ID)).thenReturn(Optional.of(jobRequest));
         when(jobOfferRepository.findByJobRequestIdAndStatus(JOB_REQUEST_ID, JobOfferStatus.ACCEPTED)).thenReturn(null);
 
@@ -489,25 +643,95 @@ public class JobRequestServiceTest {
     }
 
     @Test
-    void findAll_shouldReturnListOfPendingJobs() {
-        when(jobRequestRepository.findAllByStatusAndCustomerBannedFalse(JobStatus.PENDING)).thenReturn(List.of(jobRequest));
-        when(jobRequestMapper.jobRequestToListDto(List.of(jobRequest))).thenReturn(List.of(new JobRequestListDto()));
+    void streamAll_shouldPassPendingJobs() {
+        when(jobRequestRepository.streamListByStatus(JobStatus.PENDING)).thenReturn(Stream.of(new JobRequestListDto()));
 
-        List<JobRequestListDto> result = jobRequestService.findAll();
+        List<JobRequestListDto> result = new ArrayList<>();
+        jobRequestService.streamAll(result::add);
 
         assertFalse(result.isEmpty());
-        verify(jobRequestRepository).findAllByStatusAndCustomerBannedFalse(JobStatus.PENDING);
+        verify(jobRequestRepository).streamListByStatus(JobStatus.PENDING);
     }
 
     @Test
     void searchJobRequestsAdmin_shouldCallAdminSearchAndReturnDtoList() {
         Page<JobRequest> jobRequestPage = new PageImpl<>(List.of(jobRequest));
+        when(jobRequestTextIndex.search("Test")).thenReturn(List.of(JOB_REQUEST_ID));
+        when(jobRequestRepository.searchJobRequestIdsAdmin(any(), any(), any(), any())).thenReturn(List.of(JOB_REQUEST_ID));
         when(jobRequestRepository.searchJobRequestsAdmin(any(), any(), any(), any(), any())).thenReturn(jobRequestPage);
         when(jobRequestMapper.jobRequestToListDto(anyList())).thenReturn(List.of(new JobRequestListDto()));
 
         PageDto<JobRequestListDto> result = jobRequestService.searchJobRequestsAdmin(searchDto, 0, 10);
 
         assertFalse(result.getContent().isEmpty());
-        verify(jobRequestRepository).searchJobRequestsAdmin(eq("Test"), anyList(), any(),  any(LocalDate.class), any(Pageable.class));
+        verify(jobRequestRepository).searchJobRequestsAdmin(eq(List.of(JOB_REQUEST_ID)), anyList(), any(),  any(LocalDate.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchJobRequestsAdmin_withCursor_shouldFetchOneExtraRowAndReturnNextCursor() {
+        List<JobRequest> rows = List.of(
+            JobRequest.builder().id(30L).build(),
+            JobRequest.builder().id(20L).build(),
+            JobRequest.builder().id(10L).build());
+        when(jobRequestTextIndex.search("Test")).thenReturn(List.of(30L, 20L, 10L, 5L));
+        when(jobRequestRepository.searchJobRequestsAdminBefore(any(), any(), any(), any(), eq(40L), eq(Limit.of(3)))).thenReturn(rows);
+        when(jobRequestMapper.jobRequestToListDto(anyList()))
+            .thenAnswer(invocation -> invocation.<List<JobRequest>>getArgument(0).stream().map(r -> new JobRequestListDto()).toList());
+
+        PageDto<JobRequestListDto> result = jobRequestService.searchJobRequestsAdminByCursor(searchDto, PageCursor.encode(40L), 2);
+
+        assertEquals(2, result.getContent().size());
+        assertEquals(-1, result.getTotalElements());
+        assertEquals(20L, PageCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void searchJobRequestsCustomer_withCursorAndManyTextMatches_shouldWalkIdsInChunksUntilPageIsFull() {
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
+        when(jobRequestTextIndex.search("Test")).thenReturn(LongStream.rangeClosed(1, 2500).boxed().toList());
+        // only every 400th id passes the other filters
+        when(jobRequestRepository.searchJobRequestsCustomerBefore(any(), anyList(), any(), any(), any(), any(), eq(2400L), any()))
+            .thenAnswer(invocation -> invocation.<List<Long>>getArgument(1).stream()
+                .filter(id -> id % 400 == 0)
+                .limit(invocation.<Limit>getArgument(7).max())
+                .map(id -> JobRequest.builder().id(id).build())
+                .toList());
+        when(jobRequestMapper.jobRequestToListDto(anyList()))
+            .thenAnswer(invocation -> invocation.<List<JobRequest>>getArgument(0).stream()
+                .map(request -> JobRequestListDto.builder().id(request.getId()).build())
+                .toList());
+
+        PageDto<JobRequestListDto> result = jobRequestService.searchJobRequestsCustomerByCursor(searchDto, PageCursor.encode(2400L), 3);
+
+        assertEquals(List.of(2000L, 1600L, 1200L), result.getContent().stream().map(JobRequestListDto::getId).toList());
+        assertEquals(1200L, PageCursor.decode(result.getNextCursor()));
+        verify(jobRequestRepository).searchJobRequestsCustomerBefore(any(), argThat(ids -> ids.size() == 1000 && ids.contains(2399L)),
+            any(), any(), any(), any(), eq(2400L), eq(Limit.of(4)));
+        verify(jobRequestRepository).searchJobRequestsCustomerBefore(any(), argThat(ids -> ids.size() == 1000 && ids.contains(1399L)),
+            any(), any(), any(), any(), eq(2400L), eq(Limit.of(2)));
+        verify(jobRequestRepository, times(2)).searchJobRequestsCustomerBefore(any(), any(), any(), any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void searchJobRequestsAdmin_withCursorOnLastPage_shouldReturnNoNextCursor() {
+        when(jobRequestTextIndex.search("Test")).thenReturn(List.of(JOB_REQUEST_ID));
+        when(jobRequestRepository.searchJobRequestsAdminBefore(any(), any(), any(), any(), eq(Long.MAX_VALUE), eq(Limit.of(3))))
+            .thenReturn(List.of(jobRequest));
+        when(jobRequestMapper.jobRequestToListDto(anyList())).thenReturn(List.of(new JobRequestListDto()));
+
+        PageDto<JobRequestListDto> result = jobRequestService.searchJobRequestsAdminByCursor(searchDto, null, 2);
+
+        assertEquals(1, result.getContent().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void searchJobRequestsAdmin_withInvalidCursor_shouldThrowInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> jobRequestService.searchJobRequestsAdminByCursor(searchDto, "%%%", 2));
+        verifyNoInteractions(jobRequestRepository);
+    }
+
+    private static AuthenticatedUser principal(ApplicationUser user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package at.ac.tuwien.sepr.groupphase.backend.unittests.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.event.JobRequestChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.projection.JobRequestText;
+import at.ac.tuwien.sepr.groupphase.backend.service.impl.InMemoryJobRequestTextIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JobRequestTextIndexTest {
+
+    @Mock
+    private JobRequestRepository jobRequestRepository;
+
+    @InjectMocks
+    private InMemoryJobRequestTextIndex textIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(jobRequestRepository.findAllTexts()).thenReturn(List.of(
+            new JobRequestText(1L, "Paint the living room", "Two walls need a fresh coat of paint"),
+            new JobRequestText(2L, "Fix kitchen sink", "The sink in the Küche is leaking, maybe paint the cabinet too"),
+            new JobRequestText(3L, "Garden work", null),
+            new JobRequestText(4L, "Painting the fence", "Wooden fence, about 20 meters")
+        ));
+        textIndex.rebuild();
+    }
+
+    @Test
+    void search_shouldRankTitleMatchesAboveDescriptionMatches() {
+        List<Long> result = textIndex.search("paint");
+
+        assertEquals(List.of(1L, 4L, 2L), result);
+    }
+
+    @Test
+    void search_shouldRequireAllTerms() {
+        assertEquals(List.of(2L), textIndex.search("sink paint"));
+        assertTrue(textIndex.search("garden paint").isEmpty());
+    }
+
+    @Test
+    void search_shouldIgnoreCaseAndDiacritics() {
+        assertEquals(List.of(2L), textIndex.search("KUCHE"));
+        assertEquals(List.of(2L), textIndex.search("küche"));
+    }
+
+    @Test
+    void search_withoutTerms_shouldReturnEmptyList() {
+        assertTrue(textIndex.search("  !? ").isEmpty());
+    }
+
+    @Test
+    void onJobRequestChanged_shouldReindexChangedRequestAndDropDeletedOne() {
+        when(jobRequestRepository.findTextById(3L)).thenReturn(Optional.of(new JobRequestText(3L, "Roof repair", "Replace broken tiles")));
+        when(jobRequestRepository.findTextById(4L)).thenReturn(Optional.empty());
+
+        textIndex.onJobRequestChanged(new JobRequestChangedEvent(3L));
+        textIndex.onJobRequestChanged(new JobRequestChangedEvent(4L));
+
+        assertTrue(textIndex.search("garden").isEmpty());
+        assertEquals(List.of(3L), textIndex.search("roof tiles"));
+        assertEquals(List.of(1L, 2L), textIndex.search("paint"));
+    }
+
+    @Test
+    void index_shouldReplacePreviousText() {
+        textIndex.index(JobRequest.builder().id(3L).title("Roof repair").description("Replace broken tiles").build());
+
+        assertTrue(textIndex.search("garden").isEmpty());
+        assertEquals(List.of(3L), textIndex.search("roof tiles"));
+    }
+
+    @Test
+    void remove_shouldDropJobRequestFromResults() {
+        textIndex.remove(1L);
+
+        assertEquals(List.of(4L, 2L), textIndex.search("paint"));
+    }
+}
@@ -13,17 +13,23 @@ import at.ac.tuwien.sepr.groupphase.backend.exception.LicenseAlreadyApprovedExce
 import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.repository.LicenseRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobService;
+import at.ac.tuwien.sepr.groupphase.backend.service.BlobStore;
 import at.ac.tuwien.sepr.groupphase.backend.service.PushNotificationService;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
 import at.ac.tuwien.sepr.groupphase.backend.service.impl.LicenseServiceImpl;
 import at.ac.tuwien.sepr.groupphase.backend.type.LicenseStatus;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
+import at.ac.tuwien.sepr.groupphase.backend.util.ContentHash;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.multipart.MultipartFile;
@@ -36,10 +42,12 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -56,6 +64,8 @@ public class LicenseServiceTest {
     private LicenseMapper licenseMapper;
     @Mock
     private PushNotificationService pushNotificationService;
+    @Mock
+    private BlobService blobService;
 
     @InjectMocks
     private LicenseServiceImpl licenseService;
@@ -63,7 +73,6 @@ public class LicenseServiceTest {
     private ApplicationUser user;
     private LicenseCreateDto createDto;
     private LicenseUpdateDto updateDto;
-    private LicenseDownloadDto downloadDto;
     private LicenseDetailDto detailDto;
     private License license;
     private MultipartFile file;
@@ -82,7 +91,8 @@ public class LicenseServiceTest {
             .filename("license.pdf")
             .description("Test License")
             .mediaType("application/pdf")
-            .file("sample-content".getBytes())
+            .contentHash(ContentHash.sha256("sample-content".getBytes()))
+            .contentLength(14L)
             .worker(user)
             .status(LicenseStatus.PENDING)
             .build();
@@ -107,12 +117,6 @@ public class LicenseServiceTest {
             .mediaType("application/pdf")
             .build();
 
-        downloadDto = LicenseDownloadDto.builder()
-            .filename("license.pdf")
-            .file("sample-content".getBytes())
-            .mediaType("application/pdf")
-            .build();
-
         detailDto = LicenseDetailDto.builder()
             .id(1L)
             .filename("license.pdf")
@@ -126,20 +130,20 @@ public class LicenseServiceTest {
     @Test
     void create_withValidData_shouldSaveAndReturnDto() throws IOException {
         when(userService.getCurrentUser()).thenReturn(user);
-        when(userRepository.findUserByUsername("john")).thenReturn(Optional.of(user));
+        when(blobService.store(any())).thenReturn(new BlobStore.StoredBlob("b".repeat(64), 14L));
         when(licenseRepository.save(any(License.class))).thenReturn(license);
         LicenseCreateDto result = licenseService.create(createDto, file);
 
         assertNotNull(result);
         assertEquals(createDto, result);
-        verify(licenseRepository).save(any(License.class));
+        verify(licenseRepository).save(argThat(saved -> "b".repeat(64).equals(saved.getContentHash()) && saved.getContentLength() == 14L));
+        verify(blobService).acquire("b".repeat(64));
     }
 
 
     @Test
     void create_withNonExistingUser_shouldThrowNotFoundException() {
-        when(userService.getCurrentUser()).thenReturn(user);
-        when(userRepository.findUserByUsername(user.getUsername())).thenReturn(Optional.empty());
+        when(userService.getCurrentUser()).thenThrow(new NotFoundException("User not found: " + user.getUsername()));
         assertThrows(NotFoundException.class, () -> licenseService.create(createDto, file));
     }
 
@@ -165,12 +169,11 @@ public class LicenseServiceTest {
     @Test
     void listLicenses_withValidUsername_shouldReturnListDto() {
         when(userRepository.findUserByUsername("john")).thenReturn(Optional.of(user));
-        when(licenseRepository.findAllByWorkerId(user.getId())).thenReturn(List.of(license));
-        when(licenseMapper.licenseToListDto(List.of(license))).thenReturn(List.of(new LicenseListDto()));
+        when(licenseRepository.findListByWorkerId(user.getId())).thenReturn(List.of(new LicenseListDto()));
         List<LicenseListDto> result = licenseService.listLicenses("john");
 
         assertEquals(1, result.size());
-        verify(licenseMapper).licenseToListDto(anyList());
+        verify(licenseRepository).findListByWorkerId(user.getId());
     }
 
     @Test
@@ -181,25 +184,86 @@ public class LicenseServiceTest {
     }
 
     @Test
-    void downloadFileById_withValidId_shouldReturnDownloadDto() {
-        when(licenseRepository.findById(1L)).thenReturn(Optional.of(license));
-        when(licenseMapper.licenseToDownloadDto(license)).thenReturn(downloadDto);
+    void downloadFileById_withValidId_shouldReturnFileFromBlobStore() {
+        Resource content = new ByteArrayResource("sample-content".getBytes());
+        when(licenseRepository.findFileInfoById(1L)).thenReturn(Optional.of(fileInfo("a".repeat(64))));
+        when(blobService.load("a".repeat(64))).thenReturn(content);
+
         LicenseDownloadDto result = licenseService.downloadFileById(1L);
 
-        assertNotNull(result);
-        assertEquals(downloadDto, result);
-        verify(licenseMapper).licenseToDownloadDto(license);
+        assertEquals(content, result.getFile());
+        assertEquals("license.pdf", result.getFilename());
+        assertEquals(14L, result.getContentLength());
+        verify(licenseRepository, never()).findById(any());
+    }
+
+    @Test
+    void downloadFileById_withoutFile_shouldThrowNotFoundException() {
+        when(licenseRepository.findFileInfoById(1L)).thenReturn(Optional.of(fileInfo(null)));
+
+        assertThrows(NotFoundException.class, () -> licenseService.downloadFileById(1L));
+        verify(blobService, never()).load(any());
+    }
+
+    @Test
+    void getDownloadInformationById_withValidId_shouldNotLoadFile() {
+        when(licenseRepository.findFileInfoById(1L)).thenReturn(Optional.of(fileInfo("a".repeat(64))));
+
+        LicenseDownloadDto result = licenseService.getDownloadInformationById(1L);
+
+        assertEquals("license.pdf", result.getFilename());
+        assertEquals("application/pdf", result.getMediaType());
+        assertEquals("a".repeat(64), result.getContentHash());
+        assertNull(result.getFile());
+        verify(licenseRepository, never()).findById(any());
+        verify(blobService, never()).load(any());
+    }
+
+    private static LicenseRepository.FileInfo fileInfo(String contentHash) {
+        return new LicenseRepository.FileInfo() {
+            @Override
+            public String getFilename() {
+                return "license.pdf";
+            }
+
+            @Override
+            public String getMediaType() {
+                return "application/pdf";
+            }
+
+            @Override
+            public String getContentHash() {
+                return contentHash;
+            }
+
+            @Override
+            public Long getContentLength() {
+                return 14L;
+            }
+        };
+    }
+
+    @Test
+    void getDownloadInformationById_withNonExistingId_shouldThrowNotFoundException() {
+        when(licenseRepository.findFileInfoById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> licenseService.getDownloadInformationById(99L));
     }
 
     @Test
     void updateLicense_withAuthorizedUser_shouldUpdate() throws IOException {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(licenseRepository.findById(1L)).thenReturn(Optional.of(license));
+        when(blobService.store(any())).thenReturn(new BlobStore.StoredBlob("c".repeat(64), 20L));
         when(licenseRepository.save(any())).thenReturn(license);
 
+        license.setContentHash("a".repeat(64));
+
         LicenseUpdateDto result = licenseService.update(updateDto, file);
         assertEquals(updateDto, result);
-        verify(licenseRepository).save(any(License.class));
+        verify(licenseRepository).save(argThat(saved -> "c".repeat(64).equals(saved.getContentHash()) && saved.getContentLength() == 20L));
+        verify(blobService).acquire("c".repeat(64));
+        verify(blobService).release("a".repeat(64));
     }
 
     @Test
@@ -207,7 +271,7 @@ public class LicenseServiceTest {
         ApplicationUser otherUser = ApplicationUser.builder().id(2L).build();
         license.setWorker(otherUser);
 
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(licenseRepository.findById(1L)).thenReturn(Optional.of(license));
 
         assertThrows(AccessDeniedException.class,
@@ -231,11 +295,14 @@ public class LicenseServiceTest {
 
     @Test
     void deleteLicense_withAuthorizedUser_shouldDelete() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(licenseRepository.findById(1L)).thenReturn(Optional.of(license));
 
+        license.setContentHash("a".repeat(64));
+
         licenseService.deleteById(1L);
         verify(licenseRepository).deleteById(1L);
+        verify(blobService).release("a".repeat(64));
     }
 
     @Test
@@ -243,7 +310,7 @@ public class LicenseServiceTest {
         ApplicationUser otherUser = ApplicationUser.builder().id(2L).build();
         license.setWorker(otherUser);
 
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(licenseRepository.findById(1L)).thenReturn(Optional.of(license));
 
         assertThrows(AccessDeniedException.class,
@@ -252,44 +319,39 @@ public class LicenseServiceTest {
 
     @Test
     void deleteLicense_withNonExistingLicense_shouldThrowNotFoundException() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(licenseRepository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> licenseService.deleteById(1L));
     }
 
     @Test
     void listPendingLicenses_shouldReturnOnlyPending() {
-        license.setStatus(LicenseStatus.PENDING);
-        when(licenseRepository.findAllByStatus(LicenseStatus.PENDING)).thenReturn(List.of(license));
-        when(licenseMapper.licenseToAdminDto(List.of(license))).thenReturn(List.of(new AdminLicenseListDto()));
+        when(licenseRepository.findAdminListByStatus(LicenseStatus.PENDING)).thenReturn(List.of(new AdminLicenseListDto()));
 
         List<AdminLicenseListDto> result = licenseService.listPendingLicenses();
 
         assertEquals(1, result.size());
-        verify(licenseRepository).findAllByStatus(LicenseStatus.PENDING);
+        verify(licenseRepository).findAdminListByStatus(LicenseStatus.PENDING);
     }
 
     @Test
     void listApprovedLicenses_whenNoneExist_shouldReturnEmptyList() {
-        when(licenseRepository.findAllByStatus(LicenseStatus.APPROVED)).thenReturn(Collections.emptyList());
-        when(licenseMapper.licenseToAdminDto(Collections.emptyList())).thenReturn(Collections.emptyList());
+        when(licenseRepository.findAdminListByStatus(LicenseStatus.APPROVED)).thenReturn(Collections.emptyList());
 
         List<AdminLicenseListDto> result = licenseService.listApprovedLicenses();
 
         assertTrue(result.isEmpty());
-        verify(licenseRepository).findAllByStatus(LicenseStatus.APPROVED);
+        verify(licenseRepository).findAdminListByStatus(LicenseStatus.APPROVED);
     }
 
     @Test
     void listRejectedLicenses_shouldReturnOnlyRejected() {
-        License rejectedLicense = License.builder().id(2L).status(LicenseStatus.REJECTED).build();
-        when(licenseRepository.findAllByStatus(LicenseStatus.REJECTED)).thenReturn(List.of(rejectedLicense));
-        when(licenseMapper.licenseToAdminDto(List.of(rejectedLicense))).thenReturn(List.of(new AdminLicenseListDto()));
+        when(licenseRepository.findAdminListByStatus(LicenseStatus.REJECTED)).thenReturn(List.of(new AdminLicenseListDto()));
 
         List<AdminLicenseListDto> result = licenseService.listRejectedLicenses();
 
         assertEquals(1, result.size());
-        verify(licenseRepository).findAllByStatus(LicenseStatus.REJECTED);
+        verify(licenseRepository).findAdminListByStatus(LicenseStatus.REJECTED);
     }
 
     @Test
@@ -308,4 +370,8 @@ public class LicenseServiceTest {
 
         assertThrows(NotFoundException.class, () -> licenseService.updateLicenseStatus(99L, LicenseStatus.REJECTED));
     }
-}
\ No newline at end of file
+
+    private static AuthenticatedUser principal(ApplicationUser user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+    }
+}
@@ -0,0 +1,279 @@
+package at.ac.tuwien.sepr.groupphase.backend.unittests.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.NotificationOutbox;
+import at.ac.tuwien.sepr.groupphase.backend.entity.PushSubscription;
+import at.ac.tuwien.sepr.groupphase.backend.exception.PushDeliveryException;
+import at.ac.tuwien.sepr.groupphase.backend.repository.NotificationOutboxRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.PushSubscriptionRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.WebPushService;
+import at.ac.tuwien.sepr.groupphase.backend.service.impl.OutboxNotificationDispatcher;
+import at.ac.tuwien.sepr.groupphase.backend.type.OutboxStatus;
+import at.ac.tuwien.sepr.groupphase.backend.type.PushDeliveryOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    private static final byte[] PAYLOAD = {1, 2, 3};
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+    @Mock
+    private PushSubscriptionRepository pushSubscriptionRepository;
+    @Mock
+    private WebPushService webPushService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxNotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new OutboxNotificationDispatcher(outboxRepository, pushSubscriptionRepository, webPushService, meterRegistry,
+            new TransactionTemplate(transactionManager), 10, 3, 3, Duration.ofSeconds(5), Duration.ofSeconds(8), Duration.ofMinutes(5), Duration.ofDays(7));
+    }
+
+    @Test
+    void dispatchPending_whenOneFails_continuesToNextAndSchedulesRetry() {
+        PushSubscription sub1 = subscription(1L);
+        PushSubscription sub2 = subscription(2L);
+        NotificationOutbox failing = notification(10L, 1L, 0);
+        NotificationOutbox succeeding = notification(11L, 2L, 0);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(failing, succeeding));
+        when(pushSubscriptionRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(sub1, sub2));
+        when(webPushService.createPayload("t", "b", "u", "tag")).thenReturn(PAYLOAD);
+        when(webPushService.sendPayload(sub1, PAYLOAD)).thenReturn(CompletableFuture.failedFuture(new PushDeliveryException("Push service responded with 500", 500)));
+        when(webPushService.sendPayload(sub2, PAYLOAD)).thenReturn(CompletableFuture.completedFuture(null));
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(2, dispatcher.dispatchPending());
+
+        // both notifications are equal, so the payload is only serialized once
+        verify(webPushService, times(1)).createPayload(any(), any(), any(), any());
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(11L));
+        verify(outboxRepository).saveAll(List.of(failing));
+        assertEquals(1, failing.getAttempts());
+        assertEquals(OutboxStatus.PENDING, failing.getStatus());
+        assertTrue(failing.getNextAttemptAt().isAfter(before.plusSeconds(4)));
+        verify(pushSubscriptionRepository).resetFailures(Set.of(2L));
+        verify(pushSubscriptionRepository).recordFailure(eq(1L), eq(1), any());
+    }
+
+    @Test
+    void dispatchPending_shouldClaimDueNotificationsBeforeDelivering() {
+        PushSubscription sub = subscription(1L);
+        NotificationOutbox notification = notification(10L, 1L, 0);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(notification));
+        when(pushSubscriptionRepository.findAllById(List.of(1L))).thenAnswer(invocation -> {
+            // the claim is committed before the push service is contacted
+            verify(transactionManager).commit(any());
+            assertTrue(notification.getNextAttemptAt().isAfter(LocalDateTime.now().plusMinutes(4)));
+            return List.of(sub);
+        });
+        when(webPushService.sendPayload(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(1, dispatcher.dispatchPending());
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(10L));
+    }
+
+    @Test
+    void purgeDead_shouldDeleteDeadNotificationsOlderThanRetention() {
+        when(outboxRepository.deleteDeadCreatedBefore(any())).thenReturn(2);
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(2, dispatcher.purgeDead());
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).deleteDeadCreatedBefore(cutoff.capture());
+        assertTrue(!cutoff.getValue().isBefore(before.minusDays(7)) && cutoff.getValue().isBefore(before.minusDays(6)));
+    }
+
+    @Test
+    void dispatchPending_withExponentialBackoff_shouldCapDelay() {
+        PushSubscription sub = subscription(1L);
+        NotificationOutbox failing = notification(10L, 1L, 1);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(failing));
+        when(pushSubscriptionRepository.findAllById(List.of(1L))).thenReturn(List.of(sub));
+        when(webPushService.sendPayload(any(), any())).thenReturn(CompletableFuture.failedFuture(new PushDeliveryException("timeout", 0)));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatchPending();
+
+        // 5s doubled would be 10s, but the maximum backoff is 8s
+        assertEquals(2, failing.getAttempts());
+        assertTrue(failing.getNextAttemptAt().isBefore(before.plusSeconds(9)));
+        assertTrue(failing.getNextAttemptAt().isAfter(before.plusSeconds(7)));
+    }
+
+    @Test
+    void dispatchPending_whenAttemptsAreExhausted_marksNotificationAsDead() {
+        PushSubscription sub = subscription(1L);
+        NotificationOutbox failing = notification(10L, 1L, 2);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(failing));
+        when(pushSubscriptionRepository.findAllById(List.of(1L))).thenReturn(List.of(sub));
+        when(webPushService.sendPayload(any(), any())).thenReturn(CompletableFuture.failedFuture(new PushDeliveryException("Push service responded with 503", 503)));
+
+        dispatcher.dispatchPending();
+
+        assertEquals(OutboxStatus.DEAD, failing.getStatus());
+        assertEquals("Push service responded with 503", failing.getLastError());
+    }
+
+    @Test
+    void dispatchPending_whenSubscriptionWasDeleted_dropsNotification() {
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(notification(10L, 1L, 0)));
+        when(pushSubscriptionRepository.findAllById(List.of(1L))).thenReturn(List.of());
+
+        dispatcher.dispatchPending();
+
+        verify(webPushService, never()).sendPayload(any(), any());
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(10L));
+        verify(outboxRepository).saveAll(List.of());
+    }
+
+    @Test
+    void dispatchPending_whenNothingIsDue_doesNothing() {
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of());
+
+        assertEquals(0, dispatcher.dispatchPending());
+
+        verify(pushSubscriptionRepository, never()).findAllById(anyList());
+    }
+
+    @Test
+    void dispatchPending_whenSubscriptionIsGone_deletesSubscription() {
+        PushSubscription sub = subscription(1L);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(notification(10L, 1L, 0)));
+        when(pushSubscriptionRepository.findAllById(List.of(1L))).thenReturn(List.of(sub));
+        when(webPushService.sendPayload(any(), any())).thenReturn(CompletableFuture.failedFuture(new PushDeliveryException("Push service responded with 410 Gone", 410)));
+
+        dispatcher.dispatchPending();
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(10L));
+        verify(pushSubscriptionRepository).deleteAllByIdInBatch(Set.of(1L));
+        verify(pushSubscriptionRepository, never()).recordFailure(any(), anyInt(), any());
+        assertEquals(1.0, meterRegistry.get("push.subscriptions.pruned").tag("reason", "gone").counter().count());
+        assertEquals(1.0, meterRegistry.get("push.delivery.results").tag("outcome", "gone").counter().count());
+    }
+
+    @Test
+    void dispatchPending_whenNotificationIsRejected_marksNotificationAsDeadWithoutRetry() {
+        PushSubscription sub = subscription(1L);
+        NotificationOutbox rejected = notification(10L, 1L, 0);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(rejected));
+        when(pushSubscriptionRepository.findAllById(List.of(1L))).thenReturn(List.of(sub));
+        when(webPushService.sendPayload(any(), any())).thenReturn(CompletableFuture.failedFuture(new PushDeliveryException("Push service responded with 413", 413)));
+
+        dispatcher.dispatchPending();
+
+        assertEquals(OutboxStatus.DEAD, rejected.getStatus());
+        verify(pushSubscriptionRepository, never()).recordFailure(any(), anyInt(), any());
+        verify(pushSubscriptionRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void dispatchPending_whenNotificationCannotBeEncrypted_marksNotificationAsDeadWithoutRetry() {
+        PushSubscription sub = subscription(1L);
+        NotificationOutbox rejected = notification(10L, 1L, 0);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(rejected));
+        when(pushSubscriptionRepository.findAllById(List.of(1L))).thenReturn(List.of(sub));
+        when(webPushService.sendPayload(any(), any())).thenReturn(CompletableFuture.failedFuture(
+            new PushDeliveryException("Failed to encrypt push notification", PushDeliveryOutcome.REJECTED, new IllegalArgumentException())));
+
+        dispatcher.dispatchPending();
+
+        assertEquals(OutboxStatus.DEAD, rejected.getStatus());
+        assertEquals(1, rejected.getAttempts());
+        verify(pushSubscriptionRepository, never()).recordFailure(any(), anyInt(), any());
+    }
+
+    @Test
+    void dispatchPending_whenSubscriptionIsBackingOff_postponesNotification() {
+        PushSubscription sub = subscription(1L);
+        sub.setFailureCount(2);
+        sub.setBackoffUntil(LocalDateTime.now().plusMinutes(5));
+        NotificationOutbox postponed = notification(10L, 1L, 0);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(postponed));
+        when(pushSubscriptionRepository.findAllById(List.of(1L))).thenReturn(List.of(sub));
+
+        dispatcher.dispatchPending();
+
+        verify(webPushService, never()).sendPayload(any(), any());
+        assertEquals(sub.getBackoffUntil(), postponed.getNextAttemptAt());
+        assertEquals(0, postponed.getAttempts());
+        verify(outboxRepository).saveAll(List.of(postponed));
+    }
+
+    @Test
+    void dispatchPending_whenSubscriptionFailsTooOften_deletesSubscription() {
+        PushSubscription sub = subscription(1L);
+        sub.setFailureCount(2);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(notification(10L, 1L, 0)));
+        when(pushSubscriptionRepository.findAllById(List.of(1L))).thenReturn(List.of(sub));
+        when(webPushService.sendPayload(any(), any())).thenReturn(CompletableFuture.failedFuture(new PushDeliveryException("Push service responded with 503", 503)));
+
+        dispatcher.dispatchPending();
+
+        verify(pushSubscriptionRepository).deleteAllByIdInBatch(Set.of(1L));
+        verify(pushSubscriptionRepository, never()).recordFailure(any(), anyInt(), any());
+        assertEquals(1.0, meterRegistry.get("push.subscriptions.pruned").tag("reason", "failing").counter().count());
+    }
+
+    @Test
+    void pushDeliveryOutcome_shouldClassifyStatusCodes() {
+        assertEquals(PushDeliveryOutcome.DELIVERED, PushDeliveryOutcome.of(201));
+        assertEquals(PushDeliveryOutcome.GONE, PushDeliveryOutcome.of(404));
+        assertEquals(PushDeliveryOutcome.GONE, PushDeliveryOutcome.of(410));
+        assertEquals(PushDeliveryOutcome.RETRYABLE, PushDeliveryOutcome.of(429));
+        assertEquals(PushDeliveryOutcome.RETRYABLE, PushDeliveryOutcome.of(503));
+        assertEquals(PushDeliveryOutcome.RETRYABLE, PushDeliveryOutcome.of(0));
+        assertEquals(PushDeliveryOutcome.REJECTED, PushDeliveryOutcome.of(400));
+        assertEquals(PushDeliveryOutcome.REJECTED, PushDeliveryOutcome.of(403));
+    }
+
+    private static PushSubscription subscription(Long id) {
+        PushSubscription subscription = new PushSubscription();
+        subscription.setId(id);
+        return subscription;
+    }
+
+    private static NotificationOutbox notification(Long id, Long subscriptionId, int attempts) {
+        return NotificationOutbox.builder()
+            .id(id)
+            .subscriptionId(subscriptionId)
+            .title("t")
+            .body("b")
+            .url("u")
+            .tag("tag")
+            .attempts(attempts)
+            .build();
+    }
+}
@@ -0,0 +1,83 @@
+package at.ac.tuwien.sepr.groupphase.backend.unittests.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.service.Geocoder;
+import at.ac.tuwien.sepr.groupphase.backend.service.impl.PostalCodeIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PostalCodeIndexTest {
+
+    private static final String DUMP = String.join("\n",
+        "CH\t8001\tZürich\tKanton Zürich\tZH\tBezirk Zürich\t112\tZürich\t261\t47.3718\t8.5394\t4",
+        "AT\t8010\tGraz\tSteiermark\t06\tGraz (Stadt)\t601\t\t\t47.0707\t15.4395\t4",
+        "AT\t1010\tWien, Innere Stadt\tWien\t09\tWien, Stadt\t900\t\t\t48.2085\t16.3721\t4",
+        "AT\t8010\tKainbach bei Graz\tSteiermark\t06\tGraz-Umgebung\t606\t\t\t47.0869\t15.5317\t4",
+        "AT\t9999\tno coordinates\tSteiermark\t06\t\t\t\t\t\t\t",
+        "AT\t9998\tbroken",
+        "");
+
+    @Test
+    void find_shouldReturnAllPlacesOfPostalCodeInDumpOrder() throws IOException {
+        PostalCodeIndex index = PostalCodeIndex.load(new ByteArrayInputStream(DUMP.getBytes(StandardCharsets.UTF_8)), false);
+
+        List<Geocoder.Place> places = index.find("AT", "8010");
+
+        assertEquals(List.of("Graz", "Kainbach bei Graz"), places.stream().map(Geocoder.Place::placeName).toList());
+        assertEquals(47.0707f, places.getFirst().latitude());
+        assertEquals(15.4395f, places.getFirst().longitude());
+    }
+
+    @Test
+    void find_shouldIgnoreCaseAndSurroundingWhitespace() throws IOException {
+        PostalCodeIndex index = PostalCodeIndex.load(new ByteArrayInputStream(DUMP.getBytes(StandardCharsets.UTF_8)), false);
+
+        assertEquals("Wien, Innere Stadt", index.find("at", " 1010 ").getFirst().placeName());
+        assertEquals("Zürich", index.find("ch", "8001").getFirst().placeName());
+    }
+
+    @Test
+    void find_withUnknownPostalCode_shouldReturnEmptyList() throws IOException {
+        PostalCodeIndex index = PostalCodeIndex.load(new ByteArrayInputStream(DUMP.getBytes(StandardCharsets.UTF_8)), false);
+
+        assertTrue(index.find("AT", "1234").isEmpty());
+        assertTrue(index.find("DE", "8010").isEmpty());
+    }
+
+    @Test
+    void load_shouldSkipInvalidLines() throws IOException {
+        PostalCodeIndex index = PostalCodeIndex.load(new ByteArrayInputStream(DUMP.getBytes(StandardCharsets.UTF_8)), false);
+
+        assertEquals(4, index.size());
+        assertEquals(2, index.countries());
+        assertTrue(index.find("AT", "9999").isEmpty());
+        assertTrue(index.find("AT", "9998").isEmpty());
+    }
+
+    @Test
+    void load_withZipArchive_shouldReadPostalCodeFile() throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(archive)) {
+            zip.putNextEntry(new ZipEntry("readme.txt"));
+            zip.write("not a postal code file".getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("AT.txt"));
+            zip.write(DUMP.getBytes(StandardCharsets.UTF_8));
+        }
+
+        PostalCodeIndex index = PostalCodeIndex.load(new ByteArrayInputStream(archive.toByteArray()), true);
+
+        assertEquals(4, index.size());
+        assertTrue(index.containsCountry("AT"));
+        assertFalse(index.containsCountry("DE"));
+    }
+}
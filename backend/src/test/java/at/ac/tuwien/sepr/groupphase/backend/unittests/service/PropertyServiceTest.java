@@ -11,7 +11,8 @@ import at.ac.tuwien.sepr.groupphase.backend.exception.ActiveJobRequestsExistExce
 import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.PropertyRepository;
-import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
+import at.ac.tuwien.sepr.groupphase.backend.service.Geocoder;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
 import at.ac.tuwien.sepr.groupphase.backend.service.impl.PropertyServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -40,13 +41,13 @@ class PropertyServiceTest {
     @Mock
     private PropertyRepository propertyRepository;
     @Mock
-    private UserRepository userRepository;
-    @Mock
     private JobRequestRepository jobRequestRepository;
     @Mock
     private PropertyMapper propertyMapper;
     @Mock
     private UserService userService;
+    @Mock
+    private Geocoder geocoder;
 
     @InjectMocks
     private PropertyServiceImpl propertyService;
@@ -90,8 +91,7 @@ class PropertyServiceTest {
 
     @Test
     void listProperties_shouldReturnUserProperties() {
-        when(userService.getCurrentUser()).thenReturn(user);
-        when(userRepository.findUserByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(propertyRepository.findAllByCustomerId(user.getId())).thenReturn(List.of(property));
         when(propertyMapper.propertyToListDto(List.of(property))).thenReturn(List.of(new PropertyListDto()));
 
@@ -109,15 +109,13 @@ class PropertyServiceTest {
 
     @Test
     void listProperties_userNotFound_shouldThrowNotFoundException() {
-        when(userService.getCurrentUser()).thenReturn(user);
-        when(userRepository.findUserByUsername(user.getUsername())).thenReturn(Optional.empty());
+        when(userService.getAuthenticatedUser()).thenThrow(new NotFoundException("User not found: " + user.getUsername()));
         assertThrows(NotFoundException.class, () -> propertyService.listProperties());
     }
 
     @Test
     void create_withValidData_shouldSaveAndReturnDto() {
         when(userService.getCurrentUser()).thenReturn(user);
-        when(userRepository.findUserByUsername(user.getUsername())).thenReturn(Optional.of(user));
         when(propertyMapper.createDtoToProperty(createDto)).thenReturn(new Property());
         when(propertyRepository.save(any(Property.class))).thenReturn(property);
 
@@ -128,16 +126,39 @@ class PropertyServiceTest {
     }
 
     @Test
-    void create_userNotFound_shouldThrowNotFoundException() {
+    void create_withKnownPostalCode_shouldSetCoordinates() {
+        Property created = new Property();
+        created.setCountryCode("AT");
+        created.setPostalCode("1100");
+        created.setArea("Wien, Favoriten");
         when(userService.getCurrentUser()).thenReturn(user);
-        when(userRepository.findUserByUsername(user.getUsername())).thenReturn(Optional.empty());
+        when(propertyMapper.createDtoToProperty(createDto)).thenReturn(created);
+        when(geocoder.locate("AT", "1100", "Wien, Favoriten")).thenReturn(Optional.of(new Geocoder.Place("Wien, Favoriten", 48.15f, 16.38f)));
+
+        propertyService.create(createDto);
+
+        assertEquals(48.15f, created.getLatitude());
+        assertEquals(16.38f, created.getLongitude());
+    }
+
+    @Test
+    void lookupArea_shouldReturnPlaceNamesOfPostalCode() {
+        when(geocoder.findPlaces("AT", "8010")).thenReturn(List.of(
+            new Geocoder.Place("Graz", 47.07f, 15.44f), new Geocoder.Place("Kainbach", 47.08f, 15.53f)));
+
+        assertEquals(List.of("Graz", "Kainbach"), propertyService.lookupArea("8010", "AT").getAreaNames());
+    }
+
+    @Test
+    void create_userNotFound_shouldThrowNotFoundException() {
+        when(userService.getCurrentUser()).thenThrow(new NotFoundException("User not found: " + user.getUsername()));
 
         assertThrows(NotFoundException.class, () -> propertyService.create(createDto));
     }
 
     @Test
     void update_withValidData_shouldSaveAndReturnDto() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(propertyRepository.findById(editDto.getId())).thenReturn(Optional.of(property));
         when(jobRequestRepository.existsByPropertyId(editDto.getId())).thenReturn(false);
         when(propertyRepository.save(any(Property.class))).thenReturn(property);
@@ -153,7 +174,7 @@ class PropertyServiceTest {
         ApplicationUser otherUser = ApplicationUser.builder().id(999L).username("other").build();
         property.setCustomer(otherUser);
 
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
 
         assertThrows(AccessDeniedException.class, () -> propertyService.update(editDto));
@@ -161,7 +182,7 @@ class PropertyServiceTest {
 
     @Test
     void update_withActiveJobRequests_shouldThrowException() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
         when(jobRequestRepository.existsByPropertyId(1L)).thenReturn(true);
 
@@ -170,7 +191,7 @@ class PropertyServiceTest {
 
     @Test
     void update_propertyNotFound_shouldThrowNotFoundException() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(propertyRepository.findById(editDto.getId())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> propertyService.update(editDto));
@@ -198,7 +219,7 @@ class PropertyServiceTest {
 
     @Test
     void delete_withValidData_shouldSucceed() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
         when(jobRequestRepository.existsByPropertyId(1L)).thenReturn(false);
 
@@ -209,7 +230,7 @@ class PropertyServiceTest {
 
     @Test
     void delete_propertyNotFound_shouldThrowNotFoundException() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(propertyRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> propertyService.deleteById(1L));
@@ -220,7 +241,7 @@ class PropertyServiceTest {
         ApplicationUser otherUser = ApplicationUser.builder().id(999L).build();
         property.setCustomer(otherUser);
 
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
 
         assertThrows(AccessDeniedException.class, () -> propertyService.deleteById(1L));
@@ -228,10 +249,14 @@ class PropertyServiceTest {
 
     @Test
     void delete_withActiveJobRequests_shouldThrowException() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(user));
         when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
         when(jobRequestRepository.existsByPropertyId(1L)).thenReturn(true);
 
         assertThrows(ActiveJobRequestsExistException.class, () -> propertyService.deleteById(1L));
     }
-}
\ No newline at end of file
+
+    private static AuthenticatedUser principal(ApplicationUser user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+    }
+}
@@ -4,12 +4,14 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.pushsubscriptions.PushS
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobOffer;
 import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.entity.NotificationOutbox;
 import at.ac.tuwien.sepr.groupphase.backend.entity.PushSubscription;
 import at.ac.tuwien.sepr.groupphase.backend.entity.SearchAlert;
+import at.ac.tuwien.sepr.groupphase.backend.repository.NotificationOutboxRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.PushSubscriptionRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.SearchAlertRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.SearchAlertIndex;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
-import at.ac.tuwien.sepr.groupphase.backend.service.WebPushService;
 import at.ac.tuwien.sepr.groupphase.backend.service.impl.PushNotificationServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,10 +28,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -41,9 +40,11 @@ class PushNotificationServiceTest {
     @Mock
     private PushSubscriptionRepository pushSubscriptionRepository;
     @Mock
-    private WebPushService webPushService;
+    private NotificationOutboxRepository notificationOutboxRepository;
     @Mock
     private SearchAlertRepository searchAlertRepository;
+    @Mock
+    private SearchAlertIndex searchAlertIndex;
 
     @InjectMocks
     private PushNotificationServiceImpl pushNotificationService;
@@ -103,96 +104,102 @@ class PushNotificationServiceTest {
     }
 
     @Test
-    void notifyCustomerOfJobOffer_sendsCorrectlyFormattedNotification() {
+    void notifyCustomerOfJobOffer_queuesCorrectlyFormattedNotification() {
         // --- Arrange ---
         JobOffer jobOffer = new JobOffer();
         jobOffer.setId(20L);
         float price = 150.50f;
         jobOffer.setPrice(price);
 
-        PushSubscription sub = new PushSubscription();
-        when(pushSubscriptionRepository.findByUser(testUser)).thenReturn(List.of(sub));
+        when(pushSubscriptionRepository.findByUser(testUser)).thenReturn(List.of(subscription(7L)));
 
         pushNotificationService.notifyCustomerOfJobOffer(testUser, testJobRequest, jobOffer);
 
-        ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
-        verify(webPushService).sendNotification(any(PushSubscription.class), anyString(), bodyCaptor.capture(), anyString(), anyString());
+        NotificationOutbox queued = captureQueued().getFirst();
 
         // dynamically format the expected price using the system's default locale.
         // this ensures the decimal separator (',' or '.') matches the application's output.
         String expectedPrice = String.format(Locale.getDefault(), "%.2f", price);
         String expectedBody = "Your job request Test Job Request has a new offer of " + expectedPrice + " €";
 
-        assertEquals(expectedBody, bodyCaptor.getValue());
+        assertEquals(expectedBody, queued.getBody());
+        assertEquals(7L, queued.getSubscriptionId());
     }
 
     @Test
-    void notifyWorkerOfAccept_sendsCorrectlyFormattedNotification() {
-        PushSubscription sub = new PushSubscription();
-        when(pushSubscriptionRepository.findByUser(testUser)).thenReturn(List.of(sub));
+    void notifyWorkerOfAccept_queuesCorrectlyFormattedNotification() {
+        when(pushSubscriptionRepository.findByUser(testUser)).thenReturn(List.of(subscription(7L)));
 
         pushNotificationService.notifyWorkerOfAccept(testUser, testJobRequest);
 
-        ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
-        verify(webPushService).sendNotification(any(PushSubscription.class), anyString(), bodyCaptor.capture(), anyString(), anyString());
-
-        String expectedBody = "Your offer for Test Job Request was accepted";
-        assertEquals(expectedBody, bodyCaptor.getValue());
+        NotificationOutbox queued = captureQueued().getFirst();
+        assertEquals("Job offer accepted", queued.getTitle());
+        assertEquals("Your offer for Test Job Request was accepted", queued.getBody());
+        assertEquals("/worker/offers", queued.getUrl());
+        assertEquals("request-10", queued.getTag());
     }
 
     @Test
-    void notifyWorkersOfJobRequest_whenMatchingActiveAlertsExist_sendsNotificationsAndIncrementsCount() {
+    void notifyWorkersOfJobRequest_whenMatchingActiveAlertsExist_queuesNotificationsAndIncrementsCount() {
         SearchAlert activeAlert = new SearchAlert();
+        activeAlert.setId(3L);
         activeAlert.setWorker(testUser);
         activeAlert.setCount(5);
         activeAlert.setActive(true);
 
-        when(searchAlertRepository.findMatchingAlertsForJobRequest(testJobRequest.getId())).thenReturn(List.of(activeAlert));
-        when(pushSubscriptionRepository.findByUser(testUser)).thenReturn(List.of(new PushSubscription()));
+        when(searchAlertIndex.findMatchingAlertIds(testJobRequest)).thenReturn(List.of(3L));
+        when(searchAlertRepository.findActiveWithWorkerByIdIn(List.of(3L))).thenReturn(List.of(activeAlert));
+        when(pushSubscriptionRepository.findByUser(testUser)).thenReturn(List.of(subscription(7L)));
 
         pushNotificationService.notifyWorkersOfJobRequest(testJobRequest);
 
-        verify(webPushService, times(1)).sendNotification(any(), any(), any(), any(), any());
-        assertEquals(6, activeAlert.getCount());
+        assertEquals(1, captureQueued().size());
+        verify(searchAlertRepository).incrementCounts(List.of(3L));
     }
 
     @Test
-    void notifyWorkersOfJobRequest_whenMatchingInactiveAlertsExist_incrementsCountButSendsNoNotification() {
-        SearchAlert inactiveAlert = new SearchAlert();
-        inactiveAlert.setWorker(testUser);
-        inactiveAlert.setCount(5);
-        inactiveAlert.setActive(false); // alert is inactive
-
-        when(searchAlertRepository.findMatchingAlertsForJobRequest(testJobRequest.getId())).thenReturn(List.of(inactiveAlert));
+    void notifyWorkersOfJobRequest_whenMatchingInactiveAlertsExist_incrementsCountButQueuesNoNotification() {
+        // the alert is inactive, so the repository does not return it as active
+        when(searchAlertIndex.findMatchingAlertIds(testJobRequest)).thenReturn(List.of(4L));
+        when(searchAlertRepository.findActiveWithWorkerByIdIn(List.of(4L))).thenReturn(Collections.emptyList());
 
         pushNotificationService.notifyWorkersOfJobRequest(testJobRequest);
 
-        verify(webPushService, never()).sendNotification(any(), any(), any(), any(), any());
-        assertEquals(6, inactiveAlert.getCount());
+        verify(notificationOutboxRepository, never()).saveAll(any());
+        verify(searchAlertRepository).incrementCounts(List.of(4L));
     }
 
     @Test
     void notifyWorkersOfJobRequest_whenNoMatchingAlerts_doesNothing() {
-        when(searchAlertRepository.findMatchingAlertsForJobRequest(testJobRequest.getId())).thenReturn(Collections.emptyList());
+        when(searchAlertIndex.findMatchingAlertIds(testJobRequest)).thenReturn(Collections.emptyList());
 
         pushNotificationService.notifyWorkersOfJobRequest(testJobRequest);
 
-        verify(webPushService, never()).sendNotification(any(), any(), any(), any(), any());
+        verify(notificationOutboxRepository, never()).saveAll(any());
+        verify(searchAlertRepository, never()).incrementCounts(any());
     }
 
     @Test
-    void sendToAllSubscriptions_whenOneFails_continuesToNext() {
-        PushSubscription sub1 = new PushSubscription();
-        PushSubscription sub2 = new PushSubscription();
-        when(pushSubscriptionRepository.findByUser(testUser)).thenReturn(List.of(sub1, sub2));
+    void notifyAdminsOfLicense_queuesOneNotificationPerSubscription() {
+        when(pushSubscriptionRepository.findAllByAdminRole()).thenReturn(List.of(subscription(7L), subscription(8L)));
 
-        doThrow(new RuntimeException("Push failed!")).when(webPushService).sendNotification(sub1, "t", "b", "u", "t");
+        pushNotificationService.notifyAdminsOfLicense(3L, false);
 
-        pushNotificationService.notifyWorkerOfAccept(testUser, testJobRequest);
+        List<NotificationOutbox> queued = captureQueued();
+        assertEquals(List.of(7L, 8L), queued.stream().map(NotificationOutbox::getSubscriptionId).toList());
+        assertEquals("license-3", queued.getFirst().getTag());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<NotificationOutbox> captureQueued() {
+        ArgumentCaptor<List<NotificationOutbox>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationOutboxRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
 
-        verify(webPushService, times(1)).sendNotification(
-            sub1, "Job offer accepted", "Your offer for Test Job Request was accepted", "/worker/offers", "request-10");
-        verify(webPushService, times(1)).sendNotification(
-            sub2, "Job offer accepted", "Your offer for Test Job Request was accepted", "/worker/offers", "request-10");
+    private static PushSubscription subscription(Long id) {
+        PushSubscription subscription = new PushSubscription();
+        subscription.setId(id);
+        return subscription;
     }
-}
\ No newline at end of file
+}
@@ -11,6 +11,7 @@ import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobOfferRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.RatingRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
 import at.ac.tuwien.sepr.groupphase.backend.service.impl.RatingServiceImpl;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
@@ -105,7 +106,7 @@ public class RatingServiceTest {
 
     @Test
     void getRatingByRequestId_whenRatingExists_shouldReturnDto() {
-        when(userService.getCurrentUser()).thenReturn(worker);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(worker));
         when(ratingRepository.findByFromUserIdAndJobRequestId(worker.getId(), jobRequest.getId())).thenReturn(Optional.of(rating));
         when(ratingMapper.ratingToDto(rating)).thenReturn(ratingDto);
 
@@ -117,7 +118,7 @@ public class RatingServiceTest {
 
     @Test
     void getRatingByRequestId_whenRatingDoesNotExist_shouldReturnNull() {
-        when(userService.getCurrentUser()).thenReturn(worker);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(worker));
         when(ratingRepository.findByFromUserIdAndJobRequestId(worker.getId(), 1L)).thenReturn(Optional.empty());
 
         RatingDto result = ratingService.getRatingByRequestId(1L);
@@ -201,7 +202,7 @@ public class RatingServiceTest {
     void updateRating_withValidData_shouldUpdateAndSave() {
         ratingDto.setStars(4);
         ratingDto.setComment("Updated comment");
-        when(userService.getCurrentUser()).thenReturn(worker);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(worker));
         when(ratingRepository.findByFromUserIdAndJobRequestId(worker.getId(), 1L)).thenReturn(Optional.of(rating));
         when(validator.validate(ratingDto)).thenReturn(Collections.emptySet());
 
@@ -214,7 +215,7 @@ public class RatingServiceTest {
 
     @Test
     void updateRating_whenRatingNotFound_shouldThrowEntityNotFoundException() {
-        when(userService.getCurrentUser()).thenReturn(worker);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(worker));
         when(ratingRepository.findByFromUserIdAndJobRequestId(worker.getId(), 1L)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> ratingService.updateRating(1L, new RatingDto()));
@@ -225,7 +226,7 @@ public class RatingServiceTest {
         Set<ConstraintViolation<RatingDto>> violations = new HashSet<>();
         violations.add(mock(ConstraintViolation.class));
 
-        when(userService.getCurrentUser()).thenReturn(worker);
+        when(userService.getAuthenticatedUser()).thenReturn(principal(worker));
         when(ratingRepository.findByFromUserIdAndJobRequestId(worker.getId(), jobRequest.getId())).thenReturn(Optional.of(rating));
         when(validator.validate(ratingDto)).thenReturn(violations);
 
@@ -265,4 +266,8 @@ public class RatingServiceTest {
         assertEquals(4.0f, multiStats.getAverage());
         assertEquals(2, multiStats.getCount());
     }
-}
\ No newline at end of file
+
+    private static AuthenticatedUser principal(ApplicationUser user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+    }
+}
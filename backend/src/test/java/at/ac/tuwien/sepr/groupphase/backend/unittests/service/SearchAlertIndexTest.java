@@ -0,0 +1,149 @@
+package at.ac.tuwien.sepr.groupphase.backend.unittests.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
+import at.ac.tuwien.sepr.groupphase.backend.entity.JobRequest;
+import at.ac.tuwien.sepr.groupphase.backend.entity.Property;
+import at.ac.tuwien.sepr.groupphase.backend.entity.SearchAlert;
+import at.ac.tuwien.sepr.groupphase.backend.event.SearchAlertChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.event.WorkerLocationChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.repository.SearchAlertRepository;
+import at.ac.tuwien.sepr.groupphase.backend.service.impl.InMemorySearchAlertIndex;
+import at.ac.tuwien.sepr.groupphase.backend.type.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SearchAlertIndexTest {
+
+    @Mock
+    private SearchAlertRepository searchAlertRepository;
+
+    @InjectMocks
+    private InMemorySearchAlertIndex searchAlertIndex;
+
+    // Vienna, Linz is about 155 km away
+    private final ApplicationUser viennaWorker = ApplicationUser.builder().id(1L).latitude(48.2082f).longitude(16.3738f).build();
+    private final ApplicationUser unlocatedWorker = ApplicationUser.builder().id(2L).build();
+    private final Property viennaProperty = Property.builder().latitude(48.21f).longitude(16.37f).build();
+    private final Property linzProperty = Property.builder().latitude(48.3069f).longitude(14.2858f).build();
+
+    @BeforeEach
+    void setUp() {
+        when(searchAlertRepository.findAllWithWorkerAndCategories()).thenReturn(List.of(
+            alert(1L, viennaWorker, null, null, null),
+            alert(2L, viennaWorker, "sink", null, List.of(Category.PLUMBING)),
+            alert(3L, viennaWorker, "ix", null, null),
+            alert(4L, viennaWorker, null, 5, null),
+            alert(5L, viennaWorker, null, 200, List.of(Category.PLUMBING, Category.PAINTING)),
+            alert(6L, viennaWorker, null, 5000, null),
+            alert(7L, unlocatedWorker, null, 5000, null),
+            alert(8L, viennaWorker, "Leaking Sink", null, null)
+        ));
+        searchAlertIndex.rebuild();
+    }
+
+    @Test
+    void findMatchingAlertIds_shouldApplyCategoryKeywordAndDistance() {
+        JobRequest request = request("Fix the LEAKING sink", null, Category.PLUMBING, viennaProperty);
+
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L, 6L, 8L), Set.copyOf(searchAlertIndex.findMatchingAlertIds(request)));
+    }
+
+    @Test
+    void findMatchingAlertIds_shouldMatchKeywordsInDescription() {
+        JobRequest request = request("Bathroom", "The sink drips", Category.ELECTRICAL, linzProperty);
+
+        assertEquals(Set.of(1L, 6L), Set.copyOf(searchAlertIndex.findMatchingAlertIds(request)));
+    }
+
+    @Test
+    void findMatchingAlertIds_shouldRespectMaximumDistance() {
+        JobRequest request = request("Paint walls", null, Category.PAINTING, linzProperty);
+
+        assertEquals(Set.of(1L, 5L, 6L), Set.copyOf(searchAlertIndex.findMatchingAlertIds(request)));
+    }
+
+    @Test
+    void findMatchingAlertIds_withoutPropertyLocation_shouldOnlyMatchAlertsWithoutDistance() {
+        JobRequest request = request("Fix sink", null, Category.PLUMBING, new Property());
+
+        assertEquals(Set.of(1L, 2L, 3L), Set.copyOf(searchAlertIndex.findMatchingAlertIds(request)));
+    }
+
+    @Test
+    void findMatchingAlertIds_withoutProperty_shouldMatchNothing() {
+        assertTrue(searchAlertIndex.findMatchingAlertIds(request("Fix sink", null, Category.PLUMBING, null)).isEmpty());
+    }
+
+    @Test
+    void remove_shouldDropAlertFromMatches() {
+        searchAlertIndex.remove(1L);
+        searchAlertIndex.remove(6L);
+
+        assertTrue(searchAlertIndex.findMatchingAlertIds(request("Bathroom", "The sink drips", Category.ELECTRICAL, linzProperty)).isEmpty());
+    }
+
+    @Test
+    void add_shouldMatchNewAlert() {
+        searchAlertIndex.add(alert(9L, viennaWorker, "bathroom", 300, List.of(Category.ELECTRICAL)));
+
+        assertEquals(Set.of(1L, 6L, 9L),
+            Set.copyOf(searchAlertIndex.findMatchingAlertIds(request("Bathroom", "The sink drips", Category.ELECTRICAL, linzProperty))));
+    }
+
+    @Test
+    void updateWorkerLocation_shouldMoveAlertsOfWorker() {
+        searchAlertIndex.updateWorkerLocation(2L, 48.3f, 14.3f);
+        searchAlertIndex.updateWorkerLocation(1L, null, null);
+
+        assertEquals(Set.of(1L, 7L),
+            Set.copyOf(searchAlertIndex.findMatchingAlertIds(request("Bathroom", "The sink drips", Category.ELECTRICAL, linzProperty))));
+    }
+
+    @Test
+    void onSearchAlertChanged_shouldReindexSavedAlertAndDropDeletedOne() {
+        when(searchAlertRepository.findWithWorkerAndCategoriesById(9L))
+            .thenReturn(Optional.of(alert(9L, viennaWorker, "bathroom", 300, List.of(Category.ELECTRICAL))));
+        when(searchAlertRepository.findWithWorkerAndCategoriesById(6L)).thenReturn(Optional.empty());
+
+        searchAlertIndex.onSearchAlertChanged(new SearchAlertChangedEvent(9L));
+        searchAlertIndex.onSearchAlertChanged(new SearchAlertChangedEvent(6L));
+
+        assertEquals(Set.of(1L, 9L),
+            Set.copyOf(searchAlertIndex.findMatchingAlertIds(request("Bathroom", "The sink drips", Category.ELECTRICAL, linzProperty))));
+    }
+
+    @Test
+    void onWorkerLocationChanged_shouldMoveAlertsOfWorker() {
+        searchAlertIndex.onWorkerLocationChanged(new WorkerLocationChangedEvent(2L, 48.3f, 14.3f));
+
+        assertEquals(Set.of(1L, 6L, 7L),
+            Set.copyOf(searchAlertIndex.findMatchingAlertIds(request("Bathroom", "The sink drips", Category.ELECTRICAL, linzProperty))));
+    }
+
+    private static SearchAlert alert(Long id, ApplicationUser worker, String keywords, Integer maxDistance, List<Category> categories) {
+        return SearchAlert.builder()
+            .id(id)
+            .worker(worker)
+            .keywords(keywords)
+            .maxDistance(maxDistance)
+            .categories(categories == null ? List.of() : categories)
+            .build();
+    }
+
+    private static JobRequest request(String title, String description, Category category, Property property) {
+        return JobRequest.builder().id(100L).title(title).description(description).category(category).property(property).build();
+    }
+}
@@ -5,7 +5,9 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.searchalert.SearchAlert
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.mapper.SearchAlertMapper;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
 import at.ac.tuwien.sepr.groupphase.backend.entity.SearchAlert;
+import at.ac.tuwien.sepr.groupphase.backend.event.SearchAlertChangedEvent;
 import at.ac.tuwien.sepr.groupphase.backend.repository.SearchAlertRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
 import at.ac.tuwien.sepr.groupphase.backend.service.UserService;
 import at.ac.tuwien.sepr.groupphase.backend.service.impl.SearchAlertServiceImpl;
 import at.ac.tuwien.sepr.groupphase.backend.type.Category;
@@ -17,6 +19,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.util.List;
@@ -40,6 +43,8 @@ class SearchAlertServiceTest {
     private UserService userService;
     @Mock
     private SearchAlertMapper searchAlertMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private SearchAlertServiceImpl searchAlertService;
@@ -60,24 +65,26 @@ class SearchAlertServiceTest {
         testAlert.setCategories(List.of(Category.PLUMBING));
         testAlert.setActive(true);
         testAlert.setCount(0);
-
-        when(userService.getCurrentUser()).thenReturn(testUser);
     }
 
     @Test
     void createAlert_shouldSaveAlertWithCurrentUser() {
+        when(userService.getCurrentUser()).thenReturn(testUser);
         SearchAlertCreateDto createDto = new SearchAlertCreateDto();
         when(searchAlertMapper.toEntity(createDto)).thenReturn(testAlert);
+        when(searchAlertRepository.save(testAlert)).thenReturn(testAlert);
 
         searchAlertService.createAlert(createDto);
 
         ArgumentCaptor<SearchAlert> alertCaptor = ArgumentCaptor.forClass(SearchAlert.class);
         verify(searchAlertRepository).save(alertCaptor.capture());
         assertEquals(testUser, alertCaptor.getValue().getWorker());
+        verify(eventPublisher).publishEvent(new SearchAlertChangedEvent(testAlert.getId()));
     }
 
     @Test
     void alertIsDuplicate_whenDuplicateExists_returnsTrue() {
+        when(userService.getCurrentUser()).thenReturn(testUser);
         SearchAlertCreateDto dto = new SearchAlertCreateDto("plumber", 50, List.of(String.valueOf(Category.PLUMBING)));
         when(searchAlertRepository.findByWorker(testUser)).thenReturn(List.of(testAlert));
         when(searchAlertMapper.mapCategories(dto.getCategories())).thenReturn(List.of(Category.PLUMBING));
@@ -89,6 +96,7 @@ class SearchAlertServiceTest {
 
     @Test
     void alertIsDuplicate_whenNoDuplicateExists_returnsFalse() {
+        when(userService.getCurrentUser()).thenReturn(testUser);
         SearchAlertCreateDto dto = new SearchAlertCreateDto("electrician", 20, List.of(String.valueOf(Category.ELECTRICAL)));
         when(searchAlertRepository.findByWorker(testUser)).thenReturn(List.of(testAlert));
         when(searchAlertMapper.mapCategories(dto.getCategories())).thenReturn(List.of(Category.ELECTRICAL));
@@ -100,6 +108,7 @@ class SearchAlertServiceTest {
 
     @Test
     void getUserAlerts_returnsListOfDetailDtos() {
+        when(userService.getCurrentUser()).thenReturn(testUser);
         when(searchAlertRepository.findByWorker(testUser)).thenReturn(List.of(testAlert));
         when(searchAlertMapper.toDetailDto(any(SearchAlert.class))).thenReturn(new SearchAlertDetailDto());
 
@@ -112,15 +121,18 @@ class SearchAlertServiceTest {
 
     @Test
     void deleteAlert_whenUserIsOwner_deletesAlert() {
+        when(userService.getAuthenticatedUser()).thenReturn(principal(testUser));
         when(searchAlertRepository.findById(testAlert.getId())).thenReturn(Optional.of(testAlert));
 
         searchAlertService.deleteAlert(testAlert.getId());
 
         verify(searchAlertRepository).delete(testAlert);
+        verify(eventPublisher).publishEvent(new SearchAlertChangedEvent(testAlert.getId()));
     }
 
     @Test
     void deleteAlert_whenAlertNotFound_throwsEntityNotFoundException() {
+        when(userService.getAuthenticatedUser()).thenReturn(principal(testUser));
         when(searchAlertRepository.findById(999L)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> searchAlertService.deleteAlert(999L));
@@ -128,6 +140,7 @@ class SearchAlertServiceTest {
 
     @Test
     void deleteAlert_whenUserIsNotOwner_throwsAccessDeniedException() {
+        when(userService.getAuthenticatedUser()).thenReturn(principal(testUser));
         ApplicationUser anotherUser = new ApplicationUser();
         anotherUser.setId(2L);
         testAlert.setWorker(anotherUser);
@@ -138,6 +151,7 @@ class SearchAlertServiceTest {
 
     @Test
     void updateAlertStatus_whenUserIsOwner_updatesAndSaves() {
+        when(userService.getAuthenticatedUser()).thenReturn(principal(testUser));
         when(searchAlertRepository.findById(testAlert.getId())).thenReturn(Optional.of(testAlert));
 
         searchAlertService.updateAlertStatus(testAlert.getId(), false);
@@ -149,6 +163,7 @@ class SearchAlertServiceTest {
 
     @Test
     void resetAlertCount_whenUserIsOwner_resetsAndSaves() {
+        when(userService.getAuthenticatedUser()).thenReturn(principal(testUser));
         testAlert.setCount(5);
         when(searchAlertRepository.findById(testAlert.getId())).thenReturn(Optional.of(testAlert));
 
@@ -158,4 +173,8 @@ class SearchAlertServiceTest {
         verify(searchAlertRepository).save(alertCaptor.capture());
         assertEquals(0, alertCaptor.getValue().getCount());
     }
-}
\ No newline at end of file
+
+    private static AuthenticatedUser principal(ApplicationUser user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+    }
+}
@@ -9,17 +9,29 @@ import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.user.UserUpdateDetailDt
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.dto.user.UserUpdateDto;
 import at.ac.tuwien.sepr.groupphase.backend.endpoint.mapper.UserMapper;
 import at.ac.tuwien.sepr.groupphase.backend.entity.ApplicationUser;
+import at.ac.tuwien.sepr.groupphase.backend.event.ChatParticipantsChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.event.JobRequestChangedEvent;
+import at.ac.tuwien.sepr.groupphase.backend.event.UserBanChangedEvent;
 import at.ac.tuwien.sepr.groupphase.backend.exception.EmailAlreadyExistsException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.NotFoundException;
 import at.ac.tuwien.sepr.groupphase.backend.exception.UserAlreadyExistsException;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ChatMessageRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ChatParticipantSummaryRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.ChatRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.JobOfferRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.JobRequestRepository;
+import at.ac.tuwien.sepr.groupphase.backend.repository.LicenseRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.PropertyRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.PushSubscriptionRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.RatingRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.ReportRepository;
 import at.ac.tuwien.sepr.groupphase.backend.repository.UserRepository;
+import at.ac.tuwien.sepr.groupphase.backend.security.AuthenticatedUser;
 import at.ac.tuwien.sepr.groupphase.backend.security.JwtTokenizer;
+import at.ac.tuwien.sepr.groupphase.backend.service.Geocoder;
+import at.ac.tuwien.sepr.groupphase.backend.service.JobRequestImageService;
 import at.ac.tuwien.sepr.groupphase.backend.service.impl.UserServiceImpl;
+import at.ac.tuwien.sepr.groupphase.backend.type.JobStatus;
 import at.ac.tuwien.sepr.groupphase.backend.type.Role;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +39,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -53,7 +66,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -73,6 +88,8 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
     @Mock
+    private Geocoder geocoder;
+    @Mock
     private PushSubscriptionRepository pushSubscriptionRepository;
     @Mock
     private PropertyRepository propertyRepository;
@@ -83,6 +100,21 @@ class UserServiceTest {
     @Mock
     private ReportRepository reportRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ChatParticipantSummaryRepository chatParticipantSummaryRepository;
+    @Mock
+    private JobRequestImageService jobRequestImageService;
+    @Mock
+    private JobOfferRepository jobOfferRepository;
+    @Mock
+    private ChatRepository chatRepository;
+    @Mock
+    private ChatMessageRepository chatMessageRepository;
+    @Mock
+    private LicenseRepository licenseRepository;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -230,6 +262,30 @@ class UserServiceTest {
         when(userRepository.findUserByUsername("deleted user")).thenReturn(Optional.of(deletedUser));
 
         userService.deleteUserByUsername(USERNAME);
+        verify(jobRequestImageService).deleteImagesOfCustomer(user.getId(), JobStatus.PENDING);
+        verify(jobRequestRepository).deleteAllByCustomerAndStatus(user, JobStatus.PENDING);
+        verify(jobRequestRepository).reassignCustomer(user, deletedUser);
+        verify(chatMessageRepository).reassignSender(user, deletedUser);
+        verify(userRepository).delete(user);
+    }
+
+    @Test
+    void deleteUserByUsername_withWorker_shouldReassignWorkAndDropCachedChatParticipants() {
+        ApplicationUser deletedUser = ApplicationUser.builder().id(-100L).username("deleted user").role(Role.CUSTOMER).build();
+        user.setRole(Role.WORKER);
+        when(userRepository.findUserByUsername(USERNAME)).thenReturn(Optional.of(user));
+        when(userRepository.findUserByUsername("deleted user")).thenReturn(Optional.of(deletedUser));
+
+        userService.deleteUserByUsername(USERNAME);
+
+        verify(jobOfferRepository).reassignWorker(user, deletedUser);
+        verify(licenseRepository).reassignWorker(user, deletedUser);
+        verify(chatRepository).reassignWorker(user, deletedUser);
+        verify(chatMessageRepository).reassignSender(user, deletedUser);
+        // the cached participants of the worker's chats still name the deleted worker
+        verify(eventPublisher).publishEvent(new ChatParticipantsChangedEvent(null));
+        // a ban of the worker must not carry over to a new account with the same name
+        verify(eventPublisher).publishEvent(new UserBanChangedEvent(USERNAME, false));
         verify(userRepository).delete(user);
     }
 
@@ -272,7 +328,7 @@ class UserServiceTest {
 
     @Test
     void update_withAuthorizedUser_shouldSucceed() {
-        setupSecurityContext(USERNAME);
+        setupSecurityContext(user);
         when(userRepository.findUserByUsername(USERNAME)).thenReturn(Optional.of(user));
         when(userRepository.save(any(ApplicationUser.class))).thenReturn(user);
 
@@ -284,8 +340,7 @@ class UserServiceTest {
 
     @Test
     void update_whenUserIsDifferent_shouldThrowAccessDeniedException() {
-        setupSecurityContext(USERNAME);
-        when(userRepository.findUserByUsername(USERNAME)).thenReturn(Optional.of(user));
+        setupSecurityContext(user);
 
         UserUpdateDto differentUserUpdateDto = UserUpdateDto.builder()
             .username("anotheruser")
@@ -301,8 +356,7 @@ class UserServiceTest {
 
     @Test
     void update_whenUserToUpdateIsNotFound_shouldThrowNotFoundException() {
-        setupSecurityContext(USERNAME);
-        when(userRepository.findUserByUsername(USERNAME)).thenReturn(Optional.of(user));
+        setupSecurityContext(user);
 
         UserUpdateDto nonexistentUserUpdateDto = UserUpdateDto.builder()
             .username("nonexistent")
@@ -317,8 +371,7 @@ class UserServiceTest {
 
     @Test
     void update_byAdminUser_shouldSucceedForAnyUser() {
-        setupSecurityContext(adminUser.getUsername());
-        when(userRepository.findUserByUsername(adminUser.getUsername())).thenReturn(Optional.of(adminUser));
+        setupSecurityContext(adminUser);
 
         UserUpdateDto targetUserUpdateDto = UserUpdateDto.builder()
             .username(anotherUser.getUsername())
@@ -369,8 +422,9 @@ class UserServiceTest {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         SecurityContextHolder.setContext(securityContext);
 
-        when(authentication.getPrincipal()).thenReturn(USERNAME);
+        when(authentication.getName()).thenReturn(USERNAME);
         when(userRepository.findUserByUsername(USERNAME)).thenReturn(Optional.of(user));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
 
         ApplicationUser currentUser = userService.getCurrentUser();
 
@@ -378,6 +432,16 @@ class UserServiceTest {
         assertEquals(USERNAME, currentUser.getUsername());
     }
 
+    @Test
+    void getAuthenticatedUser_withTokenPrincipal_shouldNotQueryRepository() {
+        setupSecurityContext(user);
+
+        AuthenticatedUser authenticated = userService.getAuthenticatedUser();
+
+        assertEquals(new AuthenticatedUser(user.getId(), USERNAME, Role.CUSTOMER), authenticated);
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void getCurrentUser_whenUserFromContextIsNotFound_shouldThrowNotFoundException() {
         Authentication authentication = mock(Authentication.class);
@@ -385,7 +449,7 @@ class UserServiceTest {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         SecurityContextHolder.setContext(securityContext);
 
-        when(authentication.getPrincipal()).thenReturn("ghost");
+        when(authentication.getName()).thenReturn("ghost");
         when(userRepository.findUserByUsername("ghost")).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> userService.getCurrentUser());
@@ -425,6 +489,9 @@ class UserServiceTest {
         // Verify
         assertTrue(user.isBanned());
         verify(userRepository).save(user);
+        verify(eventPublisher).publishEvent(new UserBanChangedEvent(user.getUsername(), true));
+        // a ban changes no text, so the job request index is not rebuilt
+        verify(eventPublisher, never()).publishEvent(any(JobRequestChangedEvent.class));
     }
 
     @Test
@@ -450,6 +517,8 @@ class UserServiceTest {
         // Verify
         assertFalse(user.isBanned());
         verify(userRepository).save(user);
+        verify(eventPublisher).publishEvent(new UserBanChangedEvent(user.getUsername(), false));
+        verify(eventPublisher, never()).publishEvent(any(JobRequestChangedEvent.class));
     }
 
     @Test
@@ -490,11 +559,11 @@ class UserServiceTest {
     }
 
     // Helper method to set up SecurityContext mock
-    private void setupSecurityContext(String username) {
+    private void setupSecurityContext(ApplicationUser principal) {
         Authentication authentication = mock(Authentication.class);
         SecurityContext securityContext = mock(SecurityContext.class);
         when(securityContext.getAuthentication()).thenReturn(authentication);
         SecurityContextHolder.setContext(securityContext);
-        when(authentication.getPrincipal()).thenReturn(username);
+        when(authentication.getPrincipal()).thenReturn(new AuthenticatedUser(principal.getId(), principal.getUsername(), principal.getRole()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package at.ac.tuwien.sepr.groupphase.backend.unittests.service;
+
+import at.ac.tuwien.sepr.groupphase.backend.basetest.TestPushSubscriptions;
+import at.ac.tuwien.sepr.groupphase.backend.entity.PushSubscription;
+import at.ac.tuwien.sepr.groupphase.backend.exception.PushDeliveryException;
+import at.ac.tuwien.sepr.groupphase.backend.service.impl.WebPushServiceImpl;
+import at.ac.tuwien.sepr.groupphase.backend.type.PushDeliveryOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WebPushServiceTest {
+
+    private static final byte[] PAYLOAD = {1, 2, 3};
+
+    private WebPushServiceImpl webPushService;
+
+    @BeforeEach
+    void setUp() {
+        webPushService = new WebPushServiceImpl(new SimpleMeterRegistry(), 4, 4, Duration.ofSeconds(1), Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        webPushService.close();
+    }
+
+    @Test
+    void sendPayload_withBrokenSubscriberKey_isRejected() {
+        PushSubscription subscription = TestPushSubscriptions.create(null, "http://localhost:1/push/device-1");
+        subscription.setP256dh("broken");
+
+        assertEquals(PushDeliveryOutcome.REJECTED, failure(subscription).getOutcome());
+    }
+
+    @Test
+    void sendPayload_withInvalidEndpoint_isRejected() {
+        PushSubscription subscription = TestPushSubscriptions.create(null, "http://local host/push/device-1");
+
+        assertEquals(PushDeliveryOutcome.REJECTED, failure(subscription).getOutcome());
+    }
+
+    @Test
+    void sendPayload_whenPushServiceIsUnreachable_isRetryable() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        PushSubscription subscription = TestPushSubscriptions.create(null, "http://localhost:" + port + "/push/device-1");
+
+        PushDeliveryException failure = failure(subscription);
+        assertEquals(PushDeliveryOutcome.RETRYABLE, failure.getOutcome());
+        assertInstanceOf(IOException.class, failure.getCause());
+    }
+
+    private PushDeliveryException failure(PushSubscription subscription) {
+        CompletionException e = assertThrows(CompletionException.class, () -> webPushService.sendPayload(subscription, PAYLOAD).join());
+        return assertInstanceOf(PushDeliveryException.class, e.getCause());
+    }
+}